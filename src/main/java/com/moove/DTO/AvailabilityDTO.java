@@ -0,0 +1,19 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class AvailabilityDTO {
+
+    private long propertyId;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    private boolean available;
+    // Booking that blocks the range, when not available
+    private Integer conflictingBookingId;
+
+}
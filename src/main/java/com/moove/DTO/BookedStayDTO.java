@@ -0,0 +1,17 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+@Getter
+@AllArgsConstructor
+public class BookedStayDTO {
+
+    private int bookingId;
+    private long propertyId;
+    private Date checkInDate;
+    private Date checkOutDate;
+
+}
@@ -0,0 +1,18 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+@Getter
+@AllArgsConstructor
+public class BookingDeadlineDTO {
+
+    private int bookingId;
+    private String status;
+    private LocalDateTime confirmBy;
+    private Date checkOutDate;
+
+}
@@ -0,0 +1,49 @@
+package com.moove.DTO;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.moove.service.BookingService;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.UUID;
+
+// One booking in a bulk import/export file (CSV columns or NDJSON fields)
+@Getter
+@Setter
+public class BookingImportRow {
+
+    public static final String[] FIELDS = {"bookingId", "userId", "propertyId", "totalAmount", "bookingDate",
+            "checkInDate", "checkOutDate", "status"};
+
+    private Integer bookingId;  // exported for reference, ignored on import
+    private UUID userId;
+    private Long propertyId;
+    private Double totalAmount;
+    private LocalDate bookingDate;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private String status;
+
+    @JsonIgnore
+    private long lineNumber;
+
+    public BookingImportRow() {}
+
+    public BookingImportRow(Integer bookingId, UUID userId, Long propertyId, Double totalAmount, Date bookingDate,
+                            Date checkInDate, Date checkOutDate, String status) {
+        this.bookingId = bookingId;
+        this.userId = userId;
+        this.propertyId = propertyId;
+        this.totalAmount = totalAmount;
+        this.bookingDate = BookingService.toLocalDate(bookingDate);
+        this.checkInDate = BookingService.toLocalDate(checkInDate);
+        this.checkOutDate = BookingService.toLocalDate(checkOutDate);
+        this.status = status;
+    }
+
+    public Object[] values() {
+        return new Object[]{bookingId, userId, propertyId, totalAmount, bookingDate, checkInDate, checkOutDate, status};
+    }
+}
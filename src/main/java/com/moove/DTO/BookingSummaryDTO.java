@@ -0,0 +1,26 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.Time;
+import java.util.Date;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class BookingSummaryDTO {
+
+    private int bookingId;
+    private UUID userId;
+    private Double totalAmount;
+    private Date bookingDate;
+    private Date checkInDate;
+    private Time checkInTime;
+    private Time checkOutTime;
+    private Date checkOutDate;
+    private boolean checkedByOwner;
+    private boolean conformedByOwner;
+    private String status;
+
+}
@@ -0,0 +1,23 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class ConversationSummaryDTO {
+
+    private UUID peerId;
+    private String peerUsername;
+    private long lastMessageId;
+    private UUID lastSenderId;
+    private String lastContent;
+    private LocalDateTime lastSentAt;
+    private int unreadCount;
+    private long lastReadMessageId;
+
+}
@@ -0,0 +1,21 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ImportJobDTO {
+
+    private long jobExecutionId;
+    private String jobName;
+    private String status;   // STARTING, STARTED, COMPLETED, FAILED, ...
+    private long readCount;
+    private long writeCount;
+    private long skipCount;
+    // "line N: reason" for each rejected row
+    private List<String> errors;
+
+}
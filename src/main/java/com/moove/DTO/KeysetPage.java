@@ -0,0 +1,34 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+    // Deepest offset the offset-paged search endpoints accept; deeper pages should narrow the filters
+    public static final int MAX_OFFSET = 10_000;
+
+    private List<T> items;
+    // Pass back as ?after= to fetch the next page; null on the last page
+    private Object nextAfter;
+
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    // rows must have been fetched with limit + 1 so we can tell whether another page exists
+    public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<T, ?> key) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new KeysetPage<>(List.copyOf(items), key.apply(items.get(limit - 1)));
+    }
+}
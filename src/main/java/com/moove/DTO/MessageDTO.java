@@ -0,0 +1,27 @@
+package com.moove.DTO;
+
+import com.moove.entity.Message;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class MessageDTO {
+
+    private Long id;
+    private UUID senderId;
+    private UUID receiverId;
+    private String content;
+    private LocalDateTime sentAt;
+
+    public static MessageDTO from(Message message) {
+        return new MessageDTO(message.getId(),
+                message.getSender() == null ? null : message.getSender().getUserId(),
+                message.getReceiver() == null ? null : message.getReceiver().getUserId(),
+                message.getContent(), message.getSentAt());
+    }
+}
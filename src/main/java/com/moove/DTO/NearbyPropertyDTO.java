@@ -0,0 +1,13 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class NearbyPropertyDTO {
+
+    private PropertySummaryDTO property;
+    private double distanceKm;
+
+}
@@ -0,0 +1,24 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class OwnerStatsDTO {
+
+    private UUID ownerId;
+    private LocalDate from;
+    private LocalDate to;
+    private long propertyCount;
+    private RollupStatsDTO totals;
+    // day -> stats, days without activity are left out
+    private Map<LocalDate, RollupStatsDTO> daily;
+    // propertyId -> stats over the whole window
+    private Map<Long, RollupStatsDTO> properties;
+
+}
@@ -0,0 +1,31 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import com.moove.entity.Payment;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class PaymentSummaryDTO {
+
+    private Long id;
+    private UUID userId;
+    private Integer bookingId;
+    private double amount;
+    private String paymentMethod;
+    private String status;
+    private LocalDateTime paidAt;
+    private String idempotencyKey;
+
+    public static PaymentSummaryDTO from(Payment payment) {
+        return new PaymentSummaryDTO(payment.getId(),
+                payment.getUser() == null ? null : payment.getUser().getUserId(),
+                payment.getBooking() == null ? null : payment.getBooking().getBookingId(),
+                payment.getAmount(), payment.getPaymentMethod(), payment.getStatus(), payment.getPaidAt(),
+                payment.getIdempotencyKey());
+    }
+}
@@ -0,0 +1,37 @@
+package com.moove.DTO;
+
+import com.moove.entity.Location;
+import com.moove.entity.Property;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Listing detail view: the owner's contact card, the reviews and their rating summary, without back references
+@Getter
+@AllArgsConstructor
+public class PropertyDetailDTO {
+
+    private long propertyId;
+    private UserSummaryDTO user;
+    private String propertyName;
+    private String propertyDescription;
+    private double propertyPrice;
+    private String propertyType;
+    private double propertySize;
+    private int bedroomsAvailable;
+    private int bathroomsAvailable;
+    private Location location;
+    private String propertyImageUrl;
+    private List<ReviewSummaryDTO> reviews;
+    private RatingSummaryDTO rating;
+
+    // Expects the owner to be loaded, as PropertyRepository.findWithOwnerById does
+    public static PropertyDetailDTO from(Property property, List<ReviewSummaryDTO> reviews, RatingSummaryDTO rating) {
+        return new PropertyDetailDTO(property.getPropertyId(),
+                property.getUser() == null ? null : UserSummaryDTO.from(property.getUser()),
+                property.getPropertyName(), property.getPropertyDescription(), property.getPropertyPrice(),
+                property.getPropertyType(), property.getPropertySize(), property.getBedroomsAvailable(),
+                property.getBathroomsAvailable(), property.getLocation(), property.getPropertyImageUrl(), reviews, rating);
+    }
+}
@@ -0,0 +1,62 @@
+package com.moove.DTO;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+// One listing in a bulk import/export file (CSV columns or NDJSON fields)
+@Getter
+@Setter
+public class PropertyImportRow {
+
+    public static final String[] FIELDS = {"propertyId", "userId", "propertyName", "propertyDescription", "propertyPrice",
+            "propertyType", "propertySize", "bedroomsAvailable", "bathroomsAvailable", "address", "city", "lat", "lng",
+            "propertyImageUrl"};
+
+    private Long propertyId;    // exported for reference, ignored on import
+    private UUID userId;
+    private String propertyName;
+    private String propertyDescription;
+    private Double propertyPrice;
+    private String propertyType;
+    private Double propertySize;
+    private Integer bedroomsAvailable;
+    private Integer bathroomsAvailable;
+    private String address;
+    private String city;
+    private Double lat;
+    private Double lng;
+    private String propertyImageUrl;
+
+    @JsonIgnore
+    private long lineNumber;
+
+    public PropertyImportRow() {}
+
+    public PropertyImportRow(Long propertyId, UUID userId, String propertyName, String propertyDescription,
+                             Double propertyPrice, String propertyType, Double propertySize, Integer bedroomsAvailable,
+                             Integer bathroomsAvailable, String address, String city, Double lat, Double lng,
+                             String propertyImageUrl) {
+        this.propertyId = propertyId;
+        this.userId = userId;
+        this.propertyName = propertyName;
+        this.propertyDescription = propertyDescription;
+        this.propertyPrice = propertyPrice;
+        this.propertyType = propertyType;
+        this.propertySize = propertySize;
+        this.bedroomsAvailable = bedroomsAvailable;
+        this.bathroomsAvailable = bathroomsAvailable;
+        this.address = address;
+        this.city = city;
+        this.lat = lat;
+        this.lng = lng;
+        this.propertyImageUrl = propertyImageUrl;
+    }
+
+    public Object[] values() {
+        return new Object[]{propertyId, userId, propertyName, propertyDescription, propertyPrice, propertyType,
+                propertySize, bedroomsAvailable, bathroomsAvailable, address, city, lat, lng, propertyImageUrl};
+    }
+}
@@ -0,0 +1,14 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PropertyLocationDTO {
+
+    private long propertyId;
+    private Double lat;
+    private Double lng;
+
+}
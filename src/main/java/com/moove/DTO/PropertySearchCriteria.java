@@ -0,0 +1,24 @@
+package com.moove.DTO;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class PropertySearchCriteria {
+
+    private List<String> type;   // APARTMENT, HOUSE, ROOM; any of
+    private String city;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer bedrooms;    // at least
+    private Integer bathrooms;   // at least
+    private Double minSize;
+    private Double maxSize;
+    private String sort;         // price, -price, size, -size; id order by default
+    private int offset = 0;
+    private int limit = KeysetPage.DEFAULT_LIMIT;
+
+}
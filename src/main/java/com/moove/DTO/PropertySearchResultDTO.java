@@ -0,0 +1,18 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class PropertySearchResultDTO {
+
+    private int total;
+    private List<PropertySummaryDTO> items;
+    // facet name -> value -> number of matching listings
+    private Map<String, Map<String, Integer>> facets;
+
+}
@@ -0,0 +1,28 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class PropertySummaryDTO {
+
+    private long propertyId;
+    private UUID userId;
+    private String propertyName;
+    private String propertyDescription;
+    private double propertyPrice;
+    private String propertyType;
+    private double propertySize;
+    private int bedroomsAvailable;
+    private int bathroomsAvailable;
+    private String city;
+    private Double lat;
+    private Double lng;
+    private String propertyImageUrl;
+    private int reviewCount;
+    private double averageRating;
+
+}
@@ -0,0 +1,29 @@
+package com.moove.DTO;
+
+import com.moove.entity.PropertyRating;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class RatingSummaryDTO {
+
+    private long propertyId;
+    private int reviewCount;
+    private double averageRating;
+    // star value -> number of reviews
+    private Map<Integer, Integer> stars;
+
+    public static RatingSummaryDTO from(PropertyRating rating) {
+        Map<Integer, Integer> stars = new LinkedHashMap<>();
+        stars.put(1, rating.getOneStar());
+        stars.put(2, rating.getTwoStar());
+        stars.put(3, rating.getThreeStar());
+        stars.put(4, rating.getFourStar());
+        stars.put(5, rating.getFiveStar());
+        return new RatingSummaryDTO(rating.getPropertyId(), rating.getReviewCount(), rating.getAverageRating(), stars);
+    }
+}
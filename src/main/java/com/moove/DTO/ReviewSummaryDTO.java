@@ -0,0 +1,30 @@
+package com.moove.DTO;
+
+import com.moove.entity.Review;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class ReviewSummaryDTO {
+
+    private Long reviewId;
+    private UUID userId;
+    private Long propertyId;
+    private int rating;
+    private String comment;
+    private LocalDateTime createdAt;
+
+    // Reads only the foreign keys of user and property, so lazy references stay unloaded
+    public static ReviewSummaryDTO from(Review review) {
+        return new ReviewSummaryDTO(review.getReviewId(),
+                review.getUser() == null ? null : review.getUser().getUserId(),
+                review.getProperty() == null ? null : review.getProperty().getPropertyId(),
+                review.getRating(), review.getComment(), review.getCreatedAt());
+    }
+
+}
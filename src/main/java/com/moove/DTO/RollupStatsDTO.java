@@ -0,0 +1,27 @@
+package com.moove.DTO;
+
+import com.moove.entity.RollupCounters;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RollupStatsDTO {
+
+    private int bookings;
+    private int bookedNights;
+    private double bookedAmount;
+    private int payments;
+    private double paidAmount;
+    private int reviews;
+    private double averageRating;
+    // booked nights over the property-nights in the window
+    private double occupancyRate;
+
+    public static RollupStatsDTO from(RollupCounters counters, long availableNights) {
+        return new RollupStatsDTO(counters.getBookings(), counters.getBookedNights(), counters.getBookedAmount(),
+                counters.getPayments(), counters.getPaidAmount(), counters.getReviews(),
+                counters.getReviews() == 0 ? 0 : (double) counters.getRatingSum() / counters.getReviews(),
+                availableNights == 0 ? 0 : (double) counters.getBookedNights() / availableNights);
+    }
+}
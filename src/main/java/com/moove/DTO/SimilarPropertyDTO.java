@@ -0,0 +1,14 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SimilarPropertyDTO {
+
+    private PropertySummaryDTO property;
+    // Weighted feature distance from the requested listing; 0 is identical
+    private double distance;
+
+}
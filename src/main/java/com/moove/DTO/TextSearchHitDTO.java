@@ -0,0 +1,17 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class TextSearchHitDTO {
+
+    private PropertySummaryDTO property;
+    private float score;
+    // field (name, description, reviews) -> snippet with matches wrapped in <mark>
+    private Map<String, String> highlights;
+
+}
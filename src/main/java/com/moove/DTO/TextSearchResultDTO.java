@@ -0,0 +1,16 @@
+package com.moove.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TextSearchResultDTO {
+
+    // exact up to 1000 matches, a lower bound beyond
+    private long total;
+    private List<TextSearchHitDTO> items;
+
+}
@@ -0,0 +1,24 @@
+package com.moove.DTO;
+
+import com.moove.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class UserSummaryDTO {
+
+    private UUID userId;
+    private String username;
+    private String userEmail;
+    private String userPhone;
+    private String userRole;
+
+    public static UserSummaryDTO from(User user) {
+        return new UserSummaryDTO(user.getUserId(), user.getUsername(), user.getUserEmail(), user.getUserPhone(),
+                user.getUserRole());
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.moove.batch;
+
+import com.moove.DTO.BookingImportRow;
+import com.moove.entity.BookingStatus;
+import com.moove.repository.PropertyRepository;
+import com.moove.repository.UserRepository;
+import org.springframework.batch.item.ItemProcessor;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+public class BookingImportProcessor implements ItemProcessor<BookingImportRow, BookingImportRow> {
+
+    private final PropertyRepository propertyRepository;
+    private final UserRepository userRepository;
+    private final Set<Long> knownProperties = new HashSet<>();
+    private final Set<UUID> knownUsers = new HashSet<>();
+
+    public BookingImportProcessor(PropertyRepository propertyRepository, UserRepository userRepository) {
+        this.propertyRepository = propertyRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public BookingImportRow process(BookingImportRow row) {
+        if (row.getPropertyId() == null) {
+            throw new ImportRowException("propertyId is required");
+        }
+        if (row.getStatus() != null && row.getStatus().isBlank()) {
+            row.setStatus(null);
+        }
+        if (row.getStatus() != null && Arrays.stream(BookingStatus.values()).noneMatch(s -> s.name().equals(row.getStatus()))) {
+            throw new ImportRowException("unknown status " + row.getStatus());
+        }
+        if (row.getCheckInDate() == null || row.getCheckOutDate() == null || !row.getCheckOutDate().isAfter(row.getCheckInDate())) {
+            throw new ImportRowException("checkOutDate must be after checkInDate");
+        }
+        if (!knownProperties.contains(row.getPropertyId())) {
+            if (!propertyRepository.existsById(row.getPropertyId())) {
+                throw new ImportRowException("unknown property " + row.getPropertyId());
+            }
+            knownProperties.add(row.getPropertyId());
+        }
+        if (row.getUserId() != null && !knownUsers.contains(row.getUserId())) {
+            if (!userRepository.existsById(row.getUserId())) {
+                throw new ImportRowException("unknown user " + row.getUserId());
+            }
+            knownUsers.add(row.getUserId());
+        }
+        return row;
+    }
+}
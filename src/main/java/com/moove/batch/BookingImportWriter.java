@@ -0,0 +1,127 @@
+package com.moove.batch;
+
+import com.moove.DTO.BookedStayDTO;
+import com.moove.DTO.BookingImportRow;
+import com.moove.entity.Booking;
+import com.moove.entity.BookingStatus;
+import com.moove.entity.Property;
+import com.moove.entity.User;
+import com.moove.index.BookingCalendar;
+import com.moove.index.BookingDeadlines;
+import com.moove.repository.BookingRepository;
+import com.moove.repository.PropertyRepository;
+import com.moove.service.BookingService;
+import com.moove.service.RollupService;
+import jakarta.persistence.EntityManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Writes a chunk of bookings under the calendar locks of every property it
+ * touches, held until the chunk transaction completes. Stays are added to the
+ * calendar as they are checked, so rows in the same chunk cannot overlap each
+ * other either, and are taken back out if the transaction rolls back. Open
+ * bookings get their deadlines once the chunk commits. The chunk also takes
+ * the properties' row locks and loads the overlapping stays other instances
+ * booked into the calendar, so the checks hold across instances.
+ */
+public class BookingImportWriter implements ItemWriter<BookingImportRow> {
+
+    private final EntityManager entityManager;
+    private final PropertyRepository propertyRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingCalendar bookingCalendar;
+    private final BookingDeadlines bookingDeadlines;
+    private final RollupService rollupService;
+
+    public BookingImportWriter(EntityManager entityManager, PropertyRepository propertyRepository,
+                               BookingRepository bookingRepository, BookingCalendar bookingCalendar,
+                               BookingDeadlines bookingDeadlines, RollupService rollupService) {
+        this.entityManager = entityManager;
+        this.propertyRepository = propertyRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingCalendar = bookingCalendar;
+        this.bookingDeadlines = bookingDeadlines;
+        this.rollupService = rollupService;
+    }
+
+    @Override
+    public void write(Chunk<? extends BookingImportRow> chunk) {
+        List<Long> propertyIds = chunk.getItems().stream().map(BookingImportRow::getPropertyId).distinct().toList();
+        List<Lock> locks = bookingCalendar.lockAll(propertyIds);
+        List<Booking> written = new ArrayList<>(chunk.size());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (Booking booking : written) {
+                    if (status != STATUS_COMMITTED) {
+                        bookingCalendar.remove(booking.getProperty().getPropertyId(), booking.getBookingId(),
+                                ((Date) booking.getCheckInDate()).toLocalDate());
+                    } else {
+                        bookingDeadlines.schedule(booking.getBookingId(), BookingStatus.of(booking.getStatus()),
+                                booking.getConfirmBy(), ((Date) booking.getCheckOutDate()).toLocalDate());
+                    }
+                }
+                locks.forEach(Lock::unlock);
+            }
+        });
+
+        propertyRepository.lockForBooking(propertyIds);
+        LocalDate from = chunk.getItems().stream().map(BookingImportRow::getCheckInDate).min(LocalDate::compareTo).orElseThrow();
+        LocalDate to = chunk.getItems().stream().map(BookingImportRow::getCheckOutDate).max(LocalDate::compareTo).orElseThrow();
+        // the table decides; stays other instances cancelled may still be in this calendar
+        for (Long propertyId : propertyIds) {
+            bookingCalendar.removeOverlapping(propertyId, from, to);
+        }
+        for (BookedStayDTO stay : bookingRepository.findStaysOverlapping(propertyIds, Date.valueOf(from), Date.valueOf(to))) {
+            bookingCalendar.add(stay.getPropertyId(), stay.getBookingId(),
+                    BookingService.toLocalDate(stay.getCheckInDate()), BookingService.toLocalDate(stay.getCheckOutDate()));
+        }
+
+        for (BookingImportRow row : chunk) {
+            boolean active = BookingStatus.holdsDates(row.getStatus());
+            BookingCalendar.Stay conflict = active
+                    ? bookingCalendar.findConflict(row.getPropertyId(), row.getCheckInDate(), row.getCheckOutDate())
+                    : null;
+            if (conflict != null) {
+                throw new ImportRowException("overlaps booking " + conflict.bookingId() + " from "
+                        + conflict.checkInDate() + " to " + conflict.checkOutDate());
+            }
+            Booking booking = toBooking(row);
+            entityManager.persist(booking);
+            written.add(booking);
+            if (active) {
+                bookingCalendar.add(row.getPropertyId(), booking.getBookingId(), row.getCheckInDate(), row.getCheckOutDate());
+                rollupService.bookingAdded(booking);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Booking toBooking(BookingImportRow row) {
+        Booking booking = new Booking();
+        booking.setProperty(entityManager.getReference(Property.class, row.getPropertyId()));
+        if (row.getUserId() != null) {
+            booking.setUser(entityManager.getReference(User.class, row.getUserId()));
+        }
+        booking.setTotalAmount(row.getTotalAmount());
+        booking.setBookingDate(row.getBookingDate() == null ? null : Date.valueOf(row.getBookingDate()));
+        booking.setCheckInDate(Date.valueOf(row.getCheckInDate()));
+        booking.setCheckOutDate(Date.valueOf(row.getCheckOutDate()));
+        booking.setStatus(BookingStatus.of(row.getStatus()).name());
+        if (BookingStatus.of(row.getStatus()) == BookingStatus.PENDING) {
+            booking.setConfirmBy(bookingDeadlines.confirmationDeadline(LocalDateTime.now()));
+        }
+        return booking;
+    }
+}
@@ -0,0 +1,151 @@
+package com.moove.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moove.DTO.BookingImportRow;
+import com.moove.DTO.PropertyImportRow;
+import com.moove.index.BookingCalendar;
+import com.moove.index.BookingDeadlines;
+import com.moove.repository.BookingRepository;
+import com.moove.repository.PropertyRepository;
+import com.moove.repository.UserRepository;
+import com.moove.service.ImageService;
+import com.moove.service.PropertyService;
+import com.moove.service.RollupService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Chunk-oriented import jobs for listings and bookings. Each chunk is one
+ * transaction and one JDBC batch; bad rows are skipped and reported by line
+ * instead of failing the file.
+ */
+@Configuration
+public class BulkImportConfig {
+
+    public static final String FILE_PARAM = "file";
+    public static final String FORMAT_PARAM = "format";
+    static final int CHUNK_SIZE = 500;
+
+    @Bean
+    public Job propertyImportJob(JobRepository jobRepository, Step propertyImportStep) {
+        return new JobBuilder("propertyImportJob", jobRepository)
+                .listener(deleteUploadedFile())
+                .start(propertyImportStep)
+                .build();
+    }
+
+    @Bean
+    public Step propertyImportStep(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                                   FlatFileItemReader<PropertyImportRow> propertyImportReader,
+                                   PropertyImportProcessor propertyImportProcessor,
+                                   EntityManager entityManager, PropertyService propertyService) {
+        return new StepBuilder("propertyImportStep", jobRepository)
+                .<PropertyImportRow, PropertyImportRow>chunk(CHUNK_SIZE, transactionManager)
+                .reader(propertyImportReader)
+                .processor(propertyImportProcessor)
+                .writer(new PropertyImportWriter(entityManager, propertyService))
+                .faultTolerant()
+                .skip(FlatFileParseException.class)
+                .skip(ImportRowException.class)
+                .skip(DataIntegrityViolationException.class)
+                .skip(ConstraintViolationException.class)
+                .skipLimit(Integer.MAX_VALUE)
+                .listener(new ImportErrorListener<PropertyImportRow>(PropertyImportRow::getLineNumber))
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public FlatFileItemReader<PropertyImportRow> propertyImportReader(@Value("#{jobParameters['file']}") String file,
+                                                                      @Value("#{jobParameters['format']}") String format,
+                                                                      ObjectMapper objectMapper) {
+        return ImportRowReaders.reader(Path.of(file), format, PropertyImportRow.class,
+                PropertyImportRow::setLineNumber, objectMapper);
+    }
+
+    @Bean
+    @StepScope
+    public PropertyImportProcessor propertyImportProcessor(UserRepository userRepository, ImageService imageService) {
+        return new PropertyImportProcessor(userRepository, imageService);
+    }
+
+    @Bean
+    public Job bookingImportJob(JobRepository jobRepository, Step bookingImportStep) {
+        return new JobBuilder("bookingImportJob", jobRepository)
+                .listener(deleteUploadedFile())
+                .start(bookingImportStep)
+                .build();
+    }
+
+    @Bean
+    public Step bookingImportStep(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+                                  FlatFileItemReader<BookingImportRow> bookingImportReader,
+                                  BookingImportProcessor bookingImportProcessor,
+                                  EntityManager entityManager, PropertyRepository propertyRepository,
+                                  BookingRepository bookingRepository, BookingCalendar bookingCalendar,
+                                  BookingDeadlines bookingDeadlines, RollupService rollupService) {
+        return new StepBuilder("bookingImportStep", jobRepository)
+                .<BookingImportRow, BookingImportRow>chunk(CHUNK_SIZE, transactionManager)
+                .reader(bookingImportReader)
+                .processor(bookingImportProcessor)
+                .writer(new BookingImportWriter(entityManager, propertyRepository, bookingRepository, bookingCalendar,
+                        bookingDeadlines, rollupService))
+                .faultTolerant()
+                .skip(FlatFileParseException.class)
+                .skip(ImportRowException.class)
+                .skip(DataIntegrityViolationException.class)
+                .skip(ConstraintViolationException.class)
+                .skipLimit(Integer.MAX_VALUE)
+                .listener(new ImportErrorListener<BookingImportRow>(BookingImportRow::getLineNumber))
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public FlatFileItemReader<BookingImportRow> bookingImportReader(@Value("#{jobParameters['file']}") String file,
+                                                                    @Value("#{jobParameters['format']}") String format,
+                                                                    ObjectMapper objectMapper) {
+        return ImportRowReaders.reader(Path.of(file), format, BookingImportRow.class,
+                BookingImportRow::setLineNumber, objectMapper);
+    }
+
+    @Bean
+    @StepScope
+    public BookingImportProcessor bookingImportProcessor(PropertyRepository propertyRepository, UserRepository userRepository) {
+        return new BookingImportProcessor(propertyRepository, userRepository);
+    }
+
+    // Uploaded files are staged on disk only for the lifetime of their job
+    private static JobExecutionListener deleteUploadedFile() {
+        return new JobExecutionListener() {
+            @Override
+            public void afterJob(JobExecution jobExecution) {
+                try {
+                    Files.deleteIfExists(Path.of(jobExecution.getJobParameters().getString(FILE_PARAM)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+}
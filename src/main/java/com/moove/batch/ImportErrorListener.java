@@ -0,0 +1,67 @@
+package com.moove.batch;
+
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.FlatFileParseException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Records each skipped row as "line N: reason" in the step's execution
+ * context, where the import status endpoint reads it back.
+ */
+public class ImportErrorListener<T> implements SkipListener<T, T> {
+
+    public static final String ERRORS_KEY = "errors";
+    static final int MAX_ERRORS = 1000;
+
+    private final ToLongFunction<T> lineNumber;
+
+    public ImportErrorListener(ToLongFunction<T> lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    @Override
+    public void onSkipInRead(Throwable t) {
+        if (t instanceof FlatFileParseException parse) {
+            record(parse.getLineNumber(), rootMessage(t));
+        } else {
+            record(-1, rootMessage(t));
+        }
+    }
+
+    @Override
+    public void onSkipInProcess(T item, Throwable t) {
+        record(lineNumber.applyAsLong(item), rootMessage(t));
+    }
+
+    @Override
+    public void onSkipInWrite(T item, Throwable t) {
+        record(lineNumber.applyAsLong(item), rootMessage(t));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void record(long line, String message) {
+        StepExecution stepExecution = StepSynchronizationManager.getContext().getStepExecution();
+        ExecutionContext context = stepExecution.getExecutionContext();
+        List<String> errors = context.containsKey(ERRORS_KEY)
+                ? new ArrayList<>((List<String>) context.get(ERRORS_KEY))
+                : new ArrayList<>();
+        if (errors.size() < MAX_ERRORS) {
+            errors.add((line >= 0 ? "line " + line + ": " : "") + message);
+            context.put(ERRORS_KEY, errors);
+        }
+    }
+
+    private static String rootMessage(Throwable t) {
+        Throwable root = t;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() == null ? root.getClass().getSimpleName() : root.getMessage();
+    }
+}
@@ -0,0 +1,9 @@
+package com.moove.batch;
+
+// A bulk import row that cannot be written; the row is skipped and reported
+public class ImportRowException extends RuntimeException {
+
+    public ImportRowException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,66 @@
+package com.moove.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.format.datetime.standard.DateTimeFormatterRegistrar;
+import org.springframework.format.support.DefaultFormattingConversionService;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Streaming readers for bulk import files. CSV files name their columns in the
+ * header line; NDJSON files hold one JSON object per line. Either way each row
+ * remembers its line number for error reporting.
+ */
+public final class ImportRowReaders {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private ImportRowReaders() {
+    }
+
+    public static <T> FlatFileItemReader<T> reader(Path file, String format, Class<T> type,
+                                                   ObjLongConsumer<T> lineNumberSetter, ObjectMapper objectMapper) {
+        FlatFileItemReader<T> reader = new FlatFileItemReader<>();
+        reader.setName(type.getSimpleName() + "Reader");
+        reader.setResource(new FileSystemResource(file));
+        reader.setStrict(true);
+
+        LineMapper<T> rowMapper;
+        if (CSV.equals(format)) {
+            DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+            tokenizer.setStrict(false);
+            reader.setLinesToSkip(1);
+            reader.setSkippedLinesCallback(header ->
+                    tokenizer.setNames(Arrays.stream(header.split(",")).map(String::trim).toArray(String[]::new)));
+
+            DefaultFormattingConversionService conversionService = new DefaultFormattingConversionService(false);
+            DateTimeFormatterRegistrar dates = new DateTimeFormatterRegistrar();
+            dates.setUseIsoFormat(true);
+            dates.registerFormatters(conversionService);
+
+            BeanWrapperFieldSetMapper<T> fieldSetMapper = new BeanWrapperFieldSetMapper<>();
+            fieldSetMapper.setTargetType(type);
+            fieldSetMapper.setConversionService(conversionService);
+            rowMapper = (line, lineNumber) -> fieldSetMapper.mapFieldSet(tokenizer.tokenize(line));
+        } else if (NDJSON.equals(format)) {
+            rowMapper = (line, lineNumber) -> objectMapper.readValue(line, type);
+        } else {
+            throw new IllegalArgumentException("Unsupported import format " + format);
+        }
+
+        reader.setLineMapper((line, lineNumber) -> {
+            T row = rowMapper.mapLine(line, lineNumber);
+            lineNumberSetter.accept(row, lineNumber);
+            return row;
+        });
+        return reader;
+    }
+}
@@ -0,0 +1,58 @@
+package com.moove.batch;
+
+import com.moove.DTO.PropertyImportRow;
+import com.moove.repository.UserRepository;
+import com.moove.service.ImageService;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+public class PropertyImportProcessor implements ItemProcessor<PropertyImportRow, PropertyImportRow> {
+
+    private final UserRepository userRepository;
+    private final ImageService imageService;
+    // owners already confirmed to exist; one agency file usually has a handful
+    private final Set<UUID> knownUsers = new HashSet<>();
+
+    public PropertyImportProcessor(UserRepository userRepository, ImageService imageService) {
+        this.userRepository = userRepository;
+        this.imageService = imageService;
+    }
+
+    @Override
+    public PropertyImportRow process(PropertyImportRow row) {
+        if (row.getUserId() == null) {
+            throw new ImportRowException("userId is required");
+        }
+        if (row.getPropertyName() == null || row.getPropertyName().isBlank()) {
+            throw new ImportRowException("propertyName is required");
+        }
+        if (isNegative(row.getPropertyPrice()) || isNegative(row.getPropertySize())
+                || isNegative(row.getBedroomsAvailable()) || isNegative(row.getBathroomsAvailable())) {
+            throw new ImportRowException("price, size, bedrooms and bathrooms cannot be negative");
+        }
+        if ((row.getLat() == null) != (row.getLng() == null)
+                || (row.getLat() != null && (Math.abs(row.getLat()) > 90 || Math.abs(row.getLng()) > 180))) {
+            throw new ImportRowException("lat/lng must both be given and within range");
+        }
+        if (!knownUsers.contains(row.getUserId())) {
+            if (!userRepository.existsById(row.getUserId())) {
+                throw new ImportRowException("unknown user " + row.getUserId());
+            }
+            knownUsers.add(row.getUserId());
+        }
+        try {
+            row.setPropertyImageUrl(imageService.toImageReference(row.getPropertyImageUrl()));
+        } catch (ResponseStatusException e) {
+            throw new ImportRowException(e.getReason());
+        }
+        return row;
+    }
+
+    private static boolean isNegative(Number value) {
+        return value != null && value.doubleValue() < 0;
+    }
+}
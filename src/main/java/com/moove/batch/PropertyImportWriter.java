@@ -0,0 +1,63 @@
+package com.moove.batch;
+
+import com.moove.DTO.PropertyImportRow;
+import com.moove.entity.Location;
+import com.moove.entity.Property;
+import com.moove.entity.User;
+import com.moove.service.PropertyService;
+import jakarta.persistence.EntityManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Persists a chunk in one flush so Hibernate sends the inserts as JDBC batches
+public class PropertyImportWriter implements ItemWriter<PropertyImportRow> {
+
+    private final EntityManager entityManager;
+    private final PropertyService propertyService;
+
+    public PropertyImportWriter(EntityManager entityManager, PropertyService propertyService) {
+        this.entityManager = entityManager;
+        this.propertyService = propertyService;
+    }
+
+    @Override
+    public void write(Chunk<? extends PropertyImportRow> chunk) {
+        List<Property> written = new ArrayList<>(chunk.size());
+        for (PropertyImportRow row : chunk) {
+            Property property = toProperty(row);
+            entityManager.persist(property);
+            written.add(property);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                propertyService.indexImported(written);
+            }
+        });
+    }
+
+    private Property toProperty(PropertyImportRow row) {
+        Property property = new Property();
+        property.setUser(entityManager.getReference(User.class, row.getUserId()));
+        property.setPropertyName(row.getPropertyName());
+        property.setPropertyDescription(row.getPropertyDescription());
+        property.setPropertyPrice(row.getPropertyPrice() == null ? 0 : row.getPropertyPrice());
+        property.setPropertyType(row.getPropertyType());
+        property.setPropertySize(row.getPropertySize() == null ? 0 : row.getPropertySize());
+        property.setBedroomsAvailable(row.getBedroomsAvailable() == null ? 0 : row.getBedroomsAvailable());
+        property.setBathroomsAvailable(row.getBathroomsAvailable() == null ? 0 : row.getBathroomsAvailable());
+        property.setPropertyImageUrl(row.getPropertyImageUrl());
+        if (row.getAddress() != null || row.getCity() != null || row.getLat() != null) {
+            property.setLocation(new Location(row.getAddress(), row.getCity(), row.getLat(), row.getLng()));
+        }
+        return property;
+    }
+}
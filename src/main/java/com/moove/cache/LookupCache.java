@@ -0,0 +1,146 @@
+package com.moove.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache keyed by id, with optional secondary keys
+ * (e.g. "email:a@b.com") that resolve to the same cached value.
+ * Entries expire after a TTL or when the size bound evicts them; secondary
+ * keys are dropped together with their value. A value loaded while its own
+ * key was invalidated is returned but not kept, since it may predate the
+ * change; invalidations of other keys leave it alone. Hits, misses and
+ * evictions are published as Micrometer cache metrics tagged with the name.
+ */
+public class LookupCache<K, V> {
+
+    private final String name;
+    private final Cache<K, V> values;
+    private final Cache<String, K> aliases;
+    private final Function<V, K> idOf;
+    private final Function<V, Collection<String>> aliasesOf;
+    // Orders loads against invalidations: a load notes the clock when it starts
+    private final AtomicLong clock = new AtomicLong();
+    // Clock at each key's latest invalidation, kept for as long as a load that started before it could still finish
+    private final Cache<K, Long> invalidatedAt;
+    private volatile long allInvalidatedAt;
+
+    public LookupCache(String name, Duration ttl, long maxSize, Function<V, K> idOf, MeterRegistry meterRegistry) {
+        this(name, ttl, maxSize, idOf, value -> List.of(), meterRegistry);
+    }
+
+    public LookupCache(String name, Duration ttl, long maxSize, Function<V, K> idOf,
+                       Function<V, Collection<String>> aliasesOf, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.idOf = idOf;
+        this.aliasesOf = aliasesOf;
+        this.aliases = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize * 4)
+                .build();
+        this.invalidatedAt = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+        this.values = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .removalListener((K id, V value, RemovalCause cause) -> {
+                    if (value != null && cause != RemovalCause.REPLACED) {
+                        aliases.invalidateAll(aliasesOf.apply(value));
+                    }
+                })
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, values, name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Optional<V> get(K id, Supplier<Optional<V>> loader) {
+        V cached = values.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long startedAt = clock.get();
+        Optional<V> loaded = loader.get();
+        loaded.ifPresent(value -> putLoaded(value, startedAt));
+        return loaded;
+    }
+
+    public Optional<V> getByAlias(String alias, Supplier<Optional<V>> loader) {
+        K id = aliases.getIfPresent(alias);
+        if (id != null) {
+            V cached = values.getIfPresent(id);
+            // the value may have changed that key since the alias was recorded
+            if (cached != null && aliasesOf.apply(cached).contains(alias)) {
+                return Optional.of(cached);
+            }
+            aliases.invalidate(alias);
+        }
+        long startedAt = clock.get();
+        Optional<V> loaded = loader.get();
+        loaded.ifPresent(value -> putLoaded(value, startedAt));
+        return loaded;
+    }
+
+    public void put(V value) {
+        K id = idOf.apply(value);
+        Collection<String> current = aliasesOf.apply(value);
+        V previous = values.asMap().put(id, value);
+        if (previous != null) {
+            for (String alias : aliasesOf.apply(previous)) {
+                if (!current.contains(alias)) {
+                    aliases.invalidate(alias);
+                }
+            }
+        }
+        for (String alias : current) {
+            aliases.put(alias, id);
+        }
+    }
+
+    public void invalidate(K id) {
+        invalidatedAt.put(id, clock.incrementAndGet());
+        values.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        allInvalidatedAt = clock.incrementAndGet();
+        values.invalidateAll();
+        aliases.invalidateAll();
+    }
+
+    // Checked after the put, so an invalidation either shows here or removes the value itself
+    private void putLoaded(V value, long startedAt) {
+        K id = idOf.apply(value);
+        put(value);
+        Long invalidated = invalidatedAt.getIfPresent(id);
+        if (allInvalidatedAt > startedAt || (invalidated != null && invalidated > startedAt)) {
+            // the row may have changed after the loader read it; serve it once, do not keep it
+            values.asMap().remove(id, value);
+        }
+    }
+
+    public long size() {
+        return values.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return values.stats();
+    }
+}
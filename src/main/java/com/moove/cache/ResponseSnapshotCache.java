@@ -0,0 +1,191 @@
+package com.moove.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Read endpoints' JSON bodies, serialized once and kept gzip-compressed
+ * until the data behind them changes. The ETag is a hash of the JSON, so a
+ * snapshot rebuilt from unchanged data keeps its tag and pollers keep
+ * getting 304s. Entries are bounded by compressed size and expire after a
+ * TTL as a backstop for changes nobody invalidated. Hits, misses and
+ * evictions are published as Micrometer cache metrics tagged with the name.
+ */
+public class ResponseSnapshotCache {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
+    private final String name;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Snapshot> snapshots;
+    private final SingleFlight<String, Optional<Snapshot>> builds;
+    // Bumped by every invalidation so a build that raced one is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseSnapshotCache(String name, Duration ttl, long maxBytes, ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry) {
+        this.name = name;
+        this.objectMapper = objectMapper;
+        this.snapshots = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxBytes)
+                .weigher((String key, Snapshot snapshot) -> key.length() + snapshot.gzip().length)
+                .recordStats()
+                .build();
+        this.builds = new SingleFlight<>(name + "Snapshot", meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The snapshot for key, serializing what body supplies on a miss.
+     * Empty when body is, e.g. for an unknown id; that is not cached.
+     */
+    public Optional<Snapshot> get(String key, Supplier<? extends Optional<?>> body) {
+        Snapshot cached = snapshots.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return builds.run(key, () -> {
+            long startedAt = generation.get();
+            Optional<Snapshot> built = body.get().map(this::serialize);
+            built.ifPresent(snapshot -> {
+                snapshots.put(key, snapshot);
+                if (generation.get() != startedAt) {
+                    // the data may have changed after the body was read; serve it once, do not keep it
+                    snapshots.asMap().remove(key, snapshot);
+                }
+            });
+            return built;
+        });
+    }
+
+    // Drops matching snapshots, after the surrounding transaction commits if there is one
+    public void invalidate(Predicate<String> keys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateNow(keys);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateNow(keys);
+            }
+        });
+    }
+
+    public long size() {
+        return snapshots.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return snapshots.stats();
+    }
+
+    private void invalidateNow(Predicate<String> keys) {
+        generation.incrementAndGet();
+        snapshots.asMap().keySet().removeIf(keys);
+    }
+
+    private Snapshot serialize(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return new Snapshot(gzip(json), json.length, HexFormat.of().formatHex(hash, 0, 16));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + body.getClass().getSimpleName(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        // built once per change and served many times, so spend the CPU on the ratio
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A serialized body. Strong ETags differ per content coding, so the gzip
+     * form is tagged with a suffix; Spring answers a matching If-None-Match
+     * with 304 before any body is written.
+     */
+    public record Snapshot(byte[] gzip, int length, String hash) {
+
+        public ResponseEntity<byte[]> toResponse(HttpHeaders request) {
+            boolean gzipped = acceptsGzip(request.getFirst(HttpHeaders.ACCEPT_ENCODING));
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(REVALIDATE)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (gzipped) {
+                return response.eTag("\"" + hash + "-gzip\"")
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .body(gzip);
+            }
+            return response.eTag("\"" + hash + "\"").body(json());
+        }
+
+        public byte[] json() {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+                return in.readNBytes(length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        static boolean acceptsGzip(String acceptEncoding) {
+            if (acceptEncoding == null) {
+                return false;
+            }
+            for (String coding : acceptEncoding.split(",")) {
+                String[] parts = coding.trim().split(";");
+                String token = parts[0].trim();
+                if (token.equalsIgnoreCase("gzip") || token.equals("*")) {
+                    return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.moove.config;
+
+import com.moove.datasource.ReadYourWrites;
+import com.moove.metrics.StatementCounter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.CompositeTaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code @Async} methods and fan-out tasks, such as the listing detail's
+ * reviews and rating, run on Boot's applicationTaskExecutor: the bounded
+ * {@code spring.task.execution.pool} pool. The project targets Java 17, so
+ * the fan-out stays on platform threads rather than virtual ones.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    // Boot applies only a unique TaskDecorator, and ignores them all once there are two
+    @Bean
+    @Primary
+    public TaskDecorator applicationTaskDecorator(StatementCounter statementCounter,
+                                                  ObjectProvider<ReadYourWrites> readYourWrites) {
+        List<TaskDecorator> decorators = new ArrayList<>();
+        decorators.add(statementCounter);
+        readYourWrites.ifAvailable(decorators::add);
+        return new CompositeTaskDecorator(decorators);
+    }
+}
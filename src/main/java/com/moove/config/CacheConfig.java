@@ -0,0 +1,126 @@
+package com.moove.config;
+
+import com.moove.DTO.KeysetPage;
+import com.moove.DTO.PaymentSummaryDTO;
+import com.moove.DTO.PropertySummaryDTO;
+import com.moove.DTO.ReviewSummaryDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moove.cache.LookupCache;
+import com.moove.cache.ResponseSnapshotCache;
+import com.moove.cache.SingleFlight;
+import com.moove.entity.Property;
+import com.moove.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public LookupCache<Long, Property> propertyCache(@Value("${moove.cache.property.ttl:5m}") Duration ttl,
+                                                     @Value("${moove.cache.property.max-size:10000}") long maxSize,
+                                                     MeterRegistry meterRegistry) {
+        return new LookupCache<>("property", ttl, maxSize, Property::getPropertyId, meterRegistry);
+    }
+
+    // Users resolve by id, email, phone and username to the same entry
+    @Bean
+    public LookupCache<UUID, User> userCache(@Value("${moove.cache.user.ttl:5m}") Duration ttl,
+                                               @Value("${moove.cache.user.max-size:10000}") long maxSize,
+                                               MeterRegistry meterRegistry) {
+        return new LookupCache<>("user", ttl, maxSize, User::getUserId, CacheConfig::userAliases, meterRegistry);
+    }
+
+    // Short-lived: only needs to outlive a client's retry window, the unique index covers the rest
+    @Bean
+    public LookupCache<Long, PaymentSummaryDTO> paymentCache(@Value("${moove.cache.payment.ttl:10m}") Duration ttl,
+                                                             @Value("${moove.cache.payment.max-size:100000}") long maxSize,
+                                                             MeterRegistry meterRegistry) {
+        return new LookupCache<>("payment", ttl, maxSize, PaymentSummaryDTO::getId,
+                payment -> payment.getIdempotencyKey() == null ? List.of() : List.of(idempotencyKey(payment.getIdempotencyKey())),
+                meterRegistry);
+    }
+
+    // Concurrent identical reads on the public endpoints share one repository call
+    @Bean
+    public SingleFlight<Long, Optional<Property>> propertyLoads(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("property", meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<List<Object>, KeysetPage<PropertySummaryDTO>> propertyPageLoads(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("propertyPage", meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<Long, List<ReviewSummaryDTO>> propertyReviewLoads(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("propertyReviews", meterRegistry);
+    }
+
+    // Serialized listing pages, listing details and per-listing review feeds, served with ETags
+    @Bean
+    public ResponseSnapshotCache listingSnapshots(@Value("${moove.cache.snapshot.ttl:10m}") Duration ttl,
+                                                  @Value("${moove.cache.snapshot.max-size:64MB}") DataSize maxSize,
+                                                  ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new ResponseSnapshotCache("listing", ttl, maxSize.toBytes(), objectMapper, meterRegistry);
+    }
+
+    public static List<String> userAliases(User user) {
+        List<String> aliases = new ArrayList<>(3);
+        if (user.getUserEmail() != null) {
+            aliases.add(emailKey(user.getUserEmail()));
+        }
+        if (user.getUserPhone() != null) {
+            aliases.add(phoneKey(user.getUserPhone()));
+        }
+        if (user.getUsername() != null) {
+            aliases.add(usernameKey(user.getUsername()));
+        }
+        return aliases;
+    }
+
+    public static String emailKey(String email) {
+        return "email:" + email;
+    }
+
+    public static String phoneKey(String phone) {
+        return "phone:" + phone;
+    }
+
+    public static String idempotencyKey(String key) {
+        return "idempotency:" + key;
+    }
+
+    public static String usernameKey(String username) {
+        return "username:" + username;
+    }
+
+    public static String propertyPageSnapshotKey(long after, int limit) {
+        return "page:" + after + ":" + limit;
+    }
+
+    public static String propertySnapshotKey(long propertyId) {
+        return "property:" + propertyId;
+    }
+
+    public static String propertyReviewsSnapshotKey(long propertyId) {
+        return "reviews:" + propertyId;
+    }
+
+    // Pages carry review counts and ratings, so any listing or review change can move any of them
+    public static Predicate<String> listingSnapshotKeys(long propertyId) {
+        String property = propertySnapshotKey(propertyId);
+        String reviews = propertyReviewsSnapshotKey(propertyId);
+        return key -> key.startsWith("page:") || key.equals(property) || key.equals(reviews);
+    }
+}
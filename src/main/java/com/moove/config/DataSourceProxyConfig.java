@@ -0,0 +1,49 @@
+package com.moove.config;
+
+import com.moove.metrics.QueryMetricsListener;
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps the application DataSource so every statement is timed and counted,
+ * and statements running longer than {@code moove.db.slow-query-threshold}
+ * are logged with their bind parameters under the {@code moove.slow-query} logger.
+ * Data sources that only delegate, like the read/write router, are left alone
+ * so each statement is counted once, at the pool that ran it.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryMetricsListener> queryMetricsListener,
+                                                                 Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource
+                        || bean instanceof DelegatingDataSource) {
+                    return bean;
+                }
+                Duration slowQueryThreshold = environment.getProperty("moove.db.slow-query-threshold",
+                        Duration.class, Duration.ofMillis(200));
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(queryMetricsListener.getObject())
+                        .logSlowQueryBySlf4j(slowQueryThreshold.toMillis(), TimeUnit.MILLISECONDS,
+                                SLF4JLogLevel.WARN, "moove.slow-query")
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.moove.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Property and Booking ids used to come from identity columns. Their pooled
+ * sequences start at 1 when first created, so before any insert each sequence
+ * is moved past the highest id already in its table.
+ */
+@Component
+@Slf4j
+public class IdSequenceAligner {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    // Taking the EntityManagerFactory makes this run after the migrations have created the sequences
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @PostConstruct
+    public void align() {
+        align("property_seq", "property", "property_id");
+        align("booking_seq", "booking", "booking_id");
+    }
+
+    private void align(String sequence, String table, String idColumn) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table, Long.class);
+        Long next = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+        // the pooled optimizer hands out (next - ALLOCATION_SIZE, next]
+        if (maxId != null && next != null && next - ALLOCATION_SIZE < maxId) {
+            long restart = maxId + ALLOCATION_SIZE + 1;
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restart);
+            log.info("Moved {} past existing {} ids to {}", sequence, table, restart);
+        }
+    }
+}
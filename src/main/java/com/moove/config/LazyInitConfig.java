@@ -0,0 +1,36 @@
+package com.moove.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * With {@code spring.main.lazy-initialization} (the prod profile), beans that
+ * run {@code @Scheduled} jobs or load indexes from {@code @EventListener}s still
+ * start eagerly: a lazy scheduled bean would never be scheduled. Everything
+ * else, controllers included, is created on first use.
+ */
+@Configuration
+public class LazyInitConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerBackgroundBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (hasAnnotatedMethod(beanType, Scheduled.class) || hasAnnotatedMethod(beanType, EventListener.class));
+    }
+
+    private static boolean hasAnnotatedMethod(Class<?> type, Class<? extends java.lang.annotation.Annotation> annotation) {
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(type)) {
+            if (AnnotatedElementUtils.hasAnnotation(method, annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,15 @@
+package com.moove.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * {@code @Scheduled} jobs such as the outbox relay run on Boot's taskScheduler.
+ * Its pool ({@code spring.task.scheduling.pool.size}) must leave the
+ * one-second jobs a thread while a slow one, such as the similar-listings
+ * rebuild, is running.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
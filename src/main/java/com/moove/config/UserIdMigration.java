@@ -0,0 +1,463 @@
+package com.moove.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AbstractDependsOnBeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * User ids used to be random UUID strings in varchar columns, repeated in
+ * every table that points at a user. This moves the primary key and each of
+ * those columns to the native uuid type, keeping the id values, while the
+ * tables stay readable and writable:
+ * <ol>
+ * <li>each column gets a uuid shadow column; on PostgreSQL a trigger keeps
+ * it in step with writes from instances still running the old code</li>
+ * <li>shadows are filled in keyset batches of {@code batchSize} rows, each
+ * batch its own short transaction</li>
+ * <li>on PostgreSQL, primary keys and indexes over the shadows are built
+ * concurrently, and shadows of NOT NULL columns get a CHECK constraint
+ * added NOT VALID and then validated, neither of which blocks writes</li>
+ * <li>one transaction swaps the columns and restores keys, indexes and
+ * foreign keys; SET NOT NULL and the primary keys rely on the validated
+ * checks instead of scanning, and foreign keys are validated afterwards
+ * without blocking writes</li>
+ * </ol>
+ * Runs before the Flyway migrations and before Hibernate opens the schema,
+ * and does nothing once users.user_id is a uuid column or before the table
+ * exists. On PostgreSQL a session advisory lock makes instances starting
+ * together run it one at a time; the ones that waited find the columns
+ * already moved.
+ */
+@Component
+@Slf4j
+public class UserIdMigration {
+
+    private static final String USERS = "users";
+    private static final String USER_ID = "user_id";
+    private static final String SHADOW_SUFFIX = "_uuid";
+    private static final String NOT_NULL_SUFFIX = "_not_null";
+    // "moove_id" in ASCII, the key of the advisory lock serializing instances
+    private static final long ADVISORY_LOCK_KEY = 0x6d6f6f76655f6964L;
+    private static final long ADVISORY_LOCK_POLL_MILLIS = 1000;
+
+    // Columns holding user ids without a foreign key to users
+    private static final Map<String, List<String>> UNCONSTRAINED = Map.of(
+            "conversation", List.of("user_id", "peer_id"),
+            "owner_daily_rollup", List.of("owner_id"),
+            "property_daily_rollup", List.of("owner_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    // Its own JdbcTemplate: Boot makes the shared one wait for Flyway, which waits for this
+    public UserIdMigration(DataSource dataSource,
+                           @Value("${moove.migration.user-id-batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.batchSize = batchSize;
+    }
+
+    // Hibernate must not see the schema until the columns are swapped
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnUserIdMigration() {
+        return new EntityManagerFactoryDependsOnPostProcessor(UserIdMigration.class);
+    }
+
+    // The baseline migration expects uuid user ids
+    @Bean
+    static AbstractDependsOnBeanFactoryPostProcessor flywayDependsOnUserIdMigration() {
+        return new AbstractDependsOnBeanFactoryPostProcessor(FlywayMigrationInitializer.class, UserIdMigration.class) {
+        };
+    }
+
+    @PostConstruct
+    public void migrate() {
+        // the lock is held by this connection's session while the steps run on others from the pool
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres");
+            if (!postgres) {
+                run();
+                return null;
+            }
+            try (Statement statement = connection.createStatement()) {
+                awaitAdvisoryLock(statement);
+                try {
+                    run();
+                } finally {
+                    statement.execute("SELECT pg_advisory_unlock(" + ADVISORY_LOCK_KEY + ")");
+                }
+            }
+            return null;
+        });
+    }
+
+    /*
+     * Polls rather than blocking in pg_advisory_lock: a waiting statement holds
+     * a snapshot, and CREATE INDEX CONCURRENTLY in the holder's run would wait
+     * for that snapshot to go away.
+     */
+    private static void awaitAdvisoryLock(Statement statement) throws SQLException {
+        while (true) {
+            try (ResultSet locked = statement.executeQuery("SELECT pg_try_advisory_lock(" + ADVISORY_LOCK_KEY + ")")) {
+                if (locked.next() && locked.getBoolean(1)) {
+                    return;
+                }
+            }
+            try {
+                Thread.sleep(ADVISORY_LOCK_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for another instance's user id migration", e);
+            }
+        }
+    }
+
+    private void run() {
+        Schema schema = jdbcTemplate.execute((ConnectionCallback<Schema>) Schema::read);
+        if (schema == null || schema.tables.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        log.info("Moving user ids to uuid columns in {}", schema.tables.keySet());
+
+        for (Table table : schema.tables.values()) {
+            for (String column : table.columns) {
+                jdbcTemplate.execute("ALTER TABLE " + table.name + " ADD COLUMN IF NOT EXISTS " + shadow(column) + " uuid");
+            }
+            if (schema.postgres) {
+                createSyncTrigger(table);
+            }
+        }
+        for (Table table : schema.tables.values()) {
+            long rows = backfill(table);
+            log.info("Filled uuid columns of {} for {} rows", table.name, rows);
+        }
+        if (schema.postgres) {
+            for (Table table : schema.tables.values()) {
+                prebuildIndexes(table);
+                provenNotNull(table);
+            }
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            cutover(connection, schema);
+            return null;
+        });
+        if (schema.postgres) {
+            for (ForeignKey foreignKey : schema.foreignKeys) {
+                jdbcTemplate.execute("ALTER TABLE " + foreignKey.table + " VALIDATE CONSTRAINT " + quote(foreignKey.name));
+            }
+        }
+        log.info("User ids moved to uuid columns in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Keyset batches over the table's leading key column, so each one is a short range scan
+    private long backfill(Table table) {
+        String set = String.join(", ", table.columns.stream()
+                .map(column -> shadow(column) + " = CAST(" + column + " AS uuid)").toList());
+        String key = table.batchKey;
+        long rows = 0;
+        Object after = null;
+        while (true) {
+            Object upTo = after == null
+                    ? jdbcTemplate.queryForObject("SELECT MAX(" + key + ") FROM (SELECT " + key + " FROM " + table.name
+                    + " ORDER BY " + key + " LIMIT ?) batch", Object.class, batchSize)
+                    : jdbcTemplate.queryForObject("SELECT MAX(" + key + ") FROM (SELECT " + key + " FROM " + table.name
+                    + " WHERE " + key + " > ? ORDER BY " + key + " LIMIT ?) batch", Object.class, after, batchSize);
+            if (upTo == null) {
+                return rows;
+            }
+            rows += after == null
+                    ? jdbcTemplate.update("UPDATE " + table.name + " SET " + set + " WHERE " + key + " <= ?", upTo)
+                    : jdbcTemplate.update("UPDATE " + table.name + " SET " + set + " WHERE " + key + " > ? AND " + key + " <= ?", after, upTo);
+            after = upTo;
+        }
+    }
+
+    private void createSyncTrigger(Table table) {
+        String function = "moove_sync" + SHADOW_SUFFIX + "_" + table.name;
+        StringBuilder body = new StringBuilder();
+        for (String column : table.columns) {
+            body.append("NEW.").append(shadow(column)).append(" := CAST(NEW.").append(column).append(" AS uuid); ");
+        }
+        jdbcTemplate.execute("CREATE OR REPLACE FUNCTION " + function + "() RETURNS trigger LANGUAGE plpgsql AS $$ BEGIN "
+                + body + "RETURN NEW; END $$");
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS " + function + " ON " + table.name);
+        jdbcTemplate.execute("CREATE TRIGGER " + function + " BEFORE INSERT OR UPDATE ON " + table.name
+                + " FOR EACH ROW EXECUTE FUNCTION " + function + "()");
+    }
+
+    // CONCURRENTLY cannot run in a transaction, so these are built ahead of the swap and renamed in it
+    private void prebuildIndexes(Table table) {
+        if (table.primaryKey != null) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + quote(prebuilt(table.primaryKey.name)));
+            jdbcTemplate.execute("CREATE UNIQUE INDEX CONCURRENTLY " + quote(prebuilt(table.primaryKey.name)) + " ON " + table.name
+                    + " (" + String.join(", ", table.primaryKey.columns.stream().map(c -> table.columns.contains(c) ? shadow(c) : c).toList()) + ")");
+        }
+        for (Index index : table.indexes) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + quote(prebuilt(index.name)));
+            jdbcTemplate.execute("CREATE " + (index.unique ? "UNIQUE " : "") + "INDEX CONCURRENTLY " + quote(prebuilt(index.name))
+                    + " ON " + table.name + " (" + String.join(", ", index.columns.stream().map(c -> table.columns.contains(c) ? shadow(c) : c).toList()) + ")");
+        }
+    }
+
+    /*
+     * SET NOT NULL and ADD PRIMARY KEY scan the table under the swap's
+     * exclusive lock unless a validated CHECK already proves the column has no
+     * nulls. Validating one takes a lock that lets reads and writes through,
+     * and the trigger keeps new rows within it.
+     */
+    private void provenNotNull(Table table) {
+        Set<String> columns = new LinkedHashSet<>(table.notNull);
+        if (table.primaryKey != null) {
+            columns.addAll(table.primaryKey.columns);
+        }
+        for (String column : columns) {
+            if (!table.columns.contains(column)) {
+                continue;
+            }
+            String check = quote(notNullCheck(table.name, column));
+            jdbcTemplate.execute("ALTER TABLE " + table.name + " DROP CONSTRAINT IF EXISTS " + check);
+            jdbcTemplate.execute("ALTER TABLE " + table.name + " ADD CONSTRAINT " + check
+                    + " CHECK (" + shadow(column) + " IS NOT NULL) NOT VALID");
+            jdbcTemplate.execute("ALTER TABLE " + table.name + " VALIDATE CONSTRAINT " + check);
+        }
+    }
+
+    private void cutover(Connection connection, Schema schema) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            if (schema.postgres) {
+                statement.execute("LOCK TABLE " + String.join(", ", schema.tables.keySet()) + " IN ACCESS EXCLUSIVE MODE");
+            } else {
+                // no triggers kept the shadows current; pick up rows written since the backfill
+                for (Table table : schema.tables.values()) {
+                    for (String column : table.columns) {
+                        statement.executeUpdate("UPDATE " + table.name + " SET " + shadow(column) + " = CAST(" + column + " AS uuid) WHERE "
+                                + shadow(column) + " IS NULL AND " + column + " IS NOT NULL");
+                    }
+                }
+            }
+            for (ForeignKey foreignKey : schema.foreignKeys) {
+                statement.execute("ALTER TABLE " + foreignKey.table + " DROP CONSTRAINT " + quote(foreignKey.name));
+            }
+            for (Table table : schema.tables.values()) {
+                if (schema.postgres) {
+                    statement.execute("DROP TRIGGER IF EXISTS moove_sync" + SHADOW_SUFFIX + "_" + table.name + " ON " + table.name);
+                    statement.execute("DROP FUNCTION IF EXISTS moove_sync" + SHADOW_SUFFIX + "_" + table.name + "()");
+                }
+                if (table.primaryKey != null) {
+                    statement.execute("ALTER TABLE " + table.name + " DROP CONSTRAINT " + quote(table.primaryKey.name));
+                }
+            }
+            // read only now: on H2 the constraints just dropped owned indexes of their own
+            List<Index> dropped = new ArrayList<>();
+            for (Table table : schema.tables.values()) {
+                List<Index> indexes = schema.postgres ? table.indexes : Index.read(connection.getMetaData(), schema.name, table);
+                for (Index index : indexes) {
+                    statement.execute("DROP INDEX " + quote(index.name));
+                }
+                dropped.addAll(indexes);
+                for (String column : table.columns) {
+                    statement.execute("ALTER TABLE " + table.name + " DROP COLUMN " + column);
+                    statement.execute("ALTER TABLE " + table.name + " RENAME COLUMN " + shadow(column) + " TO " + column);
+                    if (table.notNull.contains(column)) {
+                        statement.execute("ALTER TABLE " + table.name + " ALTER COLUMN " + column + " SET NOT NULL");
+                    }
+                }
+                if (table.primaryKey != null) {
+                    statement.execute("ALTER TABLE " + table.name + " ADD CONSTRAINT " + quote(table.primaryKey.name) + " PRIMARY KEY "
+                            + (schema.postgres ? "USING INDEX " + quote(prebuilt(table.primaryKey.name)) : "(" + String.join(", ", table.primaryKey.columns) + ")"));
+                }
+                if (schema.postgres) {
+                    // the columns are NOT NULL themselves now
+                    for (String column : table.columns) {
+                        statement.execute("ALTER TABLE " + table.name + " DROP CONSTRAINT IF EXISTS " + quote(notNullCheck(table.name, column)));
+                    }
+                }
+            }
+            for (Index index : dropped) {
+                statement.execute(schema.postgres
+                        ? "ALTER INDEX " + quote(prebuilt(index.name)) + " RENAME TO " + quote(index.name)
+                        : "CREATE " + (index.unique ? "UNIQUE " : "") + "INDEX " + quote(index.name) + " ON " + index.table
+                        + " (" + String.join(", ", index.columns) + ")");
+            }
+            for (ForeignKey foreignKey : schema.foreignKeys) {
+                statement.execute("ALTER TABLE " + foreignKey.table + " ADD CONSTRAINT " + quote(foreignKey.name) + " FOREIGN KEY ("
+                        + foreignKey.column + ") REFERENCES " + USERS + " (" + USER_ID + ")" + foreignKey.onDelete
+                        + (schema.postgres ? " NOT VALID" : ""));
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static String shadow(String column) {
+        return column + SHADOW_SUFFIX;
+    }
+
+    // Names come from metadata as stored, which may not be the case an unquoted name folds to
+    private static String quote(String name) {
+        return "\"" + name.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String prebuilt(String index) {
+        return identifier(index + SHADOW_SUFFIX);
+    }
+
+    private static String notNullCheck(String table, String column) {
+        return identifier(table + "_" + shadow(column) + NOT_NULL_SUFFIX);
+    }
+
+    // PostgreSQL truncates identifiers past 63 bytes; keep the distinct end
+    private static String identifier(String name) {
+        return name.length() <= 63 ? name : name.substring(name.length() - 63);
+    }
+
+    // What the migration touches, read from JDBC metadata before anything changes
+    private record Schema(String name, boolean postgres, Map<String, Table> tables, List<ForeignKey> foreignKeys) {
+
+        static Schema read(Connection connection) throws SQLException {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String schema = connection.getSchema();
+            String userIdType = columnType(metaData, schema, USERS, USER_ID);
+            if (userIdType == null || userIdType.equalsIgnoreCase("uuid")) {
+                return null;
+            }
+            boolean postgres = metaData.getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres");
+
+            Map<String, Set<String>> columns = new LinkedHashMap<>();
+            columns.computeIfAbsent(USERS, t -> new LinkedHashSet<>()).add(USER_ID);
+            List<ForeignKey> foreignKeys = new ArrayList<>();
+            try (ResultSet keys = metaData.getExportedKeys(null, schema, USERS)) {
+                while (keys.next()) {
+                    String table = keys.getString("FKTABLE_NAME").toLowerCase(Locale.ROOT);
+                    String column = keys.getString("FKCOLUMN_NAME").toLowerCase(Locale.ROOT);
+                    columns.computeIfAbsent(table, t -> new LinkedHashSet<>()).add(column);
+                    foreignKeys.add(new ForeignKey(keys.getString("FK_NAME"), table, column,
+                            onDelete(keys.getShort("DELETE_RULE"))));
+                }
+            }
+            for (Map.Entry<String, List<String>> entry : UNCONSTRAINED.entrySet()) {
+                for (String column : entry.getValue()) {
+                    String type = columnType(metaData, schema, entry.getKey(), column);
+                    if (type != null && !type.equalsIgnoreCase("uuid")) {
+                        columns.computeIfAbsent(entry.getKey(), t -> new LinkedHashSet<>()).add(column);
+                    }
+                }
+            }
+
+            Map<String, Table> tables = new LinkedHashMap<>();
+            for (Map.Entry<String, Set<String>> entry : columns.entrySet()) {
+                tables.put(entry.getKey(), Table.read(metaData, schema, entry.getKey(), List.copyOf(entry.getValue()), postgres));
+            }
+            return new Schema(schema, postgres, tables, foreignKeys);
+        }
+
+        private static String columnType(DatabaseMetaData metaData, String schema, String table, String column) throws SQLException {
+            try (ResultSet rs = metaData.getColumns(null, schema, table, column)) {
+                return rs.next() ? rs.getString("TYPE_NAME") : null;
+            }
+        }
+
+        private static String onDelete(short rule) {
+            return switch (rule) {
+                case DatabaseMetaData.importedKeyCascade -> " ON DELETE CASCADE";
+                case DatabaseMetaData.importedKeySetNull -> " ON DELETE SET NULL";
+                default -> "";
+            };
+        }
+    }
+
+    private record Table(String name, List<String> columns, Set<String> notNull, String batchKey,
+                         PrimaryKey primaryKey, List<Index> indexes) {
+
+        static Table read(DatabaseMetaData metaData, String schema, String name, List<String> columns,
+                          boolean postgres) throws SQLException {
+            Set<String> notNull = new LinkedHashSet<>();
+            for (String column : columns) {
+                try (ResultSet rs = metaData.getColumns(null, schema, name, column)) {
+                    if (rs.next() && rs.getInt("NULLABLE") == DatabaseMetaData.columnNoNulls) {
+                        notNull.add(column);
+                    }
+                }
+            }
+            TreeMap<Short, String> keyColumns = new TreeMap<>();
+            String keyName = null;
+            try (ResultSet rs = metaData.getPrimaryKeys(null, schema, name)) {
+                while (rs.next()) {
+                    keyColumns.put(rs.getShort("KEY_SEQ"), rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                    keyName = rs.getString("PK_NAME");
+                }
+            }
+            List<String> key = List.copyOf(keyColumns.values());
+            // only keys over a converted column have to be dropped and rebuilt
+            PrimaryKey primaryKey = key.stream().anyMatch(columns::contains) ? new PrimaryKey(keyName, key) : null;
+            String batchKey = key.isEmpty() ? columns.get(0) : key.get(0);
+            Table table = new Table(name, columns, notNull, batchKey, primaryKey, List.of());
+            // H2 indexes are read again during the swap, once constraint-owned ones are gone
+            return postgres ? new Table(name, columns, notNull, batchKey, primaryKey,
+                    Index.read(metaData, schema, table)) : table;
+        }
+    }
+
+    private record PrimaryKey(String name, List<String> columns) {
+    }
+
+    private record ForeignKey(String name, String table, String column, String onDelete) {
+    }
+
+    private record Index(String name, String table, boolean unique, List<String> columns) {
+
+        // Secondary indexes over at least one converted column
+        static List<Index> read(DatabaseMetaData metaData, String schema, Table table) throws SQLException {
+            Map<String, TreeMap<Short, String>> columns = new LinkedHashMap<>();
+            Map<String, Boolean> unique = new LinkedHashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(null, schema, table.name(), false, false)) {
+                while (rs.next()) {
+                    String name = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (name == null || column == null) {
+                        continue;
+                    }
+                    columns.computeIfAbsent(name, n -> new TreeMap<>()).put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                    unique.put(name, !rs.getBoolean("NON_UNIQUE"));
+                }
+            }
+            List<Index> indexes = new ArrayList<>();
+            for (Map.Entry<String, TreeMap<Short, String>> entry : columns.entrySet()) {
+                List<String> indexColumns = List.copyOf(entry.getValue().values());
+                boolean primary = table.primaryKey() != null && entry.getKey().equals(table.primaryKey().name());
+                if (!primary && indexColumns.stream().anyMatch(table.columns()::contains)) {
+                    indexes.add(new Index(entry.getKey(), table.name(), unique.get(entry.getKey()), indexColumns));
+                }
+            }
+            return indexes;
+        }
+    }
+}
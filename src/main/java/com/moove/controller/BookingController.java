@@ -1,12 +1,16 @@
 package com.moove.controller;
 
+import com.moove.DTO.AvailabilityDTO;
+import com.moove.DTO.BookingSummaryDTO;
+import com.moove.DTO.KeysetPage;
 import com.moove.entity.Booking;
 import com.moove.service.BookingService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/bookings")
@@ -15,13 +19,21 @@ public class BookingController {
     private final BookingService bookingService;
 
     @GetMapping
-    public List<Booking> getAll() {
-        return bookingService.getAll();
+    public KeysetPage<BookingSummaryDTO> getAll(@RequestParam(required = false) Integer after,
+                                                @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        return bookingService.getPage(after, limit);
+    }
+
+    @GetMapping("/availability")
+    public AvailabilityDTO getAvailability(@RequestParam long propertyId,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut) {
+        return bookingService.getAvailability(propertyId, checkIn, checkOut);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Booking> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(bookingService.getById(id));
+    public ResponseEntity<BookingSummaryDTO> getById(@PathVariable int id) {
+        return ResponseEntity.ok(bookingService.getSummaryById(id));
     }
 
     @PostMapping
@@ -29,6 +41,11 @@ public class BookingController {
         return bookingService.save(booking);
     }
 
+    @PutMapping("/confirm/{id}")
+    public BookingSummaryDTO confirm(@PathVariable int id) {
+        return bookingService.confirm(id);
+    }
+
     @PutMapping("/cancel/{id}")
     public void cancel(@PathVariable Long id) {
         bookingService.cancel(id);
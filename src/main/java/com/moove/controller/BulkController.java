@@ -0,0 +1,61 @@
+package com.moove.controller;
+
+import com.moove.DTO.ImportJobDTO;
+import com.moove.service.BulkService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+// Bulk ingestion and export; request and response bodies are streamed, never buffered whole
+@RestController
+@RequestMapping("/api/bulk")
+@CrossOrigin("*")
+@RequiredArgsConstructor
+public class BulkController {
+
+    private final BulkService bulkService;
+
+    @PostMapping("/properties")
+    public ResponseEntity<ImportJobDTO> importProperties(@RequestParam(defaultValue = "csv") String format,
+                                                         HttpServletRequest request) throws IOException {
+        return new ResponseEntity<>(bulkService.importProperties(request.getInputStream(), format), HttpStatus.ACCEPTED);
+    }
+
+    @PostMapping("/bookings")
+    public ResponseEntity<ImportJobDTO> importBookings(@RequestParam(defaultValue = "csv") String format,
+                                                       HttpServletRequest request) throws IOException {
+        return new ResponseEntity<>(bulkService.importBookings(request.getInputStream(), format), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/jobs/{jobExecutionId}")
+    public ResponseEntity<ImportJobDTO> getImport(@PathVariable long jobExecutionId) {
+        return bulkService.getImport(jobExecutionId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/properties")
+    public ResponseEntity<StreamingResponseBody> exportProperties(@RequestParam(defaultValue = "csv") String format) {
+        return export("properties", format, out -> bulkService.exportProperties(out, format));
+    }
+
+    @GetMapping("/bookings")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestParam(defaultValue = "csv") String format) {
+        return export("bookings", format, out -> bulkService.exportBookings(out, format));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> export(String name, String format, StreamingResponseBody body) {
+        MediaType type = "ndjson".equals(format) ? MediaType.APPLICATION_NDJSON : new MediaType("text", "csv");
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,34 @@
+package com.moove.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.moove.DTO.CacheStatsDTO;
+import com.moove.cache.LookupCache;
+import com.moove.cache.ResponseSnapshotCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final List<LookupCache<?, ?>> caches;
+    private final List<ResponseSnapshotCache> snapshotCaches;
+
+    @GetMapping("/stats")
+    public List<CacheStatsDTO> getStats() {
+        return Stream.concat(
+                caches.stream().map(cache -> toDTO(cache.getName(), cache.size(), cache.stats())),
+                snapshotCaches.stream().map(cache -> toDTO(cache.getName(), cache.size(), cache.stats()))
+        ).toList();
+    }
+
+    private static CacheStatsDTO toDTO(String name, long size, CacheStats stats) {
+        return new CacheStatsDTO(name, size, stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+    }
+}
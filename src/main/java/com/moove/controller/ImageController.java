@@ -0,0 +1,197 @@
+package com.moove.controller;
+
+import com.moove.DTO.PropertyImageDTO;
+import com.moove.storage.ImageStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/images")
+@CrossOrigin("*")
+@RequiredArgsConstructor
+public class ImageController {
+
+    private static final Set<Integer> THUMBNAIL_WIDTHS = Set.of(160, 320, 640);
+    private static final String CACHE_FOREVER = "public, max-age=31536000, immutable";
+
+    private final ImageStore imageStore;
+
+    // Single-request upload for small images
+    @PostMapping
+    public ResponseEntity<PropertyImageDTO> upload(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return created(imageStore.store(in), file.getOriginalFilename());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, e.getMessage());
+        }
+    }
+
+    // Chunked upload: start, send chunks in order, then complete
+    @PostMapping("/uploads")
+    public ResponseEntity<Map<String, String>> startUpload() throws IOException {
+        return new ResponseEntity<>(Map.of("uploadId", imageStore.startUpload()), HttpStatus.CREATED);
+    }
+
+    @PutMapping("/uploads/{uploadId}")
+    public Map<String, Long> uploadChunk(@PathVariable String uploadId,
+                                         @RequestParam long offset,
+                                         @RequestParam("chunk") MultipartFile chunk) throws IOException {
+        try (InputStream in = chunk.getInputStream()) {
+            return Map.of("received", imageStore.appendChunk(uploadId, offset, in));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<PropertyImageDTO> completeUpload(@PathVariable String uploadId,
+                                                           @RequestParam(required = false) String fileName) throws IOException {
+        try {
+            return created(imageStore.completeUpload(uploadId), fileName);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping("/{imageId}")
+    public void get(@PathVariable String imageId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImageStore.StoredImage image = imageStore.find(imageId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        serve(image, request, response);
+    }
+
+    @GetMapping("/{imageId}/thumbnail")
+    public void getThumbnail(@PathVariable String imageId,
+                             @RequestParam(defaultValue = "320") int width,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!THUMBNAIL_WIDTHS.contains(width)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Thumbnail width must be one of " + THUMBNAIL_WIDTHS);
+        }
+        ImageStore.StoredImage image = imageStore.find(imageId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        ImageStore.StoredImage thumbnail = imageStore.thumbnail(image, width)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Cannot render a thumbnail for this image"));
+        serve(thumbnail, request, response);
+    }
+
+    private ResponseEntity<PropertyImageDTO> created(ImageStore.StoredImage image, String fileName) {
+        PropertyImageDTO body = new PropertyImageDTO(imageStore.urlFor(image.id()), fileName, image.contentType(), image.size());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(HttpHeaders.LOCATION, imageStore.urlFor(image.id()))
+                .body(body);
+    }
+
+    /*
+     * Stored files are immutable, so the content id doubles as a strong ETag.
+     * Bodies go out through Tomcat's sendfile when the connector supports it,
+     * otherwise through FileChannel.transferTo.
+     */
+    private void serve(ImageStore.StoredImage image, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String etag = "\"" + image.id() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_FOREVER);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long length = image.size();
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(image.contentType());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", image.path().toAbsolutePath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(image.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += file.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+
+    /**
+     * Parses a single "bytes=" range. Returns {start, end} for a satisfiable range,
+     * an empty array when the header should be ignored (malformed or multi-range),
+     * or null when the range is unsatisfiable.
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.contains(",")) {
+            return new long[0];
+        }
+        String spec = header.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -1,27 +1,68 @@
 package com.moove.controller;
 
+import com.moove.DTO.ConversationSummaryDTO;
+import com.moove.DTO.KeysetPage;
 import com.moove.entity.Message;
+import com.moove.service.InboxService;
+import com.moove.service.MessagePushService;
 import com.moove.service.MessageService;
 import lombok.AllArgsConstructor;
 
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/messages")
 @AllArgsConstructor
 public class MessageController {
     private MessageService messageService;
+    private MessagePushService messagePushService;
+    private InboxService inboxService;
 
     @GetMapping("/conversation")
     public List<Message> getConversation(
-            @RequestParam Long senderId,
-            @RequestParam Long receiverId
+            @RequestParam UUID senderId,
+            @RequestParam UUID receiverId,
+            @RequestParam(required = false) Long since
     ) {
+        if (since != null) {
+            return messageService.getConversationSince(senderId, receiverId, since);
+        }
         return messageService.getConversation(senderId, receiverId);
     }
 
+    // Conversations newest first, with the last message and unread count for each
+    @GetMapping("/inbox/{userId}")
+    public KeysetPage<ConversationSummaryDTO> getInbox(@PathVariable UUID userId,
+                                                       @RequestParam(required = false) Long after,
+                                                       @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        return inboxService.getInbox(userId, after, limit);
+    }
+
+    @GetMapping("/inbox/{userId}/unread")
+    public Map<String, Long> getUnreadCount(@PathVariable UUID userId) {
+        return Map.of("unreadCount", inboxService.getUnreadCount(userId));
+    }
+
+    // Read marker: everything from peerId up to message upTo (default: the latest) is read
+    @PutMapping("/inbox/{userId}/{peerId}/read")
+    public ConversationSummaryDTO markRead(@PathVariable UUID userId,
+                                           @PathVariable UUID peerId,
+                                           @RequestParam(required = false) Long upTo) {
+        return inboxService.markRead(userId, peerId, upTo);
+    }
+
+    // Live feed of messages sent to or by the user
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam UUID userId) {
+        return messagePushService.subscribe(userId);
+    }
+
     @PostMapping
     public Message sendMessage(@RequestBody Message message) {
         return messageService.save(message);
@@ -0,0 +1,30 @@
+package com.moove.controller;
+
+import com.moove.DTO.OwnerStatsDTO;
+import com.moove.service.RollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/owners")
+@CrossOrigin("*")
+@RequiredArgsConstructor
+public class OwnerController {
+
+    private final RollupService rollupService;
+
+    // Dashboard stats for an owner's properties; defaults to the last 30 days
+    @GetMapping("/{userId}/stats")
+    public OwnerStatsDTO getStats(@PathVariable UUID userId,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(29) : from;
+        return rollupService.getOwnerStats(userId, start, end);
+    }
+}
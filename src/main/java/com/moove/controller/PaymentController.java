@@ -1,26 +1,33 @@
 package com.moove.controller;
 
+import com.moove.DTO.KeysetPage;
+import com.moove.DTO.PaymentSummaryDTO;
 import com.moove.entity.Payment;
 import com.moove.service.PaymentService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.stereotype.Controller;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
-@Controller
+@RestController
 @RequestMapping("/api/payments")
 @RequiredArgsConstructor
 public class PaymentController {
     private final PaymentService paymentService;
 
     @GetMapping
-    public List<Payment> getAll() {
-        return paymentService.getAll();
+    public KeysetPage<PaymentSummaryDTO> getAll(@RequestParam(required = false) Long after,
+                                                @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        return paymentService.getPage(after, limit);
     }
 
+    // Retries carrying the same Idempotency-Key get the original payment back with 200; a different payment under a used key gets 422
     @PostMapping
-    public Payment create(@RequestBody Payment payment) {
-        return paymentService.save(payment);
+    public ResponseEntity<PaymentSummaryDTO> create(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                    @RequestBody Payment payment) {
+        PaymentService.Recorded recorded = paymentService.record(idempotencyKey, payment);
+        return ResponseEntity.status(recorded.replayed() ? HttpStatus.OK : HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(recorded.replayed()))
+                .body(recorded.payment());
     }
 }
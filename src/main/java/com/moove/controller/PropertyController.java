@@ -1,9 +1,19 @@
 package com.moove.controller;
 
 
+import com.moove.DTO.KeysetPage;
+import com.moove.DTO.NearbyPropertyDTO;
+import com.moove.DTO.PropertySearchCriteria;
+import com.moove.DTO.PropertySearchResultDTO;
+import com.moove.DTO.SimilarPropertyDTO;
+import com.moove.DTO.TextSearchResultDTO;
 import com.moove.entity.Property;
+import com.moove.service.PropertySearchService;
+import com.moove.service.PropertySimilarityService;
 import com.moove.service.PropertyService;
+import com.moove.service.PropertyTextSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,25 +28,77 @@ public class PropertyController {
     @Autowired
     private PropertyService propertyService;
 
+    @Autowired
+    private PropertySearchService propertySearchService;
+
+    @Autowired
+    private PropertyTextSearchService propertyTextSearchService;
+
+    @Autowired
+    private PropertySimilarityService propertySimilarityService;
+
     @PostMapping
     public ResponseEntity<Property> createProperty(@RequestBody Property property) {
         return new ResponseEntity<>(propertyService.addProperty(property), HttpStatus.CREATED);
     }
 
+    // Body is a pre-serialized KeysetPage<PropertySummaryDTO>; If-None-Match gets a 304 while it is unchanged
     @GetMapping
-    public ResponseEntity<List<Property>> getAll() {
-        return ResponseEntity.ok(propertyService.getAllProperties());
+    public ResponseEntity<byte[]> getAll(@RequestParam(required = false) Long after,
+                                         @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit,
+                                         @RequestHeader HttpHeaders headers) {
+        return propertyService.getPropertyPageSnapshot(after, limit).toResponse(headers);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<PropertySearchResultDTO> search(PropertySearchCriteria criteria) {
+        if (criteria.getOffset() < 0 || criteria.getOffset() > KeysetPage.MAX_OFFSET) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(propertySearchService.search(criteria));
     }
 
+    // Free-text search over names, descriptions and reviews; the last word also matches as a prefix
+    @GetMapping("/search/text")
+    public ResponseEntity<TextSearchResultDTO> searchText(@RequestParam String q,
+                                                          @RequestParam(defaultValue = "0") int offset,
+                                                          @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        if (offset < 0 || offset > KeysetPage.MAX_OFFSET) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(propertyTextSearchService.search(q, offset, limit));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyPropertyDTO>> getNearby(@RequestParam double lat,
+                                                             @RequestParam double lng,
+                                                             @RequestParam(defaultValue = "5") double radiusKm,
+                                                             @RequestParam(defaultValue = "50") int limit) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180 || radiusKm < 0 || limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(propertyService.getNearbyProperties(lat, lng, radiusKm, Math.min(limit, 500)));
+    }
+
+    // Body is a pre-serialized PropertyDetailDTO
     @GetMapping("/{id}")
-    public ResponseEntity<Property> getById(@PathVariable Long id) {
-        return propertyService.getPropertyById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<byte[]> getById(@PathVariable Long id, @RequestHeader HttpHeaders headers) {
+        return propertyService.getPropertyDetailSnapshot(id)
+                .map(snapshot -> snapshot.toResponse(headers))
                 .orElse(ResponseEntity.notFound().build());
     }
 
 
 
+    // Precomputed nearest listings by type, price, size, rooms, location and rating
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarPropertyDTO>> getSimilar(@PathVariable Long id,
+                                                               @RequestParam(defaultValue = "10") int limit) {
+        return propertySimilarityService.getSimilar(id, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         propertyService.deleteProperty(id);
@@ -1,12 +1,15 @@
 package com.moove.controller;
 
+import com.moove.DTO.KeysetPage;
+import com.moove.DTO.RatingSummaryDTO;
+import com.moove.DTO.ReviewSummaryDTO;
 import com.moove.entity.Review;
 import com.moove.service.ReviewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -18,41 +21,49 @@ public class ReviewController {
 
     // ✅ Create a new review
     @PostMapping
-    public Review create(@RequestBody Review review) {
-        return reviewService.save(review);
+    public ReviewSummaryDTO create(@RequestBody Review review) {
+        return ReviewSummaryDTO.from(reviewService.save(review));
     }
 
-    // ✅ Get all reviews
+    // ✅ Get reviews, one keyset page at a time
     @GetMapping
-    public List<Review> getAll() {
-        return reviewService.getAll();
+    public KeysetPage<ReviewSummaryDTO> getAll(@RequestParam(required = false) Long after,
+                                               @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        return reviewService.getPage(after, limit);
     }
 
     // ✅ Get a review by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Review> getById(@PathVariable Long id) {
-        Optional<Review> review = reviewService.getById(id);
+    public ResponseEntity<ReviewSummaryDTO> getById(@PathVariable Long id) {
+        Optional<ReviewSummaryDTO> review = reviewService.getById(id);
         return review.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    // ✅ Get all reviews by property ID
+    // ✅ Get all reviews by property ID, as a pre-serialized List<ReviewSummaryDTO> with an ETag
     @GetMapping("/property/{propertyId}")
-    public List<Review> getByPropertyId(@PathVariable Long propertyId) {
-        return reviewService.getByPropertyId(propertyId);
+    public ResponseEntity<byte[]> getByPropertyId(@PathVariable Long propertyId, @RequestHeader HttpHeaders headers) {
+        return reviewService.getByPropertyIdSnapshot(propertyId).toResponse(headers);
+    }
+
+    // ✅ Get rating aggregates for a property
+    @GetMapping("/property/{propertyId}/summary")
+    public RatingSummaryDTO getSummaryByPropertyId(@PathVariable Long propertyId) {
+        return reviewService.getSummaryByPropertyId(propertyId);
     }
 
     // ✅ Update a review
     @PutMapping("/{id}")
-    public ResponseEntity<Review> update(@PathVariable Long reviewId, @RequestBody Review updatedReview) {
+    public ResponseEntity<ReviewSummaryDTO> update(@PathVariable("id") Long reviewId, @RequestBody Review updatedReview) {
         Optional<Review> review = reviewService.update(reviewId, updatedReview);
-        return review.map(ResponseEntity::ok)
+        return review.map(ReviewSummaryDTO::from)
+                .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     // ✅ Delete a review
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(@PathVariable Long reviewId) {
+    public ResponseEntity<Void> delete(@PathVariable("id") Long reviewId) {
         boolean deleted = reviewService.delete(reviewId);
         if (deleted) {
             return ResponseEntity.noContent().build();
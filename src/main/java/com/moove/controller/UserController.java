@@ -1,14 +1,16 @@
 package com.moove.controller;
 
 
+import com.moove.DTO.KeysetPage;
+import com.moove.DTO.UserSummaryDTO;
 import com.moove.entity.User;
 import com.moove.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/users")
@@ -18,15 +20,16 @@ public class UserController {
     @Autowired
     private UserService userService;
 
-    // Get all users
+    // Get users, one keyset page at a time
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<KeysetPage<UserSummaryDTO>> getAllUsers(@RequestParam(required = false) UUID after,
+                                                                  @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(userService.getUserPage(after, limit));
     }
 
     // Get user by userId
     @GetMapping("/{userId}")
-    public ResponseEntity<User> getUserById(@PathVariable("userId")String userId) {
+    public ResponseEntity<User> getUserById(@PathVariable("userId") UUID userId) {
         Optional<User> user = userService.getUserById(userId);
         return user.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
@@ -63,7 +66,7 @@ public class UserController {
 
     // Delete a user by ID
     @DeleteMapping("/{userId}")
-    public ResponseEntity<String> deleteUser(@PathVariable("userId") String userId) {
+    public ResponseEntity<String> deleteUser(@PathVariable("userId") UUID userId) {
         userService.deleteUser(userId);
         return ResponseEntity.ok("User deleted successfully.");
     }
@@ -0,0 +1,99 @@
+package com.moove.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * A second connection pool on a read replica, used when
+ * {@code moove.datasource.replica.url} is set. The primary pool is still
+ * configured through {@code spring.datasource.*}; the replica through
+ * {@code moove.datasource.replica.*}, with pool settings under its
+ * {@code hikari} prefix. The application's DataSource routes between the two
+ * (see {@link ReadWriteRoutingDataSource}). Under AOT this condition is fixed
+ * when the app is processed, so the startup build must see the replica url.
+ */
+@Configuration
+@ConditionalOnProperty("moove.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    private static final String DEFAULT_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() " +
+            "THEN 0 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("moove.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties primary,
+                                              @Value("${moove.datasource.replica.url}") String url,
+                                              @Value("${moove.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${moove.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primary.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${moove.datasource.replica.lag-query:" + DEFAULT_LAG_QUERY + "}") String lagQuery,
+                                               @Value("${moove.datasource.replica.max-lag:5s}") Duration maxLag,
+                                               @Value("${moove.datasource.replica.lag-check-interval:1s}") Duration checkInterval,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replica, lagQuery, maxLag, checkInterval, meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(@Value("${moove.datasource.replica.sticky-window:10s}") Duration window,
+                                         @Value("${moove.datasource.replica.sticky-max-clients:100000}") long maxClients) {
+        return new ReadYourWrites(window, maxClients);
+    }
+
+    // Lazy, so the route is chosen at the first statement, once the transaction's read-only flag is known
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor, ReadYourWrites readYourWrites,
+                                 MeterRegistry meterRegistry) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, replicaLagMonitor,
+                readYourWrites, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Ahead of everything that may open a transaction for the request
+    @Bean
+    public FilterRegistrationBean<ReplicaStickinessFilter> replicaStickinessFilter(ReadYourWrites readYourWrites) {
+        FilterRegistrationBean<ReplicaStickinessFilter> registration =
+                new FilterRegistrationBean<>(new ReplicaStickinessFilter(readYourWrites));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
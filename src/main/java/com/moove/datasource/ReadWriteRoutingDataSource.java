@@ -0,0 +1,85 @@
+package com.moove.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to the
+ * read replica and everything else to the primary. A read still goes to the
+ * primary while the replica lags too far or cannot be checked, and while the
+ * requesting client has a recent write the replica may not have yet. The
+ * route is decided when a connection is first used, so this must sit behind
+ * a LazyConnectionDataSourceProxy: the transaction's read-only flag is only
+ * set after its connection has been requested.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWrites readYourWrites;
+    private final Counter toPrimary;
+    private final Counter toReplica;
+    private final Counter readsOnPrimary;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                      ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.toPrimary = routed(meterRegistry, Route.PRIMARY);
+        this.toReplica = routed(meterRegistry, Route.REPLICA);
+        this.readsOnPrimary = Counter.builder("moove.datasource.replica.fallbacks")
+                .description("Read-only connections sent to the primary because of replica lag or a recent write")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWrite();
+            toPrimary.increment();
+            return Route.PRIMARY;
+        }
+        if (readYourWrites.mustReadPrimary() || !lagMonitor.usable()) {
+            readsOnPrimary.increment();
+            toPrimary.increment();
+            return Route.PRIMARY;
+        }
+        toReplica.increment();
+        return Route.REPLICA;
+    }
+
+    // A read-write transaction from a request makes its client sticky once it commits. Synchronization
+    // is also active in SUPPORTS scopes without a transaction, whose "commit" wrote nothing.
+    private void rememberWrite() {
+        String client = readYourWrites.currentClient();
+        if (client == null || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWrites.wrote(client);
+            }
+        });
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, Route route) {
+        return Counter.builder("moove.datasource.connections.routed")
+                .description("Connections handed out by the read/write router")
+                .tag("target", route.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+}
@@ -0,0 +1,70 @@
+package com.moove.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.core.task.TaskDecorator;
+
+import java.time.Duration;
+
+/**
+ * Clients that wrote recently, whose reads stay on the primary until the
+ * replica has had time to catch up with their write. The client handling
+ * the current request is bound to the thread by {@link ReplicaStickinessFilter}.
+ * Tasks handed to the application task executor carry the client of the
+ * thread that submitted them; other work off a request thread has no client
+ * and is never sticky.
+ */
+public class ReadYourWrites implements TaskDecorator {
+
+    private final ThreadLocal<String> currentClient = new ThreadLocal<>();
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWrites(Duration window, long maxClients) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxClients)
+                .build();
+    }
+
+    public void bind(String client) {
+        currentClient.set(client);
+    }
+
+    public void unbind() {
+        currentClient.remove();
+    }
+
+    public String currentClient() {
+        return currentClient.get();
+    }
+
+    public void wrote(String client) {
+        recentWriters.put(client, Boolean.TRUE);
+    }
+
+    public boolean mustReadPrimary() {
+        String client = currentClient.get();
+        return client != null && recentWriters.getIfPresent(client) != null;
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        String client = currentClient.get();
+        if (client == null) {
+            return task;
+        }
+        return () -> {
+            String previous = currentClient.get();
+            currentClient.set(client);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    currentClient.remove();
+                } else {
+                    currentClient.set(previous);
+                }
+            }
+        };
+    }
+}
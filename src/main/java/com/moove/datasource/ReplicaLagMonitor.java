@@ -0,0 +1,64 @@
+package com.moove.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Polls how far the read replica trails the primary. The replica takes reads
+ * only while the last check succeeded and found it within the allowed lag;
+ * until the first successful check, or while it is unreachable, reads stay
+ * on the primary. A result older than two check intervals means the checks
+ * have stalled (a hung query, a starved scheduler), and counts as unknown.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final long maxAgeNanos;
+    // -1 while unknown or unreachable
+    private volatile long lagMillis = -1;
+    // System.nanoTime() of the last successful check
+    private volatile long checkedAt;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, Duration checkInterval,
+                             MeterRegistry meterRegistry) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(5);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.maxAgeNanos = checkInterval.multipliedBy(2).toNanos();
+        Gauge.builder("moove.datasource.replica.lag", this, monitor -> monitor.lagMillis / 1000.0)
+                .description("Seconds the read replica trails the primary, -1 when it could not be checked")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        check();
+    }
+
+    @Scheduled(fixedDelayString = "${moove.datasource.replica.lag-check-interval:1s}",
+            initialDelayString = "${moove.datasource.replica.lag-check-interval:1s}")
+    public void check() {
+        try {
+            Number seconds = replica.queryForObject(lagQuery, Number.class);
+            lagMillis = seconds == null ? 0 : Math.max(0, Math.round(seconds.doubleValue() * 1000));
+            checkedAt = System.nanoTime();
+        } catch (RuntimeException e) {
+            if (lagMillis != -1) {
+                log.warn("Read replica lag check failed, reads go to the primary until it recovers", e);
+            }
+            lagMillis = -1;
+        }
+    }
+
+    public boolean usable() {
+        long lag = lagMillis;
+        return lag >= 0 && lag <= maxLag.toMillis() && System.nanoTime() - checkedAt <= maxAgeNanos;
+    }
+}
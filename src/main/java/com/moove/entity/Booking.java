@@ -5,22 +5,28 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.sql.Time;
+import java.time.LocalDateTime;
 import java.util.Date;
 
 @Entity
 @Getter
 @Setter
 @AllArgsConstructor
-
+@Table(indexes = @Index(name = "idx_booking_property_check_in", columnList = "property_id, check_in_date"))
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private int bookingId;
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn
     private User user;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "property_id")
+    private Property property;
+
 
     private Double totalAmount;
     private Date bookingDate;
@@ -31,6 +37,8 @@ public class Booking {
     private boolean checkedByOwner;
     private boolean conformedByOwner;
     private String status;
+    // Owner confirmation deadline of a PENDING booking
+    private LocalDateTime confirmBy;
 
 
 
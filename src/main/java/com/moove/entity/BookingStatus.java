@@ -0,0 +1,48 @@
+package com.moove.entity;
+
+import java.util.EnumSet;
+
+/**
+ * Lifecycle of a {@link Booking}, stored by name in its status column. A
+ * booking starts PENDING; the owner confirms it or it EXPIRES at its
+ * confirmation deadline. Paying moves a pending or confirmed booking to
+ * PAID, and a confirmed or paid stay is COMPLETED once check-out is over.
+ * CANCELLED, EXPIRED and COMPLETED are final.
+ */
+public enum BookingStatus {
+    PENDING,
+    CONFIRMED,
+    PAID,
+    CANCELLED,
+    EXPIRED,
+    COMPLETED;
+
+    // A null or free-form status predates the state machine and is treated as still pending,
+    // in line with holdsDates
+    public static BookingStatus of(String status) {
+        if (status == null) {
+            return PENDING;
+        }
+        for (BookingStatus known : values()) {
+            if (known.name().equals(status)) {
+                return known;
+            }
+        }
+        return PENDING;
+    }
+
+    // Whether a booking in this status keeps its dates blocked in the calendar and counts in the rollups.
+    // Lenient about legacy free-form values, which were always treated as active.
+    public static boolean holdsDates(String status) {
+        return !CANCELLED.name().equals(status) && !EXPIRED.name().equals(status);
+    }
+
+    public boolean canBecome(BookingStatus next) {
+        return switch (this) {
+            case PENDING -> EnumSet.of(CONFIRMED, PAID, CANCELLED, EXPIRED).contains(next);
+            case CONFIRMED -> EnumSet.of(PAID, CANCELLED, COMPLETED).contains(next);
+            case PAID -> EnumSet.of(CANCELLED, COMPLETED).contains(next);
+            case CANCELLED, EXPIRED, COMPLETED -> false;
+        };
+    }
+}
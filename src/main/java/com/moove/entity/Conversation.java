@@ -0,0 +1,50 @@
+package com.moove.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import java.util.UUID;
+
+// One user's side of a conversation with one peer, kept in step with Message writes
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@IdClass(Conversation.Key.class)
+@Table(indexes = @Index(name = "idx_conversation_user_last_message", columnList = "user_id, last_message_id"))
+public class Conversation {
+
+    @Id
+    private UUID userId;
+
+    @Id
+    private UUID peerId;
+
+    private long lastMessageId;
+    private UUID lastSenderId;
+    private String lastContent;
+    private LocalDateTime lastSentAt;
+
+    private int unreadCount;
+    private long lastReadMessageId;
+
+    public Conversation() {
+
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID userId;
+        private UUID peerId;
+    }
+}
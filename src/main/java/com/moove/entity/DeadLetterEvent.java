@@ -0,0 +1,36 @@
+package com.moove.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// A domain event a consumer kept failing on, kept for inspection and replay
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+public class DeadLetterEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dead_letter_event_seq")
+    @SequenceGenerator(name = "dead_letter_event_seq", sequenceName = "dead_letter_event_seq", allocationSize = 50)
+    private Long id;
+
+    private String consumer;
+    private String eventType; // ReviewChanged, ...
+
+    @Column(length = 4000)
+    private String payload; // JSON
+
+    @Column(length = 1000)
+    private String error;
+
+    private LocalDateTime failedAt;
+
+    public DeadLetterEvent() {
+
+    }
+}
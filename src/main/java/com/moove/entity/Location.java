@@ -13,8 +13,8 @@ import lombok.Setter;
 public class Location {
     private String address;
     private String city;
-    private double lat;
-    private double lng;
+    private Double lat;
+    private Double lng;
 
     public Location() {
 
@@ -2,9 +2,12 @@ package com.moove.entity;
 
 import com.moove.entity.User;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -16,18 +19,20 @@ import java.time.LocalDateTime;
 @Setter
 @AllArgsConstructor
 
+@Table(indexes = @Index(name = "idx_message_sender_receiver_sent", columnList = "sender_user_id, receiver_user_id, sent_at"))
 public class Message {
     @Id
     @GeneratedValue
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User sender;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User receiver;
 
     private String content;
+    // Stamped by MessageService on save; a client-supplied value is ignored
     private LocalDateTime sentAt;
 
     public Message() {
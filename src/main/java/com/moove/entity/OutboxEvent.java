@@ -0,0 +1,59 @@
+package com.moove.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * A domain event written in the same transaction as the change it describes.
+ * {@code publishedAt} stays null until the outbox relay has delivered it.
+ * {@code nextAttemptAt} holds it back while a relay is delivering it or after
+ * a failed delivery; {@code deadAt} is set once the relay gives up on it.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_outbox_event_pending", columnList = "published_at, id"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    private String aggregateType; // Payment, ...
+    private String aggregateId;
+    private String eventType; // PaymentRecorded, ...
+
+    @Column(length = 4000)
+    private String payload; // JSON
+
+    private LocalDateTime createdAt;
+    private LocalDateTime publishedAt;
+
+    @ColumnDefault("0")
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime deadAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    public OutboxEvent() {
+
+    }
+
+    public OutboxEvent(String aggregateType, String aggregateId, String eventType, String payload,
+                       LocalDateTime createdAt) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,45 @@
+package com.moove.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import java.util.UUID;
+
+// Compacted activity across all of an owner's properties on one day
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@IdClass(OwnerDailyRollup.Key.class)
+public class OwnerDailyRollup {
+
+    @Id
+    private UUID ownerId;
+
+    @Id
+    @Column(name = "activity_day")
+    private LocalDate day;
+
+    @Embedded
+    private RollupCounters counters;
+
+    public OwnerDailyRollup() {
+
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID ownerId;
+        private LocalDate day;
+    }
+}
@@ -1,9 +1,12 @@
 package com.moove.entity;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
@@ -14,16 +17,16 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @AllArgsConstructor
-
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_payment_idempotency_key", columnNames = "idempotency_key"))
 public class Payment {
     @Id
     @GeneratedValue
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Booking booking;
 
     private double amount;
@@ -32,6 +35,9 @@ public class Payment {
 
     private LocalDateTime paidAt;
 
+    // Client-supplied Idempotency-Key; a retried request resolves to the payment it first created
+    private String idempotencyKey;
+
     public Payment() {
 
     }
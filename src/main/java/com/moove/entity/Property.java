@@ -1,5 +1,6 @@
 package com.moove.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -15,10 +16,11 @@ import java.util.Collection;
 public class Property {
 
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "property_seq")
+        @SequenceGenerator(name = "property_seq", sequenceName = "property_seq", allocationSize = 50)
         private long propertyId;
 
-        @ManyToOne
+        @ManyToOne(fetch = FetchType.LAZY)
         @JoinColumn(name = "user_Id", nullable = false)
         private User user;
 
@@ -31,9 +33,19 @@ public class Property {
         private int bedroomsAvailable=0;
         private int bathroomsAvailable=0;
 
+        @Embedded
+        private Location location;
 
-        @Lob
+
+        // Link to the image store (or an external URL); image bytes never live in this table
+        @Column(name = "property_image_ref", length = 512)
         private String propertyImageUrl;
+
+        // Inline image payloads from before the image store, moved out by ImageService
+        @Lob
+        @JsonIgnore
+        @Column(name = "property_image_url")
+        private String legacyImageData;
         private String propertyReview;
 
 
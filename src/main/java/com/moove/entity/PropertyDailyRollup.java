@@ -0,0 +1,48 @@
+package com.moove.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import java.util.UUID;
+
+// Compacted activity of one property on one day
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@IdClass(PropertyDailyRollup.Key.class)
+@Table(indexes = @Index(name = "idx_property_daily_rollup_owner_day", columnList = "owner_id, activity_day"))
+public class PropertyDailyRollup {
+
+    @Id
+    private long propertyId;
+
+    @Id
+    @Column(name = "activity_day")
+    private LocalDate day;
+
+    private UUID ownerId;
+
+    @Embedded
+    private RollupCounters counters;
+
+    public PropertyDailyRollup() {
+
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private long propertyId;
+        private LocalDate day;
+    }
+}
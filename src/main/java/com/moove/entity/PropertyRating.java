@@ -0,0 +1,60 @@
+package com.moove.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Running review aggregates for one property, kept in step with Review writes
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+
+public class PropertyRating {
+
+    @Id
+    private long propertyId;
+
+    private int reviewCount;
+    private long ratingSum;
+    private int oneStar;
+    private int twoStar;
+    private int threeStar;
+    private int fourStar;
+    private int fiveStar;
+    // When the aggregate was last counted from the reviews table
+    private LocalDateTime recountedAt;
+    // Bumped by every review write of the property, in its transaction
+    private long reviewVersion;
+    // The review writes reflected in the counts: all of those up to this version
+    private long appliedVersion;
+
+    public PropertyRating() {
+
+    }
+
+    public PropertyRating(long propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public void add(int rating, int count) {
+        reviewCount += count;
+        ratingSum += (long) rating * count;
+        switch (rating) {
+            case 1 -> oneStar += count;
+            case 2 -> twoStar += count;
+            case 3 -> threeStar += count;
+            case 4 -> fourStar += count;
+            case 5 -> fiveStar += count;
+            default -> { }
+        }
+    }
+
+    public double getAverageRating() {
+        return reviewCount == 0 ? 0 : (double) ratingSum / reviewCount;
+    }
+}
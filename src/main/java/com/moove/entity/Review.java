@@ -13,16 +13,17 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 
 @Entity
+@Table(indexes = @Index(name = "idx_review_property", columnList = "property_id"))
 public class Review {
     @Id
     @GeneratedValue
     private Long reviewId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "users_user_id")
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "property_id")
     private Property property;
     private int rating;
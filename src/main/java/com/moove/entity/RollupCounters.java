@@ -0,0 +1,57 @@
+package com.moove.entity;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+// Additive activity counters shared by rollup deltas and the daily rollups they fold into
+@Embeddable
+@Getter
+@Setter
+@AllArgsConstructor
+
+public class RollupCounters {
+    private int bookings;
+    private int bookedNights;
+    private double bookedAmount;
+    private int payments;
+    private double paidAmount;
+    private int reviews;
+    private long ratingSum;
+
+    public RollupCounters() {
+
+    }
+
+    public void add(RollupCounters other) {
+        bookings += other.bookings;
+        bookedNights += other.bookedNights;
+        bookedAmount += other.bookedAmount;
+        payments += other.payments;
+        paidAmount += other.paidAmount;
+        reviews += other.reviews;
+        ratingSum += other.ratingSum;
+    }
+
+    // True once additions and reversals have cancelled out, e.g. a booking and its cancellation
+    public boolean isEmpty() {
+        return bookings == 0 && bookedNights == 0 && bookedAmount == 0 && payments == 0 && paidAmount == 0
+                && reviews == 0 && ratingSum == 0;
+    }
+
+    // Reads the seven counter sums of a grouped query row, starting at column offset
+    public static RollupCounters fromSums(Object[] row, int offset) {
+        return new RollupCounters(intValue(row[offset]), intValue(row[offset + 1]), doubleValue(row[offset + 2]),
+                intValue(row[offset + 3]), doubleValue(row[offset + 4]), intValue(row[offset + 5]),
+                row[offset + 6] == null ? 0 : ((Number) row[offset + 6]).longValue());
+    }
+
+    private static int intValue(Object sum) {
+        return sum == null ? 0 : ((Number) sum).intValue();
+    }
+
+    private static double doubleValue(Object sum) {
+        return sum == null ? 0 : ((Number) sum).doubleValue();
+    }
+}
@@ -0,0 +1,38 @@
+package com.moove.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * One write's contribution to a property's day, appended in the writing
+ * transaction. Appending instead of updating the rollup row keeps concurrent
+ * writers for one property or owner off a shared row; the compactor folds
+ * deltas into the daily rollups and deletes them.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_rollup_delta_property_day", columnList = "property_id, activity_day"))
+public class RollupDelta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rollup_delta_seq")
+    @SequenceGenerator(name = "rollup_delta_seq", sequenceName = "rollup_delta_seq", allocationSize = 500)
+    private Long id;
+
+    private long propertyId;
+    @Column(name = "activity_day")
+    private LocalDate day;
+
+    @Embedded
+    private RollupCounters counters;
+
+    public RollupDelta() {
+
+    }
+}
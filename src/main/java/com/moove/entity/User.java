@@ -1,5 +1,6 @@
 package com.moove.entity;
 
+import com.moove.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -16,13 +17,13 @@ import java.util.UUID;
 public class User {
 
     @Id
-    private String userId;
+    private UUID userId;
 
-    // Generate UUID in constructor or @PrePersist
+    // Time-ordered, so new users append to the key index instead of landing on random pages
     @PrePersist
     public void generateId() {
         if (this.userId == null) {
-            this.userId = UUID.randomUUID().toString();
+            this.userId = UuidV7.next();
         }
     }
 
@@ -0,0 +1,11 @@
+package com.moove.event;
+
+/**
+ * Something that happened in the domain, handed to {@link DomainEventConsumer}s
+ * by the {@link DomainEventBus} once the transaction that caused it commits.
+ */
+public interface DomainEvent {
+
+    // Events with equal keys land in the same partition of a consumer, so each key is handled in order
+    Object key();
+}
@@ -0,0 +1,390 @@
+package com.moove.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moove.entity.DeadLetterEvent;
+import com.moove.repository.DeadLetterEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process delivery of {@link DomainEvent}s to their consumers, once the
+ * publishing transaction commits. Every consumer has its own partitions,
+ * each a bounded queue drained in batches by one worker thread; an event's
+ * key picks the partition, so events for one key are consumed in order.
+ * A full queue holds the publisher back for up to the publish timeout, which
+ * is the backpressure, and the time spent waiting is recorded. Publishers run
+ * in after-commit callbacks, still holding their connection, while consumers
+ * need connections of their own, so the wait is bounded: an event that still
+ * finds the queue full is dead-lettered instead. A batch that fails is
+ * retried with backoff, then split so only the events that still fail are
+ * dead-lettered.
+ * <p>
+ * Queues live in memory: events still queued when the process dies are
+ * lost, so consumers must be able to rebuild their effect from the tables.
+ */
+@Component
+@Slf4j
+public class DomainEventBus implements SmartLifecycle {
+
+    private static final long POLL_MILLIS = 100;
+    private static final long STOP_TIMEOUT_MILLIS = 10_000;
+
+    private final Map<Class<?>, List<Lane>> lanes = new HashMap<>();
+    private final List<Lane> allLanes = new ArrayList<>();
+    private final DeadLetterEventRepository deadLetterEventRepository;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration publishTimeout;
+    // Events queued or being consumed, across all consumers
+    private final AtomicLong pending = new AtomicLong();
+    private volatile boolean running;
+
+    public DomainEventBus(List<DomainEventConsumer<?>> consumers, DeadLetterEventRepository deadLetterEventRepository,
+                          ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                          @Value("${moove.events.queue-capacity:10000}") int queueCapacity,
+                          @Value("${moove.events.batch-size:256}") int batchSize,
+                          @Value("${moove.events.max-attempts:3}") int maxAttempts,
+                          @Value("${moove.events.retry-backoff:200ms}") Duration retryBackoff,
+                          @Value("${moove.events.publish-timeout:500ms}") Duration publishTimeout) {
+        this.deadLetterEventRepository = deadLetterEventRepository;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.publishTimeout = publishTimeout;
+        for (DomainEventConsumer<?> consumer : consumers) {
+            Lane lane = new Lane(consumer, queueCapacity, meterRegistry);
+            lanes.computeIfAbsent(consumer.eventType(), k -> new ArrayList<>()).add(lane);
+            allLanes.add(lane);
+        }
+    }
+
+    // Hands the event to its consumers after the surrounding transaction commits, or now if there is none
+    public void publish(DomainEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(event);
+            }
+        });
+    }
+
+    // Whether every published event has been consumed (or dead-lettered) within the timeout
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pending.get() > 0) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (Lane lane : allLanes) {
+            lane.start();
+        }
+    }
+
+    // Workers finish what is queued before they exit
+    @Override
+    public void stop() {
+        running = false;
+        for (Lane lane : allLanes) {
+            lane.join();
+        }
+        // anything that slipped in while the workers were exiting
+        for (Lane lane : allLanes) {
+            for (Partition partition : lane.partitions) {
+                partition.drain();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Starts before and stops after the web server, so requests never publish into stopped queues
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void dispatch(DomainEvent event) {
+        for (Lane lane : lanes.getOrDefault(event.getClass(), List.of())) {
+            Partition partition = lane.partitionFor(event);
+            if (running) {
+                partition.enqueue(event);
+            } else {
+                // before start-up or after shutdown there are no workers, so the caller delivers
+                lane.deliver(List.of(event));
+            }
+        }
+    }
+
+    // One consumer's partitions and meters
+    private final class Lane {
+
+        private final DomainEventConsumer<DomainEvent> consumer;
+        private final List<Partition> partitions = new ArrayList<>();
+        private final Counter delivered;
+        private final Counter retried;
+        private final Counter deadLettered;
+        private final Timer blocked;
+        private final Counter overflowed;
+
+        @SuppressWarnings("unchecked")
+        Lane(DomainEventConsumer<?> consumer, int queueCapacity, MeterRegistry meterRegistry) {
+            this.consumer = (DomainEventConsumer<DomainEvent>) consumer;
+            for (int i = 0; i < Math.max(1, consumer.partitions()); i++) {
+                partitions.add(new Partition(this, i, queueCapacity));
+            }
+            String name = consumer.name();
+            Gauge.builder("moove.events.queued", partitions,
+                            p -> p.stream().mapToInt(partition -> partition.queue.size()).sum())
+                    .description("Events waiting in the consumer's queues")
+                    .tag("consumer", name)
+                    .register(meterRegistry);
+            Gauge.builder("moove.events.capacity", partitions,
+                            p -> p.stream().mapToInt(partition -> partition.queue.remainingCapacity()).sum())
+                    .description("Free slots left in the consumer's queues")
+                    .tag("consumer", name)
+                    .register(meterRegistry);
+            this.delivered = Counter.builder("moove.events.delivered")
+                    .description("Events the consumer handled")
+                    .tag("consumer", name)
+                    .register(meterRegistry);
+            this.retried = Counter.builder("moove.events.retried")
+                    .description("Batches the consumer failed and was given again")
+                    .tag("consumer", name)
+                    .register(meterRegistry);
+            this.deadLettered = Counter.builder("moove.events.dead.lettered")
+                    .description("Events the consumer gave up on")
+                    .tag("consumer", name)
+                    .register(meterRegistry);
+            this.blocked = Timer.builder("moove.events.publish.blocked")
+                    .description("Time publishers waited on the consumer's full queue")
+                    .tag("consumer", name)
+                    .register(meterRegistry);
+            this.overflowed = Counter.builder("moove.events.overflowed")
+                    .description("Events dead-lettered because the consumer's queue stayed full")
+                    .tag("consumer", name)
+                    .register(meterRegistry);
+        }
+
+        Partition partitionFor(DomainEvent event) {
+            Object key = event.key();
+            return partitions.get(key == null ? 0 : Math.floorMod(key.hashCode(), partitions.size()));
+        }
+
+        void start() {
+            for (Partition partition : partitions) {
+                partition.start();
+            }
+        }
+
+        void join() {
+            for (Partition partition : partitions) {
+                partition.join();
+            }
+        }
+
+        void deliver(List<DomainEvent> batch) {
+            RuntimeException failure = null;
+            for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                try {
+                    consumer.consume(batch);
+                    delivered.increment(batch.size());
+                    return;
+                } catch (RuntimeException e) {
+                    failure = e;
+                    if (attempt < maxAttempts) {
+                        retried.increment();
+                        if (!backOff(attempt)) {
+                            break;
+                        }
+                    }
+                }
+            }
+            if (batch.size() == 1) {
+                deadLetter(batch.get(0), failure);
+                return;
+            }
+            // one bad event should not take its batch with it
+            for (DomainEvent event : batch) {
+                try {
+                    consumer.consume(List.of(event));
+                    delivered.increment();
+                } catch (RuntimeException e) {
+                    deadLetter(event, e);
+                }
+            }
+        }
+
+        private boolean backOff(int attempt) {
+            try {
+                Thread.sleep(retryBackoff.toMillis() * attempt);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void deadLetter(DomainEvent event, RuntimeException failure) {
+            deadLettered.increment();
+            String payload = toJson(event);
+            log.error("Consumer {} gave up on {} {}", consumer.name(), event.getClass().getSimpleName(), payload, failure);
+            try {
+                deadLetterEventRepository.save(new DeadLetterEvent(null, consumer.name(),
+                        event.getClass().getSimpleName(), payload, abbreviate(String.valueOf(failure), 1000),
+                        LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                // the log line above is all that is left of it
+                log.error("Could not store dead letter for consumer {}", consumer.name(), e);
+            }
+        }
+
+        private String toJson(DomainEvent event) {
+            try {
+                return abbreviate(objectMapper.writeValueAsString(event), 4000);
+            } catch (JsonProcessingException e) {
+                return abbreviate(String.valueOf(event), 4000);
+            }
+        }
+
+        private static String abbreviate(String value, int max) {
+            return value.length() <= max ? value : value.substring(0, max);
+        }
+    }
+
+    // A bounded queue and the worker thread draining it
+    private final class Partition {
+
+        private final Lane lane;
+        private final BlockingQueue<DomainEvent> queue;
+        private final String threadName;
+        private Thread worker;
+
+        Partition(Lane lane, int index, int queueCapacity) {
+            this.lane = lane;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.threadName = "moove-events-" + lane.consumer.name() + "-" + index;
+        }
+
+        void enqueue(DomainEvent event) {
+            pending.incrementAndGet();
+            if (queue.offer(event)) {
+                return;
+            }
+            long startedAt = System.nanoTime();
+            boolean queued;
+            try {
+                queued = queue.offer(event, publishTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            } finally {
+                lane.blocked.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+            if (!queued) {
+                pending.decrementAndGet();
+                lane.overflowed.increment();
+                lane.deadLetter(event, new RejectedExecutionException(
+                        threadName + " queue still full after " + publishTimeout.toMillis() + " ms"));
+            }
+        }
+
+        void start() {
+            worker = new Thread(this::run, threadName);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        void join() {
+            if (worker == null) {
+                return;
+            }
+            try {
+                worker.join(STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.isAlive()) {
+                log.warn("{} did not finish its queue within {} ms", threadName, STOP_TIMEOUT_MILLIS);
+            }
+            worker = null;
+        }
+
+        // Delivers whatever is queued on the calling thread
+        void drain() {
+            List<DomainEvent> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                deliver(batch);
+                batch.clear();
+            }
+        }
+
+        private void run() {
+            List<DomainEvent> batch = new ArrayList<>(batchSize);
+            while (running || !queue.isEmpty()) {
+                DomainEvent first;
+                try {
+                    first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+                batch.clear();
+            }
+        }
+
+        private void deliver(List<DomainEvent> batch) {
+            try {
+                lane.deliver(batch);
+            } catch (RuntimeException e) {
+                log.error("{} dropped a batch of {} events", threadName, batch.size(), e);
+            } finally {
+                pending.addAndGet(-batch.size());
+            }
+        }
+    }
+}
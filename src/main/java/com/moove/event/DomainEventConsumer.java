@@ -0,0 +1,24 @@
+package com.moove.event;
+
+import java.util.List;
+
+/**
+ * A side effect run off the write path. Each consumer gets its own bounded
+ * queues and worker threads on the {@link DomainEventBus}, so a slow one
+ * backs up only itself. {@link #consume} receives batches; throwing retries
+ * the batch, so it should be safe to apply twice.
+ */
+public interface DomainEventConsumer<E extends DomainEvent> {
+
+    // Names the consumer's threads, metrics and dead letters
+    String name();
+
+    Class<E> eventType();
+
+    void consume(List<E> events);
+
+    // Queues and workers, each taking a share of the keys; more than one runs the consumer on several cores
+    default int partitions() {
+        return 1;
+    }
+}
@@ -0,0 +1,11 @@
+package com.moove.event;
+
+import com.moove.DTO.MessageDTO;
+
+public record MessageSent(MessageDTO message) implements DomainEvent {
+
+    @Override
+    public Object key() {
+        return message.getReceiverId();
+    }
+}
@@ -0,0 +1,10 @@
+package com.moove.event;
+
+// A PAID payment against a booking
+public record PaymentRecorded(long paymentId, int bookingId) implements DomainEvent {
+
+    @Override
+    public Object key() {
+        return bookingId;
+    }
+}
@@ -0,0 +1,11 @@
+package com.moove.event;
+
+// A review of the property was added, edited or deleted: the rating it took away and the one it added, 0 for none.
+// The version numbers the property's review writes in commit order; 0 when the property had no aggregate yet.
+public record ReviewChanged(long propertyId, long version, int removedRating, int addedRating) implements DomainEvent {
+
+    @Override
+    public Object key() {
+        return propertyId;
+    }
+}
@@ -0,0 +1,42 @@
+package com.moove.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDs (RFC 9562 version 7): 48 bits of Unix milliseconds,
+ * then a 12-bit sequence, then 62 random bits. New keys sort after every key
+ * handed out before them, so inserts append to the right edge of the primary
+ * key index instead of landing on random pages.
+ * <p>
+ * Within one millisecond the sequence counts up; once it runs out the
+ * timestamp is borrowed from the next millisecond, so ids stay strictly
+ * increasing per JVM even if the wall clock steps back.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    // (unix millis << 12) | sequence of the last id handed out
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long epochMillis) {
+        long floor = epochMillis << 12;
+        long stamp = LAST.updateAndGet(last -> Math.max(floor, last + 1));
+        long msb = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        long lsb = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    // The millisecond an id was minted in
+    public static long timestamp(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+}
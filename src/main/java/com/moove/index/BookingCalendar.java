@@ -0,0 +1,121 @@
+package com.moove.index;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Booked stays per property, kept as non-overlapping half-open day ranges
+ * [checkIn, checkOut) ordered by check-in. Because accepted stays never overlap,
+ * the only candidate conflict for a new range is the stay starting last before
+ * its check-out, so availability is a single O(log n) floor lookup.
+ * Writers serialize per property through a fixed set of striped locks.
+ * Each instance sees only its own writes, so a stay found here is a hint
+ * to confirm against the bookings table, not an answer.
+ */
+@Component
+public class BookingCalendar {
+
+    private static final int STRIPES = 64;
+
+    private final Map<Long, NavigableMap<Long, Stay>> stays = new ConcurrentHashMap<>();
+    private final Lock[] locks = new Lock[STRIPES];
+
+    public BookingCalendar() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // Hold this lock across isFree -> persist -> add to make the check-and-book atomic
+    public Lock lockFor(long propertyId) {
+        return locks[stripe(propertyId)];
+    }
+
+    // Locks for several properties at once, acquired in stripe order so batch writers cannot deadlock
+    public List<Lock> lockAll(Collection<Long> propertyIds) {
+        SortedSet<Integer> stripes = new TreeSet<>();
+        for (Long propertyId : propertyIds) {
+            stripes.add(stripe(propertyId));
+        }
+        List<Lock> held = new ArrayList<>(stripes.size());
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+            held.add(locks[stripe]);
+        }
+        return held;
+    }
+
+    public boolean isFree(long propertyId, LocalDate checkIn, LocalDate checkOut) {
+        return findConflict(propertyId, checkIn, checkOut) == null;
+    }
+
+    public Stay findConflict(long propertyId, LocalDate checkIn, LocalDate checkOut) {
+        NavigableMap<Long, Stay> calendar = stays.get(propertyId);
+        if (calendar == null) {
+            return null;
+        }
+        Map.Entry<Long, Stay> candidate = calendar.lowerEntry(checkOut.toEpochDay());
+        if (candidate != null && candidate.getValue().checkOut() > checkIn.toEpochDay()) {
+            return candidate.getValue();
+        }
+        return null;
+    }
+
+    public void add(long propertyId, int bookingId, LocalDate checkIn, LocalDate checkOut) {
+        stays.computeIfAbsent(propertyId, k -> new ConcurrentSkipListMap<>())
+                .put(checkIn.toEpochDay(), new Stay(bookingId, checkIn.toEpochDay(), checkOut.toEpochDay()));
+    }
+
+    public void remove(long propertyId, int bookingId, LocalDate checkIn) {
+        NavigableMap<Long, Stay> calendar = stays.get(propertyId);
+        if (calendar != null) {
+            calendar.computeIfPresent(checkIn.toEpochDay(), (k, stay) -> stay.bookingId() == bookingId ? null : stay);
+        }
+    }
+
+    // Forgets every stay overlapping [from, to), before the range is refilled from the table
+    public void removeOverlapping(long propertyId, LocalDate from, LocalDate to) {
+        NavigableMap<Long, Stay> calendar = stays.get(propertyId);
+        if (calendar == null) {
+            return;
+        }
+        for (Stay stay : calendar.headMap(to.toEpochDay(), false).descendingMap().values()) {
+            if (stay.checkOut() <= from.toEpochDay()) {
+                break;
+            }
+            calendar.remove(stay.checkIn(), stay);
+        }
+    }
+
+    public void clear() {
+        stays.clear();
+    }
+
+    private static int stripe(long propertyId) {
+        int hash = Long.hashCode(propertyId);
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    public record Stay(int bookingId, long checkIn, long checkOut) {
+
+        public LocalDate checkInDate() {
+            return LocalDate.ofEpochDay(checkIn);
+        }
+
+        public LocalDate checkOutDate() {
+            return LocalDate.ofEpochDay(checkOut);
+        }
+    }
+}
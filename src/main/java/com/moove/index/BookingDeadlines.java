@@ -0,0 +1,106 @@
+package com.moove.index;
+
+import com.moove.entity.BookingStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Confirmation and check-out deadlines of open bookings, on a
+ * {@link TimingWheel} with one-second ticks. A pending booking expires at its
+ * confirmBy; a confirmed or paid one completes when its check-out day is
+ * over. Deadlines are not withdrawn when a booking moves on: the service that
+ * applies them re-checks each booking's status, so a stale one does nothing.
+ */
+@Component
+public class BookingDeadlines {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 64;
+
+    private final TimingWheel<Deadline> wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+    private final Duration confirmationWindow;
+
+    public BookingDeadlines(@Value("${moove.booking.confirmation-window:24h}") Duration confirmationWindow,
+                            MeterRegistry meterRegistry) {
+        this.confirmationWindow = confirmationWindow;
+        Gauge.builder("moove.booking.deadlines", wheel, TimingWheel::size)
+                .description("Booking deadlines waiting on the timing wheel")
+                .register(meterRegistry);
+    }
+
+    // Whole seconds, so the deadline the wheel fires on is never earlier than the stored one
+    public LocalDateTime confirmationDeadline(LocalDateTime from) {
+        return from.plus(confirmationWindow).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    public void schedule(int bookingId, BookingStatus status, LocalDateTime confirmBy, LocalDate checkOut) {
+        Long completesAt = checkOut == null ? null : toMillis(checkOut.plusDays(1).atStartOfDay());
+        switch (status) {
+            case PENDING -> {
+                if (confirmBy == null) {
+                    return;
+                }
+                long expiresAt = toMillis(confirmBy);
+                wheel.schedule(expiresAt, new Deadline(bookingId, Transition.EXPIRE));
+                // Paying skips confirmation, so a pending booking may still need completing; after its
+                // confirmBy it has either expired or been confirmed, which schedules its own completion
+                if (completesAt != null) {
+                    wheel.schedule(Math.max(completesAt, expiresAt), new Deadline(bookingId, Transition.COMPLETE));
+                }
+            }
+            case CONFIRMED, PAID -> {
+                if (completesAt != null) {
+                    wheel.schedule(completesAt, new Deadline(bookingId, Transition.COMPLETE));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Deadlines a failed transition could not apply, to be tried again later
+    public void retry(List<Deadline> deadlines, Instant at) {
+        for (Deadline deadline : deadlines) {
+            wheel.schedule(at.toEpochMilli(), deadline);
+        }
+    }
+
+    public List<Deadline> advance(Instant now) {
+        return wheel.advance(now.toEpochMilli());
+    }
+
+    // The wheel's clock: every deadline it has returned is at or before this
+    public Instant time() {
+        return Instant.ofEpochMilli(wheel.time());
+    }
+
+    public int size() {
+        return wheel.size();
+    }
+
+    public void clear() {
+        wheel.clear();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public enum Transition {
+        EXPIRE,
+        COMPLETE
+    }
+
+    public record Deadline(int bookingId, Transition transition) {
+    }
+}
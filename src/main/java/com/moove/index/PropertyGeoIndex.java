@@ -0,0 +1,154 @@
+package com.moove.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory lat/lng grid over property coordinates.
+ * The globe is cut into fixed-size cells, so a radius query only visits the
+ * cells overlapping its bounding box instead of every listing.
+ */
+@Component
+public class PropertyGeoIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private final double cellDegrees;
+    private final int lngCells;
+
+    private final Map<Long, Map<Long, Point>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Point> points = new ConcurrentHashMap<>();
+
+    public PropertyGeoIndex() {
+        this(0.05); // ~5.5 km of latitude per cell
+    }
+
+    public PropertyGeoIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.lngCells = (int) Math.ceil(360.0 / cellDegrees);
+    }
+
+    public void put(long propertyId, double lat, double lng) {
+        Point point = new Point(propertyId, lat, lng, cellKey(lat, lng));
+        Point previous = points.put(propertyId, point);
+        if (previous != null && previous.cell != point.cell) {
+            removeFromCell(previous);
+        }
+        cells.compute(point.cell, (k, cell) -> {
+            Map<Long, Point> target = cell == null ? new ConcurrentHashMap<>() : cell;
+            target.put(propertyId, point);
+            return target;
+        });
+    }
+
+    public void remove(long propertyId) {
+        Point previous = points.remove(propertyId);
+        if (previous != null) {
+            removeFromCell(previous);
+        }
+    }
+
+    public void clear() {
+        points.clear();
+        cells.clear();
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    /**
+     * Returns up to {@code limit} properties within {@code radiusKm} of the given point,
+     * nearest first.
+     */
+    public List<Hit> nearby(double lat, double lng, double radiusKm, int limit) {
+        if (limit <= 0 || radiusKm < 0) {
+            return List.of();
+        }
+
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        int minLatCell = latCell(Math.max(-90.0, lat - latSpan));
+        int maxLatCell = latCell(Math.min(90.0, lat + latSpan));
+
+        double cosLat = Math.cos(Math.toRadians(Math.min(89.9, Math.abs(lat) + latSpan)));
+        double lngSpan = radiusKm / (KM_PER_DEGREE * cosLat);
+        int firstLngCell;
+        int lngCellCount;
+        if (lngSpan >= 180.0) {
+            firstLngCell = 0;
+            lngCellCount = lngCells;
+        } else {
+            firstLngCell = lngCell(lng - lngSpan);
+            lngCellCount = Math.min(lngCells, Math.floorMod(lngCell(lng + lngSpan) - firstLngCell, lngCells) + 1);
+        }
+
+        // max-heap on distance, so the farthest candidate is evicted first
+        PriorityQueue<Hit> nearest = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Hit::distanceKm).reversed());
+        for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            for (int i = 0; i < lngCellCount; i++) {
+                int lngCell = (firstLngCell + i) % lngCells;
+                Map<Long, Point> cell = cells.get((long) latCell * lngCells + lngCell);
+                if (cell == null) {
+                    continue;
+                }
+                for (Point point : cell.values()) {
+                    double distance = distanceKm(lat, lng, point.lat, point.lng);
+                    if (distance > radiusKm) {
+                        continue;
+                    }
+                    if (nearest.size() < limit) {
+                        nearest.add(new Hit(point.propertyId, distance));
+                    } else if (distance < nearest.peek().distanceKm()) {
+                        nearest.poll();
+                        nearest.add(new Hit(point.propertyId, distance));
+                    }
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(nearest);
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits;
+    }
+
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private void removeFromCell(Point point) {
+        cells.computeIfPresent(point.cell, (k, cell) -> {
+            cell.remove(point.propertyId, point);
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+
+    private long cellKey(double lat, double lng) {
+        return (long) latCell(lat) * lngCells + lngCell(lng);
+    }
+
+    private int latCell(double lat) {
+        return (int) Math.floor((Math.max(-90.0, Math.min(90.0, lat)) + 90.0) / cellDegrees);
+    }
+
+    private int lngCell(double lng) {
+        return Math.floorMod((int) Math.floor((lng + 180.0) / cellDegrees), lngCells);
+    }
+
+    private record Point(long propertyId, double lat, double lng, long cell) {
+    }
+
+    public record Hit(long propertyId, double distanceKm) {
+    }
+}
@@ -0,0 +1,281 @@
+package com.moove.index;
+
+import com.moove.DTO.PropertySearchCriteria;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index over the filterable listing fields.
+ * Every listing owns a slot; type, city, bedrooms and bathrooms keep one
+ * {@link BitSet} per value, while price and size live in flat columns that are
+ * checked only for slots that survive the bitmap filters. Facet counts are
+ * gathered in the same pass that collects the matches.
+ */
+@Component
+public class PropertySearchIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private int nextSlot = 0;
+
+    private long[] ids = new long[1024];
+    private String[] types = new String[1024];
+    private String[] cities = new String[1024];
+    private int[] bedrooms = new int[1024];
+    private int[] bathrooms = new int[1024];
+    private double[] prices = new double[1024];
+    private double[] sizes = new double[1024];
+
+    private final Map<String, BitSet> byType = new HashMap<>();
+    private final Map<String, BitSet> byCity = new HashMap<>();
+    private final NavigableMap<Integer, BitSet> byBedrooms = new TreeMap<>();
+    private final NavigableMap<Integer, BitSet> byBathrooms = new TreeMap<>();
+
+    public void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = slots.get(document.propertyId());
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                unlink(slot);
+            } else {
+                slot = freeSlots.isEmpty() ? nextSlot++ : freeSlots.pop();
+                ensureCapacity(slot);
+                slots.put(document.propertyId(), slot);
+            }
+
+            ids[slot] = document.propertyId();
+            types[slot] = normalizeType(document.type());
+            cities[slot] = normalizeCity(document.city());
+            bedrooms[slot] = document.bedrooms();
+            bathrooms[slot] = document.bathrooms();
+            prices[slot] = document.price();
+            sizes[slot] = document.size();
+
+            bitmap(byType, types[slot]).set(slot);
+            bitmap(byCity, cities[slot]).set(slot);
+            bitmap(byBedrooms, bedrooms[slot]).set(slot);
+            bitmap(byBathrooms, bathrooms[slot]).set(slot);
+            live.set(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long propertyId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(propertyId);
+            if (slot != null) {
+                unlink(slot);
+                live.clear(slot);
+                freeSlots.push(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slots.clear();
+            freeSlots.clear();
+            live.clear();
+            nextSlot = 0;
+            byType.clear();
+            byCity.clear();
+            byBedrooms.clear();
+            byBathrooms.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Result search(PropertySearchCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) live.clone();
+            if (criteria.getType() != null && !criteria.getType().isEmpty()) {
+                BitSet anyType = new BitSet();
+                for (String type : criteria.getType()) {
+                    BitSet bits = byType.get(normalizeType(type));
+                    if (bits != null) {
+                        anyType.or(bits);
+                    }
+                }
+                matches.and(anyType);
+            }
+            if (criteria.getCity() != null && !criteria.getCity().isBlank()) {
+                matches.and(byCity.getOrDefault(normalizeCity(criteria.getCity()), new BitSet()));
+            }
+            if (criteria.getBedrooms() != null) {
+                matches.and(union(byBedrooms.tailMap(criteria.getBedrooms(), true).values()));
+            }
+            if (criteria.getBathrooms() != null) {
+                matches.and(union(byBathrooms.tailMap(criteria.getBathrooms(), true).values()));
+            }
+
+            double minPrice = criteria.getMinPrice() == null ? Double.NEGATIVE_INFINITY : criteria.getMinPrice();
+            double maxPrice = criteria.getMaxPrice() == null ? Double.POSITIVE_INFINITY : criteria.getMaxPrice();
+            double minSize = criteria.getMinSize() == null ? Double.NEGATIVE_INFINITY : criteria.getMinSize();
+            double maxSize = criteria.getMaxSize() == null ? Double.POSITIVE_INFINITY : criteria.getMaxSize();
+
+            int offset = Math.max(0, criteria.getOffset());
+            int limit = Math.max(0, criteria.getLimit());
+            Comparator<Integer> order = order(criteria.getSort());
+            // Never more than there are matches, so the heap is bounded by the index rather than the request
+            int keep = (int) Math.min((long) offset + limit, matches.cardinality());
+            // max-heap on the requested order, holding the first offset + limit slots
+            PriorityQueue<Integer> top = new PriorityQueue<>(order.reversed());
+
+            Map<String, Integer> typeFacet = new HashMap<>();
+            Map<String, Integer> cityFacet = new HashMap<>();
+            Map<Integer, Integer> bedroomFacet = new TreeMap<>();
+            Map<Integer, Integer> bathroomFacet = new TreeMap<>();
+            int total = 0;
+
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                if (prices[slot] < minPrice || prices[slot] > maxPrice || sizes[slot] < minSize || sizes[slot] > maxSize) {
+                    continue;
+                }
+                total++;
+                typeFacet.merge(types[slot], 1, Integer::sum);
+                cityFacet.merge(cities[slot], 1, Integer::sum);
+                bedroomFacet.merge(bedrooms[slot], 1, Integer::sum);
+                bathroomFacet.merge(bathrooms[slot], 1, Integer::sum);
+
+                if (keep > 0) {
+                    top.add(slot);
+                    if (top.size() > keep) {
+                        top.poll();
+                    }
+                }
+            }
+
+            List<Integer> ordered = new ArrayList<>(top);
+            ordered.sort(order);
+            List<Long> page = new ArrayList<>(Math.max(0, Math.min(limit, ordered.size() - offset)));
+            for (int i = offset; i < ordered.size(); i++) {
+                page.add(ids[ordered.get(i)]);
+            }
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put("propertyType", stringKeys(typeFacet));
+            facets.put("city", stringKeys(cityFacet));
+            facets.put("bedroomsAvailable", stringKeys(bedroomFacet));
+            facets.put("bathroomsAvailable", stringKeys(bathroomFacet));
+            return new Result(total, page, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Comparator<Integer> order(String sort) {
+        Comparator<Integer> byId = Comparator.comparingLong(slot -> ids[slot]);
+        if (sort == null) {
+            return byId;
+        }
+        return switch (sort) {
+            case "price" -> Comparator.<Integer>comparingDouble(slot -> prices[slot]).thenComparing(byId);
+            case "-price" -> Comparator.<Integer>comparingDouble(slot -> -prices[slot]).thenComparing(byId);
+            case "size" -> Comparator.<Integer>comparingDouble(slot -> sizes[slot]).thenComparing(byId);
+            case "-size" -> Comparator.<Integer>comparingDouble(slot -> -sizes[slot]).thenComparing(byId);
+            default -> byId;
+        };
+    }
+
+    private void unlink(int slot) {
+        clearBit(byType, types[slot], slot);
+        clearBit(byCity, cities[slot], slot);
+        clearBit(byBedrooms, bedrooms[slot], slot);
+        clearBit(byBathrooms, bathrooms[slot], slot);
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < ids.length) {
+            return;
+        }
+        int capacity = Math.max(slot + 1, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        cities = Arrays.copyOf(cities, capacity);
+        bedrooms = Arrays.copyOf(bedrooms, capacity);
+        bathrooms = Arrays.copyOf(bathrooms, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+    }
+
+    private static <K> BitSet bitmap(Map<K, BitSet> index, K key) {
+        return index.computeIfAbsent(key, k -> new BitSet());
+    }
+
+    private static <K> void clearBit(Map<K, BitSet> index, K key, int slot) {
+        BitSet bits = index.get(key);
+        if (bits != null) {
+            bits.clear(slot);
+            if (bits.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static BitSet union(Collection<BitSet> bitmaps) {
+        BitSet union = new BitSet();
+        for (BitSet bits : bitmaps) {
+            union.or(bits);
+        }
+        return union;
+    }
+
+    private static <K> Map<String, Integer> stringKeys(Map<K, Integer> counts) {
+        Map<String, Integer> facet = new LinkedHashMap<>();
+        counts.forEach((key, count) -> facet.put(String.valueOf(key), count));
+        return facet;
+    }
+
+    static String normalizeType(String type) {
+        return type == null ? "" : type.trim().toUpperCase(Locale.ROOT);
+    }
+
+    static String normalizeCity(String city) {
+        return city == null ? "" : city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public record Document(long propertyId, String type, String city, double price, double size,
+                           int bedrooms, int bathrooms) {
+    }
+
+    public record Result(int total, List<Long> propertyIds, Map<String, Map<String, Integer>> facets) {
+    }
+}
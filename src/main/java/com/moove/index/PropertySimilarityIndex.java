@@ -0,0 +1,435 @@
+package com.moove.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Precomputed "similar listings" for every listing.
+ * Each listing is a weighted feature vector (price, size, rooms, location,
+ * rating, type) in one flat float array. {@link #rebuild()} hashes the
+ * vectors into random-hyperplane LSH tables and stores each listing's
+ * nearest neighbours among its bucket mates, so {@link #neighbors(long)} is a
+ * single map lookup. {@link #put} keeps a listing's own list exact and offers
+ * it to its neighbours' lists; everything else catches up on the next rebuild.
+ */
+@Component
+public class PropertySimilarityIndex {
+
+    public static final int NEIGHBORS = 20;
+
+    // 0 price, 1 size, 2 bedrooms, 3 bathrooms, 4-6 position on the unit sphere, 7 rating, 8.. type
+    private static final int TYPE_DIMS = 8;
+    static final int DIMS = 8 + TYPE_DIMS;
+
+    // A distance of 1 is about: an e-fold in price or size, two rooms, 25 km, two stars
+    private static final float PRICE_WEIGHT = 1f;
+    private static final float SIZE_WEIGHT = 1f;
+    private static final float ROOM_WEIGHT = 0.5f;
+    private static final float LOCATION_WEIGHT = 6371f / 25;
+    private static final float RATING_WEIGHT = 0.5f;
+    private static final float TYPE_WEIGHT = 1.5f;
+    private static final double UNRATED = 3.0;
+
+    private static final int TABLES = 6;
+    private static final int TARGET_BUCKET_SIZE = 32;
+    private static final int MAX_BITS = 20;
+    private static final int REBUILD_CHUNK = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private int nextSlot = 0;
+
+    private long[] ids = new long[1024];
+    private float[] features = new float[1024 * DIMS];
+    private final Map<String, Integer> typeCodes = new HashMap<>();
+
+    // null until the first rebuild
+    private Hashing hashing;
+    private int[] bucketKeys = new int[1024 * TABLES];
+    private final List<Map<Integer, int[]>> buckets = new ArrayList<>();
+
+    private final Map<Long, Neighbors> neighbors = new ConcurrentHashMap<>();
+
+    public void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            int slot = store(document);
+            if (hashing != null) {
+                Neighbors own = nearest(slot);
+                neighbors.put(document.propertyId(), own);
+                for (int i = 0; i < own.propertyIds().length; i++) {
+                    offer(own.propertyIds()[i], document.propertyId(), own.distances()[i]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Bulk variant of put that leaves neighbour lists to the next rebuild
+    public void load(Collection<Document> documents) {
+        lock.writeLock().lock();
+        try {
+            documents.forEach(this::store);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long propertyId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(propertyId);
+            if (slot != null) {
+                if (hashing != null) {
+                    unbucket(slot);
+                }
+                live.clear(slot);
+                freeSlots.push(slot);
+            }
+            // other lists may still name it until the next rebuild
+            neighbors.remove(propertyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slots.clear();
+            freeSlots.clear();
+            live.clear();
+            nextSlot = 0;
+            typeCodes.clear();
+            hashing = null;
+            buckets.clear();
+            neighbors.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long propertyId) {
+        lock.readLock().lock();
+        try {
+            return slots.containsKey(propertyId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Nearest first; null until the listing has been through a rebuild or a put after one
+    public Neighbors neighbors(long propertyId) {
+        return neighbors.get(propertyId);
+    }
+
+    // Exact distance between two indexed listings, for checking the approximate lists
+    float distanceBetween(long a, long b) {
+        lock.readLock().lock();
+        try {
+            return (float) Math.sqrt(distance(slots.get(a), slots.get(b)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Draws fresh hyperplanes sized to the current listing count, rehashes
+     * every listing, then recomputes all neighbour lists in chunks so writes
+     * can interleave.
+     */
+    public void rebuild() {
+        int[] order;
+        lock.writeLock().lock();
+        try {
+            int count = slots.size();
+            int bits = Math.max(1, Math.min(MAX_BITS,
+                    32 - Integer.numberOfLeadingZeros(Math.max(1, count / TARGET_BUCKET_SIZE) - 1)));
+            hashing = Hashing.random(centroid(), bits, new Random(count));
+            buckets.clear();
+            for (int t = 0; t < TABLES; t++) {
+                buckets.add(new HashMap<>());
+            }
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                bucket(slot);
+            }
+            order = live.stream().toArray();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        for (int from = 0; from < order.length; from += REBUILD_CHUNK) {
+            lock.readLock().lock();
+            try {
+                for (int i = from; i < Math.min(order.length, from + REBUILD_CHUNK); i++) {
+                    int slot = order[i];
+                    if (live.get(slot)) {
+                        neighbors.put(ids[slot], nearest(slot));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    private int store(Document document) {
+        Integer existing = slots.get(document.propertyId());
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            if (hashing != null) {
+                unbucket(slot);
+            }
+        } else {
+            slot = freeSlots.isEmpty() ? nextSlot++ : freeSlots.pop();
+            ensureCapacity(slot);
+            slots.put(document.propertyId(), slot);
+        }
+        ids[slot] = document.propertyId();
+        encode(document, slot);
+        live.set(slot);
+        if (hashing != null) {
+            bucket(slot);
+        }
+        return slot;
+    }
+
+    private Neighbors nearest(int slot) {
+        int[] candidates = candidates(slot, false);
+        if (candidates.length < NEIGHBORS) {
+            // sparse buckets: also look one bit away in every table
+            candidates = candidates(slot, true);
+        }
+        long[] bestIds = new long[NEIGHBORS];
+        float[] best = new float[NEIGHBORS];
+        int found = 0;
+        for (int candidate : candidates) {
+            if (candidate == slot) {
+                continue;
+            }
+            float distance = distance(slot, candidate);
+            if (found == NEIGHBORS && distance >= best[found - 1]) {
+                continue;
+            }
+            int at = found == NEIGHBORS ? found - 1 : found++;
+            while (at > 0 && best[at - 1] > distance) {
+                best[at] = best[at - 1];
+                bestIds[at] = bestIds[at - 1];
+                at--;
+            }
+            best[at] = distance;
+            bestIds[at] = ids[candidate];
+        }
+        float[] distances = Arrays.copyOf(best, found);
+        for (int i = 0; i < found; i++) {
+            distances[i] = (float) Math.sqrt(distances[i]);
+        }
+        return new Neighbors(Arrays.copyOf(bestIds, found), distances);
+    }
+
+    // Distinct slots sharing a bucket with slot in any table
+    private int[] candidates(int slot, boolean probeNeighbours) {
+        int[] collected = new int[64];
+        int size = 0;
+        for (int t = 0; t < TABLES; t++) {
+            int key = bucketKeys[slot * TABLES + t];
+            int probes = probeNeighbours ? hashing.bits() + 1 : 1;
+            for (int p = 0; p < probes; p++) {
+                int[] members = buckets.get(t).get(p == 0 ? key : key ^ (1 << (p - 1)));
+                if (members == null) {
+                    continue;
+                }
+                if (size + members.length > collected.length) {
+                    collected = Arrays.copyOf(collected, Math.max(collected.length * 2, size + members.length));
+                }
+                System.arraycopy(members, 0, collected, size, members.length);
+                size += members.length;
+            }
+        }
+        Arrays.sort(collected, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || collected[i] != collected[distinct - 1]) {
+                collected[distinct++] = collected[i];
+            }
+        }
+        return Arrays.copyOf(collected, distinct);
+    }
+
+    // Adds candidate to target's list if it is now among target's nearest
+    private void offer(long target, long candidate, float distance) {
+        Neighbors current = neighbors.get(target);
+        if (current == null) {
+            return;
+        }
+        long[] kept = new long[current.propertyIds().length + 1];
+        float[] keptDistances = new float[kept.length];
+        int size = 0;
+        boolean inserted = false;
+        for (int i = 0; i < current.propertyIds().length; i++) {
+            if (current.propertyIds()[i] == candidate) {
+                continue;
+            }
+            if (!inserted && distance < current.distances()[i]) {
+                kept[size] = candidate;
+                keptDistances[size++] = distance;
+                inserted = true;
+            }
+            kept[size] = current.propertyIds()[i];
+            keptDistances[size++] = current.distances()[i];
+        }
+        if (!inserted) {
+            kept[size] = candidate;
+            keptDistances[size++] = distance;
+        }
+        size = Math.min(size, NEIGHBORS);
+        neighbors.put(target, new Neighbors(Arrays.copyOf(kept, size), Arrays.copyOf(keptDistances, size)));
+    }
+
+    private void bucket(int slot) {
+        for (int t = 0; t < TABLES; t++) {
+            int key = hashing.key(t, features, slot * DIMS);
+            bucketKeys[slot * TABLES + t] = key;
+            buckets.get(t).merge(key, new int[]{slot}, (members, added) -> {
+                int[] grown = Arrays.copyOf(members, members.length + 1);
+                grown[members.length] = slot;
+                return grown;
+            });
+        }
+    }
+
+    private void unbucket(int slot) {
+        for (int t = 0; t < TABLES; t++) {
+            buckets.get(t).computeIfPresent(bucketKeys[slot * TABLES + t], (key, members) -> {
+                int[] kept = new int[members.length];
+                int size = 0;
+                for (int member : members) {
+                    if (member != slot) {
+                        kept[size++] = member;
+                    }
+                }
+                return size == 0 ? null : Arrays.copyOf(kept, size);
+            });
+        }
+    }
+
+    private void encode(Document document, int slot) {
+        int base = slot * DIMS;
+        Arrays.fill(features, base, base + DIMS, 0f);
+        features[base] = PRICE_WEIGHT * (float) Math.log1p(Math.max(0, document.price()));
+        features[base + 1] = SIZE_WEIGHT * (float) Math.log1p(Math.max(0, document.size()));
+        features[base + 2] = ROOM_WEIGHT * document.bedrooms();
+        features[base + 3] = ROOM_WEIGHT * document.bathrooms();
+        if (document.lat() != null && document.lng() != null) {
+            double lat = Math.toRadians(document.lat());
+            double lng = Math.toRadians(document.lng());
+            features[base + 4] = LOCATION_WEIGHT * (float) (Math.cos(lat) * Math.cos(lng));
+            features[base + 5] = LOCATION_WEIGHT * (float) (Math.cos(lat) * Math.sin(lng));
+            features[base + 6] = LOCATION_WEIGHT * (float) Math.sin(lat);
+        }
+        features[base + 7] = RATING_WEIGHT * (float) (document.rating() == null ? UNRATED : document.rating());
+        // types beyond TYPE_DIMS share dimensions; there are only a handful in practice
+        String type = document.type() == null ? "" : document.type().trim().toUpperCase(Locale.ROOT);
+        int code = typeCodes.computeIfAbsent(type, k -> typeCodes.size());
+        features[base + 8 + code % TYPE_DIMS] = TYPE_WEIGHT;
+    }
+
+    private float distance(int a, int b) {
+        int baseA = a * DIMS;
+        int baseB = b * DIMS;
+        float sum = 0;
+        for (int d = 0; d < DIMS; d++) {
+            float diff = features[baseA + d] - features[baseB + d];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    private float[] centroid() {
+        float[] center = new float[DIMS];
+        int count = 0;
+        for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+            for (int d = 0; d < DIMS; d++) {
+                center[d] += features[slot * DIMS + d];
+            }
+            count++;
+        }
+        for (int d = 0; d < DIMS && count > 0; d++) {
+            center[d] /= count;
+        }
+        return center;
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < ids.length) {
+            return;
+        }
+        int capacity = Math.max(slot + 1, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        features = Arrays.copyOf(features, capacity * DIMS);
+        bucketKeys = Arrays.copyOf(bucketKeys, capacity * TABLES);
+    }
+
+    // Random hyperplanes through the centroid; one sign bit per plane
+    private record Hashing(float[] center, float[] planes, int bits) {
+
+        static Hashing random(float[] center, int bits, Random random) {
+            float[] planes = new float[TABLES * bits * DIMS];
+            for (int i = 0; i < planes.length; i++) {
+                planes[i] = (float) random.nextGaussian();
+            }
+            return new Hashing(center, planes, bits);
+        }
+
+        int key(int table, float[] vectors, int offset) {
+            int key = 0;
+            for (int b = 0; b < bits; b++) {
+                int plane = (table * bits + b) * DIMS;
+                float dot = 0;
+                for (int d = 0; d < DIMS; d++) {
+                    dot += (vectors[offset + d] - center[d]) * planes[plane + d];
+                }
+                if (dot >= 0) {
+                    key |= 1 << b;
+                }
+            }
+            return key;
+        }
+    }
+
+    // rating is the average star rating, or null when unrated
+    public record Document(long propertyId, String type, double price, double size, int bedrooms, int bathrooms,
+                           Double lat, Double lng, Double rating) {
+    }
+
+    public record Neighbors(long[] propertyIds, float[] distances) {
+    }
+}
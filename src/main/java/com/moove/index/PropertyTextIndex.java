@@ -0,0 +1,281 @@
+package com.moove.index;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lucene full-text index over listing names, descriptions and review comments,
+ * one document per listing. Text is analyzed with English stemming and stop
+ * words; queries rank with BM25, weighting name over description over reviews,
+ * and treat the last word as a prefix while the user is still typing.
+ * Writes become searchable within the refresh interval, or at once after
+ * {@link #refresh()}; {@link #commit()} makes them durable.
+ */
+@Component
+public class PropertyTextIndex implements AutoCloseable {
+
+    public static final String NAME = "name";
+    public static final String DESCRIPTION = "description";
+    public static final String REVIEWS = "reviews";
+    private static final String ID = "id";
+
+    private static final String[] FIELDS = {NAME, DESCRIPTION, REVIEWS};
+    private static final float[] BOOSTS = {3f, 1f, 0.5f};
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    // Offsets in the postings let the highlighter skip re-analysing stored text
+    private static final FieldType TEXT = new FieldType();
+
+    static {
+        TEXT.setTokenized(true);
+        TEXT.setStored(true);
+        TEXT.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        TEXT.freeze();
+    }
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+    public PropertyTextIndex(@Value("${moove.search.text-index-dir:data/text-index}") Path dir,
+                             @Value("${moove.search.text-refresh-interval:1s}") Duration refreshInterval) throws IOException {
+        this.directory = FSDirectory.open(Files.createDirectories(dir));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setRAMBufferSizeMB(64);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+        double staleSeconds = refreshInterval.toMillis() / 1000.0;
+        this.reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, staleSeconds, staleSeconds / 10);
+        this.reopenThread.setName("text-index-refresh");
+        this.reopenThread.setDaemon(true);
+        this.reopenThread.start();
+    }
+
+    public void put(Document document) {
+        try {
+            writer.updateDocument(new Term(ID, String.valueOf(document.propertyId())), toLucene(document));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void putAll(Collection<Document> documents) {
+        documents.forEach(this::put);
+    }
+
+    public void remove(long propertyId) {
+        try {
+            writer.deleteDocuments(new Term(ID, String.valueOf(propertyId)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void clear() {
+        try {
+            writer.deleteAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Makes every write so far visible to searches
+    public void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int size() {
+        return withSearcher(searcher -> searcher.getIndexReader().numDocs());
+    }
+
+    public Result search(String text, int offset, int limit) {
+        Query query = parse(text);
+        if (query == null) {
+            return new Result(0, List.of());
+        }
+        return withSearcher(searcher -> {
+            TopDocs top = searcher.search(query, Math.max(1, offset + limit));
+            ScoreDoc[] page = offset >= top.scoreDocs.length
+                    ? new ScoreDoc[0]
+                    : Arrays.copyOfRange(top.scoreDocs, offset, top.scoreDocs.length);
+            TopDocs pageDocs = new TopDocs(top.totalHits, page);
+            UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                    .withHandleMultiTermQuery(true)
+                    .withMaxNoHighlightPassages(0)
+                    .withFormatter(new DefaultPassageFormatter("<mark>", "</mark>", " … ", true))
+                    .build();
+            Map<String, String[]> snippets = highlighter.highlightFields(FIELDS, query, pageDocs, new int[]{1, 2, 2});
+
+            List<Hit> hits = new ArrayList<>(page.length);
+            for (int i = 0; i < page.length; i++) {
+                long propertyId = Long.parseLong(searcher.storedFields().document(page[i].doc, Set.of(ID)).get(ID));
+                Map<String, String> highlights = new LinkedHashMap<>();
+                for (String field : FIELDS) {
+                    String snippet = snippets.get(field)[i];
+                    if (snippet != null) {
+                        highlights.put(field, snippet);
+                    }
+                }
+                hits.add(new Hit(propertyId, page[i].score, highlights));
+            }
+            return new Result(top.totalHits.value, hits);
+        });
+    }
+
+    /**
+     * Every analyzed word matches in any field, as a flat disjunction of
+     * boosted term clauses so Lucene can skip blocks that cannot reach the top
+     * hits. The trailing word, unless followed by a space, also matches as a
+     * prefix of the raw lowercased text so partly typed words complete.
+     */
+    Query parse(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        int clauses = 0;
+        for (String term : analyze(text)) {
+            for (int f = 0; f < FIELDS.length; f++) {
+                builder.add(new BoostQuery(new TermQuery(new Term(FIELDS[f], term)), BOOSTS[f]), BooleanClause.Occur.SHOULD);
+                clauses++;
+            }
+        }
+        if (!Character.isWhitespace(text.charAt(text.length() - 1))) {
+            String[] words = text.trim().split("\\s+");
+            String prefix = words[words.length - 1].toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]", "");
+            if (prefix.length() >= MIN_PREFIX_LENGTH) {
+                for (int f = 0; f < FIELDS.length; f++) {
+                    builder.add(new BoostQuery(new PrefixQuery(new Term(FIELDS[f], prefix)), BOOSTS[f]), BooleanClause.Occur.SHOULD);
+                    clauses++;
+                }
+            }
+        }
+        return clauses == 0 ? null : builder.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                if (!terms.contains(term.toString())) {
+                    terms.add(term.toString());
+                }
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static org.apache.lucene.document.Document toLucene(Document document) {
+        org.apache.lucene.document.Document doc = new org.apache.lucene.document.Document();
+        doc.add(new StringField(ID, String.valueOf(document.propertyId()), Field.Store.YES));
+        if (document.name() != null) {
+            doc.add(new Field(NAME, document.name(), TEXT));
+        }
+        if (document.description() != null) {
+            doc.add(new Field(DESCRIPTION, document.description(), TEXT));
+        }
+        for (String review : document.reviews()) {
+            if (review != null) {
+                doc.add(new Field(REVIEWS, review, TEXT));
+            }
+        }
+        return doc;
+    }
+
+    private <T> T withSearcher(SearcherFunction<T> function) {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return function.apply(searcher);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reopenThread.close();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private interface SearcherFunction<T> {
+        T apply(IndexSearcher searcher) throws IOException;
+    }
+
+    public record Document(long propertyId, String name, String description, List<String> reviews) {
+    }
+
+    public record Hit(long propertyId, float score, Map<String, String> highlights) {
+    }
+
+    // total is exact up to 1000 matches and a lower bound beyond
+    public record Result(long total, List<Hit> hits) {
+    }
+}
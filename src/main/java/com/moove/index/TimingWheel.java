@@ -0,0 +1,126 @@
+package com.moove.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: level 0 has wheelSize slots one tick wide, and
+ * each level above has slots as wide as the whole level below it, added as
+ * far-off deadlines need them. Scheduling is O(1); advancing costs a slot per
+ * tick, plus re-filing a higher slot's timers one level down when the clock
+ * enters it. Timers fire on the first tick at or after their deadline, never
+ * before it. Cancelling is left to the caller, who re-checks what fired.
+ */
+public class TimingWheel<T> {
+
+    private final long tick;
+    private final int wheelSize;
+    private final List<List<Timer<T>>[]> levels = new ArrayList<>();
+    private final List<T> due = new ArrayList<>();
+    // Start of the current level-0 slot; never moves backwards
+    private long time;
+    private int size;
+
+    public TimingWheel(long tick, int wheelSize, long startTime) {
+        if (tick <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tick must be positive and wheelSize at least 2");
+        }
+        this.tick = tick;
+        this.wheelSize = wheelSize;
+        this.time = Math.floorDiv(startTime, tick) * tick;
+    }
+
+    public synchronized void schedule(long deadline, T item) {
+        file(new Timer<>(deadline, item));
+        size++;
+    }
+
+    // Moves the clock to now and returns everything that fell due, in no particular order
+    public synchronized List<T> advance(long now) {
+        if (size == due.size() && now > time) {
+            // nothing is waiting in the slots, so there is nothing to walk through
+            time = Math.floorDiv(now, tick) * tick;
+        }
+        while (time + tick <= now) {
+            time += tick;
+            drain(0, time / tick - 1);
+            for (int level = 1; level < levels.size() && time % width(level) == 0; level++) {
+                drain(level, time / width(level));
+            }
+        }
+        List<T> fired = new ArrayList<>(due);
+        due.clear();
+        size -= fired.size();
+        return fired;
+    }
+
+    public synchronized long time() {
+        return time;
+    }
+
+    // Timers scheduled and not yet returned by advance
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        levels.clear();
+        due.clear();
+        size = 0;
+    }
+
+    private void file(Timer<T> timer) {
+        if (timer.deadline() <= time) {
+            due.add(timer.item());
+            return;
+        }
+        for (int level = 0; ; level++) {
+            long width = width(level);
+            long slot = Math.floorDiv(timer.deadline(), width);
+            if (slot - time / width < wheelSize) {
+                slots(level, slot).add(timer);
+                return;
+            }
+        }
+    }
+
+    // Level 0 slots are drained once over, so everything in them is due; higher ones as the clock enters them
+    private void drain(int level, long slot) {
+        if (level >= levels.size()) {
+            return;
+        }
+        int index = (int) Math.floorMod(slot, (long) wheelSize);
+        List<Timer<T>> timers = levels.get(level)[index];
+        if (timers == null || timers.isEmpty()) {
+            return;
+        }
+        levels.get(level)[index] = null;
+        for (Timer<T> timer : timers) {
+            file(timer);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Timer<T>> slots(int level, long slot) {
+        while (levels.size() <= level) {
+            levels.add(new List[wheelSize]);
+        }
+        List<Timer<T>>[] wheel = levels.get(level);
+        int index = (int) Math.floorMod(slot, (long) wheelSize);
+        if (wheel[index] == null) {
+            wheel[index] = new ArrayList<>();
+        }
+        return wheel[index];
+    }
+
+    private long width(int level) {
+        long width = tick;
+        for (int i = 0; i < level; i++) {
+            width = width > Long.MAX_VALUE / wheelSize ? Long.MAX_VALUE : width * wheelSize;
+        }
+        return width;
+    }
+
+    private record Timer<T>(long deadline, T item) {
+    }
+}
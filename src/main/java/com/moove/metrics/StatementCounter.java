@@ -0,0 +1,61 @@
+package com.moove.metrics;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the JDBC statements run on the current thread between {@link #start()}
+ * and {@link #stop()}. Statements outside such a window are not counted.
+ * Tasks handed to the application task executor count towards the window of
+ * the thread that submitted them, so fanned-out queries stay attributed to their request.
+ */
+@Component
+public class StatementCounter implements TaskDecorator {
+
+    private final ThreadLocal<AtomicInteger> current = new ThreadLocal<>();
+
+    public void start() {
+        current.set(new AtomicInteger());
+    }
+
+    public int stop() {
+        AtomicInteger count = current.get();
+        current.remove();
+        return count == null ? 0 : count.get();
+    }
+
+    public int count() {
+        AtomicInteger count = current.get();
+        return count == null ? 0 : count.get();
+    }
+
+    void increment() {
+        AtomicInteger count = current.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        AtomicInteger count = current.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = current.get();
+            current.set(count);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    current.remove();
+                } else {
+                    current.set(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.moove.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limit on the public read endpoints. Each GET or HEAD on a
+ * limited route takes a token from the bucket for (client address, route
+ * pattern); an empty bucket answers 429 with Retry-After before the request
+ * reaches a controller or the connection pool. The client address is the
+ * servlet remote address. With server.forward-headers-strategy=native, Tomcat
+ * takes it from X-Forwarded-For, but only for requests arriving from a trusted
+ * proxy (server.tomcat.remoteip.internal-proxies, private ranges by default),
+ * so clients cannot pick their own key.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final TokenBucketRateLimiter limiter;
+    private final List<String> routes;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final UrlPathHelper pathHelper = new UrlPathHelper();
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public RateLimitFilter(MeterRegistry meterRegistry,
+                           @Value("${moove.ratelimit.requests-per-second:20}") double requestsPerSecond,
+                           @Value("${moove.ratelimit.burst:40}") int burst,
+                           @Value("${moove.ratelimit.max-clients:100000}") long maxClients,
+                           @Value("${moove.ratelimit.routes:/api/property/**,/api/reviews/property/**}") List<String> routes) {
+        this(meterRegistry, new TokenBucketRateLimiter(requestsPerSecond, burst, maxClients), routes);
+    }
+
+    RateLimitFilter(MeterRegistry meterRegistry, TokenBucketRateLimiter limiter, List<String> routes) {
+        this.meterRegistry = meterRegistry;
+        this.limiter = limiter;
+        this.routes = List.copyOf(routes);
+        Gauge.builder("moove.ratelimit.clients", limiter, TokenBucketRateLimiter::trackedKeys)
+                .description("Client and route pairs with a rate limit bucket in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String route = route(pathHelper.getPathWithinApplication(request));
+        if (route != null) {
+            long waitNanos = limiter.tryAcquire(request.getRemoteAddr() + " " + route);
+            if (waitNanos > 0) {
+                Counter.builder("moove.ratelimit.throttled")
+                        .description("Requests refused with 429 by the rate limiter")
+                        .tag("route", route)
+                        .register(meterRegistry)
+                        .increment();
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+                response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private String route(String path) {
+        for (String route : routes) {
+            if (matcher.match(route, path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,69 @@
+package com.moove.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets keyed by string, each refilling at a fixed rate up to a burst.
+ * A bucket is a single {@link AtomicLong} holding the time at which it will
+ * be full again (the GCRA form of a token bucket), so taking a token is one
+ * compare-and-set with no lock. Idle buckets expire once they would be full
+ * anyway, so expiry changes no decision. The size bound can: past maxKeys
+ * tracked keys, Caffeine may evict a bucket that is still draining, and that
+ * key starts again with a full burst. Size maxKeys above the expected number
+ * of concurrently active clients.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final Ticker ticker;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketRateLimiter(double tokensPerSecond, int burst, long maxKeys) {
+        this(tokensPerSecond, burst, maxKeys, Ticker.systemTicker());
+    }
+
+    TokenBucketRateLimiter(double tokensPerSecond, int burst, long maxKeys, Ticker ticker) {
+        if (tokensPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.nanosPerToken = Math.max(1, Math.round(1_000_000_000L / tokensPerSecond));
+        this.burstNanos = nanosPerToken * burst;
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .maximumSize(maxKeys)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Takes one token from the key's bucket. Returns 0 when granted, otherwise
+     * the nanoseconds until a token will be available; a refused call takes
+     * nothing.
+     */
+    public long tryAcquire(String key) {
+        long now = ticker.read();
+        AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            long overdraw = next - now - burstNanos;
+            if (overdraw > 0) {
+                return overdraw;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long trackedKeys() {
+        return buckets.estimatedSize();
+    }
+}
@@ -1,9 +1,116 @@
 package com.moove.repository;
 
+import com.moove.DTO.BookedStayDTO;
+import com.moove.DTO.BookingDeadlineDTO;
+import com.moove.DTO.BookingImportRow;
+import com.moove.DTO.BookingSummaryDTO;
 import com.moove.entity.Booking;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    @Query("SELECT new com.moove.DTO.BookingSummaryDTO(b.bookingId, b.user.userId, b.totalAmount, b.bookingDate, " +
+            "b.checkInDate, b.checkInTime, b.checkOutTime, b.checkOutDate, b.checkedByOwner, b.conformedByOwner, b.status) " +
+            "FROM Booking b WHERE b.bookingId > :after ORDER BY b.bookingId")
+    List<BookingSummaryDTO> findSummariesAfter(@Param("after") int after, Limit limit);
+
+    @Query("SELECT new com.moove.DTO.BookingSummaryDTO(b.bookingId, b.user.userId, b.totalAmount, b.bookingDate, " +
+            "b.checkInDate, b.checkInTime, b.checkOutTime, b.checkOutDate, b.checkedByOwner, b.conformedByOwner, b.status) " +
+            "FROM Booking b WHERE b.bookingId = :bookingId")
+    Optional<BookingSummaryDTO> findSummaryById(@Param("bookingId") int bookingId);
+
+    // Single conditional UPDATE, so a burst of payments holds the booking row only for the write itself
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = 'PAID' WHERE b.bookingId IN :ids " +
+            "AND COALESCE(b.status, 'PENDING') IN ('PENDING', 'CONFIRMED')")
+    int markPaid(@Param("ids") Collection<Integer> ids);
+
+    // Bookings whose PaymentRecorded event was lost with the in-memory queues
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = 'PAID' WHERE COALESCE(b.status, 'PENDING') IN ('PENDING', 'CONFIRMED') " +
+            "AND EXISTS (SELECT p.id FROM Payment p WHERE p.booking.bookingId = b.bookingId AND p.status = 'PAID')")
+    int markPaidWherePaymentRecorded();
+
+    @Query("SELECT b.property.propertyId FROM Booking b WHERE b.bookingId = :bookingId")
+    Optional<Long> findPropertyIdById(@Param("bookingId") int bookingId);
+
+    @Query("SELECT new com.moove.DTO.BookedStayDTO(b.bookingId, b.property.propertyId, b.checkInDate, b.checkOutDate) " +
+            "FROM Booking b WHERE b.property IS NOT NULL AND b.checkInDate IS NOT NULL AND b.checkOutDate IS NOT NULL " +
+            "AND (b.status IS NULL OR b.status NOT IN ('CANCELLED', 'EXPIRED'))")
+    List<BookedStayDTO> findActiveStays();
+
+    // Stays of these properties holding dates that overlap [from, to), whichever instance booked them
+    @Query("SELECT new com.moove.DTO.BookedStayDTO(b.bookingId, b.property.propertyId, b.checkInDate, b.checkOutDate) " +
+            "FROM Booking b WHERE b.property.propertyId IN :propertyIds " +
+            "AND (b.status IS NULL OR b.status NOT IN ('CANCELLED', 'EXPIRED')) " +
+            "AND b.checkInDate < :to AND b.checkOutDate > :from")
+    List<BookedStayDTO> findStaysOverlapping(@Param("propertyIds") Collection<Long> propertyIds,
+                                             @Param("from") Date from, @Param("to") Date to);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.bookingId = :bookingId")
+    Optional<Booking> findByIdForUpdate(@Param("bookingId") int bookingId);
+
+    // Pending bookings among ids whose owner let confirmBy pass, locked until they are expired.
+    // A paid one is left alone: its move to PAID may still be waiting on the event bus
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.bookingId IN :ids AND COALESCE(b.status, 'PENDING') = 'PENDING' " +
+            "AND b.confirmBy <= :now " +
+            "AND NOT EXISTS (SELECT p.id FROM Payment p WHERE p.booking.bookingId = b.bookingId AND p.status = 'PAID')")
+    List<Booking> findExpiredHolds(@Param("ids") Collection<Integer> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.bookingId IN :ids")
+    int updateStatus(@Param("ids") Collection<Integer> ids, @Param("status") String status);
+
+    // Unpaid pending holds past confirmBy, in id order after the given id, whichever instance holds their deadline
+    @Query("SELECT b.bookingId FROM Booking b WHERE b.bookingId > :after AND COALESCE(b.status, 'PENDING') = 'PENDING' " +
+            "AND b.confirmBy <= :now " +
+            "AND NOT EXISTS (SELECT p.id FROM Payment p WHERE p.booking.bookingId = b.bookingId AND p.status = 'PAID') " +
+            "ORDER BY b.bookingId")
+    List<Integer> findExpiredHoldIds(@Param("after") int after, @Param("now") LocalDateTime now, Limit limit);
+
+    // Confirmed and paid stays that ended before today, in id order after the given id
+    @Query("SELECT b.bookingId FROM Booking b WHERE b.bookingId > :after AND b.status IN ('CONFIRMED', 'PAID') " +
+            "AND b.checkOutDate < :today ORDER BY b.bookingId")
+    List<Integer> findFinishedStayIds(@Param("after") int after, @Param("today") Date today, Limit limit);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = 'COMPLETED' WHERE b.bookingId IN :ids " +
+            "AND b.status IN ('CONFIRMED', 'PAID') AND b.checkOutDate < :today")
+    int completeFinishedStays(@Param("ids") Collection<Integer> ids, @Param("today") Date today);
+
+    // Holds saved before confirmation deadlines existed
+    @Modifying
+    @Query("UPDATE Booking b SET b.confirmBy = :confirmBy WHERE b.confirmBy IS NULL " +
+            "AND COALESCE(b.status, 'PENDING') = 'PENDING'")
+    int assignMissingConfirmBy(@Param("confirmBy") LocalDateTime confirmBy);
+
+    @Query("SELECT new com.moove.DTO.BookingDeadlineDTO(b.bookingId, b.status, b.confirmBy, b.checkOutDate) " +
+            "FROM Booking b WHERE COALESCE(b.status, 'PENDING') IN ('PENDING', 'CONFIRMED', 'PAID')")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<BookingDeadlineDTO> streamOpenDeadlines();
+
+    @Query("SELECT new com.moove.DTO.BookingImportRow(b.bookingId, b.user.userId, b.property.propertyId, b.totalAmount, " +
+            "b.bookingDate, b.checkInDate, b.checkOutDate, b.status) " +
+            "FROM Booking b ORDER BY b.bookingId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<BookingImportRow> streamExportRows();
 
 }
\ No newline at end of file
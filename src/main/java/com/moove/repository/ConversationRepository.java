@@ -0,0 +1,79 @@
+package com.moove.repository;
+
+import com.moove.DTO.ConversationSummaryDTO;
+import com.moove.entity.Conversation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ConversationRepository extends JpaRepository<Conversation, Conversation.Key> {
+
+    String SUMMARY = "SELECT new com.moove.DTO.ConversationSummaryDTO(c.peerId, u.username, c.lastMessageId, " +
+            "c.lastSenderId, c.lastContent, c.lastSentAt, c.unreadCount, c.lastReadMessageId) " +
+            "FROM Conversation c LEFT JOIN User u ON u.userId = c.peerId ";
+
+    // Newest conversation first; keyset on lastMessageId, which is unique per user
+    @Query(SUMMARY + "WHERE c.userId = :userId AND c.lastMessageId < :before ORDER BY c.lastMessageId DESC")
+    List<ConversationSummaryDTO> findInbox(@Param("userId") UUID userId, @Param("before") long before, Limit limit);
+
+    @Query(SUMMARY + "WHERE c.userId = :userId AND c.peerId = :peerId")
+    Optional<ConversationSummaryDTO> findSummary(@Param("userId") UUID userId, @Param("peerId") UUID peerId);
+
+    @Query("SELECT COALESCE(SUM(c.unreadCount), 0) FROM Conversation c WHERE c.userId = :userId")
+    long sumUnread(@Param("userId") UUID userId);
+
+    /*
+     * Folds one message into an existing row in place, so concurrent messages
+     * never lose an unread increment. Messages may commit out of id order, so
+     * the preview only moves forward, and one that commits behind the read
+     * marker arrives already read.
+     */
+    @Modifying
+    @Query("UPDATE Conversation c SET c.unreadCount = c.unreadCount + " +
+            "CASE WHEN c.lastReadMessageId < :messageId THEN :unread ELSE 0 END, " +
+            "c.lastContent = CASE WHEN c.lastMessageId < :messageId THEN :content ELSE c.lastContent END, " +
+            "c.lastSenderId = CASE WHEN c.lastMessageId < :messageId THEN :senderId ELSE c.lastSenderId END, " +
+            "c.lastSentAt = CASE WHEN c.lastMessageId < :messageId THEN :sentAt ELSE c.lastSentAt END, " +
+            "c.lastMessageId = CASE WHEN c.lastMessageId < :messageId THEN :messageId ELSE c.lastMessageId END " +
+            "WHERE c.userId = :userId AND c.peerId = :peerId")
+    int applyMessage(@Param("userId") UUID userId, @Param("peerId") UUID peerId, @Param("messageId") long messageId,
+                     @Param("senderId") UUID senderId, @Param("content") String content,
+                     @Param("sentAt") LocalDateTime sentAt, @Param("unread") int unread);
+
+    // Returns 0 when another transaction created the row first
+    @Modifying
+    @Query("INSERT INTO Conversation (userId, peerId, lastMessageId, lastSenderId, lastContent, lastSentAt, unreadCount, lastReadMessageId) " +
+            "VALUES (:userId, :peerId, :messageId, :senderId, :content, :sentAt, :unread, 0) ON CONFLICT DO NOTHING")
+    int insertIfAbsent(@Param("userId") UUID userId, @Param("peerId") UUID peerId, @Param("messageId") long messageId,
+                       @Param("senderId") UUID senderId, @Param("content") String content,
+                       @Param("sentAt") LocalDateTime sentAt, @Param("unread") int unread);
+
+    /*
+     * Moves the read marker forward to upTo and recounts the peer's messages
+     * past it. Ids are not in commit order, so subtracting the ids passed over
+     * would miss a message that committed behind the old marker. The caller
+     * locks the row first (findLastMessageIdForUpdate), so in READ COMMITTED
+     * this statement sees every message whose increment it overwrites.
+     */
+    @Modifying
+    @Query("UPDATE Conversation c SET c.unreadCount = " +
+            "(SELECT COUNT(m) FROM Message m WHERE m.sender.userId = c.peerId AND m.receiver.userId = c.userId " +
+            "AND c.peerId <> c.userId AND m.id > :upTo), " +
+            "c.lastReadMessageId = :upTo " +
+            "WHERE c.userId = :userId AND c.peerId = :peerId AND c.lastReadMessageId < :upTo")
+    int markReadUpTo(@Param("userId") UUID userId, @Param("peerId") UUID peerId, @Param("upTo") long upTo);
+
+    // Locks the row until the transaction ends, so messages being applied to it commit first
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c.lastMessageId FROM Conversation c WHERE c.userId = :userId AND c.peerId = :peerId")
+    Optional<Long> findLastMessageIdForUpdate(@Param("userId") UUID userId, @Param("peerId") UUID peerId);
+}
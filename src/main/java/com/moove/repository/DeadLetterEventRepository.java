@@ -0,0 +1,14 @@
+package com.moove.repository;
+
+import com.moove.entity.DeadLetterEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface DeadLetterEventRepository extends JpaRepository<DeadLetterEvent, Long> {
+
+    // Also called from after-commit callbacks, where joining would write into the finished transaction
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    <S extends DeadLetterEvent> S save(S deadLetter);
+}
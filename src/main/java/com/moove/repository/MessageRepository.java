@@ -4,9 +4,25 @@ import com.moove.entity.Message;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("SELECT m FROM Message m WHERE (m.sender.userId = :userId1 AND m.receiver.userId = :userId2) OR (m.sender.userId = :userId2 AND m.receiver.userId = :userId1) ORDER BY m.sentAt")
-    List<Message> findConversation(Long userId1, Long userId2);
+    List<Message> findConversation(UUID userId1, UUID userId2);
+
+    @Query("SELECT m FROM Message m WHERE ((m.sender.userId = :userId1 AND m.receiver.userId = :userId2) OR (m.sender.userId = :userId2 AND m.receiver.userId = :userId1)) AND m.id > :since ORDER BY m.id")
+    List<Message> findConversationSince(UUID userId1, UUID userId2, Long since);
+
+    // Ids come from a pooled sequence and commit out of order, so messages sent from overlapFrom on are
+    // returned again whatever their id; the caller's copies are de-duplicated by id
+    @Query("SELECT m FROM Message m WHERE ((m.sender.userId = :userId1 AND m.receiver.userId = :userId2) OR (m.sender.userId = :userId2 AND m.receiver.userId = :userId1)) " +
+            "AND (m.id > :since OR m.sentAt >= :overlapFrom) ORDER BY m.sentAt, m.id")
+    List<Message> findConversationSince(UUID userId1, UUID userId2, Long since, LocalDateTime overlapFrom);
+
+    // senderId, receiverId, last message id
+    @Query("SELECT m.sender.userId, m.receiver.userId, MAX(m.id) FROM Message m " +
+            "WHERE m.sender IS NOT NULL AND m.receiver IS NOT NULL GROUP BY m.sender.userId, m.receiver.userId")
+    List<Object[]> findLastMessageIdByDirection();
 }
@@ -0,0 +1,13 @@
+package com.moove.repository;
+
+import com.moove.entity.OwnerDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface OwnerDailyRollupRepository extends JpaRepository<OwnerDailyRollup, OwnerDailyRollup.Key> {
+
+    List<OwnerDailyRollup> findByOwnerIdAndDayBetweenOrderByDay(UUID ownerId, LocalDate from, LocalDate to);
+}
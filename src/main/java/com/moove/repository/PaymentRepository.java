@@ -1,9 +1,24 @@
 package com.moove.repository;
 
+import com.moove.DTO.PaymentSummaryDTO;
 import com.moove.entity.Payment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
-}
 
+    @Query("SELECT new com.moove.DTO.PaymentSummaryDTO(p.id, p.user.userId, p.booking.bookingId, p.amount, " +
+            "p.paymentMethod, p.status, p.paidAt, p.idempotencyKey) " +
+            "FROM Payment p WHERE p.id > :after ORDER BY p.id")
+    List<PaymentSummaryDTO> findSummariesAfter(@Param("after") long after, Limit limit);
 
+    @Query("SELECT new com.moove.DTO.PaymentSummaryDTO(p.id, u.userId, b.bookingId, p.amount, " +
+            "p.paymentMethod, p.status, p.paidAt, p.idempotencyKey) " +
+            "FROM Payment p LEFT JOIN p.user u LEFT JOIN p.booking b WHERE p.idempotencyKey = :idempotencyKey")
+    Optional<PaymentSummaryDTO> findSummaryByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
+}
@@ -0,0 +1,19 @@
+package com.moove.repository;
+
+import com.moove.entity.PropertyDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface PropertyDailyRollupRepository extends JpaRepository<PropertyDailyRollup, PropertyDailyRollup.Key> {
+
+    // propertyId, sums; column order matches RollupCounters.fromSums
+    @Query("SELECT r.propertyId, SUM(r.counters.bookings), SUM(r.counters.bookedNights), SUM(r.counters.bookedAmount), " +
+            "SUM(r.counters.payments), SUM(r.counters.paidAmount), SUM(r.counters.reviews), SUM(r.counters.ratingSum) " +
+            "FROM PropertyDailyRollup r WHERE r.ownerId = :ownerId AND r.day BETWEEN :from AND :to GROUP BY r.propertyId")
+    List<Object[]> sumByProperty(@Param("ownerId") UUID ownerId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,41 @@
+package com.moove.repository;
+
+import com.moove.entity.PropertyRating;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PropertyRatingRepository extends JpaRepository<PropertyRating, Long> {
+
+    @Query("SELECT p.propertyId FROM Property p WHERE NOT EXISTS " +
+            "(SELECT 1 FROM PropertyRating r WHERE r.propertyId = p.propertyId)")
+    List<Long> findPropertyIdsWithoutRating();
+
+    // Row locks, in id order, so rating deltas and recounts of one aggregate never interleave
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM PropertyRating r WHERE r.propertyId IN :propertyIds ORDER BY r.propertyId")
+    List<PropertyRating> lockAll(@Param("propertyIds") Collection<Long> propertyIds);
+
+    // Aggregates missing review writes, whether lost or still queued; on PostgreSQL a partial index holds exactly these
+    @Query("SELECT r.propertyId FROM PropertyRating r WHERE r.appliedVersion <> r.reviewVersion ORDER BY r.propertyId")
+    List<Long> findStalePropertyIds();
+
+    @Modifying
+    @Query("UPDATE PropertyRating r SET r.reviewVersion = r.reviewVersion + 1 WHERE r.propertyId = :propertyId")
+    int incrementReviewVersion(@Param("propertyId") long propertyId);
+
+    @Query("SELECT r.reviewVersion FROM PropertyRating r WHERE r.propertyId = :propertyId")
+    Optional<Long> findReviewVersion(@Param("propertyId") long propertyId);
+
+    // propertyId, rating, count
+    @Query("SELECT r.property.propertyId, r.rating, COUNT(r) FROM Review r " +
+            "WHERE r.property.propertyId IN :propertyIds GROUP BY r.property.propertyId, r.rating")
+    List<Object[]> countReviewsByRating(@Param("propertyIds") Collection<Long> propertyIds);
+}
@@ -1,19 +1,94 @@
 package com.moove.repository;
 
 
+import com.moove.DTO.PropertyImportRow;
+import com.moove.DTO.PropertyLocationDTO;
+import com.moove.DTO.PropertySummaryDTO;
 import com.moove.entity.Property;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface PropertyRepository extends JpaRepository<Property, Long> {
 
     List<Property> findByPropertyId(int propertyId);
 
+    // Row locks, in id order, that serialize bookings of these properties across instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.propertyId FROM Property p WHERE p.propertyId IN :propertyIds ORDER BY p.propertyId")
+    List<Long> lockForBooking(@Param("propertyIds") Collection<Long> propertyIds);
 
+    @Query("SELECT p.propertyId FROM Property p WHERE p.legacyImageData IS NOT NULL AND p.propertyId > :after ORDER BY p.propertyId")
+    List<Long> findIdsWithLegacyImage(@Param("after") long after, Limit limit);
 
+    @Query("SELECT new com.moove.DTO.PropertyImportRow(p.propertyId, p.user.userId, p.propertyName, p.propertyDescription, " +
+            "p.propertyPrice, p.propertyType, p.propertySize, p.bedroomsAvailable, p.bathroomsAvailable, " +
+            "p.location.address, p.location.city, p.location.lat, p.location.lng, p.propertyImageUrl) " +
+            "FROM Property p ORDER BY p.propertyId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<PropertyImportRow> streamExportRows();
+
+    // Listing plan: owners in the same select, reviews left unloaded
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Property> findAll();
+
+    // Detail plan: the owner in the same select; reviews are read separately as summaries
+    @Query("SELECT p FROM Property p WHERE p.propertyId = :propertyId")
+    @EntityGraph(attributePaths = "user")
+    Optional<Property> findWithOwnerById(@Param("propertyId") Long propertyId);
+
+    @Query("SELECT new com.moove.DTO.PropertyLocationDTO(p.propertyId, p.location.lat, p.location.lng) FROM Property p " +
+            "WHERE p.location.lat IS NOT NULL AND p.location.lng IS NOT NULL")
+    List<PropertyLocationDTO> findAllLocations();
+
+    @Query("SELECT new com.moove.DTO.PropertySummaryDTO(p.propertyId, p.user.userId, p.propertyName, p.propertyDescription, " +
+            "p.propertyPrice, p.propertyType, p.propertySize, p.bedroomsAvailable, p.bathroomsAvailable, " +
+            "p.location.city, p.location.lat, p.location.lng, p.propertyImageUrl, COALESCE(r.reviewCount, 0), " +
+            "COALESCE(CAST(r.ratingSum AS Double) / NULLIF(r.reviewCount, 0), 0.0)) " +
+            "FROM Property p LEFT JOIN PropertyRating r ON r.propertyId = p.propertyId WHERE p.propertyId > :after ORDER BY p.propertyId")
+    List<PropertySummaryDTO> findSummariesAfter(@Param("after") long after, Limit limit);
+
+    @Query("SELECT new com.moove.DTO.PropertySummaryDTO(p.propertyId, p.user.userId, p.propertyName, p.propertyDescription, " +
+            "p.propertyPrice, p.propertyType, p.propertySize, p.bedroomsAvailable, p.bathroomsAvailable, " +
+            "p.location.city, p.location.lat, p.location.lng, p.propertyImageUrl, COALESCE(r.reviewCount, 0), " +
+            "COALESCE(CAST(r.ratingSum AS Double) / NULLIF(r.reviewCount, 0), 0.0)) " +
+            "FROM Property p LEFT JOIN PropertyRating r ON r.propertyId = p.propertyId WHERE p.propertyId IN :ids")
+    List<PropertySummaryDTO> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // propertyId, type, price, size, bedrooms, bathrooms, lat, lng, average rating (null when unrated)
+    @Query("SELECT p.propertyId, p.propertyType, p.propertyPrice, p.propertySize, p.bedroomsAvailable, p.bathroomsAvailable, " +
+            "p.location.lat, p.location.lng, CAST(r.ratingSum AS Double) / NULLIF(r.reviewCount, 0) " +
+            "FROM Property p LEFT JOIN PropertyRating r ON r.propertyId = p.propertyId " +
+            "WHERE p.propertyId > :after ORDER BY p.propertyId")
+    List<Object[]> findSimilarityFeaturesAfter(@Param("after") long after, Limit limit);
+
+    // propertyId, owner userId
+    @Query("SELECT p.propertyId, p.user.userId FROM Property p WHERE p.propertyId IN :ids")
+    List<Object[]> findOwnerIds(@Param("ids") Collection<Long> ids);
+
+    long countByUser_UserId(UUID userId);
+
+    // propertyId, name, description
+    @Query("SELECT p.propertyId, p.propertyName, p.propertyDescription FROM Property p " +
+            "WHERE p.propertyId > :after ORDER BY p.propertyId")
+    List<Object[]> findTextAfter(@Param("after") long after, Limit limit);
+
+    @Query("SELECT p.propertyId, p.propertyName, p.propertyDescription FROM Property p WHERE p.propertyId IN :ids")
+    List<Object[]> findTextByIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,16 +1,35 @@
 package com.moove.repository;
 
+import com.moove.DTO.ReviewSummaryDTO;
 import com.moove.entity.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
-    @Query("SELECT r FROM Review r WHERE r.property.propertyId = :propertyId")
-    List<Review> findByPropertyId(@Param("propertyId") Long propertyId);
+    @Query("SELECT new com.moove.DTO.ReviewSummaryDTO(r.reviewId, r.user.userId, r.property.propertyId, r.rating, " +
+            "r.comment, r.createdAt) " +
+            "FROM Review r WHERE r.property.propertyId = :propertyId ORDER BY r.reviewId")
+    List<ReviewSummaryDTO> findSummariesByPropertyId(@Param("propertyId") Long propertyId);
 
+    @Query("SELECT new com.moove.DTO.ReviewSummaryDTO(r.reviewId, r.user.userId, r.property.propertyId, r.rating, " +
+            "r.comment, r.createdAt) " +
+            "FROM Review r WHERE r.reviewId = :reviewId")
+    Optional<ReviewSummaryDTO> findSummaryById(@Param("reviewId") Long reviewId);
 
-}
\ No newline at end of file
+    @Query("SELECT new com.moove.DTO.ReviewSummaryDTO(r.reviewId, r.user.userId, r.property.propertyId, r.rating, " +
+            "r.comment, r.createdAt) " +
+            "FROM Review r WHERE r.reviewId > :after ORDER BY r.reviewId")
+    List<ReviewSummaryDTO> findSummariesAfter(@Param("after") long after, Limit limit);
+
+    // propertyId, comment
+    @Query("SELECT r.property.propertyId, r.comment FROM Review r " +
+            "WHERE r.property.propertyId IN :propertyIds AND r.comment IS NOT NULL ORDER BY r.reviewId")
+    List<Object[]> findCommentsByPropertyIds(@Param("propertyIds") Collection<Long> propertyIds);
+}
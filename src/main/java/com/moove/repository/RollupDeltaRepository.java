@@ -0,0 +1,57 @@
+package com.moove.repository;
+
+import com.moove.entity.RollupDelta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface RollupDeltaRepository extends JpaRepository<RollupDelta, Long> {
+
+    // Column order matches RollupCounters.fromSums
+    String SUMS = "SUM(d.counters.bookings), SUM(d.counters.bookedNights), SUM(d.counters.bookedAmount), " +
+            "SUM(d.counters.payments), SUM(d.counters.paidAmount), SUM(d.counters.reviews), SUM(d.counters.ratingSum)";
+
+    String OWNED_BY = "d.propertyId IN (SELECT p.propertyId FROM Property p WHERE p.user.userId = :ownerId)";
+
+    @Query("SELECT MIN(d.id) FROM RollupDelta d")
+    Long findMinId();
+
+    @Query("SELECT MAX(d.id) FROM RollupDelta d")
+    Long findMaxId();
+
+    // propertyId, day, delta count, sums
+    @Query("SELECT d.propertyId, d.day, COUNT(d), " + SUMS + " FROM RollupDelta d " +
+            "WHERE d.id BETWEEN :fromId AND :toId GROUP BY d.propertyId, d.day")
+    List<Object[]> sumByPropertyAndDay(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Modifying
+    @Query("DELETE FROM RollupDelta d WHERE d.id BETWEEN :fromId AND :toId")
+    int deleteRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    // day, sums of deltas not yet compacted
+    @Query("SELECT d.day, " + SUMS + " FROM RollupDelta d " +
+            "WHERE " + OWNED_BY + " AND d.day BETWEEN :from AND :to GROUP BY d.day")
+    List<Object[]> sumPendingByDay(@Param("ownerId") UUID ownerId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // propertyId, sums of deltas not yet compacted
+    @Query("SELECT d.propertyId, " + SUMS + " FROM RollupDelta d " +
+            "WHERE " + OWNED_BY + " AND d.day BETWEEN :from AND :to GROUP BY d.propertyId")
+    List<Object[]> sumPendingByProperty(@Param("ownerId") UUID ownerId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Source aggregates for the one-off backfill: propertyId, day, count, amount
+    @Query("SELECT b.property.propertyId, CAST(p.paidAt AS LocalDate), COUNT(p), SUM(p.amount) " +
+            "FROM Payment p JOIN p.booking b WHERE p.status = 'PAID' AND p.paidAt IS NOT NULL AND b.property IS NOT NULL " +
+            "GROUP BY b.property.propertyId, CAST(p.paidAt AS LocalDate)")
+    List<Object[]> sumPaymentsByPropertyAndDay();
+
+    // propertyId, day, count, rating sum
+    @Query("SELECT r.property.propertyId, CAST(r.createdAt AS LocalDate), COUNT(r), SUM(r.rating) " +
+            "FROM Review r WHERE r.property IS NOT NULL AND r.createdAt IS NOT NULL " +
+            "GROUP BY r.property.propertyId, CAST(r.createdAt AS LocalDate)")
+    List<Object[]> sumReviewsByPropertyAndDay();
+}
@@ -2,14 +2,19 @@
 package com.moove.repository;
 
 
+import com.moove.DTO.UserSummaryDTO;
 import com.moove.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.UUID;
 
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends JpaRepository<User, UUID> {
 
-    List<User> findUserByUserId(String userId);
+    List<User> findUserByUserId(UUID userId);
 
     List<User> findUserByUserEmail(String userEmail);
 
@@ -17,4 +22,8 @@ public interface UserRepository extends JpaRepository<User, String> {
 
     List<User> findUserByUsername(String username);
 
+    @Query("SELECT new com.moove.DTO.UserSummaryDTO(u.userId, u.username, u.userEmail, u.userPhone, u.userRole) " +
+            "FROM User u WHERE u.userId > :after ORDER BY u.userId")
+    List<UserSummaryDTO> findSummariesAfter(@Param("after") UUID after, Limit limit);
+
 }
\ No newline at end of file
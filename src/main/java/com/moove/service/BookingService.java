@@ -1,33 +1,393 @@
 package com.moove.service;
 
+import com.moove.DTO.AvailabilityDTO;
+import com.moove.DTO.BookedStayDTO;
+import com.moove.DTO.BookingDeadlineDTO;
+import com.moove.DTO.BookingSummaryDTO;
+import com.moove.DTO.KeysetPage;
 import com.moove.entity.Booking;
+import com.moove.entity.BookingStatus;
+import com.moove.event.DomainEventConsumer;
+import com.moove.event.PaymentRecorded;
+import com.moove.index.BookingCalendar;
+import com.moove.index.BookingDeadlines;
 import com.moove.repository.BookingRepository;
-import lombok.RequiredArgsConstructor;
+import com.moove.repository.PropertyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Bookings and their lifecycle: creation against the booked stays, the owner's
+ * confirmation, cancellation, and the deadlines on {@link BookingDeadlines}
+ * that expire unconfirmed holds and complete finished stays, backed by a
+ * periodic sweep of the table for deadlines other instances hold. Every status
+ * change goes through {@link BookingStatus#canBecome}; deadlines re-check the
+ * status in the statement that applies them. Payments move their booking to
+ * PAID through {@link PaymentRecorded} events, off the payment's transaction.
+ */
 @Service
-@RequiredArgsConstructor
-public class BookingService {
+@Slf4j
+public class BookingService implements DomainEventConsumer<PaymentRecorded> {
+
+    private static final Duration DEADLINE_RETRY_DELAY = Duration.ofSeconds(30);
+
     private final BookingRepository bookingRepository;
+    private final PropertyRepository propertyRepository;
+    private final BookingCalendar bookingCalendar;
+    private final BookingDeadlines bookingDeadlines;
+    private final RollupService rollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final int deadlineBatchSize;
+
+    public BookingService(BookingRepository bookingRepository, PropertyRepository propertyRepository,
+                          BookingCalendar bookingCalendar,
+                          BookingDeadlines bookingDeadlines, RollupService rollupService,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${moove.booking.deadline-batch-size:500}") int deadlineBatchSize) {
+        this.bookingRepository = bookingRepository;
+        this.propertyRepository = propertyRepository;
+        this.bookingCalendar = bookingCalendar;
+        this.bookingDeadlines = bookingDeadlines;
+        this.rollupService = rollupService;
+        this.transactionTemplate = transactionTemplate;
+        this.deadlineBatchSize = deadlineBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCalendar() {
+        bookingCalendar.clear();
+        for (BookedStayDTO stay : bookingRepository.findActiveStays()) {
+            bookingCalendar.add(stay.getPropertyId(), stay.getBookingId(),
+                    toLocalDate(stay.getCheckInDate()), toLocalDate(stay.getCheckOutDate()));
+        }
+    }
+
+    // Rebuilds the wheel from the open bookings, giving holds saved before deadlines existed a full window.
+    // Payments whose event died with the last process are applied first, so their bookings do not expire.
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDeadlines() {
+        bookingDeadlines.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            int paid = bookingRepository.markPaidWherePaymentRecorded();
+            if (paid > 0) {
+                log.info("Moved {} bookings with recorded payments to PAID", paid);
+            }
+            bookingRepository.assignMissingConfirmBy(bookingDeadlines.confirmationDeadline(LocalDateTime.now()));
+            try (Stream<BookingDeadlineDTO> open = bookingRepository.streamOpenDeadlines()) {
+                open.forEach(row -> bookingDeadlines.schedule(row.getBookingId(), BookingStatus.of(row.getStatus()),
+                        row.getConfirmBy(), toLocalDate(row.getCheckOutDate())));
+            }
+        });
+    }
+
+    @Override
+    public String name() {
+        return "booking-paid";
+    }
+
+    @Override
+    public Class<PaymentRecorded> eventType() {
+        return PaymentRecorded.class;
+    }
+
+    // One conditional UPDATE for the batch; bookings already past PENDING and CONFIRMED are left as they are
+    @Override
+    public void consume(List<PaymentRecorded> events) {
+        Set<Integer> bookingIds = new TreeSet<>();
+        for (PaymentRecorded event : events) {
+            bookingIds.add(event.bookingId());
+        }
+        transactionTemplate.executeWithoutResult(status -> bookingRepository.markPaid(bookingIds));
+    }
 
+    @Transactional(readOnly = true)
     public List<Booking> getAll() {
         return bookingRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public KeysetPage<BookingSummaryDTO> getPage(Integer after, int limit) {
+        int size = KeysetPage.clampLimit(limit);
+        List<BookingSummaryDTO> rows = bookingRepository.findSummariesAfter(after == null ? 0 : after, Limit.of(size + 1));
+        return KeysetPage.of(rows, size, BookingSummaryDTO::getBookingId);
+    }
+
     public Booking getById(Long id) {
         return bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
     }
 
+    public BookingSummaryDTO getSummaryById(int id) {
+        return bookingRepository.findSummaryById(id)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+    }
+
+    // Answered from the table, since other instances book and free dates this calendar never sees
+    public AvailabilityDTO getAvailability(long propertyId, LocalDate checkIn, LocalDate checkOut) {
+        requireValidRange(checkIn, checkOut);
+        List<BookedStayDTO> overlapping = bookingRepository.findStaysOverlapping(List.of(propertyId),
+                java.sql.Date.valueOf(checkIn), java.sql.Date.valueOf(checkOut));
+        refreshCalendar(propertyId, checkIn, checkOut, overlapping);
+        return new AvailabilityDTO(propertyId, checkIn, checkOut, overlapping.isEmpty(),
+                overlapping.isEmpty() ? null : overlapping.get(0).getBookingId());
+    }
+
+    // New bookings start PENDING and wait for the owner until confirmBy. Bookings for a property
+    // are rejected if they overlap an active stay. The calendar only holds what this instance
+    // saw, and misses dates other instances booked or freed, so the overlap is decided from the
+    // table under the property's row lock, which other instances take too. The calendar lock
+    // keeps this instance's writers for one property off that row lock.
     public Booking save(Booking booking) {
-        return bookingRepository.save(booking);
+        if (booking.getStatus() != null && !BookingStatus.PENDING.name().equals(booking.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "New bookings start " + BookingStatus.PENDING);
+        }
+        booking.setStatus(BookingStatus.PENDING.name());
+        booking.setConfirmBy(bookingDeadlines.confirmationDeadline(LocalDateTime.now()));
+        if (booking.getProperty() == null) {
+            Booking saved = bookingRepository.save(booking);
+            scheduleDeadlines(saved);
+            return saved;
+        }
+
+        long propertyId = booking.getProperty().getPropertyId();
+        LocalDate checkIn = toLocalDate(booking.getCheckInDate());
+        LocalDate checkOut = toLocalDate(booking.getCheckOutDate());
+        requireValidRange(checkIn, checkOut);
+
+        Lock lock = bookingCalendar.lockFor(propertyId);
+        lock.lock();
+        try {
+            Booking saved = transactionTemplate.execute(status -> {
+                propertyRepository.lockForBooking(List.of(propertyId));
+                List<BookedStayDTO> overlapping = bookingRepository.findStaysOverlapping(List.of(propertyId),
+                        java.sql.Date.valueOf(checkIn), java.sql.Date.valueOf(checkOut));
+                refreshCalendar(propertyId, checkIn, checkOut, overlapping);
+                if (!overlapping.isEmpty()) {
+                    BookedStayDTO stay = overlapping.get(0);
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Property is already booked from "
+                            + toLocalDate(stay.getCheckInDate()) + " to " + toLocalDate(stay.getCheckOutDate()));
+                }
+                Booking written = bookingRepository.save(booking);
+                rollupService.bookingAdded(written);
+                return written;
+            });
+            bookingCalendar.add(propertyId, saved.getBookingId(), checkIn, checkOut);
+            scheduleDeadlines(saved);
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The owner accepts a pending booking; a paid one is only marked as confirmed
+    public BookingSummaryDTO confirm(int id) {
+        Booking confirmed = transactionTemplate.execute(status -> {
+            Booking booking = lockById(id);
+            BookingStatus current = BookingStatus.of(booking.getStatus());
+            if (current != BookingStatus.CONFIRMED && current != BookingStatus.PAID) {
+                moveTo(booking, BookingStatus.CONFIRMED);
+            }
+            booking.setConformedByOwner(true);
+            return booking;
+        });
+        scheduleDeadlines(confirmed);
+        return getSummaryById(id);
     }
 
     public void cancel(Long id) {
-        Booking booking = getById(id);
-        booking.setStatus("CANCELLED");
-        bookingRepository.save(booking);
+        Booking cancelled = transactionTemplate.execute(status -> {
+            Booking booking = lockById(id.intValue());
+            if (BookingStatus.of(booking.getStatus()) == BookingStatus.CANCELLED) {
+                return null;
+            }
+            moveTo(booking, BookingStatus.CANCELLED);
+            rollupService.bookingCancelled(booking);
+            return booking;
+        });
+        if (cancelled != null) {
+            releaseDates(List.of(cancelled));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${moove.booking.deadline-interval:1s}")
+    public void applyDueDeadlines() {
+        try {
+            applyDeadlines(Instant.now());
+        } catch (RuntimeException e) {
+            log.warn("Applying booking deadlines failed", e);
+        }
+    }
+
+    // Expires and completes every booking whose deadline has passed by now, a batch per statement.
+    // Returns the number of bookings that changed status.
+    public int applyDeadlines(Instant now) {
+        List<BookingDeadlines.Deadline> due = bookingDeadlines.advance(now);
+        if (due.isEmpty()) {
+            return 0;
+        }
+        Instant asOf = bookingDeadlines.time();
+        Map<BookingDeadlines.Transition, List<BookingDeadlines.Deadline>> byTransition =
+                due.stream().collect(Collectors.groupingBy(BookingDeadlines.Deadline::transition,
+                        () -> new EnumMap<>(BookingDeadlines.Transition.class), Collectors.toList()));
+        int moved = 0;
+        // EXPIRE first, so a hold whose deadlines fell together is not completed as well
+        for (Map.Entry<BookingDeadlines.Transition, List<BookingDeadlines.Deadline>> entry : byTransition.entrySet()) {
+            List<BookingDeadlines.Deadline> deadlines = entry.getValue();
+            for (int from = 0; from < deadlines.size(); from += deadlineBatchSize) {
+                List<BookingDeadlines.Deadline> batch = deadlines.subList(from, Math.min(from + deadlineBatchSize, deadlines.size()));
+                List<Integer> ids = batch.stream().map(BookingDeadlines.Deadline::bookingId).distinct().toList();
+                try {
+                    moved += entry.getKey() == BookingDeadlines.Transition.EXPIRE ? expire(ids, asOf) : complete(ids, asOf);
+                } catch (RuntimeException e) {
+                    log.warn("Could not apply {} deadlines of {} bookings, retrying in {}", entry.getKey(), ids.size(),
+                            DEADLINE_RETRY_DELAY, e);
+                    bookingDeadlines.retry(batch, now.plus(DEADLINE_RETRY_DELAY));
+                }
+            }
+        }
+        return moved;
+    }
+
+    /*
+     * Deadlines sit in the wheel of the instance that created or loaded the
+     * booking, so one that instance never applies (it stopped, or another
+     * instance made the booking) is caught here from the table. The statements
+     * re-check the status, so bookings the wheel handles meanwhile are skipped.
+     */
+    @Scheduled(fixedDelayString = "${moove.booking.reconcile-interval:1m}")
+    public void reconcileDeadlines() {
+        try {
+            int moved = reconcile(Instant.now());
+            if (moved > 0) {
+                log.info("Reconciled {} bookings whose deadlines passed outside this instance's wheel", moved);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Reconciling booking deadlines failed, will retry on the next run", e);
+        }
+    }
+
+    // Applies every recorded payment and every deadline passed by now, read from the table.
+    // Returns the number of bookings that changed status.
+    public int reconcile(Instant now) {
+        int moved = transactionTemplate.execute(status -> bookingRepository.markPaidWherePaymentRecorded());
+        LocalDateTime asOf = LocalDateTime.ofInstant(now, ZoneId.systemDefault());
+        List<Integer> ids;
+        int after = 0;
+        do {
+            ids = bookingRepository.findExpiredHoldIds(after, asOf, Limit.of(deadlineBatchSize));
+            if (!ids.isEmpty()) {
+                moved += expire(ids, now);
+                after = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == deadlineBatchSize);
+        Date today = Date.from(LocalDate.ofInstant(now, ZoneId.systemDefault())
+                .atStartOfDay(ZoneId.systemDefault()).toInstant());
+        after = 0;
+        do {
+            ids = bookingRepository.findFinishedStayIds(after, today, Limit.of(deadlineBatchSize));
+            if (!ids.isEmpty()) {
+                moved += complete(ids, now);
+                after = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == deadlineBatchSize);
+        return moved;
+    }
+
+    private int expire(List<Integer> ids, Instant asOf) {
+        LocalDateTime now = LocalDateTime.ofInstant(asOf, ZoneId.systemDefault());
+        List<Booking> expired = transactionTemplate.execute(status -> {
+            List<Booking> holds = bookingRepository.findExpiredHolds(ids, now);
+            if (!holds.isEmpty()) {
+                bookingRepository.updateStatus(holds.stream().map(Booking::getBookingId).toList(),
+                        BookingStatus.EXPIRED.name());
+                holds.forEach(rollupService::bookingCancelled);
+            }
+            return holds;
+        });
+        releaseDates(expired);
+        return expired.size();
+    }
+
+    private int complete(List<Integer> ids, Instant asOf) {
+        Date today = Date.from(LocalDate.ofInstant(asOf, ZoneId.systemDefault())
+                .atStartOfDay(ZoneId.systemDefault()).toInstant());
+        return transactionTemplate.execute(status -> bookingRepository.completeFinishedStays(ids, today));
+    }
+
+    private Booking lockById(int id) {
+        return bookingRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Booking not found"));
+    }
+
+    private static void moveTo(Booking booking, BookingStatus next) {
+        BookingStatus current = BookingStatus.of(booking.getStatus());
+        if (!current.canBecome(next)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Booking " + booking.getBookingId() + " is " + current + " and cannot become " + next);
+        }
+        booking.setStatus(next.name());
+    }
+
+    private void scheduleDeadlines(Booking booking) {
+        bookingDeadlines.schedule(booking.getBookingId(), BookingStatus.of(booking.getStatus()), booking.getConfirmBy(),
+                toLocalDate(booking.getCheckOutDate()));
+    }
+
+    // Replaces what the calendar holds for [checkIn, checkOut) with the stays the table has there
+    private void refreshCalendar(long propertyId, LocalDate checkIn, LocalDate checkOut, List<BookedStayDTO> stays) {
+        bookingCalendar.removeOverlapping(propertyId, checkIn, checkOut);
+        for (BookedStayDTO stay : stays) {
+            bookingCalendar.add(propertyId, stay.getBookingId(),
+                    toLocalDate(stay.getCheckInDate()), toLocalDate(stay.getCheckOutDate()));
+        }
+    }
+
+    private void releaseDates(List<Booking> bookings) {
+        for (Booking booking : bookings) {
+            if (booking.getProperty() != null && booking.getCheckInDate() != null) {
+                bookingCalendar.remove(booking.getProperty().getPropertyId(), booking.getBookingId(),
+                        toLocalDate(booking.getCheckInDate()));
+            }
+        }
+    }
+
+    private static void requireValidRange(LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Check-out must be after check-in");
+        }
+    }
+
+    public static LocalDate toLocalDate(Date date) {
+        if (date == null) {
+            return null;
+        }
+        if (date instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate();
+        }
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,188 @@
+package com.moove.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moove.DTO.BookingImportRow;
+import com.moove.DTO.ImportJobDTO;
+import com.moove.DTO.PropertyImportRow;
+import com.moove.batch.BulkImportConfig;
+import com.moove.batch.ImportErrorListener;
+import com.moove.batch.ImportRowReaders;
+import com.moove.repository.BookingRepository;
+import com.moove.repository.PropertyRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class BulkService {
+
+    private final JobRepository jobRepository;
+    private final JobExplorer jobExplorer;
+    @Qualifier("propertyImportJob")
+    private final Job propertyImportJob;
+    @Qualifier("bookingImportJob")
+    private final Job bookingImportJob;
+    private final PropertyRepository propertyRepository;
+    private final BookingRepository bookingRepository;
+    private final ObjectMapper objectMapper;
+
+    private TaskExecutorJobLauncher jobLauncher;
+
+    // Imports run in the background; callers poll getImport for progress
+    @PostConstruct
+    void createJobLauncher() throws Exception {
+        jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.setTaskExecutor(new SimpleAsyncTaskExecutor("bulk-import-"));
+        jobLauncher.afterPropertiesSet();
+    }
+
+    public ImportJobDTO importProperties(InputStream body, String format) {
+        return startImport(propertyImportJob, body, format);
+    }
+
+    public ImportJobDTO importBookings(InputStream body, String format) {
+        return startImport(bookingImportJob, body, format);
+    }
+
+    public Optional<ImportJobDTO> getImport(long jobExecutionId) {
+        return Optional.ofNullable(jobExplorer.getJobExecution(jobExecutionId)).map(BulkService::toDto);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportProperties(OutputStream out, String format) throws IOException {
+        try (Stream<PropertyImportRow> rows = propertyRepository.streamExportRows()) {
+            export(out, format, PropertyImportRow.FIELDS, rows, PropertyImportRow::values);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportBookings(OutputStream out, String format) throws IOException {
+        try (Stream<BookingImportRow> rows = bookingRepository.streamExportRows()) {
+            export(out, format, BookingImportRow.FIELDS, rows, BookingImportRow::values);
+        }
+    }
+
+    private ImportJobDTO startImport(Job job, InputStream body, String format) {
+        requireFormat(format);
+        Path file = null;
+        try {
+            // stage the upload on disk so the job can stream it after this request returns
+            file = Files.createTempFile("moove-import-", "." + format);
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+            JobParameters parameters = new JobParametersBuilder()
+                    .addString(BulkImportConfig.FILE_PARAM, file.toAbsolutePath().toString())
+                    .addString(BulkImportConfig.FORMAT_PARAM, format)
+                    .addLong("requestedAt", System.currentTimeMillis())
+                    .toJobParameters();
+            return toDto(jobLauncher.run(job, parameters));
+        } catch (Exception e) {
+            deleteQuietly(file);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not start import", e);
+        }
+    }
+
+    private <T> void export(OutputStream out, String format, String[] fields, Stream<T> rows,
+                            Function<T, Object[]> values) throws IOException {
+        requireFormat(format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (ImportRowReaders.CSV.equals(format)) {
+            writer.write(String.join(",", fields));
+            writer.write('\n');
+        }
+        for (T row : (Iterable<T>) rows::iterator) {
+            if (ImportRowReaders.CSV.equals(format)) {
+                Object[] cells = values.apply(row);
+                List<String> escaped = new ArrayList<>(cells.length);
+                for (Object cell : cells) {
+                    escaped.add(csvCell(cell));
+                }
+                writer.write(String.join(",", escaped));
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+            }
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static String csvCell(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ImportJobDTO toDto(JobExecution execution) {
+        long read = 0;
+        long written = 0;
+        long skipped = 0;
+        List<String> errors = new ArrayList<>();
+        for (StepExecution step : execution.getStepExecutions()) {
+            read += step.getReadCount();
+            written += step.getWriteCount();
+            skipped += step.getSkipCount();
+            Object stepErrors = step.getExecutionContext().get(ImportErrorListener.ERRORS_KEY);
+            if (stepErrors instanceof List<?> list) {
+                errors.addAll((List<String>) list);
+            }
+        }
+        execution.getAllFailureExceptions().stream()
+                .map(Throwable::getMessage)
+                .collect(Collectors.toCollection(() -> errors));
+        return new ImportJobDTO(execution.getId(), execution.getJobInstance().getJobName(),
+                execution.getStatus().name(), read, written, skipped, errors);
+    }
+
+    private static void requireFormat(String format) {
+        if (!ImportRowReaders.CSV.equals(format) && !ImportRowReaders.NDJSON.equals(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or ndjson");
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // temp directory cleanup will get it
+            }
+        }
+    }
+}
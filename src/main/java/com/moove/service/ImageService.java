@@ -0,0 +1,84 @@
+package com.moove.service;
+
+import com.moove.entity.Property;
+import com.moove.repository.PropertyRepository;
+import com.moove.storage.ImageStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Pattern;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageService {
+
+    private static final int MIGRATION_BATCH_SIZE = 50;
+    private static final Pattern BASE64 = Pattern.compile("[A-Za-z0-9+/=\\s]+");
+
+    private final ImageStore imageStore;
+    private final PropertyRepository propertyRepository;
+
+    // Inline base64 images (optionally as data: URIs) go to the store and are replaced by their URL
+    public String toImageReference(String image) {
+        if (image == null || image.isBlank() || !isInlineImage(image)) {
+            return image;
+        }
+        String payload = image.startsWith("data:") ? image.substring(image.indexOf(',') + 1) : image;
+        try {
+            byte[] bytes = Base64.getMimeDecoder().decode(payload);
+            return imageStore.urlFor(imageStore.store(new ByteArrayInputStream(bytes)).id());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Property image is not a supported base64 image");
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not store property image", e);
+        }
+    }
+
+    // Drain images still held in the old @Lob column into the store
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyImages() {
+        long after = 0;
+        int migrated = 0;
+        List<Long> batch;
+        do {
+            batch = propertyRepository.findIdsWithLegacyImage(after, Limit.of(MIGRATION_BATCH_SIZE));
+            for (Long propertyId : batch) {
+                propertyRepository.findById(propertyId).ifPresent(this::migrate);
+                after = propertyId;
+                migrated++;
+            }
+        } while (batch.size() == MIGRATION_BATCH_SIZE);
+        if (migrated > 0) {
+            log.info("Moved {} property images out of the database", migrated);
+        }
+    }
+
+    private void migrate(Property property) {
+        String legacy = property.getLegacyImageData();
+        try {
+            String reference = isInlineImage(legacy) ? toImageReference(legacy) : legacy;
+            if (property.getPropertyImageUrl() == null) {
+                property.setPropertyImageUrl(reference);
+            }
+            property.setLegacyImageData(null);
+            propertyRepository.save(property);
+        } catch (ResponseStatusException e) {
+            log.warn("Leaving legacy image of property {} in place: {}", property.getPropertyId(), e.getReason());
+        }
+    }
+
+    private static boolean isInlineImage(String image) {
+        return image.startsWith("data:") || (image.length() > 256 && BASE64.matcher(image).matches());
+    }
+}
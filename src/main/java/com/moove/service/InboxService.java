@@ -0,0 +1,117 @@
+package com.moove.service;
+
+import com.moove.DTO.ConversationSummaryDTO;
+import com.moove.DTO.KeysetPage;
+import com.moove.entity.Conversation;
+import com.moove.entity.Message;
+import com.moove.repository.ConversationRepository;
+import com.moove.repository.MessageRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-user conversation list for the chat inbox. Each message updates one
+ * {@link Conversation} row for the receiver and one for the sender, holding
+ * the latest message and the receiver's unread count, so the inbox is a
+ * single index range read however many contacts the user has.
+ */
+@Service
+@RequiredArgsConstructor
+public class InboxService {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final ConversationRepository conversationRepository;
+    private final MessageRepository messageRepository;
+
+    // Build conversations from the message history when the table is new; history counts as read
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (conversationRepository.count() > 0) {
+            return;
+        }
+        Map<List<UUID>, Long> latest = new HashMap<>();
+        for (Object[] row : messageRepository.findLastMessageIdByDirection()) {
+            UUID sender = (UUID) row[0];
+            UUID receiver = (UUID) row[1];
+            latest.merge(List.of(sender, receiver), (Long) row[2], Math::max);
+            latest.merge(List.of(receiver, sender), (Long) row[2], Math::max);
+        }
+        List<Map.Entry<List<UUID>, Long>> sides = new ArrayList<>(latest.entrySet());
+        for (int from = 0; from < sides.size(); from += BACKFILL_BATCH_SIZE) {
+            List<Map.Entry<List<UUID>, Long>> batch = sides.subList(from, Math.min(sides.size(), from + BACKFILL_BATCH_SIZE));
+            Map<Long, Message> messages = new HashMap<>();
+            for (Message message : messageRepository.findAllById(batch.stream().map(Map.Entry::getValue).distinct().toList())) {
+                messages.put(message.getId(), message);
+            }
+            List<Conversation> conversations = new ArrayList<>(batch.size());
+            for (Map.Entry<List<UUID>, Long> side : batch) {
+                Message message = messages.get(side.getValue());
+                conversations.add(new Conversation(side.getKey().get(0), side.getKey().get(1), message.getId(),
+                        message.getSender().getUserId(), message.getContent(), message.getSentAt(), 0, message.getId()));
+            }
+            conversationRepository.saveAll(conversations);
+        }
+    }
+
+    public KeysetPage<ConversationSummaryDTO> getInbox(UUID userId, Long after, int limit) {
+        int size = KeysetPage.clampLimit(limit);
+        List<ConversationSummaryDTO> rows = conversationRepository.findInbox(userId,
+                after == null ? Long.MAX_VALUE : after, Limit.of(size + 1));
+        return KeysetPage.of(rows, size, ConversationSummaryDTO::getLastMessageId);
+    }
+
+    public long getUnreadCount(UUID userId) {
+        return conversationRepository.sumUnread(userId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void messageSaved(Message message) {
+        if (message.getSender() == null || message.getReceiver() == null) {
+            return;
+        }
+        UUID senderId = message.getSender().getUserId();
+        UUID receiverId = message.getReceiver().getUserId();
+        apply(receiverId, senderId, message, senderId.equals(receiverId) ? 0 : 1);
+        if (!senderId.equals(receiverId)) {
+            apply(senderId, receiverId, message, 0);
+        }
+    }
+
+    // Marks the peer's messages up to upTo as read, or all of them when upTo is null
+    @Transactional
+    public ConversationSummaryDTO markRead(UUID userId, UUID peerId, Long upTo) {
+        long last = conversationRepository.findLastMessageIdForUpdate(userId, peerId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No conversation with " + peerId));
+        conversationRepository.markReadUpTo(userId, peerId, upTo == null ? last : Math.min(upTo, last));
+        return conversationRepository.findSummary(userId, peerId).orElseThrow();
+    }
+
+    private void apply(UUID userId, UUID peerId, Message message, int unread) {
+        UUID senderId = message.getSender().getUserId();
+        if (conversationRepository.applyMessage(userId, peerId, message.getId(), senderId,
+                message.getContent(), message.getSentAt(), unread) > 0) {
+            return;
+        }
+        if (conversationRepository.insertIfAbsent(userId, peerId, message.getId(), senderId,
+                message.getContent(), message.getSentAt(), unread) == 0) {
+            // lost the race to create the row; the winner's row is there now
+            conversationRepository.applyMessage(userId, peerId, message.getId(), senderId,
+                    message.getContent(), message.getSentAt(), unread);
+        }
+    }
+}
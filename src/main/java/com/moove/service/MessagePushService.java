@@ -0,0 +1,101 @@
+package com.moove.service;
+
+import com.moove.DTO.MessageDTO;
+import com.moove.event.DomainEventConsumer;
+import com.moove.event.MessageSent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-Sent Events fan-out for chat messages. Each open client holds one
+ * emitter per user; the event id is the message id, so a reconnecting client
+ * can catch up through the conversation endpoint's {@code since} parameter.
+ * Messages arrive as {@link MessageSent} events on the bus's worker threads,
+ * so a slow client cannot hold up the sender's POST; partitioned by receiver,
+ * so each inbox sees its messages in order.
+ */
+@Service
+public class MessagePushService implements DomainEventConsumer<MessageSent> {
+
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final Map<UUID, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(UUID userId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitters.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(emitter);
+        emitter.onCompletion(() -> unsubscribe(userId, emitter));
+        emitter.onTimeout(() -> unsubscribe(userId, emitter));
+        emitter.onError(e -> unsubscribe(userId, emitter));
+        return emitter;
+    }
+
+    @Override
+    public String name() {
+        return "push";
+    }
+
+    @Override
+    public Class<MessageSent> eventType() {
+        return MessageSent.class;
+    }
+
+    @Override
+    public int partitions() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    // A client that fails a send is dropped rather than retried, so nothing here throws
+    @Override
+    public void consume(List<MessageSent> events) {
+        for (MessageSent event : events) {
+            publish(event.message());
+        }
+    }
+
+    public void publish(MessageDTO message) {
+        send(message.getReceiverId(), message);
+        if (message.getSenderId() != null && !message.getSenderId().equals(message.getReceiverId())) {
+            send(message.getSenderId(), message);
+        }
+    }
+
+    public int subscriberCount(UUID userId) {
+        Set<SseEmitter> open = emitters.get(userId);
+        return open == null ? 0 : open.size();
+    }
+
+    private void send(UUID userId, MessageDTO message) {
+        if (userId == null) {
+            return;
+        }
+        Set<SseEmitter> open = emitters.get(userId);
+        if (open == null) {
+            return;
+        }
+        for (SseEmitter emitter : open) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(message.getId()))
+                        .name("message")
+                        .data(message));
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(userId, emitter);
+            }
+        }
+    }
+
+    private void unsubscribe(UUID userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (k, open) -> {
+            open.remove(emitter);
+            return open.isEmpty() ? null : open;
+        });
+    }
+}
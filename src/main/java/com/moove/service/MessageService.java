@@ -1,22 +1,64 @@
 package com.moove.service;
 
+import com.moove.DTO.MessageDTO;
 import com.moove.entity.Message;
+import com.moove.event.DomainEventBus;
+import com.moove.event.MessageSent;
 import com.moove.repository.MessageRepository;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 public class MessageService {
     private final MessageRepository messageRepository;
+    private final DomainEventBus domainEventBus;
+    private final InboxService inboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration sinceOverlap;
 
-    public List<Message> getConversation(Long userId1, Long userId2) {
+    public MessageService(MessageRepository messageRepository, DomainEventBus domainEventBus,
+                          InboxService inboxService, TransactionTemplate transactionTemplate,
+                          @Value("${moove.messages.since-overlap:1m}") Duration sinceOverlap) {
+        this.messageRepository = messageRepository;
+        this.domainEventBus = domainEventBus;
+        this.inboxService = inboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.sinceOverlap = sinceOverlap;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Message> getConversation(UUID userId1, UUID userId2) {
         return messageRepository.findConversation(userId1, userId2);
     }
 
+    // The messages after the given id, for clients that already hold the rest. A message can commit after
+    // one with a higher id, so everything sent within the overlap before the cursor message comes back
+    // too; clients keep one copy per id
+    @Transactional(readOnly = true)
+    public List<Message> getConversationSince(UUID userId1, UUID userId2, Long since) {
+        return messageRepository.findById(since)
+                .filter(cursor -> cursor.getSentAt() != null)
+                .map(cursor -> messageRepository.findConversationSince(userId1, userId2, since,
+                        cursor.getSentAt().minus(sinceOverlap)))
+                .orElseGet(() -> messageRepository.findConversationSince(userId1, userId2, since));
+    }
+
+    // sentAt bounds the overlap of getConversationSince, so it comes from this clock, never the client's
     public Message save(Message message) {
-        return messageRepository.save(message);
+        message.setSentAt(LocalDateTime.now());
+        Message saved = transactionTemplate.execute(status -> {
+            Message written = messageRepository.save(message);
+            inboxService.messageSaved(written);
+            domainEventBus.publish(new MessageSent(MessageDTO.from(written)));
+            return written;
+        });
+        return saved;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,177 @@
+package com.moove.service;
+
+import com.moove.entity.OutboxEvent;
+import com.moove.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains the outbox in id order, handing each event to the application's
+ * listeners (see {@link OutboxWebhookSink}). A batch is claimed in a short
+ * transaction: its rows are locked with SKIP LOCKED, so other instances pass
+ * them by, and leased for {@code moove.outbox.claim-timeout}. Delivery runs
+ * after that commit, so a slow listener holds no row locks and no connection.
+ * Outcomes are written back in a second short transaction. A failed event is
+ * retried with exponential backoff and marked dead after
+ * {@code moove.outbox.max-attempts}, so it never stalls the events behind it.
+ * Delivery is at-least-once (an instance that dies mid-batch leaves its
+ * lease to expire), and a retried event may arrive after later ones, so
+ * listeners should treat the event id as a dedup key. Published events are
+ * deleted once they are older than the retention; dead ones are kept.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter relayed;
+    private final Counter failed;
+    private final Counter dead;
+    private final int batchSize;
+    private final Duration retention;
+    private final Duration claimTimeout;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, ApplicationEventPublisher eventPublisher,
+                       TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                       @Value("${moove.outbox.batch-size:500}") int batchSize,
+                       @Value("${moove.outbox.retention:7d}") Duration retention,
+                       @Value("${moove.outbox.claim-timeout:1h}") Duration claimTimeout,
+                       @Value("${moove.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${moove.outbox.retry-backoff:10s}") Duration retryBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.claimTimeout = claimTimeout;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.relayed = Counter.builder("moove.outbox.relayed")
+                .description("Outbox events delivered to listeners")
+                .register(meterRegistry);
+        this.failed = Counter.builder("moove.outbox.failed")
+                .description("Outbox deliveries that failed and were scheduled again")
+                .register(meterRegistry);
+        this.dead = Counter.builder("moove.outbox.dead")
+                .description("Outbox events given up on after their last attempt")
+                .register(meterRegistry);
+        Gauge.builder("moove.outbox.pending", outboxEventRepository, OutboxEventRepository::countPending)
+                .description("Outbox events not yet delivered")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${moove.outbox.relay-interval:1s}")
+    public void relay() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed, will retry on the next run", e);
+        }
+    }
+
+    // Returns the number of events delivered
+    public int drain() {
+        int total = 0;
+        List<OutboxEvent> batch;
+        do {
+            batch = claim();
+            total += deliver(batch);
+        } while (batch.size() == batchSize);
+        return total;
+    }
+
+    @Scheduled(fixedDelayString = "${moove.outbox.prune-interval:1h}")
+    public void prune() {
+        try {
+            int deleted = pruneBefore(LocalDateTime.now().minus(retention));
+            if (deleted > 0) {
+                log.info("Pruned {} published outbox events", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox prune failed, will retry on the next run", e);
+        }
+    }
+
+    // Deletes events published before the cutoff; returns how many
+    public int pruneBefore(LocalDateTime cutoff) {
+        return transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(cutoff));
+    }
+
+    private List<OutboxEvent> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> batch = outboxEventRepository.findPending(now, Limit.of(batchSize));
+            if (!batch.isEmpty()) {
+                outboxEventRepository.claim(batch.stream().map(OutboxEvent::getId).toList(), now.plus(claimTimeout));
+            }
+            return batch;
+        });
+    }
+
+    private int deliver(List<OutboxEvent> batch) {
+        List<Long> published = new ArrayList<>(batch.size());
+        List<OutboxEvent> failures = new ArrayList<>();
+        List<RuntimeException> errors = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            try {
+                eventPublisher.publishEvent(event);
+                published.add(event.getId());
+            } catch (RuntimeException e) {
+                failures.add(event);
+                errors.add(e);
+            }
+        }
+        if (published.isEmpty() && failures.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (!published.isEmpty()) {
+                outboxEventRepository.markPublished(published, now);
+            }
+            for (int i = 0; i < failures.size(); i++) {
+                recordFailure(failures.get(i), errors.get(i), now);
+            }
+        });
+        relayed.increment(published.size());
+        return published.size();
+    }
+
+    private void recordFailure(OutboxEvent event, RuntimeException error, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        String message = abbreviate(String.valueOf(error), 1000);
+        if (attempts >= maxAttempts) {
+            dead.increment();
+            log.error("Giving up on outbox event {} ({}) after {} attempts", event.getId(), event.getEventType(),
+                    attempts, error);
+            outboxEventRepository.recordFailure(event.getId(), attempts, null, now, message);
+            return;
+        }
+        failed.increment();
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        log.warn("Delivering outbox event {} ({}) failed, attempt {} of {}, retrying in {}", event.getId(),
+                event.getEventType(), attempts, maxAttempts, backoff, error);
+        outboxEventRepository.recordFailure(event.getId(), attempts, now.plus(backoff), null, message);
+    }
+
+    private static String abbreviate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max);
+    }
+}
@@ -0,0 +1,47 @@
+package com.moove.service;
+
+import com.moove.entity.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+
+/**
+ * Forwards relayed outbox events to {@code moove.outbox.webhook-url}, one POST
+ * per event with the JSON payload as the body. The event id goes in the
+ * {@code Idempotency-Key} header, since a failed delivery is relayed again.
+ * Any error or non-2xx answer fails the event's delivery, so it is marked
+ * published only once the receiver has accepted it.
+ */
+@Component
+@ConditionalOnProperty("moove.outbox.webhook-url")
+public class OutboxWebhookSink {
+
+    private final RestClient restClient;
+
+    public OutboxWebhookSink(RestClient.Builder builder,
+                             @Value("${moove.outbox.webhook-url}") String url,
+                             @Value("${moove.outbox.webhook-timeout:5s}") Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restClient = builder.baseUrl(url).requestFactory(requestFactory).build();
+    }
+
+    @EventListener
+    public void forward(OutboxEvent event) {
+        restClient.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("Idempotency-Key", String.valueOf(event.getId()))
+                .header("X-Moove-Event-Type", event.getEventType())
+                .header("X-Moove-Aggregate", event.getAggregateType() + ":" + event.getAggregateId())
+                .body(event.getPayload())
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
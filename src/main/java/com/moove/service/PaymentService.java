@@ -1,22 +1,172 @@
 package com.moove.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moove.DTO.KeysetPage;
+import com.moove.DTO.PaymentSummaryDTO;
+import com.moove.cache.LookupCache;
+import com.moove.config.CacheConfig;
+import com.moove.entity.Booking;
+import com.moove.entity.OutboxEvent;
 import com.moove.entity.Payment;
+import com.moove.entity.User;
+import com.moove.event.DomainEventBus;
+import com.moove.event.PaymentRecorded;
+import com.moove.repository.BookingRepository;
+import com.moove.repository.OutboxEventRepository;
 import com.moove.repository.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class PaymentService {
+
+    public static final String PAYMENT_RECORDED = "PaymentRecorded";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final PaymentRepository paymentRepository;
+    private final BookingRepository bookingRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final RollupService rollupService;
+    private final DomainEventBus domainEventBus;
+    private final LookupCache<Long, PaymentSummaryDTO> paymentCache;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
+    @Transactional(readOnly = true)
     public List<Payment> getAll() {
         return paymentRepository.findAll();
     }
 
-    public Payment save(Payment payment) {
-        return paymentRepository.save(payment);
+    @Transactional(readOnly = true)
+    public KeysetPage<PaymentSummaryDTO> getPage(Long after, int limit) {
+        int size = KeysetPage.clampLimit(limit);
+        List<PaymentSummaryDTO> rows = paymentRepository.findSummariesAfter(after == null ? 0 : after, Limit.of(size + 1));
+        return KeysetPage.of(rows, size, PaymentSummaryDTO::getId);
+    }
+
+    /**
+     * Records a payment at most once per idempotency key. A retry is answered
+     * from the dedup cache, then from the unique index; two first attempts
+     * racing on one key are settled by the index and the loser replays the
+     * winner's payment. A key replayed with a different payment is rejected
+     * with 422. The payment and the outbox event commit together;
+     * the booking moves to PAID after the commit, through a
+     * {@link PaymentRecorded} event.
+     */
+    public Recorded record(String idempotencyKey, Payment payment) {
+        if (idempotencyKey != null) {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Idempotency-Key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+            }
+            Optional<PaymentSummaryDTO> existing = findByIdempotencyKey(idempotencyKey);
+            if (existing.isPresent()) {
+                return replayed(existing.get(), payment);
+            }
+        }
+
+        payment.setIdempotencyKey(idempotencyKey);
+        try {
+            PaymentSummaryDTO recorded = transactionTemplate.execute(status -> insert(payment));
+            paymentCache.put(recorded);
+            return new Recorded(recorded, false);
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyKey != null) {
+                Optional<PaymentSummaryDTO> winner = findByIdempotencyKey(idempotencyKey);
+                if (winner.isPresent()) {
+                    return replayed(winner.get(), payment);
+                }
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Payment references an unknown user or booking");
+        }
+    }
+
+    private PaymentSummaryDTO insert(Payment payment) {
+        // Only the ids are needed, so the client's user and booking become unloaded references
+        if (payment.getUser() != null) {
+            payment.setUser(entityManager.getReference(User.class, payment.getUser().getUserId()));
+        }
+        if (payment.getBooking() != null) {
+            payment.setBooking(entityManager.getReference(Booking.class, payment.getBooking().getBookingId()));
+        }
+        if (payment.getStatus() == null) {
+            payment.setStatus("PAID");
+        }
+        if ("PAID".equals(payment.getStatus()) && payment.getPaidAt() == null) {
+            payment.setPaidAt(LocalDateTime.now());
+        }
+        // Flushed here so a duplicate key fails before the booking row is touched
+        Payment saved = paymentRepository.saveAndFlush(payment);
+        PaymentSummaryDTO summary = PaymentSummaryDTO.from(saved);
+
+        if (summary.getBookingId() != null && "PAID".equals(summary.getStatus())) {
+            domainEventBus.publish(new PaymentRecorded(summary.getId(), summary.getBookingId()));
+            bookingRepository.findPropertyIdById(summary.getBookingId()).ifPresent(propertyId ->
+                    rollupService.paymentRecorded(propertyId, summary.getPaidAt(), summary.getAmount()));
+        }
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("paymentId", summary.getId());
+        payload.put("userId", summary.getUserId());
+        payload.put("bookingId", summary.getBookingId());
+        payload.put("amount", summary.getAmount());
+        payload.put("status", summary.getStatus());
+        outboxEventRepository.save(new OutboxEvent("Payment", String.valueOf(summary.getId()),
+                PAYMENT_RECORDED, toJson(payload), LocalDateTime.now()));
+        return summary;
+    }
+
+    private Optional<PaymentSummaryDTO> findByIdempotencyKey(String idempotencyKey) {
+        return paymentCache.getByAlias(CacheConfig.idempotencyKey(idempotencyKey),
+                () -> paymentRepository.findSummaryByIdempotencyKey(idempotencyKey));
+    }
+
+    private Recorded replayed(PaymentSummaryDTO stored, Payment requested) {
+        if (!sameRequest(stored, requested)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different payment");
+        }
+        meterRegistry.counter("moove.payments.replayed").increment();
+        return new Recorded(stored, true);
+    }
+
+    // The fields the client sends; a missing status defaults to PAID, as on insert
+    private static boolean sameRequest(PaymentSummaryDTO stored, Payment requested) {
+        return Objects.equals(stored.getUserId(), requested.getUser() == null ? null : requested.getUser().getUserId())
+                && Objects.equals(stored.getBookingId(),
+                        requested.getBooking() == null ? null : requested.getBooking().getBookingId())
+                && Double.compare(stored.getAmount(), requested.getAmount()) == 0
+                && Objects.equals(stored.getPaymentMethod(), requested.getPaymentMethod())
+                && Objects.equals(stored.getStatus(), requested.getStatus() == null ? "PAID" : requested.getStatus());
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Recorded(PaymentSummaryDTO payment, boolean replayed) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,188 @@
+package com.moove.service;
+
+import com.moove.DTO.RatingSummaryDTO;
+import com.moove.cache.ResponseSnapshotCache;
+import com.moove.config.CacheConfig;
+import com.moove.entity.PropertyRating;
+import com.moove.event.DomainEventConsumer;
+import com.moove.event.ReviewChanged;
+import com.moove.repository.PropertyRatingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Review aggregates per property. Review writes publish {@link ReviewChanged}
+ * with the rating they removed and added, and the consumer applies those
+ * deltas off the write path under a row lock, so a review write costs one
+ * aggregate update rather than a recount of the property's reviews. A failed
+ * batch rolls back before it is retried, so no delta is applied twice.
+ * <p>
+ * Events are lost if the process dies with them queued or the bus dead-letters
+ * them, so each write also bumps the aggregate's review version in its own
+ * transaction, and the consumer advances the applied version only while the
+ * events it applies follow on without a gap. A lost event leaves the two
+ * apart, and the periodic repair recounts just those aggregates; a recount
+ * covers every write up to the version it read, so later deliveries of those
+ * events are skipped.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PropertyRatingService implements DomainEventConsumer<ReviewChanged> {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final PropertyRatingRepository propertyRatingRepository;
+    private final ResponseSnapshotCache listingSnapshots;
+
+    // Create aggregates for properties that predate the rating table (or lost their row)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        rebuildInBatches(propertyRatingRepository.findPropertyIdsWithoutRating());
+        repairStale();
+    }
+
+    @Scheduled(fixedDelayString = "${moove.rating.repair-interval:10m}")
+    public void repair() {
+        try {
+            repairStale();
+        } catch (RuntimeException e) {
+            log.warn("Repairing stale rating aggregates failed, will retry on the next run", e);
+        }
+    }
+
+    // Recounts aggregates missing a ReviewChanged; returns how many were recounted
+    @Transactional
+    public int repairStale() {
+        List<Long> stale = propertyRatingRepository.findStalePropertyIds();
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        rebuildInBatches(stale);
+        for (Long propertyId : stale) {
+            listingSnapshots.invalidate(CacheConfig.listingSnapshotKeys(propertyId));
+        }
+        log.info("Recounted {} stale rating aggregates", stale.size());
+        return stale.size();
+    }
+
+    public RatingSummaryDTO getSummary(long propertyId) {
+        return RatingSummaryDTO.from(propertyRatingRepository.findById(propertyId)
+                .orElseGet(() -> new PropertyRating(propertyId)));
+    }
+
+    @Override
+    public String name() {
+        return "rating";
+    }
+
+    @Override
+    public Class<ReviewChanged> eventType() {
+        return ReviewChanged.class;
+    }
+
+    @Override
+    public int partitions() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    // Properties without an aggregate (deleted, or not backfilled yet) are skipped
+    @Override
+    @Transactional
+    public void consume(List<ReviewChanged> events) {
+        Set<Long> changed = new TreeSet<>();
+        for (ReviewChanged event : events) {
+            changed.add(event.propertyId());
+        }
+        Map<Long, PropertyRating> ratings = new HashMap<>();
+        for (PropertyRating rating : propertyRatingRepository.lockAll(changed)) {
+            ratings.put(rating.getPropertyId(), rating);
+        }
+        // writes committing together can publish out of order
+        List<ReviewChanged> inVersionOrder = new ArrayList<>(events);
+        inVersionOrder.sort(Comparator.comparingLong(ReviewChanged::version));
+        for (ReviewChanged event : inVersionOrder) {
+            PropertyRating rating = ratings.get(event.propertyId());
+            // already in the counts of a recount
+            if (rating == null || event.version() <= rating.getAppliedVersion()) {
+                continue;
+            }
+            if (event.version() == rating.getAppliedVersion() + 1) {
+                rating.setAppliedVersion(event.version());
+            }
+            if (event.removedRating() != 0) {
+                rating.add(event.removedRating(), -1);
+            }
+            if (event.addedRating() != 0) {
+                rating.add(event.addedRating(), 1);
+            }
+        }
+        // listing snapshots embed the rating
+        for (Long propertyId : ratings.keySet()) {
+            listingSnapshots.invalidate(CacheConfig.listingSnapshotKeys(propertyId));
+        }
+    }
+
+    // Called in the review write's transaction; the row lock it takes until commit orders the write against recounts
+    @Transactional
+    public long nextReviewVersion(long propertyId) {
+        propertyRatingRepository.incrementReviewVersion(propertyId);
+        return propertyRatingRepository.findReviewVersion(propertyId).orElse(0L);
+    }
+
+    @Transactional
+    public void propertyCreated(long propertyId) {
+        if (!propertyRatingRepository.existsById(propertyId)) {
+            PropertyRating rating = new PropertyRating(propertyId);
+            rating.setRecountedAt(LocalDateTime.now());
+            propertyRatingRepository.save(rating);
+        }
+    }
+
+    @Transactional
+    public void propertyDeleted(long propertyId) {
+        propertyRatingRepository.deleteById(propertyId);
+    }
+
+    private void rebuildInBatches(List<Long> propertyIds) {
+        for (int from = 0; from < propertyIds.size(); from += BACKFILL_BATCH_SIZE) {
+            rebuild(propertyIds.subList(from, Math.min(propertyIds.size(), from + BACKFILL_BATCH_SIZE)));
+        }
+    }
+
+    // Counts under the aggregates' row locks: review writes up to the locked version have committed and are
+    // counted, and later ones wait for this transaction, so their events apply on top
+    private void rebuild(List<Long> propertyIds) {
+        LocalDateTime recountedAt = LocalDateTime.now();
+        Map<Long, PropertyRating> ratings = new HashMap<>();
+        for (Long propertyId : propertyIds) {
+            PropertyRating rating = new PropertyRating(propertyId);
+            rating.setRecountedAt(recountedAt);
+            ratings.put(propertyId, rating);
+        }
+        for (PropertyRating locked : propertyRatingRepository.lockAll(propertyIds)) {
+            PropertyRating rating = ratings.get(locked.getPropertyId());
+            rating.setReviewVersion(locked.getReviewVersion());
+            rating.setAppliedVersion(locked.getReviewVersion());
+        }
+        for (Object[] row : propertyRatingRepository.countReviewsByRating(propertyIds)) {
+            ratings.get((Long) row[0]).add((Integer) row[1], ((Long) row[2]).intValue());
+        }
+        propertyRatingRepository.saveAll(ratings.values());
+    }
+}
@@ -0,0 +1,77 @@
+package com.moove.service;
+
+import com.moove.DTO.KeysetPage;
+import com.moove.DTO.PropertySearchCriteria;
+import com.moove.DTO.PropertySearchResultDTO;
+import com.moove.DTO.PropertySummaryDTO;
+import com.moove.entity.Property;
+import com.moove.index.PropertySearchIndex;
+import com.moove.repository.PropertyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class PropertySearchService {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final PropertyRepository propertyRepository;
+    private final PropertySearchIndex propertySearchIndex;
+
+    // Build the index from listing summaries, one keyset batch at a time
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        propertySearchIndex.clear();
+        long after = 0;
+        List<PropertySummaryDTO> batch;
+        do {
+            batch = propertyRepository.findSummariesAfter(after, Limit.of(LOAD_BATCH_SIZE));
+            for (PropertySummaryDTO summary : batch) {
+                propertySearchIndex.put(new PropertySearchIndex.Document(summary.getPropertyId(), summary.getPropertyType(),
+                        summary.getCity(), summary.getPropertyPrice(), summary.getPropertySize(),
+                        summary.getBedroomsAvailable(), summary.getBathroomsAvailable()));
+                after = summary.getPropertyId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+    }
+
+    public void index(Property property) {
+        String city = property.getLocation() == null ? null : property.getLocation().getCity();
+        propertySearchIndex.put(new PropertySearchIndex.Document(property.getPropertyId(), property.getPropertyType(),
+                city, property.getPropertyPrice(), property.getPropertySize(),
+                property.getBedroomsAvailable(), property.getBathroomsAvailable()));
+    }
+
+    public void remove(long propertyId) {
+        propertySearchIndex.remove(propertyId);
+    }
+
+    public PropertySearchResultDTO search(PropertySearchCriteria criteria) {
+        criteria.setLimit(KeysetPage.clampLimit(criteria.getLimit()));
+        PropertySearchIndex.Result result = propertySearchIndex.search(criteria);
+        if (result.propertyIds().isEmpty()) {
+            return new PropertySearchResultDTO(result.total(), List.of(), result.facets());
+        }
+
+        Map<Long, PropertySummaryDTO> summaries = propertyRepository.findSummariesByIds(result.propertyIds()).stream()
+                .collect(Collectors.toMap(PropertySummaryDTO::getPropertyId, Function.identity()));
+        List<PropertySummaryDTO> items = new ArrayList<>(result.propertyIds().size());
+        for (Long id : result.propertyIds()) {
+            PropertySummaryDTO summary = summaries.get(id);
+            if (summary != null) {
+                items.add(summary);
+            }
+        }
+        return new PropertySearchResultDTO(result.total(), items, result.facets());
+    }
+}
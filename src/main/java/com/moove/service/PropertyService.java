@@ -1,13 +1,40 @@
 package com.moove.service;
 
+import com.moove.cache.LookupCache;
+import com.moove.cache.ResponseSnapshotCache;
+import com.moove.cache.SingleFlight;
+import com.moove.config.CacheConfig;
+import com.moove.DTO.KeysetPage;
+import com.moove.DTO.NearbyPropertyDTO;
+import com.moove.DTO.PropertyDetailDTO;
+import com.moove.DTO.PropertyLocationDTO;
+import com.moove.DTO.PropertySummaryDTO;
+import com.moove.DTO.RatingSummaryDTO;
+import com.moove.DTO.ReviewSummaryDTO;
+import com.moove.entity.Location;
 import com.moove.entity.Property;
+import com.moove.index.PropertyGeoIndex;
 import com.moove.repository.PropertyRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class PropertyService {
@@ -15,19 +42,177 @@ public class PropertyService {
     @Autowired
     private PropertyRepository propertyRepository;
 
+    @Autowired
+    private LookupCache<Long, Property> propertyCache;
+
+    @Autowired
+    private SingleFlight<Long, Optional<Property>> propertyLoads;
+
+    @Autowired
+    private SingleFlight<List<Object>, KeysetPage<PropertySummaryDTO>> propertyPageLoads;
+
+    @Autowired
+    private ResponseSnapshotCache listingSnapshots;
+
+    @Autowired
+    private PropertyGeoIndex propertyGeoIndex;
+
+    @Autowired
+    private PropertySearchService propertySearchService;
+
+    @Autowired
+    private PropertyTextSearchService propertyTextSearchService;
+
+    @Autowired
+    private PropertySimilarityService propertySimilarityService;
+
+    @Autowired
+    private PropertyRatingService propertyRatingService;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    // Load coordinates of existing listings into the geo index
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadGeoIndex() {
+        propertyGeoIndex.clear();
+        for (PropertyLocationDTO location : propertyRepository.findAllLocations()) {
+            propertyGeoIndex.put(location.getPropertyId(), location.getLat(), location.getLng());
+        }
+    }
+
     public Property addProperty(Property property) {
-        return propertyRepository.save(property);
+        property.setPropertyImageUrl(imageService.toImageReference(property.getPropertyImageUrl()));
+        Property saved = propertyRepository.save(property);
+        propertyCache.invalidate(saved.getPropertyId());
+        indexLocation(saved);
+        propertySearchService.index(saved);
+        propertyTextSearchService.index(List.of(saved));
+        propertyRatingService.propertyCreated(saved.getPropertyId());
+        propertySimilarityService.index(saved);
+        listingSnapshots.invalidate(CacheConfig.listingSnapshotKeys(saved.getPropertyId()));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Property> getAllProperties() {
         return propertyRepository.findAll();
     }
 
+    // One keyset page of listing summaries, ordered by id
+    public KeysetPage<PropertySummaryDTO> getPropertyPage(Long after, int limit) {
+        int size = KeysetPage.clampLimit(limit);
+        long from = after == null ? 0 : after;
+        return propertyPageLoads.run(List.of(from, size), () -> {
+            List<PropertySummaryDTO> rows = propertyRepository.findSummariesAfter(from, Limit.of(size + 1));
+            return KeysetPage.of(rows, size, PropertySummaryDTO::getPropertyId);
+        });
+    }
+
+    // The same page serialized, kept until a listing or review changes
+    public ResponseSnapshotCache.Snapshot getPropertyPageSnapshot(Long after, int limit) {
+        String key = CacheConfig.propertyPageSnapshotKey(after == null ? 0 : after, KeysetPage.clampLimit(limit));
+        return listingSnapshots.get(key, () -> Optional.of(getPropertyPage(after, limit))).orElseThrow();
+    }
+
     public Optional<Property> getPropertyById(Long propertyId) {
-        return propertyRepository.findById(propertyId);
+        return propertyCache.get(propertyId,
+                () -> propertyLoads.run(propertyId, () -> propertyRepository.findWithOwnerById(propertyId)));
+    }
+
+    // Reviews and rating summary load on the bounded task pool, concurrently with the (usually cached) listing and owner
+    public Optional<PropertyDetailDTO> getPropertyDetail(Long propertyId) {
+        CompletableFuture<List<ReviewSummaryDTO>> reviews = fork(() -> reviewService.getByPropertyId(propertyId));
+        CompletableFuture<RatingSummaryDTO> rating = fork(() -> propertyRatingService.getSummary(propertyId));
+        Optional<Property> property = getPropertyById(propertyId);
+        if (property.isEmpty()) {
+            reviews.cancel(false);
+            rating.cancel(false);
+            return Optional.empty();
+        }
+        return Optional.of(PropertyDetailDTO.from(property.get(), join(reviews), join(rating)));
+    }
+
+    public Optional<ResponseSnapshotCache.Snapshot> getPropertyDetailSnapshot(Long propertyId) {
+        return listingSnapshots.get(CacheConfig.propertySnapshotKey(propertyId), () -> getPropertyDetail(propertyId));
+    }
+
+    // Properties within radiusKm of (lat, lng), nearest first
+    public List<NearbyPropertyDTO> getNearbyProperties(double lat, double lng, double radiusKm, int limit) {
+        List<PropertyGeoIndex.Hit> hits = propertyGeoIndex.nearby(lat, lng, radiusKm, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = hits.stream().map(PropertyGeoIndex.Hit::propertyId).toList();
+        Map<Long, PropertySummaryDTO> properties = propertyRepository.findSummariesByIds(ids).stream()
+                .collect(Collectors.toMap(PropertySummaryDTO::getPropertyId, Function.identity()));
+
+        List<NearbyPropertyDTO> nearby = new ArrayList<>(hits.size());
+        for (PropertyGeoIndex.Hit hit : hits) {
+            PropertySummaryDTO property = properties.get(hit.propertyId());
+            if (property != null) {
+                nearby.add(new NearbyPropertyDTO(property, hit.distanceKm()));
+            }
+        }
+        return nearby;
     }
 
     public void deleteProperty(Long propertyId) {
         propertyRepository.deleteById(propertyId);
+        propertyCache.invalidate(propertyId);
+        propertyGeoIndex.remove(propertyId);
+        propertySearchService.remove(propertyId);
+        propertyTextSearchService.remove(propertyId);
+        propertySimilarityService.remove(propertyId);
+        propertyRatingService.propertyDeleted(propertyId);
+        listingSnapshots.invalidate(CacheConfig.listingSnapshotKeys(propertyId));
+    }
+
+    // Bring listings written outside addProperty (bulk import) into the in-memory indexes
+    public void indexImported(List<Property> properties) {
+        for (Property property : properties) {
+            indexLocation(property);
+            propertySearchService.index(property);
+            listingSnapshots.invalidate(CacheConfig.listingSnapshotKeys(property.getPropertyId()));
+        }
+        propertyTextSearchService.index(properties);
+        propertySimilarityService.indexImported(properties);
+    }
+
+    // A full pool queue runs the part on the request thread instead of failing the request
+    private <T> CompletableFuture<T> fork(Supplier<T> part) {
+        try {
+            return CompletableFuture.supplyAsync(part, taskExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(part.get());
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void indexLocation(Property property) {
+        Location location = property.getLocation();
+        if (location != null && location.getLat() != null && location.getLng() != null) {
+            propertyGeoIndex.put(property.getPropertyId(), location.getLat(), location.getLng());
+        } else {
+            propertyGeoIndex.remove(property.getPropertyId());
+        }
     }
 }
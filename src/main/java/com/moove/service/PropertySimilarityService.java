@@ -0,0 +1,112 @@
+package com.moove.service;
+
+import com.moove.DTO.PropertySummaryDTO;
+import com.moove.DTO.SimilarPropertyDTO;
+import com.moove.entity.Location;
+import com.moove.entity.Property;
+import com.moove.entity.PropertyRating;
+import com.moove.index.PropertySimilarityIndex;
+import com.moove.repository.PropertyRatingRepository;
+import com.moove.repository.PropertyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serves "similar listings" from {@link PropertySimilarityIndex}. The
+ * neighbour lists are recomputed on a background schedule, which also picks
+ * up rating changes; listing writes update the index as they happen.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PropertySimilarityService {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final PropertyRepository propertyRepository;
+    private final PropertyRatingRepository propertyRatingRepository;
+    private final PropertySimilarityIndex propertySimilarityIndex;
+
+    // Reload every feature vector in keyset batches, then recompute all neighbour lists
+    @Scheduled(fixedDelayString = "${moove.similar.rebuild-interval:15m}",
+            initialDelayString = "${moove.similar.initial-delay:0s}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        long after = 0;
+        List<Object[]> batch;
+        do {
+            batch = propertyRepository.findSimilarityFeaturesAfter(after, Limit.of(LOAD_BATCH_SIZE));
+            List<PropertySimilarityIndex.Document> documents = new ArrayList<>(batch.size());
+            for (Object[] row : batch) {
+                documents.add(new PropertySimilarityIndex.Document((Long) row[0], (String) row[1],
+                        (Double) row[2], (Double) row[3], (Integer) row[4], (Integer) row[5],
+                        (Double) row[6], (Double) row[7], (Double) row[8]));
+                after = (Long) row[0];
+            }
+            propertySimilarityIndex.load(documents);
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        propertySimilarityIndex.rebuild();
+        log.info("Rebuilt similar listings for {} properties in {} ms",
+                propertySimilarityIndex.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public void index(Property property) {
+        Double rating = propertyRatingRepository.findById(property.getPropertyId())
+                .filter(r -> r.getReviewCount() > 0)
+                .map(PropertyRating::getAverageRating)
+                .orElse(null);
+        propertySimilarityIndex.put(document(property, rating));
+    }
+
+    // Imported listings are ranked on the next rebuild, which also reads their ratings
+    public void indexImported(List<Property> properties) {
+        propertySimilarityIndex.load(properties.stream().map(property -> document(property, null)).toList());
+    }
+
+    public void remove(long propertyId) {
+        propertySimilarityIndex.remove(propertyId);
+    }
+
+    // Empty when the listing is unknown; an empty list when it is known but not yet ranked
+    public Optional<List<SimilarPropertyDTO>> getSimilar(long propertyId, int limit) {
+        if (!propertySimilarityIndex.contains(propertyId)) {
+            return Optional.empty();
+        }
+        PropertySimilarityIndex.Neighbors neighbors = propertySimilarityIndex.neighbors(propertyId);
+        if (neighbors == null || neighbors.propertyIds().length == 0) {
+            return Optional.of(List.of());
+        }
+        int wanted = Math.max(1, Math.min(limit, PropertySimilarityIndex.NEIGHBORS));
+        // the whole list, so listings deleted since it was built can be skipped
+        List<Long> ids = Arrays.stream(neighbors.propertyIds()).boxed().toList();
+        Map<Long, PropertySummaryDTO> summaries = propertyRepository.findSummariesByIds(ids).stream()
+                .collect(Collectors.toMap(PropertySummaryDTO::getPropertyId, Function.identity()));
+        List<SimilarPropertyDTO> similar = new ArrayList<>(wanted);
+        for (int i = 0; i < ids.size() && similar.size() < wanted; i++) {
+            PropertySummaryDTO summary = summaries.get(ids.get(i));
+            if (summary != null) {
+                similar.add(new SimilarPropertyDTO(summary, neighbors.distances()[i]));
+            }
+        }
+        return Optional.of(similar);
+    }
+
+    private static PropertySimilarityIndex.Document document(Property property, Double rating) {
+        Location location = property.getLocation();
+        return new PropertySimilarityIndex.Document(property.getPropertyId(), property.getPropertyType(),
+                property.getPropertyPrice(), property.getPropertySize(),
+                property.getBedroomsAvailable(), property.getBathroomsAvailable(),
+                location == null ? null : location.getLat(), location == null ? null : location.getLng(), rating);
+    }
+}
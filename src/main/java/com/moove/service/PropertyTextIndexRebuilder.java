@@ -0,0 +1,34 @@
+package com.moove.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Offline rebuild of the full-text index: start the application with
+ * {@code --moove.search.rebuild-text-index=true --spring.main.web-application-type=none}
+ * and it rebuilds the index directory from the database, commits and exits
+ * without serving requests.
+ */
+@Component
+@ConditionalOnProperty("moove.search.rebuild-text-index")
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyTextIndexRebuilder implements ApplicationRunner {
+
+    private final PropertyTextSearchService propertyTextSearchService;
+    private final ApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        propertyTextSearchService.rebuild();
+        log.info("Rebuilt the text index in {} ms", (System.nanoTime() - started) / 1_000_000);
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+}
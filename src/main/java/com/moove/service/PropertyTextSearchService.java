@@ -0,0 +1,145 @@
+package com.moove.service;
+
+import com.moove.DTO.KeysetPage;
+import com.moove.DTO.PropertySummaryDTO;
+import com.moove.DTO.TextSearchHitDTO;
+import com.moove.DTO.TextSearchResultDTO;
+import com.moove.entity.Property;
+import com.moove.index.PropertyTextIndex;
+import com.moove.repository.PropertyRepository;
+import com.moove.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyTextSearchService {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final PropertyRepository propertyRepository;
+    private final ReviewRepository reviewRepository;
+    private final PropertyTextIndex propertyTextIndex;
+
+    // The index lives on disk; rebuild it only when it has drifted from the listings table
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long listings = propertyRepository.count();
+        if (propertyTextIndex.size() != listings) {
+            log.info("Text index holds {} listings, table holds {}; rebuilding", propertyTextIndex.size(), listings);
+            rebuild();
+        }
+    }
+
+    // Re-reads every listing and its reviews, one keyset batch at a time
+    public void rebuild() {
+        propertyTextIndex.clear();
+        long after = 0;
+        List<Object[]> batch;
+        do {
+            batch = propertyRepository.findTextAfter(after, Limit.of(LOAD_BATCH_SIZE));
+            propertyTextIndex.putAll(toDocuments(batch));
+            if (!batch.isEmpty()) {
+                after = (Long) batch.get(batch.size() - 1)[0];
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        propertyTextIndex.commit();
+        propertyTextIndex.refresh();
+    }
+
+    public void index(Collection<Property> properties) {
+        if (properties.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(properties.size());
+        for (Property property : properties) {
+            rows.add(new Object[]{property.getPropertyId(), property.getPropertyName(), property.getPropertyDescription()});
+        }
+        propertyTextIndex.putAll(toDocuments(rows));
+    }
+
+    // Review comments are part of the listing's document, so review writes re-read it once committed
+    public void reindexAfterCommit(Collection<Long> propertyIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reindex(propertyIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reindex(propertyIds);
+            }
+        });
+    }
+
+    public void remove(long propertyId) {
+        propertyTextIndex.remove(propertyId);
+    }
+
+    @Scheduled(fixedDelayString = "${moove.search.text-commit-interval:30s}")
+    public void commit() {
+        propertyTextIndex.commit();
+    }
+
+    public TextSearchResultDTO search(String text, int offset, int limit) {
+        PropertyTextIndex.Result result = propertyTextIndex.search(text, Math.max(0, offset), KeysetPage.clampLimit(limit));
+        if (result.hits().isEmpty()) {
+            return new TextSearchResultDTO(result.total(), List.of());
+        }
+        Map<Long, PropertySummaryDTO> summaries = propertyRepository.findSummariesByIds(
+                        result.hits().stream().map(PropertyTextIndex.Hit::propertyId).toList()).stream()
+                .collect(Collectors.toMap(PropertySummaryDTO::getPropertyId, Function.identity()));
+        List<TextSearchHitDTO> items = new ArrayList<>(result.hits().size());
+        for (PropertyTextIndex.Hit hit : result.hits()) {
+            PropertySummaryDTO summary = summaries.get(hit.propertyId());
+            if (summary != null) {
+                items.add(new TextSearchHitDTO(summary, hit.score(), hit.highlights()));
+            }
+        }
+        return new TextSearchResultDTO(result.total(), items);
+    }
+
+    private void reindex(Collection<Long> propertyIds) {
+        List<Object[]> rows = propertyRepository.findTextByIds(propertyIds);
+        propertyTextIndex.putAll(toDocuments(rows));
+        for (Long propertyId : propertyIds) {
+            if (rows.stream().noneMatch(row -> propertyId.equals(row[0]))) {
+                propertyTextIndex.remove(propertyId);
+            }
+        }
+    }
+
+    // rows of propertyId, name, description
+    private List<PropertyTextIndex.Document> toDocuments(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<String>> comments = new HashMap<>();
+        for (Object[] row : reviewRepository.findCommentsByPropertyIds(rows.stream().map(row -> (Long) row[0]).toList())) {
+            comments.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        List<PropertyTextIndex.Document> documents = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long propertyId = (Long) row[0];
+            documents.add(new PropertyTextIndex.Document(propertyId, (String) row[1], (String) row[2],
+                    comments.getOrDefault(propertyId, List.of())));
+        }
+        return documents;
+    }
+}
@@ -1,9 +1,21 @@
 package com.moove.service;
 
+import com.moove.DTO.KeysetPage;
+import com.moove.DTO.RatingSummaryDTO;
+import com.moove.DTO.ReviewSummaryDTO;
+import com.moove.cache.ResponseSnapshotCache;
+import com.moove.cache.SingleFlight;
+import com.moove.config.CacheConfig;
 import com.moove.entity.Review;
+import com.moove.event.DomainEventBus;
+import com.moove.event.ReviewChanged;
 import com.moove.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,45 +26,107 @@ import java.util.Optional;
 public class ReviewService {
 
     private final ReviewRepository reviewRepository;
+    private final PropertyRatingService propertyRatingService;
+    private final RollupService rollupService;
+    private final PropertyTextSearchService propertyTextSearchService;
+    private final SingleFlight<Long, List<ReviewSummaryDTO>> propertyReviewLoads;
+    private final ResponseSnapshotCache listingSnapshots;
+    private final DomainEventBus domainEventBus;
 
     // ✅ Create a review
+    @Transactional
     public Review save(Review review) {
+        requireValidRating(review.getRating());
         review.setCreatedAt(LocalDateTime.now()); // set timestamp
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        rollupService.reviewAdded(saved);
+        listingChanged(saved, 0, saved.getRating());
+        return saved;
     }
 
     // ✅ Get all reviews
+    @Transactional(readOnly = true)
     public List<Review> getAll() {
         return reviewRepository.findAll();
     }
 
+    // ✅ Get one keyset page of reviews
+    @Transactional(readOnly = true)
+    public KeysetPage<ReviewSummaryDTO> getPage(Long after, int limit) {
+        int size = KeysetPage.clampLimit(limit);
+        List<ReviewSummaryDTO> rows = reviewRepository.findSummariesAfter(after == null ? 0 : after, Limit.of(size + 1));
+        return KeysetPage.of(rows, size, ReviewSummaryDTO::getReviewId);
+    }
+
     // ✅ Get review by ID
-    public Optional<Review> getById(Long id) {
-        return reviewRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<ReviewSummaryDTO> getById(Long id) {
+        return reviewRepository.findSummaryById(id);
     }
 
     // ✅ Get reviews by Property ID
-    public List<Review> getByPropertyId(Long propertyId) {
-        return reviewRepository.findByPropertyId(propertyId);
+    @Transactional(readOnly = true)
+    public List<ReviewSummaryDTO> getByPropertyId(Long propertyId) {
+        return propertyReviewLoads.run(propertyId, () -> reviewRepository.findSummariesByPropertyId(propertyId));
+    }
+
+    // ✅ Get reviews by Property ID, serialized and kept until they change
+    public ResponseSnapshotCache.Snapshot getByPropertyIdSnapshot(Long propertyId) {
+        return listingSnapshots.get(CacheConfig.propertyReviewsSnapshotKey(propertyId),
+                () -> Optional.of(getByPropertyId(propertyId))).orElseThrow();
+    }
+
+    // ✅ Get rating aggregates by Property ID
+    public RatingSummaryDTO getSummaryByPropertyId(Long propertyId) {
+        return propertyRatingService.getSummary(propertyId);
     }
 
     // ✅ Update review
+    @Transactional
     public Optional<Review> update(Long id, Review updatedReview) {
+        requireValidRating(updatedReview.getRating());
         return reviewRepository.findById(id).map(existingReview -> {
+            rollupService.reviewRemoved(existingReview);
+            listingChanged(existingReview, existingReview.getRating(), 0);
             existingReview.setRating(updatedReview.getRating());
             existingReview.setComment(updatedReview.getComment());
             existingReview.setUser(updatedReview.getUser());
             existingReview.setProperty(updatedReview.getProperty());
-            return reviewRepository.save(existingReview);
+            Review saved = reviewRepository.save(existingReview);
+            rollupService.reviewAdded(saved);
+            listingChanged(saved, 0, saved.getRating());
+            return saved;
         });
     }
 
     // ✅ Delete review
+    @Transactional
     public boolean delete(Long id) {
-        if (reviewRepository.existsById(id)) {
-            reviewRepository.deleteById(id);
+        Optional<Review> review = reviewRepository.findById(id);
+        if (review.isPresent()) {
+            reviewRepository.delete(review.get());
+            rollupService.reviewRemoved(review.get());
+            listingChanged(review.get(), review.get().getRating(), 0);
             return true;
         }
         return false;
     }
+
+    // Reindexes the listing's text and drops its served snapshots, which embed its reviews; the rating
+    // delta is applied off the write path, which drops them again once the aggregate has changed
+    private void listingChanged(Review review, int removedRating, int addedRating) {
+        if (review.getProperty() != null) {
+            long propertyId = review.getProperty().getPropertyId();
+            propertyTextSearchService.reindexAfterCommit(List.of(propertyId));
+            listingSnapshots.invalidate(CacheConfig.listingSnapshotKeys(propertyId));
+            long version = propertyRatingService.nextReviewVersion(propertyId);
+            domainEventBus.publish(new ReviewChanged(propertyId, version, removedRating, addedRating));
+        }
+    }
+
+    private static void requireValidRating(int rating) {
+        if (rating < 1 || rating > 5) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Rating must be between 1 and 5");
+        }
+    }
 }
@@ -0,0 +1,133 @@
+package com.moove.service;
+
+import com.moove.entity.OwnerDailyRollup;
+import com.moove.entity.PropertyDailyRollup;
+import com.moove.entity.RollupCounters;
+import com.moove.repository.OwnerDailyRollupRepository;
+import com.moove.repository.PropertyDailyRollupRepository;
+import com.moove.repository.PropertyRepository;
+import com.moove.repository.RollupDeltaRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Folds rollup deltas into the daily rollup tables, one id window per
+ * transaction. The window's deltas are summed, merged into the property and
+ * owner rows, then deleted; if the delete removes a different number of rows
+ * than were summed (a writer committed into the window meanwhile, or another
+ * compactor got there first) the window is rolled back and retried.
+ */
+@Service
+@Slf4j
+public class RollupCompactor {
+
+    private final RollupDeltaRepository rollupDeltaRepository;
+    private final PropertyDailyRollupRepository propertyDailyRollupRepository;
+    private final OwnerDailyRollupRepository ownerDailyRollupRepository;
+    private final PropertyRepository propertyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public RollupCompactor(RollupDeltaRepository rollupDeltaRepository,
+                           PropertyDailyRollupRepository propertyDailyRollupRepository,
+                           OwnerDailyRollupRepository ownerDailyRollupRepository,
+                           PropertyRepository propertyRepository, TransactionTemplate transactionTemplate,
+                           EntityManager entityManager,
+                           @Value("${moove.rollup.compaction-batch-size:5000}") int batchSize) {
+        this.rollupDeltaRepository = rollupDeltaRepository;
+        this.propertyDailyRollupRepository = propertyDailyRollupRepository;
+        this.ownerDailyRollupRepository = ownerDailyRollupRepository;
+        this.propertyRepository = propertyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${moove.rollup.compaction-interval:30s}")
+    public void compactOnSchedule() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            log.warn("Rollup compaction failed, will retry on the next run", e);
+        }
+    }
+
+    // Compacts the deltas present when called; returns the number folded in
+    public int compact() {
+        Long maxId = rollupDeltaRepository.findMaxId();
+        int total = 0;
+        while (maxId != null) {
+            Long fromId = rollupDeltaRepository.findMinId();
+            if (fromId == null || fromId > maxId) {
+                break;
+            }
+            long toId = Math.min(maxId, fromId + batchSize - 1);
+            total += transactionTemplate.execute(status -> compactWindow(fromId, toId));
+        }
+        return total;
+    }
+
+    private int compactWindow(long fromId, long toId) {
+        List<Object[]> sums = rollupDeltaRepository.sumByPropertyAndDay(fromId, toId);
+        Map<Long, UUID> owners = new HashMap<>();
+        List<Long> propertyIds = sums.stream().map(row -> (Long) row[0]).distinct().toList();
+        if (!propertyIds.isEmpty()) {
+            for (Object[] row : propertyRepository.findOwnerIds(propertyIds)) {
+                owners.put((Long) row[0], (UUID) row[1]);
+            }
+        }
+
+        // Loaded rows are managed and flushed by dirty checking; new rows are persisted directly
+        long summed = 0;
+        Map<OwnerDailyRollup.Key, RollupCounters> ownerDeltas = new HashMap<>();
+        Map<PropertyDailyRollup.Key, PropertyDailyRollup> existing = propertyDailyRollupRepository.findAllById(
+                        sums.stream().map(row -> new PropertyDailyRollup.Key((Long) row[0], (LocalDate) row[1])).toList())
+                .stream().collect(Collectors.toMap(r -> new PropertyDailyRollup.Key(r.getPropertyId(), r.getDay()), Function.identity()));
+        for (Object[] row : sums) {
+            long propertyId = (Long) row[0];
+            LocalDate day = (LocalDate) row[1];
+            summed += (Long) row[2];
+            RollupCounters counters = RollupCounters.fromSums(row, 3);
+            UUID ownerId = owners.get(propertyId);
+
+            PropertyDailyRollup.Key key = new PropertyDailyRollup.Key(propertyId, day);
+            PropertyDailyRollup rollup = existing.get(key);
+            if (rollup == null) {
+                rollup = new PropertyDailyRollup(propertyId, day, ownerId, new RollupCounters());
+                entityManager.persist(rollup);
+            }
+            rollup.getCounters().add(counters);
+            if (ownerId != null) {
+                rollup.setOwnerId(ownerId);
+                ownerDeltas.computeIfAbsent(new OwnerDailyRollup.Key(ownerId, day), k -> new RollupCounters()).add(counters);
+            }
+        }
+
+        Map<OwnerDailyRollup.Key, OwnerDailyRollup> owned = ownerDailyRollupRepository.findAllById(ownerDeltas.keySet())
+                .stream().collect(Collectors.toMap(r -> new OwnerDailyRollup.Key(r.getOwnerId(), r.getDay()), Function.identity()));
+        ownerDeltas.forEach((key, counters) -> owned.computeIfAbsent(key, k -> {
+            OwnerDailyRollup rollup = new OwnerDailyRollup(k.getOwnerId(), k.getDay(), new RollupCounters());
+            entityManager.persist(rollup);
+            return rollup;
+        }).getCounters().add(counters));
+
+        int deleted = rollupDeltaRepository.deleteRange(fromId, toId);
+        if (deleted != summed) {
+            throw new IllegalStateException("Rollup deltas " + fromId + ".." + toId + " changed during compaction");
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,214 @@
+package com.moove.service;
+
+import com.moove.DTO.BookingImportRow;
+import com.moove.DTO.OwnerStatsDTO;
+import com.moove.DTO.RollupStatsDTO;
+import com.moove.entity.Booking;
+import com.moove.entity.BookingStatus;
+import com.moove.entity.OwnerDailyRollup;
+import com.moove.entity.Review;
+import com.moove.entity.RollupCounters;
+import com.moove.entity.RollupDelta;
+import com.moove.repository.BookingRepository;
+import com.moove.repository.OwnerDailyRollupRepository;
+import com.moove.repository.PropertyDailyRollupRepository;
+import com.moove.repository.PropertyRepository;
+import com.moove.repository.RollupDeltaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Daily per-property and per-owner activity rollups for the owner dashboard.
+ * Writes append {@link RollupDelta}s in their own transaction; RollupCompactor
+ * folds them into the daily rollup tables. Reads combine the compacted rows
+ * with the few deltas still pending, so they never scan bookings, payments
+ * or reviews.
+ */
+@Service
+@RequiredArgsConstructor
+public class RollupService {
+
+    static final int MAX_RANGE_DAYS = 366;
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final RollupDeltaRepository rollupDeltaRepository;
+    private final PropertyDailyRollupRepository propertyDailyRollupRepository;
+    private final OwnerDailyRollupRepository ownerDailyRollupRepository;
+    private final PropertyRepository propertyRepository;
+    private final BookingRepository bookingRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingAdded(Booking booking) {
+        booking(booking, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bookingCancelled(Booking booking) {
+        booking(booking, -1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentRecorded(long propertyId, LocalDateTime paidAt, double amount) {
+        RollupCounters counters = new RollupCounters();
+        counters.setPayments(1);
+        counters.setPaidAmount(amount);
+        rollupDeltaRepository.save(new RollupDelta(null, propertyId, dayOf(paidAt), counters));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reviewAdded(Review review) {
+        review(review, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reviewRemoved(Review review) {
+        review(review, -1);
+    }
+
+    @Transactional(readOnly = true)
+    public OwnerStatsDTO getOwnerStats(UUID ownerId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        Map<LocalDate, RollupCounters> daily = new TreeMap<>();
+        for (OwnerDailyRollup rollup : ownerDailyRollupRepository.findByOwnerIdAndDayBetweenOrderByDay(ownerId, from, to)) {
+            daily.computeIfAbsent(rollup.getDay(), day -> new RollupCounters()).add(rollup.getCounters());
+        }
+        for (Object[] row : rollupDeltaRepository.sumPendingByDay(ownerId, from, to)) {
+            daily.computeIfAbsent((LocalDate) row[0], day -> new RollupCounters()).add(RollupCounters.fromSums(row, 1));
+        }
+        Map<Long, RollupCounters> byProperty = new TreeMap<>();
+        for (Object[] row : propertyDailyRollupRepository.sumByProperty(ownerId, from, to)) {
+            byProperty.computeIfAbsent((Long) row[0], id -> new RollupCounters()).add(RollupCounters.fromSums(row, 1));
+        }
+        for (Object[] row : rollupDeltaRepository.sumPendingByProperty(ownerId, from, to)) {
+            byProperty.computeIfAbsent((Long) row[0], id -> new RollupCounters()).add(RollupCounters.fromSums(row, 1));
+        }
+
+        long propertyCount = propertyRepository.countByUser_UserId(ownerId);
+        RollupCounters totals = new RollupCounters();
+        Map<LocalDate, RollupStatsDTO> dailyStats = new TreeMap<>();
+        daily.forEach((day, counters) -> {
+            if (!counters.isEmpty()) {
+                totals.add(counters);
+                dailyStats.put(day, RollupStatsDTO.from(counters, propertyCount));
+            }
+        });
+        Map<Long, RollupStatsDTO> propertyStats = new TreeMap<>();
+        byProperty.forEach((propertyId, counters) -> propertyStats.put(propertyId, RollupStatsDTO.from(counters, days)));
+        return new OwnerStatsDTO(ownerId, from, to, propertyCount, RollupStatsDTO.from(totals, propertyCount * days),
+                dailyStats, propertyStats);
+    }
+
+    // Seed deltas from the source tables when the rollups are introduced on an existing database
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (rollupDeltaRepository.count() > 0 || propertyDailyRollupRepository.count() > 0) {
+            return;
+        }
+        Map<Long, Map<LocalDate, RollupCounters>> deltas = new HashMap<>();
+        try (Stream<BookingImportRow> bookings = bookingRepository.streamExportRows()) {
+            bookings.filter(row -> row.getPropertyId() != null && BookingStatus.holdsDates(row.getStatus()))
+                    .forEach(row -> addBooking(deltas.computeIfAbsent(row.getPropertyId(), id -> new HashMap<>()),
+                            row.getBookingDate() != null ? row.getBookingDate() : row.getCheckInDate(),
+                            row.getCheckInDate(), row.getCheckOutDate(), row.getTotalAmount(), 1));
+        }
+        for (Object[] row : rollupDeltaRepository.sumPaymentsByPropertyAndDay()) {
+            RollupCounters counters = counters(deltas, (Long) row[0], (LocalDate) row[1]);
+            counters.setPayments(counters.getPayments() + ((Number) row[2]).intValue());
+            counters.setPaidAmount(counters.getPaidAmount() + ((Number) row[3]).doubleValue());
+        }
+        for (Object[] row : rollupDeltaRepository.sumReviewsByPropertyAndDay()) {
+            RollupCounters counters = counters(deltas, (Long) row[0], (LocalDate) row[1]);
+            counters.setReviews(counters.getReviews() + ((Number) row[2]).intValue());
+            counters.setRatingSum(counters.getRatingSum() + ((Number) row[3]).longValue());
+        }
+
+        List<RollupDelta> batch = new ArrayList<>(BACKFILL_BATCH_SIZE);
+        for (Map.Entry<Long, Map<LocalDate, RollupCounters>> property : deltas.entrySet()) {
+            for (Map.Entry<LocalDate, RollupCounters> day : property.getValue().entrySet()) {
+                if (day.getKey() == null) {
+                    continue;
+                }
+                batch.add(new RollupDelta(null, property.getKey(), day.getKey(), day.getValue()));
+                if (batch.size() == BACKFILL_BATCH_SIZE) {
+                    rollupDeltaRepository.saveAll(batch);
+                    batch.clear();
+                }
+            }
+        }
+        rollupDeltaRepository.saveAll(batch);
+    }
+
+    private void booking(Booking booking, int sign) {
+        if (booking.getProperty() == null || booking.getCheckInDate() == null || booking.getCheckOutDate() == null) {
+            return;
+        }
+        LocalDate checkIn = BookingService.toLocalDate(booking.getCheckInDate());
+        LocalDate bookedOn = booking.getBookingDate() == null ? LocalDate.now() : BookingService.toLocalDate(booking.getBookingDate());
+        Map<LocalDate, RollupCounters> days = new HashMap<>();
+        addBooking(days, bookedOn, checkIn, BookingService.toLocalDate(booking.getCheckOutDate()), booking.getTotalAmount(), sign);
+        long propertyId = booking.getProperty().getPropertyId();
+        List<RollupDelta> deltas = new ArrayList<>(days.size());
+        days.forEach((day, counters) -> deltas.add(new RollupDelta(null, propertyId, day, counters)));
+        rollupDeltaRepository.saveAll(deltas);
+    }
+
+    // The booking counts on the day it was made; occupancy counts on every night of the stay
+    private static void addBooking(Map<LocalDate, RollupCounters> days, LocalDate bookedOn,
+                                   LocalDate checkIn, LocalDate checkOut, Double amount, int sign) {
+        if (bookedOn != null) {
+            RollupCounters booked = days.computeIfAbsent(bookedOn, day -> new RollupCounters());
+            booked.setBookings(booked.getBookings() + sign);
+            booked.setBookedAmount(booked.getBookedAmount() + sign * (amount == null ? 0 : amount));
+        }
+        if (checkIn != null && checkOut != null) {
+            for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+                RollupCounters occupied = days.computeIfAbsent(night, day -> new RollupCounters());
+                occupied.setBookedNights(occupied.getBookedNights() + sign);
+            }
+        }
+    }
+
+    private void review(Review review, int sign) {
+        if (review.getProperty() == null) {
+            return;
+        }
+        RollupCounters counters = new RollupCounters();
+        counters.setReviews(sign);
+        counters.setRatingSum((long) sign * review.getRating());
+        rollupDeltaRepository.save(new RollupDelta(null, review.getProperty().getPropertyId(),
+                dayOf(review.getCreatedAt()), counters));
+    }
+
+    private static RollupCounters counters(Map<Long, Map<LocalDate, RollupCounters>> deltas, long propertyId, LocalDate day) {
+        return deltas.computeIfAbsent(propertyId, id -> new HashMap<>()).computeIfAbsent(day, d -> new RollupCounters());
+    }
+
+    private static LocalDate dayOf(LocalDateTime time) {
+        return time == null ? LocalDate.now() : time.toLocalDate();
+    }
+}
@@ -1,51 +1,78 @@
 package com.moove.service;
 
 
+import com.moove.DTO.KeysetPage;
+import com.moove.DTO.UserSummaryDTO;
+import com.moove.cache.LookupCache;
+import com.moove.config.CacheConfig;
 import com.moove.entity.User;
 import com.moove.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class UserService {
 
+    // Sorts before every real id, so it starts the first page
+    private static final UUID NIL = new UUID(0, 0);
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LookupCache<UUID, User> userCache;
+
     // Get all users
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    // Get one keyset page of users, ordered by userId (creation order for time-ordered ids)
+    public KeysetPage<UserSummaryDTO> getUserPage(UUID after, int limit) {
+        int size = KeysetPage.clampLimit(limit);
+        List<UserSummaryDTO> rows = userRepository.findSummariesAfter(after == null ? NIL : after, Limit.of(size + 1));
+        return KeysetPage.of(rows, size, UserSummaryDTO::getUserId);
+    }
+
     // Get user by userId
-    public Optional<User> getUserById(String userId) {
-        return userRepository.findUserByUserId(userId).stream().findFirst();
+    public Optional<User> getUserById(UUID userId) {
+        return userCache.get(userId, () -> userRepository.findUserByUserId(userId).stream().findFirst());
     }
 
     // Get user by email
     public Optional<User> getUserByUserEmail(String userEmail) {
-        return userRepository.findUserByUserEmail(userEmail).stream().findFirst();
+        return userCache.getByAlias(CacheConfig.emailKey(userEmail),
+                () -> userRepository.findUserByUserEmail(userEmail).stream().findFirst());
     }
 
     // Get user by phone
     public Optional<User> getUserByUserPhone(String userPhone) {
-        return userRepository.findUserByUserPhone(userPhone).stream().findFirst();
+        return userCache.getByAlias(CacheConfig.phoneKey(userPhone),
+                () -> userRepository.findUserByUserPhone(userPhone).stream().findFirst());
     }
 
     // Get user by username
     public Optional<User> getUserByUsername(String username) {
-        return userRepository.findUserByUsername(username).stream().findFirst();
+        return userCache.getByAlias(CacheConfig.usernameKey(username),
+                () -> userRepository.findUserByUsername(username).stream().findFirst());
     }
     // Save or update user
     public User saveUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.invalidate(saved.getUserId());
+        return saved;
     }
 
     // Delete user by ID
-    public void deleteUser(String userId) {
+    public void deleteUser(UUID userId) {
         userRepository.deleteById(userId);
+        userCache.invalidate(userId);
     }
 }
@@ -0,0 +1,327 @@
+package com.moove.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image files on local disk.
+ * An image id is the SHA-256 of its bytes plus the detected extension, so
+ * identical uploads share one file and stored files never change. Layout:
+ * {@code objects/ab/<sha256>.<ext>}, {@code thumbnails/<sha256>-<width>.jpg}
+ * and {@code uploads/<uploadId>.part} for chunked uploads in progress.
+ * Uploads are capped in total size and chunk count, and images in pixels
+ * (read from the header, before anything is decoded); uploads left
+ * untouched for longer than the upload TTL are deleted.
+ */
+@Component
+@Slf4j
+public class ImageStore {
+
+    private static final Pattern IMAGE_ID = Pattern.compile("[0-9a-f]{64}\\.(jpg|png|gif|webp)");
+    private static final Pattern UPLOAD_ID = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+    private final Path objects;
+    private final Path thumbnails;
+    private final Path uploads;
+    private final String urlPrefix;
+    private final long maxUploadBytes;
+    private final int maxChunks;
+    private final long maxPixels;
+    private final Duration uploadTtl;
+    // Chunks received per upload in progress; lost on restart, which only resets the count
+    private final Map<String, AtomicInteger> chunkCounts = new ConcurrentHashMap<>();
+
+    public ImageStore(@Value("${moove.images.dir:data/images}") Path root,
+                      @Value("${server.servlet.context-path:}") String contextPath,
+                      @Value("${moove.images.max-upload-size:50MB}") DataSize maxUploadSize,
+                      @Value("${moove.images.max-chunks:1000}") int maxChunks,
+                      @Value("${moove.images.max-pixels:40000000}") long maxPixels,
+                      @Value("${moove.images.upload-ttl:24h}") Duration uploadTtl) throws IOException {
+        this.objects = Files.createDirectories(root.resolve("objects"));
+        this.thumbnails = Files.createDirectories(root.resolve("thumbnails"));
+        this.uploads = Files.createDirectories(root.resolve("uploads"));
+        this.urlPrefix = contextPath + "/api/images/";
+        this.maxUploadBytes = maxUploadSize.toBytes();
+        this.maxChunks = maxChunks;
+        this.maxPixels = maxPixels;
+        this.uploadTtl = uploadTtl;
+    }
+
+    public String urlFor(String imageId) {
+        return urlPrefix + imageId;
+    }
+
+    public StoredImage store(InputStream in) throws IOException {
+        Path part = uploads.resolve(UUID.randomUUID() + ".part");
+        try {
+            Files.copy(in, part);
+            return promote(part);
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    public String startUpload() throws IOException {
+        String uploadId = UUID.randomUUID().toString();
+        Files.createFile(uploadPath(uploadId));
+        return uploadId;
+    }
+
+    /**
+     * Writes a chunk at {@code offset}. Chunks must arrive in order, but a chunk
+     * may be resent, so any offset up to the bytes received so far is accepted.
+     * Returns the number of bytes received so far.
+     */
+    public long appendChunk(String uploadId, long offset, InputStream chunk) throws IOException {
+        Path part = uploadPath(uploadId);
+        if (!Files.exists(part)) {
+            throw new IllegalArgumentException("Unknown upload " + uploadId);
+        }
+        if (chunkCounts.computeIfAbsent(uploadId, id -> new AtomicInteger()).incrementAndGet() > maxChunks) {
+            throw new IllegalArgumentException("Upload exceeds " + maxChunks + " chunks");
+        }
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE);
+             ReadableByteChannel source = Channels.newChannel(chunk)) {
+            if (offset < 0 || offset > channel.size()) {
+                throw new IllegalArgumentException("Chunk offset " + offset + " does not follow " + channel.size() + " received bytes");
+            }
+            channel.truncate(offset);
+            long position = offset;
+            long read;
+            // one byte past the cap is enough to tell the upload is too large
+            while (position <= maxUploadBytes
+                    && (read = channel.transferFrom(source, position, Math.min(1 << 20, maxUploadBytes + 1 - position))) > 0) {
+                position += read;
+            }
+            if (position > maxUploadBytes) {
+                channel.truncate(offset);
+                throw new IllegalArgumentException("Upload exceeds " + maxUploadBytes + " bytes");
+            }
+            return position;
+        }
+    }
+
+    public StoredImage completeUpload(String uploadId) throws IOException {
+        Path part = uploadPath(uploadId);
+        if (!Files.exists(part)) {
+            throw new IllegalArgumentException("Unknown upload " + uploadId);
+        }
+        try {
+            return promote(part);
+        } finally {
+            chunkCounts.remove(uploadId);
+            Files.deleteIfExists(part);
+        }
+    }
+
+    // Chunked uploads that were started but neither completed nor touched within the TTL
+    @Scheduled(fixedDelayString = "${moove.images.upload-cleanup-interval:1h}")
+    public void deleteAbandonedUploads() throws IOException {
+        FileTime cutoff = FileTime.from(Instant.now().minus(uploadTtl));
+        int deleted = 0;
+        try (Stream<Path> parts = Files.list(uploads)) {
+            for (Path part : (Iterable<Path>) parts::iterator) {
+                try {
+                    if (Files.getLastModifiedTime(part).compareTo(cutoff) < 0 && Files.deleteIfExists(part)) {
+                        String name = part.getFileName().toString();
+                        chunkCounts.remove(name.substring(0, name.length() - ".part".length()));
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not delete abandoned upload {}", part, e);
+                }
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} abandoned uploads", deleted);
+        }
+    }
+
+    public Optional<StoredImage> find(String imageId) throws IOException {
+        if (!IMAGE_ID.matcher(imageId).matches()) {
+            return Optional.empty();
+        }
+        Path path = objectPath(imageId);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(new StoredImage(imageId, path, contentType(extension(imageId)), Files.size(path)));
+    }
+
+    // JPEG thumbnail no wider than width, rendered once and then served from disk
+    public Optional<StoredImage> thumbnail(StoredImage image, int width) throws IOException {
+        String hash = image.id().substring(0, 64);
+        String thumbnailId = hash + "-" + width + ".jpg";
+        Path path = thumbnails.resolve(thumbnailId);
+        if (!Files.exists(path)) {
+            // stored before the pixel cap was lowered, or with a header that cannot be read
+            if (!withinPixelLimit(image.path())) {
+                return Optional.empty();
+            }
+            BufferedImage source = ImageIO.read(image.path().toFile());
+            if (source == null) {
+                return Optional.empty();
+            }
+            int targetWidth = Math.min(width, source.getWidth());
+            int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+            BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(source, 0, 0, targetWidth, targetHeight, Color.WHITE, null);
+            } finally {
+                graphics.dispose();
+            }
+            Path temp = Files.createTempFile(thumbnails, thumbnailId, ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    ImageIO.write(scaled, "jpg", out);
+                }
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return Optional.of(new StoredImage(thumbnailId, path, "image/jpeg", Files.size(path)));
+    }
+
+    private StoredImage promote(Path part) throws IOException {
+        String extension;
+        try (InputStream in = Files.newInputStream(part)) {
+            extension = sniffExtension(in.readNBytes(12));
+        }
+        if (extension == null) {
+            throw new IllegalArgumentException("Unsupported image format");
+        }
+        if (!withinPixelLimit(part)) {
+            throw new IllegalArgumentException("Image is unreadable or exceeds " + maxPixels + " pixels");
+        }
+
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(part), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        String imageId = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+        Path target = objectPath(imageId);
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return new StoredImage(imageId, target, contentType(extension), Files.size(target));
+    }
+
+    /*
+     * Checks the dimensions from the image header, so a small file that
+     * declares a huge canvas is never decoded. Formats without an ImageIO
+     * reader (webp) are stored but never decoded, so they pass.
+     */
+    private boolean withinPixelLimit(Path path) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return true;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                return (long) reader.getWidth(0) * reader.getHeight(0) <= maxPixels;
+            } catch (IOException e) {
+                // an unreadable header; the sniffed magic bytes lied
+                return false;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private Path objectPath(String imageId) {
+        return objects.resolve(imageId.substring(0, 2)).resolve(imageId);
+    }
+
+    private Path uploadPath(String uploadId) {
+        if (!UPLOAD_ID.matcher(uploadId).matches()) {
+            throw new IllegalArgumentException("Invalid upload id");
+        }
+        return uploads.resolve(uploadId + ".part");
+    }
+
+    static String sniffExtension(byte[] header) {
+        ByteBuffer bytes = ByteBuffer.wrap(header);
+        if (header.length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return "jpg";
+        }
+        if (header.length >= 8 && bytes.getLong(0) == 0x89504E470D0A1A0AL) {
+            return "png";
+        }
+        if (header.length >= 6 && new String(header, 0, 6).matches("GIF8[79]a")) {
+            return "gif";
+        }
+        if (header.length >= 12 && new String(header, 0, 4).equals("RIFF") && new String(header, 8, 4).equals("WEBP")) {
+            return "webp";
+        }
+        return null;
+    }
+
+    private static String extension(String imageId) {
+        return imageId.substring(imageId.lastIndexOf('.') + 1);
+    }
+
+    private static String contentType(String extension) {
+        return switch (extension) {
+            case "jpg" -> "image/jpeg";
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            case "webp" -> "image/webp";
+            default -> "application/octet-stream";
+        };
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record StoredImage(String id, Path path, String contentType, long size) {
+    }
+}
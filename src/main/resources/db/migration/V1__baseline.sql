@@ -0,0 +1,226 @@
+-- The schema as Hibernate's ddl-auto=update left it. Databases it created are
+-- baselined at version 0 (spring.flyway.baseline-on-migrate) and then run this
+-- script as well, so every statement leaves what is already there alone: tables,
+-- columns and constraints from earlier releases are only added when missing.
+-- UserIdMigration runs before Flyway and has already moved user ids to uuid.
+
+CREATE SEQUENCE IF NOT EXISTS booking_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS dead_letter_event_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS message_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS outbox_event_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS payment_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS property_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS review_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS rollup_delta_seq START WITH 1 INCREMENT BY 500;
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id uuid NOT NULL,
+    user_address varchar(255),
+    user_email varchar(255),
+    user_password varchar(255),
+    user_phone varchar(255),
+    user_role varchar(255),
+    username varchar(255),
+    PRIMARY KEY (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS property (
+    property_id bigint NOT NULL,
+    user_id uuid NOT NULL,
+    property_name varchar(255),
+    property_description varchar(255),
+    property_type varchar(255),
+    property_price float(53) NOT NULL,
+    property_size float(53) NOT NULL,
+    bedrooms_available integer NOT NULL,
+    bathrooms_available integer NOT NULL,
+    property_review varchar(255),
+    property_image_url oid,
+    PRIMARY KEY (property_id),
+    CONSTRAINT FKo76rpd66l7rdheheo63pmpmy5 FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS booking (
+    booking_id integer NOT NULL,
+    user_user_id uuid UNIQUE,
+    booking_date timestamp(6),
+    check_in_date timestamp(6),
+    check_out_date timestamp(6),
+    check_in_time time(6),
+    check_out_time time(6),
+    total_amount float(53),
+    status varchar(255),
+    checked_by_owner boolean NOT NULL,
+    conformed_by_owner boolean NOT NULL,
+    PRIMARY KEY (booking_id),
+    CONSTRAINT FKf6pvt9bjd9rwe0lgvo0kgvnpb FOREIGN KEY (user_user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS payment (
+    id bigint NOT NULL,
+    booking_booking_id integer,
+    user_user_id uuid,
+    amount float(53) NOT NULL,
+    payment_method varchar(255),
+    status varchar(255),
+    paid_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FKrfa1skvg2qhkwkwl73eedk2mu FOREIGN KEY (booking_booking_id) REFERENCES booking,
+    CONSTRAINT FKejlextqmaiyuu6d0u2hgxpgy4 FOREIGN KEY (user_user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS message (
+    id bigint NOT NULL,
+    sender_user_id uuid,
+    receiver_user_id uuid,
+    content varchar(255),
+    sent_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT FKcjpqfyeygciwel5ca0uet94 FOREIGN KEY (sender_user_id) REFERENCES users,
+    CONSTRAINT FKsv7w6obal090k3vt67ljd455c FOREIGN KEY (receiver_user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS review (
+    review_id bigint NOT NULL,
+    property_id bigint,
+    users_user_id uuid,
+    rating integer NOT NULL,
+    comment varchar(255),
+    created_at timestamp(6),
+    PRIMARY KEY (review_id),
+    CONSTRAINT FK4r8tpgi3hq2ldtvry1gh0vgo FOREIGN KEY (property_id) REFERENCES property,
+    CONSTRAINT FKixu4bbhy32sq40tttlus1enal FOREIGN KEY (users_user_id) REFERENCES users
+);
+
+-- Columns added to the first release's tables
+
+ALTER TABLE property ADD COLUMN IF NOT EXISTS address varchar(255);
+ALTER TABLE property ADD COLUMN IF NOT EXISTS city varchar(255);
+ALTER TABLE property ADD COLUMN IF NOT EXISTS lat float(53);
+ALTER TABLE property ADD COLUMN IF NOT EXISTS lng float(53);
+ALTER TABLE property ADD COLUMN IF NOT EXISTS property_image_ref varchar(512);
+
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS property_id bigint;
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS confirm_by timestamp(6);
+
+ALTER TABLE payment ADD COLUMN IF NOT EXISTS idempotency_key varchar(255);
+
+-- PostgreSQL has no ADD CONSTRAINT IF NOT EXISTS
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fkbcgr7a3utjxb9n6ltvw0w6xqs') THEN
+        ALTER TABLE booking ADD CONSTRAINT FKbcgr7a3utjxb9n6ltvw0w6xqs FOREIGN KEY (property_id) REFERENCES property;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_payment_idempotency_key') THEN
+        ALTER TABLE payment ADD CONSTRAINT uk_payment_idempotency_key UNIQUE (idempotency_key);
+    END IF;
+END
+$$;
+
+-- Tables added since
+
+CREATE TABLE IF NOT EXISTS conversation (
+    user_id uuid NOT NULL,
+    peer_id uuid NOT NULL,
+    last_message_id bigint NOT NULL,
+    last_sender_id uuid,
+    last_content varchar(255),
+    last_sent_at timestamp(6),
+    unread_count integer NOT NULL,
+    last_read_message_id bigint NOT NULL,
+    PRIMARY KEY (peer_id, user_id)
+);
+
+CREATE TABLE IF NOT EXISTS dead_letter_event (
+    id bigint NOT NULL,
+    consumer varchar(255),
+    event_type varchar(255),
+    payload varchar(4000),
+    error varchar(1000),
+    failed_at timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id bigint NOT NULL,
+    aggregate_type varchar(255),
+    aggregate_id varchar(255),
+    event_type varchar(255),
+    payload varchar(4000),
+    created_at timestamp(6),
+    published_at timestamp(6),
+    attempts integer DEFAULT 0 NOT NULL,
+    next_attempt_at timestamp(6),
+    dead_at timestamp(6),
+    last_error varchar(1000),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS owner_daily_rollup (
+    owner_id uuid NOT NULL,
+    activity_day date NOT NULL,
+    bookings integer,
+    booked_nights integer,
+    booked_amount float(53),
+    payments integer,
+    paid_amount float(53),
+    reviews integer,
+    rating_sum bigint,
+    PRIMARY KEY (activity_day, owner_id)
+);
+
+CREATE TABLE IF NOT EXISTS property_daily_rollup (
+    property_id bigint NOT NULL,
+    activity_day date NOT NULL,
+    owner_id uuid,
+    bookings integer,
+    booked_nights integer,
+    booked_amount float(53),
+    payments integer,
+    paid_amount float(53),
+    reviews integer,
+    rating_sum bigint,
+    PRIMARY KEY (activity_day, property_id)
+);
+
+CREATE TABLE IF NOT EXISTS property_rating (
+    property_id bigint NOT NULL,
+    review_count integer NOT NULL,
+    rating_sum bigint NOT NULL,
+    one_star integer NOT NULL,
+    two_star integer NOT NULL,
+    three_star integer NOT NULL,
+    four_star integer NOT NULL,
+    five_star integer NOT NULL,
+    recounted_at timestamp(6),
+    PRIMARY KEY (property_id)
+);
+
+CREATE TABLE IF NOT EXISTS rollup_delta (
+    id bigint NOT NULL,
+    property_id bigint NOT NULL,
+    activity_day date,
+    bookings integer,
+    booked_nights integer,
+    booked_amount float(53),
+    payments integer,
+    paid_amount float(53),
+    reviews integer,
+    rating_sum bigint,
+    PRIMARY KEY (id)
+);
+
+-- Columns these tables gained before the schema was versioned
+
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS attempts integer DEFAULT 0 NOT NULL;
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS next_attempt_at timestamp(6);
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS dead_at timestamp(6);
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS last_error varchar(1000);
+ALTER TABLE property_rating ADD COLUMN IF NOT EXISTS recounted_at timestamp(6);
+
+CREATE INDEX IF NOT EXISTS idx_booking_property_check_in ON booking (property_id, check_in_date);
+CREATE INDEX IF NOT EXISTS idx_conversation_user_last_message ON conversation (user_id, last_message_id);
+CREATE INDEX IF NOT EXISTS idx_message_sender_receiver_sent ON message (sender_user_id, receiver_user_id, sent_at);
+CREATE INDEX IF NOT EXISTS idx_outbox_event_pending ON outbox_event (published_at, id);
+CREATE INDEX IF NOT EXISTS idx_property_daily_rollup_owner_day ON property_daily_rollup (owner_id, activity_day);
+CREATE INDEX IF NOT EXISTS idx_rollup_delta_property_day ON rollup_delta (property_id, activity_day);
@@ -0,0 +1,3 @@
+-- Built without blocking review writes; Flyway runs a migration holding only
+-- concurrent index builds outside a transaction
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_review_property ON review (property_id);
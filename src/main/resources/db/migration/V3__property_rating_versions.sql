@@ -0,0 +1,8 @@
+-- Review writes bump review_version; the rating consumer advances applied_version
+-- as it applies their events, and the repair recounts the aggregates left behind
+ALTER TABLE property_rating ADD COLUMN IF NOT EXISTS review_version bigint DEFAULT 0 NOT NULL;
+ALTER TABLE property_rating ADD COLUMN IF NOT EXISTS applied_version bigint DEFAULT 0 NOT NULL;
+
+-- Holds only the aggregates the repair has to look at, so finding them never scans the table
+CREATE INDEX IF NOT EXISTS idx_property_rating_behind ON property_rating (property_id)
+    WHERE applied_version <> review_version;
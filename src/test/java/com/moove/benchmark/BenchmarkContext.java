@@ -0,0 +1,197 @@
+package com.moove.benchmark;
+
+import com.moove.MooveApplication;
+import com.moove.entity.Location;
+import com.moove.entity.Message;
+import com.moove.entity.Property;
+import com.moove.entity.Review;
+import com.moove.entity.User;
+import com.moove.service.BookingService;
+import com.moove.service.PropertyRatingService;
+import com.moove.service.PropertySearchService;
+import com.moove.service.PropertyService;
+import com.moove.service.PropertyTextSearchService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Boots the application for a benchmark trial against its own in-memory H2
+ * database in PostgreSQL mode, without the web server, and seeds it.
+ * The usual test properties apply, with SQL logging off and insert batching on.
+ */
+public final class BenchmarkContext implements AutoCloseable {
+
+    private static final String[] CITIES = {"Colombo", "Kandy", "Galle", "Jaffna", "Negombo", "Matara", "Ella", "Trincomalee"};
+    private static final String[] TYPES = {"APARTMENT", "HOUSE", "ROOM"};
+    private static final int FLUSH_EVERY = 500;
+
+    static {
+        // devtools would restart the application in a second class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+    }
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static BenchmarkContext start(String name) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MooveApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(Map.of(
+                        "spring.datasource.url", "jdbc:h2:mem:" + name + "-" + UUID.randomUUID()
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql", "false",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size", String.valueOf(FLUSH_EVERY),
+                        "spring.jpa.properties.hibernate.order_inserts", "true",
+                        "logging.level.root", "ERROR"))
+                .run();
+        return new BenchmarkContext(context);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Seeds {@code properties} listings (one owner per ten listings, spread over a
+     * handful of cities) with {@code reviewsPerProperty} reviews each, then
+     * rebuilds the in-memory indexes as a restart would. Returns the listing ids.
+     */
+    public List<Long> seedProperties(int properties, int reviewsPerProperty, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Long> ids = new ArrayList<>(properties);
+        inTransaction(em -> {
+            List<UUID> owners = new ArrayList<>();
+            for (int i = 0; i < Math.max(1, properties / 10); i++) {
+                owners.add(persist(em, user("owner" + i)).getUserId());
+            }
+            List<UUID> guests = new ArrayList<>();
+            for (int i = 0; i < Math.max(1, Math.min(properties, 1000)); i++) {
+                guests.add(persist(em, user("guest" + i)).getUserId());
+            }
+            flush(em);
+
+            int pending = 0;
+            for (int i = 0; i < properties; i++) {
+                Property property = property(em.getReference(User.class, owners.get(i % owners.size())), i, random);
+                em.persist(property);
+                ids.add(property.getPropertyId());
+                for (int r = 0; r < reviewsPerProperty; r++) {
+                    Review review = new Review();
+                    review.setProperty(property);
+                    review.setUser(em.getReference(User.class, guests.get(random.nextInt(guests.size()))));
+                    review.setRating(1 + random.nextInt(5));
+                    review.setComment("Review " + r + " of listing " + i);
+                    review.setCreatedAt(LocalDateTime.now().minusDays(random.nextInt(700)));
+                    em.persist(review);
+                }
+                pending += 1 + reviewsPerProperty;
+                if (pending >= FLUSH_EVERY) {
+                    flush(em);
+                    pending = 0;
+                }
+            }
+        });
+
+        bean(PropertyService.class).loadGeoIndex();
+        bean(PropertySearchService.class).loadIndex();
+        bean(PropertyTextSearchService.class).rebuild();
+        bean(PropertyRatingService.class).backfill();
+        bean(BookingService.class).loadCalendar();
+        return ids;
+    }
+
+    /**
+     * Seeds {@code conversations} two-user conversations of
+     * {@code messagesPerConversation} messages each, alternating senders.
+     * Returns the user id pairs.
+     */
+    public List<UUID[]> seedConversations(int conversations, int messagesPerConversation) {
+        List<UUID[]> pairs = new ArrayList<>(conversations);
+        inTransaction(em -> {
+            LocalDateTime start = LocalDateTime.now().minusDays(30);
+            int pending = 0;
+            for (int c = 0; c < conversations; c++) {
+                User first = persist(em, user("guest" + c));
+                User second = persist(em, user("host" + c));
+                pairs.add(new UUID[]{first.getUserId(), second.getUserId()});
+                for (int m = 0; m < messagesPerConversation; m++) {
+                    Message message = new Message();
+                    message.setSender(m % 2 == 0 ? first : second);
+                    message.setReceiver(m % 2 == 0 ? second : first);
+                    message.setContent("Message " + m);
+                    message.setSentAt(start.plusMinutes(m));
+                    em.persist(message);
+                    if (++pending >= FLUSH_EVERY) {
+                        flush(em);
+                        pending = 0;
+                    }
+                }
+            }
+        });
+        return pairs;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private void inTransaction(Consumer<EntityManager> work) {
+        EntityManager em = SharedEntityManagerCreator.createSharedEntityManager(bean(EntityManagerFactory.class));
+        bean(TransactionTemplate.class).executeWithoutResult(status -> work.accept(em));
+    }
+
+    private static <T> T persist(EntityManager em, T entity) {
+        em.persist(entity);
+        return entity;
+    }
+
+    private static void flush(EntityManager em) {
+        em.flush();
+        em.clear();
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setUserEmail(username + "@example.com");
+        user.setUserRole("USER");
+        return user;
+    }
+
+    private static Property property(User owner, int i, SplittableRandom random) {
+        Property property = new Property();
+        property.setUser(owner);
+        property.setPropertyName("Listing " + i);
+        property.setPropertyDescription("Seeded listing " + i);
+        property.setPropertyType(TYPES[random.nextInt(TYPES.length)]);
+        property.setPropertyPrice(100 + random.nextInt(5000));
+        property.setPropertySize(20 + random.nextInt(300));
+        property.setBedroomsAvailable(1 + random.nextInt(5));
+        property.setBathroomsAvailable(1 + random.nextInt(3));
+        String city = CITIES[random.nextInt(CITIES.length)];
+        Location location = new Location();
+        location.setCity(city);
+        location.setLat(6 + random.nextDouble(3.5));
+        location.setLng(79.7 + random.nextDouble(2));
+        property.setLocation(location);
+        return property;
+    }
+}
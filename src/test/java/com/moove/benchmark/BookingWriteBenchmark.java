@@ -0,0 +1,70 @@
+package com.moove.benchmark;
+
+import com.moove.entity.Booking;
+import com.moove.entity.Property;
+import com.moove.entity.User;
+import com.moove.service.BookingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creating a booking through {@link BookingService#save}: the overlap check
+ * against the table under the property's locks plus the insert. Every call books the next free
+ * three-night stay of the next listing, so no call is rejected.
+ * Run with {@code -t 8} to measure contention between writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingWriteBenchmark {
+
+    private static final LocalDate FIRST_STAY = LocalDate.of(2027, 1, 1);
+
+    @Param({"1000"})
+    private int properties;
+
+    private BenchmarkContext context;
+    private BookingService bookingService;
+    private List<Long> propertyIds;
+    private final AtomicLong bookings = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("booking-write");
+        propertyIds = context.seedProperties(properties, 0, 42);
+        bookingService = context.bean(BookingService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Booking save() {
+        long n = bookings.getAndIncrement();
+        Property property = new Property();
+        property.setPropertyId(propertyIds.get((int) (n % propertyIds.size())));
+        LocalDate checkIn = FIRST_STAY.plusDays(3 * (n / propertyIds.size()));
+
+        User guest = new User();
+        guest.setUsername("guest" + n);
+        Booking booking = new Booking();
+        booking.setUser(guest);
+        booking.setProperty(property);
+        booking.setTotalAmount(300.0);
+        booking.setBookingDate(Date.valueOf(LocalDate.now()));
+        booking.setCheckInDate(Date.valueOf(checkIn));
+        booking.setCheckOutDate(Date.valueOf(checkIn.plusDays(3)));
+        booking.setStatus("PENDING");
+        return bookingService.save(booking);
+    }
+}
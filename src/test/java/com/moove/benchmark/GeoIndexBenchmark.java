@@ -0,0 +1,69 @@
+package com.moove.benchmark;
+
+import com.moove.index.PropertyGeoIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearby-search latency of {@link PropertyGeoIndex} against a brute-force scan,
+ * with listings spread over the inhabited latitudes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoIndexBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int listings;
+
+    @Param({"5"})
+    private double radiusKm;
+
+    private PropertyGeoIndex index;
+    private double[] lats;
+    private double[] lngs;
+    private double[][] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        index = new PropertyGeoIndex();
+        lats = new double[listings];
+        lngs = new double[listings];
+        for (int i = 0; i < listings; i++) {
+            lats[i] = random.nextDouble(-55, 70);
+            lngs[i] = random.nextDouble(-180, 180);
+            index.put(i, lats[i], lngs[i]);
+        }
+        queries = new double[1024][];
+        for (int i = 0; i < queries.length; i++) {
+            int anchor = random.nextInt(listings);
+            queries[i] = new double[]{lats[anchor], lngs[anchor]};
+        }
+    }
+
+    @Benchmark
+    public void gridIndex(Blackhole blackhole) {
+        double[] query = queries[next++ & (queries.length - 1)];
+        blackhole.consume(index.nearby(query[0], query[1], radiusKm, 50));
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole blackhole) {
+        double[] query = queries[next++ & (queries.length - 1)];
+        int found = 0;
+        for (int i = 0; i < listings; i++) {
+            if (PropertyGeoIndex.distanceKm(query[0], query[1], lats[i], lngs[i]) <= radiusKm) {
+                found++;
+            }
+        }
+        blackhole.consume(found);
+    }
+}
@@ -0,0 +1,51 @@
+package com.moove.benchmark;
+
+import com.moove.entity.Message;
+import com.moove.repository.MessageRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading one full conversation, as the chat view does when it opens,
+ * from a seeded H2 database with many conversations of equal length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageQueryBenchmark {
+
+    @Param({"200"})
+    private int conversations;
+
+    @Param({"50", "500"})
+    private int messagesPerConversation;
+
+    private BenchmarkContext context;
+    private MessageRepository messageRepository;
+    private List<UUID[]> pairs;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("message-query");
+        pairs = context.seedConversations(conversations, messagesPerConversation);
+        messageRepository = context.bean(MessageRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Message> findConversation() {
+        UUID[] pair = pairs.get(next++ % pairs.size());
+        return messageRepository.findConversation(pair[0], pair[1]);
+    }
+}
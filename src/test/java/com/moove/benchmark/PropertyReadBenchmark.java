@@ -0,0 +1,88 @@
+package com.moove.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moove.DTO.PropertyDetailDTO;
+import com.moove.entity.Property;
+import com.moove.service.PropertyService;
+import com.moove.service.ReviewService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing read paths against a seeded H2 database: the full listing fetch,
+ * reviews of one listing, the fanned-out detail view, JSON rendering of that
+ * view, and the serialized snapshot GET /api/property/{id} actually serves,
+ * which after the first pass over the listings is a cache hit.
+ * Sizes can be changed from the command line, e.g. {@code -p properties=50000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertyReadBenchmark {
+
+    @Param({"1000", "10000"})
+    private int properties;
+
+    @Param({"5"})
+    private int reviewsPerProperty;
+
+    private BenchmarkContext context;
+    private PropertyService propertyService;
+    private ReviewService reviewService;
+    private ObjectMapper objectMapper;
+    private List<Long> propertyIds;
+    private List<PropertyDetailDTO> details;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("property-read");
+        propertyIds = context.seedProperties(properties, reviewsPerProperty, 42);
+        propertyService = context.bean(PropertyService.class);
+        reviewService = context.bean(ReviewService.class);
+        objectMapper = context.bean(ObjectMapper.class);
+
+        // a fixed sample of detail views, so the serialization benchmark measures only Jackson
+        details = new ArrayList<>();
+        for (int i = 0; i < 256; i++) {
+            propertyService.getPropertyDetail(propertyIds.get(i % propertyIds.size())).ifPresent(details::add);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Property> getAllProperties() {
+        return propertyService.getAllProperties();
+    }
+
+    @Benchmark
+    public void getReviewsByProperty(Blackhole blackhole) {
+        blackhole.consume(reviewService.getByPropertyId(propertyIds.get(next++ % propertyIds.size())));
+    }
+
+    @Benchmark
+    public void getPropertyDetail(Blackhole blackhole) {
+        blackhole.consume(propertyService.getPropertyDetail(propertyIds.get(next++ % propertyIds.size())));
+    }
+
+    @Benchmark
+    public void getPropertyDetailSnapshot(Blackhole blackhole) {
+        blackhole.consume(propertyService.getPropertyDetailSnapshot(propertyIds.get(next++ % propertyIds.size())));
+    }
+
+    @Benchmark
+    public byte[] serializePropertyWithReviews() throws Exception {
+        return objectMapper.writeValueAsBytes(details.get(next++ & 255));
+    }
+}
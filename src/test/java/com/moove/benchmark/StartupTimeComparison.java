@@ -0,0 +1,228 @@
+package com.moove.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Time from JVM launch to the first answered request, for the packaged app in
+ * each startup mode: the dev defaults (ddl update, eager beans), the prod
+ * profile (ddl validate, lazy beans, deferred JPA bootstrap), prod with AOT
+ * when the jar was AOT-processed, and prod with a CDS archive from a training
+ * run. Each start is a fresh JVM on the extracted jar against a file-based H2
+ * database, so the schema the prod modes validate is already there. Prints
+ * the median and best of {@code startup.runs} starts per mode, with Spring's
+ * own "Started ... in" figure beside it.
+ *
+ * <pre>
+ * mvn -Pstartup -DskipTests -Dexec.skip package
+ * mvn -Pbenchmarks test-compile exec:exec -Dbenchmark.main=com.moove.benchmark.StartupTimeComparison -Djmh.args= \
+ *     -Dbenchmark.jvm.args="-Dstartup.runs=5"
+ * </pre>
+ */
+public final class StartupTimeComparison {
+
+    private static final int RUNS = Integer.getInteger("startup.runs", 3);
+    private static final Path JAR = Path.of(System.getProperty("startup.jar", "target/Moove-0.0.1-SNAPSHOT.jar"));
+    private static final long TIMEOUT_SECONDS = Long.getLong("startup.timeout-seconds", 180);
+    private static final Pattern STARTED = Pattern.compile("Started MooveApplication in ([0-9.]+) seconds");
+
+    private StartupTimeComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (!Files.exists(JAR)) {
+            throw new IllegalStateException(JAR + " not found; build it first with mvn -Pstartup -DskipTests -Dexec.skip package");
+        }
+        Path work = Files.createTempDirectory("moove-startup");
+        Path appDir = work.resolve("app");
+        exec(List.of(java(), "-Djarmode=tools", "-jar", JAR.toString(), "extract", "--destination", appDir.toString()));
+        Path appJar = appDir.resolve(JAR.getFileName());
+        boolean aot = hasAotClasses(appJar);
+        Path archive = work.resolve("application.jsa");
+
+        Launcher launcher = new Launcher(work, appJar);
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-22s %16s %16s %16s", "mode", "first req p50 ms", "first req min ms", "spring p50 ms"));
+
+        List<String> dev = List.of("--spring.jpa.hibernate.ddl-auto=update", "--spring.batch.jdbc.initialize-schema=always");
+        List<String> prod = List.of("--spring.profiles.active=prod");
+        List<String> aotFlag = aot ? List.of("-Dspring.aot.enabled=true") : List.of();
+
+        // creates the schema and warms the file cache; not counted
+        launcher.start(List.of(), dev);
+        report.add(launcher.measure("dev defaults", List.of(), dev));
+        report.add(launcher.measure("prod profile", List.of(), prod));
+        if (aot) {
+            report.add(launcher.measure("prod + AOT", aotFlag, prod));
+        }
+
+        List<String> training = new ArrayList<>(aotFlag);
+        training.add("-XX:ArchiveClassesAtExit=" + archive);
+        training.add("-Dspring.context.exit=onRefresh");
+        launcher.train(training, prod);
+        List<String> cds = new ArrayList<>(aotFlag);
+        cds.add("-XX:SharedArchiveFile=" + archive);
+        report.add(launcher.measure(aot ? "prod + AOT + CDS" : "prod + CDS", cds, prod));
+
+        System.out.printf("%n%s, %d runs per mode%s%n", JAR.getFileName(), RUNS,
+                aot ? "" : " (jar has no AOT classes; build with -Pstartup for the AOT rows)");
+        report.forEach(System.out::println);
+    }
+
+    private static final class Launcher {
+
+        private final Path work;
+        private final Path appJar;
+        private final List<String> common;
+        private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+        Launcher(Path work, Path appJar) {
+            this.work = work;
+            this.appJar = appJar;
+            this.common = List.of(
+                    "--spring.datasource.url=jdbc:h2:file:" + work.resolve("db/moove") + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                    // the migrations are written for PostgreSQL; the dev start creates the schema here
+                    "--spring.flyway.enabled=false",
+                    "--moove.images.dir=" + work.resolve("images"),
+                    "--moove.search.text-index-dir=" + work.resolve("text-index"));
+        }
+
+        String measure(String mode, List<String> jvmArgs, List<String> appArgs) throws Exception {
+            long[] firstRequest = new long[RUNS];
+            long[] spring = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                long[] run = start(jvmArgs, appArgs);
+                firstRequest[i] = run[0];
+                spring[i] = run[1];
+            }
+            Arrays.sort(firstRequest);
+            Arrays.sort(spring);
+            return String.format("%-22s %16d %16d %16d", mode, firstRequest[RUNS / 2], firstRequest[0], spring[RUNS / 2]);
+        }
+
+        // Returns {ms until GET /api/property answered 200, ms Spring reported for startup}
+        long[] start(List<String> jvmArgs, List<String> appArgs) throws Exception {
+            int port = freePort();
+            Path log = Files.createTempFile(work, "run", ".log");
+            List<String> command = command(jvmArgs, appArgs);
+            command.add("--server.port=" + port);
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/moove/api/property?limit=1"))
+                    .timeout(Duration.ofSeconds(30)).build();
+
+            long started = System.nanoTime();
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+            try {
+                long deadline = started + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+                while (true) {
+                    if (!process.isAlive() || System.nanoTime() > deadline) {
+                        throw new IllegalStateException("App did not answer; see " + log);
+                    }
+                    try {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            break;
+                        }
+                    } catch (ConnectException e) {
+                        // not listening yet
+                    }
+                    Thread.sleep(10);
+                }
+                long firstRequestMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                // With lazy beans Tomcat can answer before Spring has logged its own figure
+                long springMs = springStartupMs(log);
+                for (int i = 0; springMs < 0 && i < 100; i++) {
+                    Thread.sleep(100);
+                    springMs = springStartupMs(log);
+                }
+                return new long[]{firstRequestMs, springMs};
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+        }
+
+        // A start that stops after context refresh, with the JVM writing the CDS archive on exit
+        void train(List<String> jvmArgs, List<String> appArgs) throws Exception {
+            List<String> command = command(jvmArgs, appArgs);
+            command.add("--server.port=" + freePort());
+            exec(command);
+        }
+
+        private List<String> command(List<String> jvmArgs, List<String> appArgs) {
+            List<String> command = new ArrayList<>();
+            command.add(java());
+            command.addAll(jvmArgs);
+            command.add("-cp");
+            command.add(appJar + File.pathSeparator + h2Jar());
+            command.add("com.moove.MooveApplication");
+            command.addAll(common);
+            command.addAll(appArgs);
+            return command;
+        }
+    }
+
+    private static long springStartupMs(Path log) throws IOException {
+        try (Stream<String> lines = Files.lines(log)) {
+            return lines.map(STARTED::matcher)
+                    .filter(Matcher::find)
+                    .mapToLong(m -> Math.round(Double.parseDouble(m.group(1)) * 1000))
+                    .findFirst()
+                    .orElse(-1);
+        }
+    }
+
+    private static void exec(List<String> command) throws Exception {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS) || process.exitValue() != 0) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Failed: " + String.join(" ", command));
+        }
+    }
+
+    private static boolean hasAotClasses(Path appJar) throws IOException {
+        try (JarFile jar = new JarFile(appJar.toFile())) {
+            return jar.getEntry("com/moove/MooveApplication__ApplicationContextInitializer.class") != null;
+        }
+    }
+
+    // The packaged jar leaves out test-scoped H2, so it comes from this JVM's classpath
+    private static String h2Jar() {
+        return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .filter(entry -> Path.of(entry).getFileName().toString().matches("h2-.*\\.jar"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("H2 is not on the classpath"));
+    }
+
+    private static String java() {
+        return ProcessHandle.current().info().command().orElse("java");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
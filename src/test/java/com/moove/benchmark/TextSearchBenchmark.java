@@ -0,0 +1,101 @@
+package com.moove.benchmark;
+
+import com.moove.index.PropertyTextIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Query latency of {@link PropertyTextIndex} over synthetic listings: ranked
+ * multi-word queries and autocomplete prefixes, each with highlighting. Text
+ * mixes a small listing vocabulary with a long tail of rare words.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextSearchBenchmark {
+
+    private static final String[] VOCABULARY = ("sea view studio apartment house room cottage loft flat garden "
+            + "quiet bright spacious cosy modern central campus beach harbour station park lake hill river "
+            + "balcony terrace kitchen parking wifi pool gym student family walk minutes bus shops cafe "
+            + "clean friendly host lovely noisy comfortable stay recommend great location sunset breakfast").split(" ");
+
+    private static final String[] QUERIES = {
+            "sea view studio", "quiet flat near campus", "garden cottage with parking", "beach house pool",
+            "modern loft central station", "lovely host great location", "bright balcony sunset", "student room bus"
+    };
+
+    private static final String[] PREFIXES = {"cam", "sea vi", "cott", "harb", "quiet ga", "stud", "bal", "break"};
+
+    @Param({"100000", "1000000"})
+    private int documents;
+
+    private Path dir;
+    private PropertyTextIndex index;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("moove-text-benchmark");
+        index = new PropertyTextIndex(dir, Duration.ofSeconds(1));
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < documents; i++) {
+            List<String> reviews = new ArrayList<>();
+            for (int r = random.nextInt(4); r > 0; r--) {
+                reviews.add(text(random, 12));
+            }
+            index.put(new PropertyTextIndex.Document(i, text(random, 4), text(random, 30), reviews));
+        }
+        index.commit();
+        index.refresh();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        index.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void rankedQuery(Blackhole blackhole) {
+        blackhole.consume(index.search(QUERIES[next++ & (QUERIES.length - 1)], 0, 20));
+    }
+
+    @Benchmark
+    public void prefixCompletion(Blackhole blackhole) {
+        blackhole.consume(index.search(PREFIXES[next++ & (PREFIXES.length - 1)], 0, 10));
+    }
+
+    // Three in four words from the listing vocabulary, the rest from a tail of rare words
+    private static String text(SplittableRandom random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                text.append(' ');
+            }
+            if (random.nextInt(4) > 0) {
+                text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+            } else {
+                text.append(Integer.toString(random.nextInt(200_000), 36));
+            }
+        }
+        return text.toString();
+    }
+}
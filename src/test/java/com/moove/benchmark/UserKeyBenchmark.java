@@ -0,0 +1,116 @@
+package com.moove.benchmark;
+
+import com.moove.id.UuidV7;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Users keyed three ways on a large table: the old random UUID strings in a
+ * varchar column, random UUIDs in a native uuid column, and time-ordered
+ * UUIDv7 in a native uuid column. {@code insert} adds a user and a listing
+ * referencing it; {@code joinRecent} joins the newest listings back to their
+ * owners, the access pattern of feeds and dashboards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserKeyBenchmark {
+
+    private static final int RECENT = 1000;
+
+    @Param({"varchar-v4", "uuid-v4", "uuid-v7"})
+    private String keys;
+
+    @Param({"500000"})
+    private int users;
+
+    private Connection connection;
+    private Supplier<Object> nextKey;
+    private PreparedStatement insertUser;
+    private PreparedStatement insertProperty;
+    private PreparedStatement joinRecent;
+    private long properties;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String type = switch (keys) {
+            case "varchar-v4" -> "VARCHAR(255)";
+            case "uuid-v4", "uuid-v7" -> "UUID";
+            default -> throw new IllegalArgumentException(keys);
+        };
+        nextKey = switch (keys) {
+            case "varchar-v4" -> () -> UUID.randomUUID().toString();
+            case "uuid-v4" -> UUID::randomUUID;
+            default -> UuidV7::next;
+        };
+
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:user-keys-" + keys + ";DB_CLOSE_DELAY=-1");
+        connection = dataSource.getConnection();
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE users (user_id " + type + " PRIMARY KEY, username VARCHAR(255))");
+            ddl.execute("CREATE TABLE property (property_id BIGINT PRIMARY KEY, user_id " + type + " NOT NULL "
+                    + "REFERENCES users (user_id))");
+        }
+        insertUser = connection.prepareStatement("INSERT INTO users VALUES (?, ?)");
+        insertProperty = connection.prepareStatement("INSERT INTO property VALUES (?, ?)");
+        joinRecent = connection.prepareStatement("SELECT COUNT(u.username) FROM property p "
+                // every listing has its owner, so the outer join only pins H2 to probing users by key
+                + "LEFT JOIN users u ON u.user_id = p.user_id WHERE p.property_id > ?");
+
+        connection.setAutoCommit(false);
+        for (int i = 0; i < users; i++) {
+            insert();
+            if (i % 10_000 == 0) {
+                connection.commit();
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int insert() throws SQLException {
+        Object key = nextKey.get();
+        long id;
+        synchronized (this) {
+            id = ++properties;
+        }
+        insertUser.setObject(1, key);
+        insertUser.setString(2, "user" + id);
+        insertProperty.setLong(1, id);
+        insertProperty.setObject(2, key);
+        return insertUser.executeUpdate() + insertProperty.executeUpdate();
+    }
+
+    @Benchmark
+    public long joinRecent() throws SQLException {
+        // the window slides a little so consecutive calls do not hit identical pages
+        joinRecent.setLong(1, users - RECENT - ThreadLocalRandom.current().nextInt(RECENT));
+        try (ResultSet rs = joinRecent.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.moove.cache;
+
+import com.moove.config.CacheConfig;
+import com.moove.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LookupCacheTest {
+
+    private static final UUID U1 = UUID.randomUUID();
+    private static final UUID U2 = UUID.randomUUID();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LookupCache<UUID, User> cache = new LookupCache<>("user", Duration.ofMinutes(5), 100, User::getUserId,
+            CacheConfig::userAliases, meterRegistry);
+
+    @Test
+    void secondaryKeysResolveToTheSameEntry() {
+        AtomicInteger loads = new AtomicInteger();
+        User user = user(U1, "amal@moove.test", "amal");
+
+        assertThat(cache.get(U1, () -> {
+            loads.incrementAndGet();
+            return Optional.of(user);
+        })).containsSame(user);
+        assertThat(cache.getByAlias(CacheConfig.emailKey("amal@moove.test"), Optional::empty)).containsSame(user);
+        assertThat(cache.getByAlias(CacheConfig.usernameKey("amal"), Optional::empty)).containsSame(user);
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "user").tag("result", "hit").functionCounter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void invalidationDropsSecondaryKeysAndStaleAliasesAreIgnored() {
+        cache.put(user(U1, "old@moove.test", "amal"));
+        cache.put(user(U1, "new@moove.test", "amal"));
+
+        assertThat(cache.getByAlias(CacheConfig.emailKey("old@moove.test"), Optional::empty)).isEmpty();
+        assertThat(cache.getByAlias(CacheConfig.emailKey("new@moove.test"), Optional::empty)).isPresent();
+
+        cache.invalidate(U1);
+        assertThat(cache.getByAlias(CacheConfig.usernameKey("amal"), Optional::empty)).isEmpty();
+    }
+
+    @Test
+    void aLoadThatRacedAnInvalidationIsServedButNotKept() {
+        User stale = user(U1, "old@moove.test", "amal");
+
+        Optional<User> loaded = cache.get(U1, () -> {
+            // the row is updated and the entry invalidated while the loader still holds the old copy
+            cache.invalidate(U1);
+            return Optional.of(stale);
+        });
+
+        assertThat(loaded).containsSame(stale);
+        assertThat(cache.get(U1, Optional::empty)).isEmpty();
+        assertThat(cache.getByAlias(CacheConfig.emailKey("old@moove.test"), Optional::empty)).isEmpty();
+    }
+
+    @Test
+    void invalidatingAnotherKeyDoesNotDiscardALoad() {
+        User user = user(U1, "amal@moove.test", "amal");
+
+        cache.get(U1, () -> {
+            cache.invalidate(U2);
+            return Optional.of(user);
+        });
+
+        assertThat(cache.get(U1, Optional::empty)).containsSame(user);
+        assertThat(cache.getByAlias(CacheConfig.emailKey("amal@moove.test"), Optional::empty)).containsSame(user);
+    }
+
+    @Test
+    void anInvalidationBeforeTheLoadStartedDoesNotDiscardIt() {
+        User user = user(U1, "amal@moove.test", "amal");
+        cache.invalidate(U1);
+
+        cache.getByAlias(CacheConfig.emailKey("amal@moove.test"), () -> Optional.of(user));
+
+        assertThat(cache.get(U1, Optional::empty)).containsSame(user);
+    }
+
+    private static User user(UUID id, String email, String username) {
+        User user = new User();
+        user.setUserId(id);
+        user.setUserEmail(email);
+        user.setUsername(username);
+        return user;
+    }
+}
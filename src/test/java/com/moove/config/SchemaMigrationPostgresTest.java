@@ -0,0 +1,118 @@
+package com.moove.config;
+
+import jakarta.persistence.Entity;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The migrations against PostgreSQL, checked the way ddl-auto=validate checks them in the prod profile
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationPostgresTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private PGSimpleDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(postgres.getJdbcUrl());
+        dataSource.setUser(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA public");
+    }
+
+    @Test
+    void migrationsCreateTheSchemaTheEntitiesMap() {
+        MigrateResult result = flyway().migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.targetSchemaVersion).isEqualTo("3");
+        validateEntities();
+    }
+
+    // The first release's tables as ddl-auto=update created them, after UserIdMigration moved the user ids
+    @Test
+    void aDatabaseHibernateCreatedIsBaselinedAndBroughtUpToDate() {
+        jdbcTemplate.execute("CREATE TABLE users (user_id uuid NOT NULL, user_address varchar(255), user_email varchar(255), "
+                + "user_password varchar(255), user_phone varchar(255), user_role varchar(255), username varchar(255), "
+                + "PRIMARY KEY (user_id))");
+        jdbcTemplate.execute("CREATE TABLE property (property_id bigint GENERATED BY DEFAULT AS IDENTITY, user_id uuid NOT NULL, "
+                + "property_name varchar(255), property_description varchar(255), property_type varchar(255), "
+                + "property_price float(53) NOT NULL, property_size float(53) NOT NULL, bedrooms_available integer NOT NULL, "
+                + "bathrooms_available integer NOT NULL, property_review varchar(255), property_image_url oid, "
+                + "PRIMARY KEY (property_id), "
+                + "CONSTRAINT FKo76rpd66l7rdheheo63pmpmy5 FOREIGN KEY (user_id) REFERENCES users)");
+        jdbcTemplate.execute("CREATE TABLE booking (booking_id integer GENERATED BY DEFAULT AS IDENTITY, user_user_id uuid UNIQUE, "
+                + "booking_date timestamp(6), check_in_date timestamp(6), check_out_date timestamp(6), check_in_time time(6), "
+                + "check_out_time time(6), total_amount float(53), status varchar(255), checked_by_owner boolean NOT NULL, "
+                + "conformed_by_owner boolean NOT NULL, PRIMARY KEY (booking_id), "
+                + "CONSTRAINT FKf6pvt9bjd9rwe0lgvo0kgvnpb FOREIGN KEY (user_user_id) REFERENCES users)");
+        UUID owner = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (user_id, username) VALUES (?, ?)", owner, "owner");
+        jdbcTemplate.update("INSERT INTO property (user_id, property_name, property_price, property_size, bedrooms_available, "
+                + "bathrooms_available) VALUES (?, 'Loft', 120, 40, 1, 1)", owner);
+
+        MigrateResult result = flyway().migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.migrationsExecuted).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM flyway_schema_history WHERE type = 'BASELINE'", Integer.class))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT property_name FROM property", String.class)).isEqualTo("Loft");
+        validateEntities();
+    }
+
+    // Same settings as spring.flyway.* in application.properties
+    private Flyway flyway() {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load();
+    }
+
+    // Hibernate with Boot's naming strategies, over the application's entities only
+    private void validateEntities() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, new CamelCaseToUnderscoresNamingStrategy())
+                .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, new SpringImplicitNamingStrategy())
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "validate")
+                .build();
+        try {
+            MetadataSources sources = new MetadataSources(registry);
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+            for (BeanDefinition entity : scanner.findCandidateComponents("com.moove.entity")) {
+                sources.addAnnotatedClassName(entity.getBeanClassName());
+            }
+            sources.buildMetadata().buildSessionFactory().close();
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+}
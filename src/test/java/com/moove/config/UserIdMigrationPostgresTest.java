@@ -0,0 +1,98 @@
+package com.moove.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The PostgreSQL path: sync triggers, concurrent index builds, NOT VALID checks and the advisory lock
+@Testcontainers(disabledWithoutDocker = true)
+class UserIdMigrationPostgresTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private final List<String> userIds = new ArrayList<>();
+
+    // The varchar layout Hibernate generated for the old String ids
+    @BeforeEach
+    void setUp() {
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(postgres.getJdbcUrl());
+        dataSource.setUser(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA public");
+        jdbcTemplate.execute("CREATE TABLE users (user_id VARCHAR(255) PRIMARY KEY, username VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE property (property_id BIGINT PRIMARY KEY, user_id VARCHAR(255) NOT NULL, "
+                + "CONSTRAINT fk_property_user FOREIGN KEY (user_id) REFERENCES users (user_id))");
+        jdbcTemplate.execute("CREATE TABLE message (id BIGINT PRIMARY KEY, sender_user_id VARCHAR(255), receiver_user_id VARCHAR(255), "
+                + "sent_at TIMESTAMP, "
+                + "CONSTRAINT fk_message_sender FOREIGN KEY (sender_user_id) REFERENCES users (user_id) ON DELETE CASCADE, "
+                + "CONSTRAINT fk_message_receiver FOREIGN KEY (receiver_user_id) REFERENCES users (user_id))");
+        jdbcTemplate.execute("CREATE INDEX idx_message_sender_receiver_sent ON message (sender_user_id, receiver_user_id, sent_at)");
+        jdbcTemplate.execute("CREATE TABLE conversation (user_id VARCHAR(255), peer_id VARCHAR(255), last_message_id BIGINT, "
+                + "PRIMARY KEY (user_id, peer_id))");
+
+        for (int i = 0; i < 7; i++) {
+            String id = UUID.randomUUID().toString();
+            userIds.add(id);
+            jdbcTemplate.update("INSERT INTO users VALUES (?, ?)", id, "user" + i);
+            jdbcTemplate.update("INSERT INTO property VALUES (?, ?)", i + 1, id);
+        }
+        for (int i = 0; i < 6; i++) {
+            jdbcTemplate.update("INSERT INTO message VALUES (?, ?, ?, now())", i + 1, userIds.get(i), userIds.get(i + 1));
+            jdbcTemplate.update("INSERT INTO conversation VALUES (?, ?, ?)", userIds.get(i), userIds.get(i + 1), i + 1);
+        }
+    }
+
+    @Test
+    void instancesStartingTogetherMigrateOnceAndLeaveValidatedConstraints() {
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> new UserIdMigration(jdbcTemplate.getDataSource(), 2).migrate());
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> new UserIdMigration(jdbcTemplate.getDataSource(), 2).migrate());
+        CompletableFuture.allOf(first, second).join();
+
+        assertThat(jdbcTemplate.queryForList("SELECT table_name || '.' || column_name FROM information_schema.columns "
+                + "WHERE table_schema = 'public' AND data_type = 'uuid' ORDER BY 1", String.class)).containsExactly(
+                "conversation.peer_id", "conversation.user_id", "message.receiver_user_id", "message.sender_user_id",
+                "property.user_id", "users.user_id");
+        assertThat(jdbcTemplate.queryForList("SELECT user_id::text FROM users", String.class))
+                .containsExactlyInAnyOrderElementsOf(userIds);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM message m JOIN users s ON s.user_id = m.sender_user_id "
+                + "JOIN users r ON r.user_id = m.receiver_user_id", Long.class)).isEqualTo(6);
+
+        // foreign keys are back and validated, the helper checks, triggers and shadow columns are gone
+        assertThat(jdbcTemplate.queryForList("SELECT conname || ':' || convalidated FROM pg_constraint "
+                + "WHERE contype = 'f' AND connamespace = 'public'::regnamespace ORDER BY 1", String.class)).containsExactly(
+                "fk_message_receiver:true", "fk_message_sender:true", "fk_property_user:true");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_constraint WHERE contype = 'c' AND connamespace = 'public'::regnamespace", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_trigger WHERE NOT tgisinternal", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.columns "
+                + "WHERE table_schema = 'public' AND column_name LIKE '%\\_uuid'", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes WHERE schemaname = 'public' ORDER BY 1", String.class))
+                .containsExactly("conversation_pkey", "idx_message_sender_receiver_sent", "message_pkey", "property_pkey", "users_pkey");
+
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO property VALUES (100, NULL)"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO property VALUES (99, ?)", UUID.randomUUID()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        jdbcTemplate.update("DELETE FROM message WHERE receiver_user_id = ?", UUID.fromString(userIds.get(1)));
+        jdbcTemplate.update("DELETE FROM property WHERE user_id = ?", UUID.fromString(userIds.get(0)));
+        jdbcTemplate.update("DELETE FROM users WHERE user_id = ?", UUID.fromString(userIds.get(0)));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM message", Long.class)).isEqualTo(5);
+    }
+}
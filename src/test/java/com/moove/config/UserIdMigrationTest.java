@@ -0,0 +1,86 @@
+package com.moove.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserIdMigrationTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private final List<String> userIds = new ArrayList<>();
+
+    // The varchar layout Hibernate generated for the old String ids
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (user_id VARCHAR(255) PRIMARY KEY, username VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE property (property_id BIGINT PRIMARY KEY, user_id VARCHAR(255) NOT NULL, "
+                + "CONSTRAINT fk_property_user FOREIGN KEY (user_id) REFERENCES users (user_id))");
+        jdbcTemplate.execute("CREATE TABLE message (id BIGINT PRIMARY KEY, sender_user_id VARCHAR(255), receiver_user_id VARCHAR(255), "
+                + "sent_at TIMESTAMP, "
+                + "CONSTRAINT fk_message_sender FOREIGN KEY (sender_user_id) REFERENCES users (user_id), "
+                + "CONSTRAINT fk_message_receiver FOREIGN KEY (receiver_user_id) REFERENCES users (user_id))");
+        jdbcTemplate.execute("CREATE INDEX idx_message_sender_receiver_sent ON message (sender_user_id, receiver_user_id, sent_at)");
+        jdbcTemplate.execute("CREATE TABLE conversation (user_id VARCHAR(255), peer_id VARCHAR(255), last_message_id BIGINT, "
+                + "PRIMARY KEY (user_id, peer_id))");
+        jdbcTemplate.execute("CREATE INDEX idx_conversation_user_last_message ON conversation (user_id, last_message_id)");
+
+        for (int i = 0; i < 7; i++) {
+            String id = UUID.randomUUID().toString();
+            userIds.add(id);
+            jdbcTemplate.update("INSERT INTO users VALUES (?, ?)", id, "user" + i);
+            jdbcTemplate.update("INSERT INTO property VALUES (?, ?)", i + 1, id);
+        }
+        for (int i = 0; i < 6; i++) {
+            jdbcTemplate.update("INSERT INTO message VALUES (?, ?, ?, CURRENT_TIMESTAMP)", i + 1, userIds.get(i), userIds.get(i + 1));
+            jdbcTemplate.update("INSERT INTO conversation VALUES (?, ?, ?)", userIds.get(i), userIds.get(i + 1), i + 1);
+        }
+        jdbcTemplate.update("INSERT INTO message VALUES (7, ?, NULL, CURRENT_TIMESTAMP)", userIds.get(0));
+    }
+
+    @Test
+    void movesKeysAndReferencesToUuidColumnsKeepingTheValues() {
+        new UserIdMigration(jdbcTemplate.getDataSource(), 2).migrate();
+
+        assertThat(jdbcTemplate.queryForList("SELECT table_name || '.' || column_name FROM information_schema.columns "
+                + "WHERE UPPER(data_type) = 'UUID' ORDER BY 1", String.class)).containsExactly(
+                "conversation.peer_id", "conversation.user_id", "message.receiver_user_id", "message.sender_user_id",
+                "property.user_id", "users.user_id");
+        assertThat(jdbcTemplate.queryForList("SELECT CAST(user_id AS VARCHAR) FROM users", String.class))
+                .containsExactlyInAnyOrderElementsOf(userIds);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM property p JOIN users u ON u.user_id = p.user_id", Long.class))
+                .isEqualTo(7);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM message m JOIN users s ON s.user_id = m.sender_user_id "
+                + "JOIN users r ON r.user_id = m.receiver_user_id", Long.class)).isEqualTo(6);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM conversation c JOIN users u ON u.user_id = c.peer_id", Long.class))
+                .isEqualTo(6);
+
+        // keys, indexes and foreign keys are back
+        assertThat(jdbcTemplate.queryForList("SELECT index_name FROM information_schema.indexes WHERE index_name LIKE 'idx_%'", String.class))
+                .containsExactlyInAnyOrder("idx_message_sender_receiver_sent", "idx_conversation_user_last_message");
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO users VALUES (?, 'twin')", UUID.fromString(userIds.get(0))))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO property VALUES (99, ?)", UUID.randomUUID()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO property VALUES (100, NULL)"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> jdbcTemplate.update("INSERT INTO conversation VALUES (?, ?, 9)",
+                UUID.fromString(userIds.get(0)), UUID.fromString(userIds.get(1))))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        // a second start finds nothing to do
+        new UserIdMigration(jdbcTemplate.getDataSource(), 2).migrate();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class)).isEqualTo(7);
+    }
+}
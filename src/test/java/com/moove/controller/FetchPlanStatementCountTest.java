@@ -0,0 +1,175 @@
+package com.moove.controller;
+
+import com.moove.entity.Booking;
+import com.moove.entity.Location;
+import com.moove.entity.Message;
+import com.moove.entity.Property;
+import com.moove.entity.Review;
+import com.moove.entity.User;
+import com.moove.event.DomainEventBus;
+import com.moove.repository.BookingRepository;
+import com.moove.repository.MessageRepository;
+import com.moove.repository.UserRepository;
+import com.moove.service.PropertyService;
+import com.moove.service.ReviewService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Each read endpoint has a fixed fetch plan, so the number of SQL statements
+ * it runs must not grow with the number of reviews, reviewers or messages.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class FetchPlanStatementCountTest {
+
+    private static final int REVIEWS = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    private Property property;
+    private User owner;
+    private Review review;
+    private Booking booking;
+    private User guest;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        owner = userRepository.save(user("owner"));
+        property = new Property();
+        property.setUser(owner);
+        property.setPropertyName("Hill cottage");
+        Location location = new Location();
+        location.setCity("Ella");
+        location.setLat(6.87);
+        location.setLng(81.05);
+        property.setLocation(location);
+        property = propertyService.addProperty(property);
+
+        for (int i = 0; i < REVIEWS; i++) {
+            Review next = new Review();
+            next.setProperty(property);
+            next.setUser(userRepository.save(user("reviewer" + i)));
+            next.setRating(1 + i % 5);
+            next.setComment("Stay " + i);
+            review = reviewService.save(next);
+        }
+        // rating recounts would otherwise drop snapshots between the requests under test
+        assertThat(domainEventBus.awaitIdle(Duration.ofSeconds(10))).isTrue();
+
+        guest = user("guest");
+        booking = new Booking();
+        booking.setUser(guest);
+        booking.setProperty(property);
+        booking.setCheckInDate(Date.valueOf(LocalDate.of(2027, 3, 1)));
+        booking.setCheckOutDate(Date.valueOf(LocalDate.of(2027, 3, 4)));
+        booking = bookingRepository.save(booking);
+
+        for (int i = 0; i < 4; i++) {
+            Message message = new Message();
+            message.setSender(i % 2 == 0 ? owner : guest);
+            message.setReceiver(i % 2 == 0 ? guest : owner);
+            message.setContent("Hello " + i);
+            message.setSentAt(LocalDateTime.now());
+            messageRepository.save(message);
+        }
+    }
+
+    @Test
+    void listingDetailCountsOneStatementPerFannedOutPart() throws Exception {
+        // listing with owner on the request thread; reviews and rating summary on the task pool, counted for the request
+        assertThat(statements("/api/property/{id}", get("/api/property/{id}", property.getPropertyId()))).isEqualTo(3);
+        // the serialized view is kept until the listing or its reviews change
+        assertThat(statements("/api/property/{id}", get("/api/property/{id}", property.getPropertyId()))).isEqualTo(0);
+        mockMvc.perform(get("/api/property/{id}", property.getPropertyId()))
+                .andExpect(jsonPath("$.user.username").value("owner"))
+                .andExpect(jsonPath("$.reviews.length()").value(REVIEWS))
+                .andExpect(jsonPath("$.rating.reviewCount").value(REVIEWS))
+                .andExpect(jsonPath("$.reviews[0].property").doesNotExist());
+    }
+
+    @Test
+    void listingViewsRunOneStatement() throws Exception {
+        assertThat(statements("/api/property", get("/api/property"))).isEqualTo(1);
+        assertThat(statements("/api/property/nearby", get("/api/property/nearby").param("lat", "6.87").param("lng", "81.05")))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void reviewFeedsRunOneStatementWithoutLoadingReviewers() throws Exception {
+        assertThat(statements("/api/reviews", get("/api/reviews"))).isEqualTo(1);
+        assertThat(statements("/api/reviews/property/{propertyId}",
+                get("/api/reviews/property/{id}", property.getPropertyId()))).isEqualTo(1);
+        assertThat(statements("/api/reviews/{id}", get("/api/reviews/{id}", review.getReviewId()))).isEqualTo(1);
+    }
+
+    @Test
+    void bookingAndConversationReadsLeaveUsersUnloaded() throws Exception {
+        assertThat(statements("/api/bookings/{id}", get("/api/bookings/{id}", booking.getBookingId()))).isEqualTo(1);
+        assertThat(statements("/api/messages/conversation", get("/api/messages/conversation")
+                .param("senderId", owner.getUserId().toString()).param("receiverId", guest.getUserId().toString()))).isEqualTo(1);
+        mockMvc.perform(get("/api/messages/conversation")
+                        .param("senderId", owner.getUserId().toString()).param("receiverId", guest.getUserId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sender.userId").value(owner.getUserId().toString()));
+    }
+
+    // Statements the request ran, read from the per-request metric
+    private long statements(String uri, MockHttpServletRequestBuilder request) throws Exception {
+        double before = total(uri);
+        mockMvc.perform(request).andExpect(status().isOk());
+        return Math.round(total(uri) - before);
+    }
+
+    private double total(String uri) {
+        DistributionSummary summary = meterRegistry.find("moove.db.statements.per.request")
+                .tag("method", "GET").tag("uri", uri).summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setUserEmail(username + "@example.com");
+        return user;
+    }
+}
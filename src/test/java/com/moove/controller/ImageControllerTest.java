@@ -0,0 +1,83 @@
+package com.moove.controller;
+
+import com.moove.storage.ImageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ImageControllerTest {
+
+    @TempDir
+    Path root;
+
+    private ImageStore store;
+    private MockMvc mockMvc;
+    private byte[] bytes;
+    private String imageId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new ImageStore(root, "", DataSize.ofMegabytes(50), 1000, 40_000_000, Duration.ofHours(24));
+        mockMvc = MockMvcBuilders.standaloneSetup(new ImageController(store)).build();
+
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        bytes = out.toByteArray();
+        imageId = store.store(new ByteArrayInputStream(bytes)).id();
+    }
+
+    @Test
+    void servesWholeImageWithStrongEtagAndLongLivedCaching() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/images/{id}", imageId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + imageId + "\""))
+                .andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"))
+                .andExpect(content().contentType("image/png"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(body).isEqualTo(bytes);
+
+        mockMvc.perform(get("/api/images/{id}", imageId).header("If-None-Match", "\"" + imageId + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void servesByteRanges() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/images/{id}", imageId).header("Range", "bytes=8-15"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 8-15/" + bytes.length))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(body).isEqualTo(Arrays.copyOfRange(bytes, 8, 16));
+
+        mockMvc.perform(get("/api/images/{id}", imageId).header("Range", "bytes=" + bytes.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
+    @Test
+    void uploadsReturnImageReference() throws Exception {
+        mockMvc.perform(multipart("/api/images").file(new MockMultipartFile("file", "flat.png", "image/png", bytes)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.propertyImage").value("/api/images/" + imageId))
+                .andExpect(jsonPath("$.propertyFileName").value("flat.png"));
+
+        mockMvc.perform(get("/api/images/{id}/thumbnail", imageId).param("width", "100"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,130 @@
+package com.moove.controller;
+
+import com.moove.entity.Property;
+import com.moove.entity.Review;
+import com.moove.entity.User;
+import com.moove.event.DomainEventBus;
+import com.moove.repository.UserRepository;
+import com.moove.service.PropertyService;
+import com.moove.service.ReviewService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ListingSnapshotTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    private Property property;
+    private User guest;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setUsername("snapshot-owner");
+        owner = userRepository.save(owner);
+        guest = new User();
+        guest.setUsername("snapshot-guest");
+        guest = userRepository.save(guest);
+
+        property = new Property();
+        property.setUser(owner);
+        property.setPropertyName("Lagoon villa");
+        property = propertyService.addProperty(property);
+    }
+
+    @Test
+    void repeatedPollsAreAnsweredWithNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/property/{id}", property.getPropertyId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+                .andExpect(jsonPath("$.propertyName").value("Lagoon villa"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).matches("\"[0-9a-f]{32}\"");
+
+        mockMvc.perform(get("/api/property/{id}", property.getPropertyId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/api/property/{id}", 999_999_999L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void gzipClientsGetTheStoredBytesUnderTheirOwnTag() throws Exception {
+        String plain = mockMvc.perform(get("/api/reviews/property/{id}", property.getPropertyId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        MockHttpServletResponse gzipped = mockMvc.perform(get("/api/reviews/property/{id}", property.getPropertyId())
+                        .header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse();
+        assertThat(gzipped.getHeader("ETag")).endsWith("-gzip\"");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(plain);
+        }
+
+        mockMvc.perform(get("/api/reviews/property/{id}", property.getPropertyId())
+                        .header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    @Test
+    void reviewWritesReplaceTheListingSnapshots() throws Exception {
+        String detail = mockMvc.perform(get("/api/property/{id}", property.getPropertyId()))
+                .andReturn().getResponse().getHeader("ETag");
+        String page = mockMvc.perform(get("/api/property").param("after", String.valueOf(property.getPropertyId() - 1)))
+                .andReturn().getResponse().getHeader("ETag");
+
+        Review review = new Review();
+        review.setProperty(property);
+        review.setUser(guest);
+        review.setRating(4);
+        review.setComment("Quiet and clean");
+        reviewService.save(review);
+        // the rating is recounted off the write path and drops the snapshots again
+        assertThat(domainEventBus.awaitIdle(Duration.ofSeconds(10))).isTrue();
+
+        String newDetail = mockMvc.perform(get("/api/property/{id}", property.getPropertyId()).header("If-None-Match", detail))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reviews.length()").value(1))
+                .andExpect(jsonPath("$.rating.reviewCount").value(1))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(newDetail).isNotEqualTo(detail);
+        mockMvc.perform(get("/api/property").param("after", String.valueOf(property.getPropertyId() - 1)).header("If-None-Match", page))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].reviewCount").value(1));
+    }
+}
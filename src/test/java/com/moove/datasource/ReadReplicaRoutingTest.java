@@ -0,0 +1,203 @@
+package com.moove.datasource;
+
+import com.moove.entity.Message;
+import com.moove.entity.User;
+import com.moove.repository.UserRepository;
+import com.moove.service.MessageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two unrelated in-memory databases: nothing is replicated, so a read answered
+// by the replica misses every row written through the application
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "moove.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "moove.datasource.replica.lag-query=SELECT lag_seconds FROM replica_status",
+        "moove.datasource.replica.lag-check-interval=1h"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User guest;
+    private User host;
+
+    // The replica gets the primary's schema but none of its rows
+    @BeforeEach
+    void setUp() throws SQLException {
+        List<String> schema = new ArrayList<>();
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet script = statement.executeQuery("SCRIPT NODATA")) {
+            while (script.next()) {
+                schema.add(script.getString(1));
+            }
+        }
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : schema) {
+                statement.execute(sql);
+            }
+            statement.execute("CREATE TABLE replica_status (lag_seconds INT)");
+            statement.execute("INSERT INTO replica_status VALUES (0)");
+        }
+        replicaLagMonitor.check();
+
+        guest = userRepository.save(user("guest"));
+        host = userRepository.save(user("host"));
+    }
+
+    @Test
+    void readsGoToTheReplicaExceptForAClientThatJustWrote() throws Exception {
+        conversation("10.0.0.2").andExpect(jsonPath("$.length()").value(0));
+
+        mockMvc.perform(post("/api/messages")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.1");
+                            return request;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sender\":{\"userId\":\"" + guest.getUserId() + "\"}," +
+                                "\"receiver\":{\"userId\":\"" + host.getUserId() + "\"},\"content\":\"Is it free?\"}"))
+                .andExpect(status().isOk());
+
+        conversation("10.0.0.1").andExpect(jsonPath("$.length()").value(1));
+        conversation("10.0.0.2").andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaLagsOrIsDown() throws Exception {
+        messageService.save(message(guest, host));
+        conversation("10.0.0.2").andExpect(jsonPath("$.length()").value(0));
+
+        replica("UPDATE replica_status SET lag_seconds = 60");
+        replicaLagMonitor.check();
+        conversation("10.0.0.2").andExpect(jsonPath("$.length()").value(1));
+
+        replica("DROP TABLE replica_status");
+        replicaLagMonitor.check();
+        conversation("10.0.0.2").andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void tasksOnTheApplicationExecutorReadAsTheClientThatSubmittedThem() throws Exception {
+        readYourWrites.bind("10.0.0.3");
+        try {
+            assertThat(applicationTaskExecutor.submit(readYourWrites::currentClient).get(5, TimeUnit.SECONDS))
+                    .isEqualTo("10.0.0.3");
+        } finally {
+            readYourWrites.unbind();
+        }
+        assertThat(applicationTaskExecutor.submit(readYourWrites::currentClient).get(5, TimeUnit.SECONDS)).isNull();
+    }
+
+    @Test
+    void onlyACommittedTransactionMakesItsClientSticky() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        readYourWrites.bind("10.0.0.4");
+        try {
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_SUPPORTS);
+            template.executeWithoutResult(status -> jdbc.queryForObject("SELECT 1", Integer.class));
+            assertThat(readYourWrites.mustReadPrimary()).isFalse();
+
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+            template.executeWithoutResult(status -> jdbc.queryForObject("SELECT 1", Integer.class));
+            assertThat(readYourWrites.mustReadPrimary()).isTrue();
+        } finally {
+            readYourWrites.unbind();
+        }
+    }
+
+    private ResultActions conversation(String client) throws Exception {
+        return mockMvc.perform(get("/api/messages/conversation")
+                        .param("senderId", guest.getUserId().toString())
+                        .param("receiverId", host.getUserId().toString())
+                        .with(request -> {
+                            request.setRemoteAddr(client);
+                            return request;
+                        }))
+                .andExpect(status().isOk());
+    }
+
+    private static void replica(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        return user;
+    }
+
+    private static Message message(User sender, User receiver) {
+        Message message = new Message();
+        message.setSender(sender);
+        message.setReceiver(receiver);
+        message.setContent("Hello");
+        return message;
+    }
+}
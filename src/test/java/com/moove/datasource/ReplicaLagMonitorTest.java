@@ -0,0 +1,27 @@
+package com.moove.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaLagMonitorTest {
+
+    @Test
+    void aResultOlderThanTwoCheckIntervalsIsNotTrusted() throws InterruptedException {
+        DriverManagerDataSource replica = new DriverManagerDataSource("jdbc:h2:mem:lag-monitor", "sa", "");
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, "SELECT 0", Duration.ofSeconds(5),
+                Duration.ofMillis(50), new SimpleMeterRegistry());
+        assertThat(monitor.usable()).isTrue();
+
+        // no check ran for three intervals
+        Thread.sleep(150);
+        assertThat(monitor.usable()).isFalse();
+
+        monitor.check();
+        assertThat(monitor.usable()).isTrue();
+    }
+}
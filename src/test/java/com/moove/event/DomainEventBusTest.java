@@ -0,0 +1,183 @@
+package com.moove.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moove.entity.DeadLetterEvent;
+import com.moove.repository.DeadLetterEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class DomainEventBusTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DeadLetterEventRepository deadLetters = mock(DeadLetterEventRepository.class);
+    private DomainEventBus bus;
+
+    @AfterEach
+    void stop() {
+        if (bus != null) {
+            bus.stop();
+        }
+    }
+
+    @Test
+    void eachKeyIsConsumedInOrderAndBacklogsDrainInBatches() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Map<Integer, List<Integer>> seen = new ConcurrentHashMap<>();
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        bus = start(new Recorder(4, batch -> {
+            await(release);
+            batchSizes.add(batch.size());
+            for (Numbered event : batch) {
+                seen.computeIfAbsent(event.stream(), k -> Collections.synchronizedList(new ArrayList<>())).add(event.seq());
+            }
+        }), 1_000);
+
+        for (int seq = 0; seq < 500; seq++) {
+            bus.publish(new Numbered(seq % 10, seq));
+        }
+        release.countDown();
+
+        assertThat(bus.awaitIdle(Duration.ofSeconds(10))).isTrue();
+        assertThat(seen).hasSize(10);
+        seen.values().forEach(seqs -> assertThat(seqs).hasSize(50).isSorted());
+        assertThat(batchSizes).anyMatch(size -> size > 1);
+        assertThat(registry.get("moove.events.delivered").tag("consumer", "recorder").counter().count()).isEqualTo(500);
+    }
+
+    @Test
+    void eventsThatKeepFailingAreDeadLetteredWithoutTheirBatch() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> delivered = Collections.synchronizedList(new ArrayList<>());
+        bus = start(new Recorder(1, batch -> {
+            await(release);
+            if (batch.stream().anyMatch(event -> event.seq() == 13)) {
+                throw new IllegalStateException("unlucky");
+            }
+            batch.forEach(event -> delivered.add(event.seq()));
+        }), 100);
+
+        for (int seq = 10; seq < 20; seq++) {
+            bus.publish(new Numbered(1, seq));
+        }
+        release.countDown();
+
+        assertThat(bus.awaitIdle(Duration.ofSeconds(10))).isTrue();
+        assertThat(delivered).containsExactly(10, 11, 12, 14, 15, 16, 17, 18, 19);
+        ArgumentCaptor<DeadLetterEvent> letter = ArgumentCaptor.forClass(DeadLetterEvent.class);
+        verify(deadLetters).save(letter.capture());
+        assertThat(letter.getValue().getConsumer()).isEqualTo("recorder");
+        assertThat(letter.getValue().getPayload()).contains("\"seq\":13");
+        assertThat(letter.getValue().getError()).contains("unlucky");
+        assertThat(registry.get("moove.events.dead.lettered").counter().count()).isEqualTo(1);
+        assertThat(registry.get("moove.events.retried").counter().count()).isPositive();
+    }
+
+    @Test
+    void aFullQueueHoldsThePublisherBackUntilTheConsumerCatchesUp() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch consuming = new CountDownLatch(1);
+        bus = start(new Recorder(1, batch -> {
+            consuming.countDown();
+            await(release);
+        }), 1);
+
+        bus.publish(new Numbered(1, 1));
+        assertThat(consuming.await(5, TimeUnit.SECONDS)).isTrue();
+        bus.publish(new Numbered(1, 2)); // fills the only slot
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> bus.publish(new Numbered(1, 3)));
+
+        Thread.sleep(200);
+        assertThat(blocked).isNotDone();
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+
+        assertThat(bus.awaitIdle(Duration.ofSeconds(10))).isTrue();
+        assertThat(registry.get("moove.events.publish.blocked").timer().count()).isEqualTo(1);
+        assertThat(registry.get("moove.events.delivered").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void aQueueThatStaysFullDeadLettersTheEventInsteadOfHoldingThePublisher() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch consuming = new CountDownLatch(1);
+        bus = start(new Recorder(1, batch -> {
+            consuming.countDown();
+            await(release);
+        }), 1, Duration.ofMillis(50));
+
+        bus.publish(new Numbered(1, 1));
+        assertThat(consuming.await(5, TimeUnit.SECONDS)).isTrue();
+        bus.publish(new Numbered(1, 2)); // fills the only slot
+        bus.publish(new Numbered(1, 3));
+        release.countDown();
+
+        assertThat(bus.awaitIdle(Duration.ofSeconds(10))).isTrue();
+        ArgumentCaptor<DeadLetterEvent> letter = ArgumentCaptor.forClass(DeadLetterEvent.class);
+        verify(deadLetters).save(letter.capture());
+        assertThat(letter.getValue().getPayload()).contains("\"seq\":3");
+        assertThat(registry.get("moove.events.overflowed").counter().count()).isEqualTo(1);
+        assertThat(registry.get("moove.events.delivered").counter().count()).isEqualTo(2);
+    }
+
+    private DomainEventBus start(Recorder consumer, int queueCapacity) {
+        return start(consumer, queueCapacity, Duration.ofSeconds(5));
+    }
+
+    private DomainEventBus start(Recorder consumer, int queueCapacity, Duration publishTimeout) {
+        DomainEventBus started = new DomainEventBus(List.of(consumer), deadLetters, new ObjectMapper(), registry,
+                queueCapacity, 64, 2, Duration.ZERO, publishTimeout);
+        started.start();
+        return started;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record Numbered(int stream, int seq) implements DomainEvent {
+
+        @Override
+        public Object key() {
+            return stream;
+        }
+    }
+
+    private record Recorder(int partitions, Consumer<List<Numbered>> onBatch) implements DomainEventConsumer<Numbered> {
+
+        @Override
+        public String name() {
+            return "recorder";
+        }
+
+        @Override
+        public Class<Numbered> eventType() {
+            return Numbered.class;
+        }
+
+        @Override
+        public void consume(List<Numbered> events) {
+            onBatch.accept(events);
+        }
+    }
+}
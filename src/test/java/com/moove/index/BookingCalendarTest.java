@@ -0,0 +1,53 @@
+package com.moove.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingCalendarTest {
+
+    private final BookingCalendar calendar = new BookingCalendar();
+
+    private static LocalDate day(int dayOfMonth) {
+        return LocalDate.of(2026, 12, dayOfMonth);
+    }
+
+    @Test
+    void detectsOverlapsButAllowsBackToBackStays() {
+        calendar.add(1, 10, day(10), day(15));
+
+        assertThat(calendar.isFree(1, day(5), day(10))).isTrue();
+        assertThat(calendar.isFree(1, day(15), day(20))).isTrue();
+        assertThat(calendar.isFree(1, day(14), day(16))).isFalse();
+        assertThat(calendar.isFree(1, day(9), day(11))).isFalse();
+        assertThat(calendar.isFree(1, day(1), day(31))).isFalse();
+        assertThat(calendar.isFree(2, day(10), day(15))).isTrue();
+        assertThat(calendar.findConflict(1, day(12), day(13)).bookingId()).isEqualTo(10);
+    }
+
+    @Test
+    void freesRangeOnRemove() {
+        calendar.add(1, 10, day(10), day(15));
+        calendar.remove(1, 99, day(10));
+        assertThat(calendar.isFree(1, day(10), day(15))).isFalse();
+
+        calendar.remove(1, 10, day(10));
+        assertThat(calendar.isFree(1, day(10), day(15))).isTrue();
+    }
+
+    @Test
+    void removesOnlyTheStaysOverlappingARange() {
+        calendar.add(1, 10, day(1), day(5));
+        calendar.add(1, 11, day(5), day(9));
+        calendar.add(1, 12, day(9), day(12));
+        calendar.add(1, 13, day(12), day(20));
+
+        calendar.removeOverlapping(1, day(6), day(12));
+
+        assertThat(calendar.findConflict(1, day(1), day(5)).bookingId()).isEqualTo(10);
+        assertThat(calendar.isFree(1, day(5), day(12))).isTrue();
+        assertThat(calendar.findConflict(1, day(12), day(13)).bookingId()).isEqualTo(13);
+    }
+}
@@ -0,0 +1,57 @@
+package com.moove.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PropertyGeoIndexTest {
+
+    private final PropertyGeoIndex index = new PropertyGeoIndex();
+
+    @Test
+    void returnsPropertiesWithinRadiusNearestFirst() {
+        index.put(1, 6.9271, 79.8612);  // Colombo
+        index.put(2, 6.9319, 79.8478);  // ~1.5 km away
+        index.put(3, 6.8649, 79.8997);  // ~8 km away
+        index.put(4, 7.2906, 80.6337);  // Kandy
+
+        List<PropertyGeoIndex.Hit> hits = index.nearby(6.9271, 79.8612, 10, 10);
+
+        assertThat(hits).extracting(PropertyGeoIndex.Hit::propertyId).containsExactly(1L, 2L, 3L);
+        assertThat(hits.get(2).distanceKm()).isLessThan(10);
+    }
+
+    @Test
+    void honoursLimit() {
+        for (int i = 0; i < 20; i++) {
+            index.put(i, 51.5 + i * 0.001, -0.12);
+        }
+
+        assertThat(index.nearby(51.5, -0.12, 50, 5))
+                .extracting(PropertyGeoIndex.Hit::propertyId)
+                .containsExactly(0L, 1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void movesAndRemovesProperties() {
+        index.put(1, 6.9271, 79.8612);
+        index.put(1, 7.2906, 80.6337);
+
+        assertThat(index.nearby(6.9271, 79.8612, 5, 10)).isEmpty();
+        assertThat(index.nearby(7.2906, 80.6337, 5, 10)).hasSize(1);
+
+        index.remove(1);
+        assertThat(index.nearby(7.2906, 80.6337, 5, 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void searchesAcrossTheAntimeridian() {
+        index.put(1, -16.5, 179.99);
+        index.put(2, -16.5, -179.99);
+
+        assertThat(index.nearby(-16.5, 179.999, 5, 10)).hasSize(2);
+    }
+}
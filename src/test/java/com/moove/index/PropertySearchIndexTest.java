@@ -0,0 +1,82 @@
+package com.moove.index;
+
+import com.moove.DTO.PropertySearchCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PropertySearchIndexTest {
+
+    private final PropertySearchIndex index = new PropertySearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.put(new PropertySearchIndex.Document(1, "APARTMENT", "Colombo", 900, 70, 2, 1));
+        index.put(new PropertySearchIndex.Document(2, "apartment", "colombo ", 1400, 95, 3, 2));
+        index.put(new PropertySearchIndex.Document(3, "HOUSE", "Kandy", 1100, 160, 4, 2));
+        index.put(new PropertySearchIndex.Document(4, "ROOM", "Colombo", 300, 20, 1, 1));
+        index.put(new PropertySearchIndex.Document(5, "APARTMENT", "Kandy", 700, 60, 2, 1));
+    }
+
+    @Test
+    void combinesBitmapAndRangeFilters() {
+        PropertySearchCriteria criteria = new PropertySearchCriteria();
+        criteria.setType(List.of("apartment"));
+        criteria.setBedrooms(2);
+        criteria.setMaxPrice(1000.0);
+
+        PropertySearchIndex.Result result = index.search(criteria);
+
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(result.propertyIds()).containsExactly(1L, 5L);
+        assertThat(result.facets().get("city")).containsEntry("colombo", 1).containsEntry("kandy", 1);
+        assertThat(result.facets().get("bedroomsAvailable")).containsEntry("2", 2);
+    }
+
+    @Test
+    void countsFacetsOverAllMatchesButPagesSortedResults() {
+        PropertySearchCriteria criteria = new PropertySearchCriteria();
+        criteria.setCity("Colombo");
+        criteria.setSort("-price");
+        criteria.setLimit(2);
+
+        PropertySearchIndex.Result result = index.search(criteria);
+
+        assertThat(result.total()).isEqualTo(3);
+        assertThat(result.propertyIds()).containsExactly(2L, 1L);
+        assertThat(result.facets().get("propertyType")).containsEntry("APARTMENT", 2).containsEntry("ROOM", 1);
+
+        criteria.setOffset(2);
+        assertThat(index.search(criteria).propertyIds()).containsExactly(4L);
+    }
+
+    @Test
+    void offsetsPastTheMatchesReturnAnEmptyPageWithoutSizingByTheRequest() {
+        PropertySearchCriteria criteria = new PropertySearchCriteria();
+        criteria.setOffset(2_000_000_000);
+        criteria.setLimit(Integer.MAX_VALUE);
+
+        PropertySearchIndex.Result result = index.search(criteria);
+
+        assertThat(result.total()).isEqualTo(5);
+        assertThat(result.propertyIds()).isEmpty();
+    }
+
+    @Test
+    void reindexesAndRemovesDocuments() {
+        index.put(new PropertySearchIndex.Document(3, "APARTMENT", "Galle", 1100, 160, 4, 2));
+        index.remove(4);
+
+        PropertySearchCriteria criteria = new PropertySearchCriteria();
+        criteria.setType(List.of("HOUSE", "ROOM"));
+        assertThat(index.search(criteria).total()).isZero();
+
+        criteria.setType(null);
+        criteria.setCity("galle");
+        assertThat(index.search(criteria).propertyIds()).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,95 @@
+package com.moove.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PropertySimilarityIndexTest {
+
+    private final PropertySimilarityIndex index = new PropertySimilarityIndex();
+
+    @Test
+    void ranksTheCloserListingFirstAndFollowsWrites() {
+        index.put(doc(1, "APARTMENT", 1200, 60, 2, 1, 6.9271, 79.8612, 4.5));
+        index.put(doc(2, "APARTMENT", 1250, 62, 2, 1, 6.9319, 79.8478, 4.4));   // same flat, next street
+        index.put(doc(3, "HOUSE", 4000, 200, 5, 3, 6.9271, 79.8612, 4.5));      // same spot, very different home
+        index.put(doc(4, "APARTMENT", 1200, 60, 2, 1, 7.2906, 80.6337, 4.5));   // same flat in Kandy
+        assertThat(index.neighbors(1)).isNull();
+
+        index.rebuild();
+        assertThat(index.neighbors(1).propertyIds()).startsWith(2L);
+        assertThat(index.neighbors(1).propertyIds()).doesNotContain(1L);
+
+        // a new listing right next to 1 takes the top of 1's list at once
+        index.put(doc(5, "APARTMENT", 1200, 60, 2, 1, 6.9272, 79.8613, 4.5));
+        assertThat(index.neighbors(5).propertyIds()).startsWith(1L);
+        assertThat(index.neighbors(1).propertyIds()).startsWith(5L);
+
+        index.remove(5);
+        assertThat(index.neighbors(5)).isNull();
+        assertThat(index.contains(5)).isFalse();
+    }
+
+    @Test
+    void approximateListsRecallMostOfTheExactNeighbours() {
+        Random random = new Random(7);
+        String[] types = {"APARTMENT", "HOUSE", "ROOM"};
+        double[][] cities = {{6.93, 79.85}, {7.29, 80.63}, {6.05, 80.22}};
+        int count = 5000;
+        PropertySimilarityIndex.Document[] documents = new PropertySimilarityIndex.Document[count];
+        for (int i = 0; i < count; i++) {
+            double[] city = cities[random.nextInt(cities.length)];
+            documents[i] = doc(i, types[random.nextInt(types.length)], 300 + random.nextInt(5000), 20 + random.nextInt(300),
+                    1 + random.nextInt(5), 1 + random.nextInt(3),
+                    city[0] + random.nextGaussian() * 0.05, city[1] + random.nextGaussian() * 0.05,
+                    random.nextBoolean() ? null : 1 + random.nextDouble() * 4);
+        }
+        index.load(List.of(documents));
+        index.rebuild();
+
+        int k = 10;
+        int matched = 0;
+        int sampled = 0;
+        for (int i = 0; i < count; i += 50) {
+            Set<Long> approximate = new HashSet<>();
+            long[] ids = index.neighbors(i).propertyIds();
+            for (int j = 0; j < Math.min(k, ids.length); j++) {
+                approximate.add(ids[j]);
+            }
+            for (long exact : exactNearest(documents, i, k)) {
+                if (approximate.contains(exact)) {
+                    matched++;
+                }
+            }
+            sampled += k;
+        }
+        assertThat((double) matched / sampled).isGreaterThan(0.9);
+    }
+
+    // Brute force over the same feature space
+    private long[] exactNearest(PropertySimilarityIndex.Document[] documents, int of, int k) {
+        float[] distances = new float[documents.length];
+        for (int i = 0; i < documents.length; i++) {
+            distances[i] = index.distanceBetween(documents[of].propertyId(), documents[i].propertyId());
+        }
+        return IntStream.range(0, documents.length)
+                .filter(i -> i != of)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> distances[i]))
+                .limit(k)
+                .mapToLong(i -> documents[i].propertyId())
+                .toArray();
+    }
+
+    private static PropertySimilarityIndex.Document doc(long id, String type, double price, double size, int bedrooms,
+                                                        int bathrooms, double lat, double lng, Double rating) {
+        return new PropertySimilarityIndex.Document(id, type, price, size, bedrooms, bathrooms, lat, lng, rating);
+    }
+}
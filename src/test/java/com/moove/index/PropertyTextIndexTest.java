@@ -0,0 +1,73 @@
+package com.moove.index;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PropertyTextIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private PropertyTextIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        index = new PropertyTextIndex(dir, Duration.ofSeconds(1));
+        index.put(new PropertyTextIndex.Document(1, "Sea view studio", "Bright studio above the harbour",
+                List.of("Waking up to the sea was lovely")));
+        index.put(new PropertyTextIndex.Document(2, "Garden flat", "Quiet flat a short walk from campus",
+                List.of("Great for students", "The studio next door was noisy")));
+        index.put(new PropertyTextIndex.Document(3, "Hill cottage", "Stone cottage with a sea view from the terrace",
+                List.of()));
+        index.refresh();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionAndReviewMatches() {
+        PropertyTextIndex.Result result = index.search("sea view studios ", 0, 10);
+
+        assertThat(result.total()).isEqualTo(3);
+        assertThat(result.hits()).extracting(PropertyTextIndex.Hit::propertyId).containsExactly(1L, 3L, 2L);
+        assertThat(result.hits().get(0).highlights().get(PropertyTextIndex.NAME))
+                .isEqualTo("<mark>Sea</mark> <mark>view</mark> <mark>studio</mark>");
+        assertThat(result.hits().get(2).highlights()).containsOnlyKeys(PropertyTextIndex.REVIEWS);
+    }
+
+    @Test
+    void completesTheWordBeingTyped() {
+        assertThat(index.search("near camp", 0, 10).hits())
+                .extracting(PropertyTextIndex.Hit::propertyId).containsExactly(2L);
+        assertThat(index.search("camp ", 0, 10).hits()).isEmpty();
+        assertThat(index.search("cott", 0, 10).hits().get(0).highlights().get(PropertyTextIndex.NAME))
+                .isEqualTo("Hill <mark>cottage</mark>");
+    }
+
+    @Test
+    void replacesAndRemovesDocumentsAndSurvivesReopening() throws IOException {
+        index.put(new PropertyTextIndex.Document(2, "Garden flat", "Quiet flat", List.of("Lovely hosts")));
+        index.remove(3);
+        index.refresh();
+
+        assertThat(index.search("campus", 0, 10).hits()).isEmpty();
+        assertThat(index.search("hosts", 0, 10).hits()).extracting(PropertyTextIndex.Hit::propertyId).containsExactly(2L);
+        assertThat(index.search("cottage", 0, 10).total()).isZero();
+
+        index.close();
+        index = new PropertyTextIndex(dir, Duration.ofSeconds(1));
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,64 @@
+package com.moove.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private final TimingWheel<String> wheel = new TimingWheel<>(10, 8, 1_000);
+
+    @Test
+    void firesOnTheFirstTickAtOrAfterTheDeadline() {
+        wheel.schedule(1_015, "a");
+        wheel.schedule(1_020, "b");
+
+        assertThat(wheel.advance(1_019)).isEmpty();
+        assertThat(wheel.advance(1_020)).containsExactly("a");
+        assertThat(wheel.advance(1_029)).isEmpty();
+        assertThat(wheel.advance(1_030)).containsExactly("b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlinesAreDueOnTheNextAdvance() {
+        wheel.schedule(500, "late");
+
+        assertThat(wheel.advance(1_000)).containsExactly("late");
+    }
+
+    @Test
+    void farDeadlinesCascadeDownWithoutFiringEarly() {
+        SplittableRandom random = new SplittableRandom(3);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long deadline = 1_000 + random.nextLong(5_000_000);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, String.valueOf(deadline));
+        }
+
+        int fired = 0;
+        for (long now = 1_000; now < 5_004_000; now += 1 + random.nextInt(3_000)) {
+            long before = wheel.time();
+            for (String item : wheel.advance(now)) {
+                // due within this advance: not earlier, and not left behind by an earlier one
+                assertThat(Long.parseLong(item)).isGreaterThan(before).isLessThanOrEqualTo(wheel.time());
+                fired++;
+            }
+        }
+        assertThat(fired).isEqualTo(deadlines.size());
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void emptyWheelJumpsStraightToNow() {
+        wheel.advance(Long.MAX_VALUE / 2);
+        wheel.schedule(Long.MAX_VALUE / 2 + 5, "next");
+
+        assertThat(wheel.advance(Long.MAX_VALUE / 2 + 10)).containsExactly("next");
+    }
+}
@@ -0,0 +1,40 @@
+package com.moove.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exposesRequestRepositoryDatabaseAndCacheMetricsForScraping() throws Exception {
+        mockMvc.perform(get("/api/property")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket")
+                .contains("spring_data_repository_invocations_seconds_bucket")
+                .contains("hikaricp_connections_acquire_seconds")
+                .contains("hibernate_statements_total")
+                .contains("cache_gets_total{cache=\"listing\",result=\"miss\"}")
+                .contains("cache_size{cache=\"property\"}")
+                .contains("moove_db_queries_seconds_count{batch=\"false\",outcome=\"success\",type=\"select\"}")
+                .containsPattern("moove_db_statements_per_request_statements_count\\{method=\"GET\",uri=\"/api/property\"} [1-9]");
+    }
+}
@@ -0,0 +1,68 @@
+package com.moove.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    // 10 tokens a second, bursts of 3
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 3, 1000, now::get);
+
+    @Test
+    void grantsABurstThenRefillsAtTheRate() {
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(100_000_000L);
+        // buckets are independent
+        assertThat(limiter.tryAcquire("b")).isZero();
+
+        now.addAndGet(60_000_000L);
+        assertThat(limiter.tryAcquire("a")).isEqualTo(40_000_000L);
+        now.addAndGet(40_000_000L);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+
+        // a long idle period refills only up to the burst
+        now.addAndGet(10_000_000_000L);
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("a")).isZero();
+        }
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void filterAnswers429PerClientAndRoute() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimitFilter filter = new RateLimitFilter(registry, limiter, List.of("/api/property/**", "/api/reviews/property/**"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(get(filter, "/api/property/7", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse throttled = get(filter, "/api/property/8", "10.0.0.1");
+        assertThat(throttled.getStatus()).isEqualTo(429);
+        assertThat(throttled.getHeader("Retry-After")).isEqualTo("1");
+
+        assertThat(get(filter, "/api/property/7", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(get(filter, "/api/reviews/property/7", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(get(filter, "/api/bookings", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(registry.counter("moove.ratelimit.throttled", "route", "/api/property/**").count()).isEqualTo(1);
+    }
+
+    private static MockHttpServletResponse get(RateLimitFilter filter, String path, String client) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
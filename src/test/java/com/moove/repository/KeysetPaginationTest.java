@@ -0,0 +1,88 @@
+package com.moove.repository;
+
+import com.moove.DTO.KeysetPage;
+import com.moove.DTO.PropertySummaryDTO;
+import com.moove.DTO.ReviewSummaryDTO;
+import com.moove.DTO.UserSummaryDTO;
+import com.moove.entity.Location;
+import com.moove.entity.Property;
+import com.moove.entity.Review;
+import com.moove.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class KeysetPaginationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Test
+    void walksPropertiesPageByPage() {
+        User owner = userRepository.save(user("owner"));
+        for (int i = 0; i < 5; i++) {
+            Property property = new Property();
+            property.setUser(owner);
+            property.setPropertyName("Flat " + i);
+            property.setLegacyImageData("x".repeat(10_000));
+            property.setLocation(new Location("Main St", "Colombo", 6.9, 79.8));
+            propertyRepository.save(property);
+        }
+
+        List<PropertySummaryDTO> rows = propertyRepository.findSummariesAfter(0, Limit.of(3));
+        KeysetPage<PropertySummaryDTO> first = KeysetPage.of(rows, 2, PropertySummaryDTO::getPropertyId);
+        assertThat(first.getItems()).extracting(PropertySummaryDTO::getPropertyName).containsExactly("Flat 0", "Flat 1");
+        assertThat(first.getItems().get(0).getUserId()).isEqualTo(owner.getUserId());
+        assertThat(first.getItems().get(0).getCity()).isEqualTo("Colombo");
+
+        long after = (Long) first.getNextAfter();
+        rows = propertyRepository.findSummariesAfter(after, Limit.of(3));
+        KeysetPage<PropertySummaryDTO> second = KeysetPage.of(rows, 2, PropertySummaryDTO::getPropertyId);
+        assertThat(second.getItems()).extracting(PropertySummaryDTO::getPropertyName).containsExactly("Flat 2", "Flat 3");
+
+        rows = propertyRepository.findSummariesAfter((Long) second.getNextAfter(), Limit.of(3));
+        KeysetPage<PropertySummaryDTO> last = KeysetPage.of(rows, 2, PropertySummaryDTO::getPropertyId);
+        assertThat(last.getItems()).extracting(PropertySummaryDTO::getPropertyName).containsExactly("Flat 4");
+        assertThat(last.getNextAfter()).isNull();
+    }
+
+    @Test
+    void projectsUsersAndReviewsWithoutAssociations() {
+        User author = userRepository.save(user("author"));
+        Review review = new Review();
+        review.setUser(author);
+        review.setRating(4);
+        review.setComment("Quiet street");
+        reviewRepository.save(review);
+
+        List<UserSummaryDTO> users = userRepository.findSummariesAfter(new UUID(0, 0), Limit.of(10));
+        assertThat(users).extracting(UserSummaryDTO::getUsername).containsExactly("author");
+
+        List<ReviewSummaryDTO> reviews = reviewRepository.findSummariesAfter(0, Limit.of(10));
+        assertThat(reviews).singleElement().satisfies(r -> {
+            assertThat(r.getUserId()).isEqualTo(author.getUserId());
+            assertThat(r.getPropertyId()).isNull();
+            assertThat(r.getRating()).isEqualTo(4);
+        });
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setUserEmail(username + "@moove.test");
+        return user;
+    }
+}
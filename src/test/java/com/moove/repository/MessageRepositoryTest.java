@@ -0,0 +1,73 @@
+package com.moove.repository;
+
+import com.moove.entity.Message;
+import com.moove.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class MessageRepositoryTest {
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void fetchesOnlyMessagesAfterCursorInBothDirections() {
+        User alice = userRepository.save(user("alice"));
+        User bob = userRepository.save(user("bob"));
+        User carol = userRepository.save(user("carol"));
+
+        Message first = messageRepository.save(message(alice, bob, "hi"));
+        messageRepository.save(message(bob, alice, "hello"));
+        messageRepository.save(message(carol, alice, "unrelated"));
+        messageRepository.save(message(alice, bob, "free on friday?"));
+
+        List<Message> all = messageRepository.findConversation(alice.getUserId(), bob.getUserId());
+        assertThat(all).extracting(Message::getContent).containsExactly("hi", "hello", "free on friday?");
+
+        List<Message> newer = messageRepository.findConversationSince(bob.getUserId(), alice.getUserId(), first.getId());
+        assertThat(newer).extracting(Message::getContent).containsExactly("hello", "free on friday?");
+    }
+
+    @Test
+    void overlappingCursorAlsoReturnsLowerIdsSentWithinTheWindow() {
+        User alice = userRepository.save(user("alice"));
+        User bob = userRepository.save(user("bob"));
+
+        Message old = message(alice, bob, "last week");
+        old.setSentAt(LocalDateTime.now().minusDays(7));
+        messageRepository.save(old);
+        // lower id, but its transaction commits after the client read the cursor
+        messageRepository.save(message(bob, alice, "committed late"));
+        Message cursor = messageRepository.save(message(alice, bob, "cursor"));
+        messageRepository.save(message(bob, alice, "newer"));
+
+        List<Message> newer = messageRepository.findConversationSince(alice.getUserId(), bob.getUserId(),
+                cursor.getId(), cursor.getSentAt().minusMinutes(1));
+        assertThat(newer).extracting(Message::getContent).containsExactly("committed late", "cursor", "newer");
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        return user;
+    }
+
+    private static Message message(User sender, User receiver, String content) {
+        Message message = new Message();
+        message.setSender(sender);
+        message.setReceiver(receiver);
+        message.setContent(content);
+        message.setSentAt(LocalDateTime.now());
+        return message;
+    }
+}
@@ -0,0 +1,166 @@
+package com.moove.service;
+
+import com.moove.DTO.BookingSummaryDTO;
+import com.moove.entity.Booking;
+import com.moove.entity.Property;
+import com.moove.entity.User;
+import com.moove.index.BookingDeadlines;
+import com.moove.repository.BookingRepository;
+import com.moove.repository.PropertyRepository;
+import com.moove.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Owners get no time to confirm here, so every hold is past its deadline as soon as it is saved.
+// A database of its own, so this context's schema does not replace the shared one under other tests.
+@SpringBootTest(properties = {
+        "moove.booking.confirmation-window=0s",
+        "spring.datasource.url=jdbc:h2:mem:booking-lifecycle;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+class BookingLifecycleTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingDeadlines bookingDeadlines;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void unconfirmedHoldsExpireAndFreeTheirDates() {
+        Property property = newProperty();
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        Booking booking = bookingService.save(booking(property, checkIn, checkIn.plusDays(4)));
+        assertThat(booking.getStatus()).isEqualTo("PENDING");
+        assertThat(booking.getConfirmBy()).isNotNull();
+        assertThat(bookingService.getAvailability(property.getPropertyId(), checkIn, checkIn.plusDays(4)).isAvailable()).isFalse();
+
+        assertThat(bookingService.applyDeadlines(Instant.now().plusSeconds(2))).isPositive();
+
+        assertThat(bookingService.getSummaryById(booking.getBookingId()).getStatus()).isEqualTo("EXPIRED");
+        assertThat(bookingService.getAvailability(property.getPropertyId(), checkIn, checkIn.plusDays(4)).isAvailable()).isTrue();
+        assertThatThrownBy(() -> bookingService.confirm(booking.getBookingId()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThatThrownBy(() -> bookingService.cancel((long) booking.getBookingId()))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void confirmedStaysCompleteAfterCheckOutEvenAcrossARestart() {
+        Property property = newProperty();
+        LocalDate checkIn = LocalDate.now().minusDays(5);
+        Booking booking = bookingService.save(booking(property, checkIn, checkIn.plusDays(3)));
+
+        BookingSummaryDTO confirmed = bookingService.confirm(booking.getBookingId());
+        assertThat(confirmed.getStatus()).isEqualTo("CONFIRMED");
+        assertThat(confirmed.isConformedByOwner()).isTrue();
+
+        // the wheel lives in memory; a restart rebuilds it from the table
+        bookingDeadlines.clear();
+        bookingService.loadDeadlines();
+        assertThat(bookingDeadlines.size()).isPositive();
+
+        bookingService.applyDeadlines(Instant.now().plusSeconds(2));
+        assertThat(bookingService.getSummaryById(booking.getBookingId()).getStatus()).isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void deadlinesMissingFromThisInstancesWheelAreReconciledFromTheTable() {
+        Property property = newProperty();
+        // written by another instance, so nothing is scheduled here
+        Booking hold = booking(property, LocalDate.now().plusDays(90), LocalDate.now().plusDays(92));
+        hold.setStatus("PENDING");
+        hold.setConfirmBy(LocalDateTime.now().minusMinutes(5));
+        hold = bookingRepository.save(hold);
+        Booking stay = booking(property, LocalDate.now().minusDays(4), LocalDate.now().minusDays(1));
+        stay.setStatus("CONFIRMED");
+        stay = bookingRepository.save(stay);
+
+        assertThat(bookingService.reconcile(Instant.now())).isGreaterThanOrEqualTo(2);
+
+        assertThat(bookingService.getSummaryById(hold.getBookingId()).getStatus()).isEqualTo("EXPIRED");
+        assertThat(bookingService.getSummaryById(stay.getBookingId()).getStatus()).isEqualTo("COMPLETED");
+        assertThat(bookingService.reconcile(Instant.now())).isZero();
+    }
+
+    @Test
+    void datesFreedOnAnotherInstanceCanBeBookedHere() {
+        Property property = newProperty();
+        LocalDate checkIn = LocalDate.now().plusDays(120);
+        Booking booking = bookingService.save(booking(property, checkIn, checkIn.plusDays(3)));
+
+        // cancelled by another instance, so this calendar still holds the stay
+        transactionTemplate.executeWithoutResult(status ->
+                bookingRepository.updateStatus(List.of(booking.getBookingId()), "CANCELLED"));
+
+        assertThat(bookingService.getAvailability(property.getPropertyId(), checkIn, checkIn.plusDays(3)).isAvailable()).isTrue();
+        assertThat(bookingService.save(booking(property, checkIn.plusDays(1), checkIn.plusDays(2))).getBookingId()).isNotNull();
+    }
+
+    @Test
+    void legacyFreeFormStatusesCanStillBeConfirmedAndCancelled() {
+        Property property = newProperty();
+        Booking legacy = booking(property, LocalDate.now().plusDays(150), LocalDate.now().plusDays(152));
+        legacy.setStatus("booked");
+        Booking saved = bookingRepository.save(legacy);
+
+        assertThat(bookingService.confirm(saved.getBookingId()).getStatus()).isEqualTo("CONFIRMED");
+        transactionTemplate.executeWithoutResult(status ->
+                bookingRepository.updateStatus(List.of(saved.getBookingId()), "Reserved"));
+        bookingService.cancel((long) saved.getBookingId());
+        assertThat(bookingService.getSummaryById(saved.getBookingId()).getStatus()).isEqualTo("CANCELLED");
+    }
+
+    @Test
+    void newBookingsCannotChooseTheirStatus() {
+        Booking booking = booking(newProperty(), LocalDate.now().plusDays(60), LocalDate.now().plusDays(62));
+        booking.setStatus("COMPLETED");
+
+        assertThatThrownBy(() -> bookingService.save(booking))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private Property newProperty() {
+        User owner = new User();
+        owner.setUsername("owner");
+        owner = userRepository.save(owner);
+        Property property = new Property();
+        property.setUser(owner);
+        property.setPropertyName("Hill bungalow");
+        return propertyRepository.save(property);
+    }
+
+    private static Booking booking(Property property, LocalDate checkIn, LocalDate checkOut) {
+        Booking booking = new Booking();
+        booking.setProperty(property);
+        booking.setCheckInDate(Date.valueOf(checkIn));
+        booking.setCheckOutDate(Date.valueOf(checkOut));
+        return booking;
+    }
+}
@@ -0,0 +1,142 @@
+package com.moove.service;
+
+import com.moove.entity.Booking;
+import com.moove.entity.Property;
+import com.moove.entity.User;
+import com.moove.index.BookingCalendar;
+import com.moove.repository.BookingRepository;
+import com.moove.repository.PropertyRepository;
+import com.moove.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class BookingServiceConcurrencyTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingCalendar bookingCalendar;
+
+    @Test
+    void concurrentOverlappingRequestsNeverDoubleBook() throws Exception {
+        Property property = newProperty();
+        LocalDate season = LocalDate.of(2026, 12, 1);
+        int requests = 400;
+
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < requests; i++) {
+            LocalDate checkIn = season.plusDays(random.nextInt(60));
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(7));
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    bookingService.save(booking(property, checkIn, checkOut));
+                } catch (ResponseStatusException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        List<Booking> committed = bookingRepository.findAll().stream()
+                .filter(b -> b.getProperty() != null && b.getProperty().getPropertyId() == property.getPropertyId())
+                .toList();
+        assertThat(committed.size() + rejected.get()).isEqualTo(requests);
+        assertThat(committed).isNotEmpty();
+        for (int i = 0; i < committed.size(); i++) {
+            for (int j = i + 1; j < committed.size(); j++) {
+                Booking a = committed.get(i);
+                Booking b = committed.get(j);
+                boolean overlaps = a.getCheckInDate().before(b.getCheckOutDate()) && b.getCheckInDate().before(a.getCheckOutDate());
+                assertThat(overlaps).as("bookings %d and %d overlap", a.getBookingId(), b.getBookingId()).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void cancellingFreesTheRange() {
+        Property property = newProperty();
+        LocalDate checkIn = LocalDate.of(2027, 1, 10);
+        LocalDate checkOut = checkIn.plusDays(3);
+
+        Booking saved = bookingService.save(booking(property, checkIn, checkOut));
+        assertThat(bookingService.getAvailability(property.getPropertyId(), checkIn, checkOut).isAvailable()).isFalse();
+        assertThatThrownBy(() -> bookingService.save(booking(property, checkIn.plusDays(1), checkOut)))
+                .isInstanceOf(ResponseStatusException.class);
+
+        bookingService.cancel((long) saved.getBookingId());
+        assertThat(bookingService.getAvailability(property.getPropertyId(), checkIn, checkOut).isAvailable()).isTrue();
+    }
+
+    @Test
+    void staysBookedThroughAnotherInstanceStillConflict() {
+        Property property = newProperty();
+        LocalDate checkIn = LocalDate.of(2027, 2, 10);
+        Booking elsewhere = bookingService.save(booking(property, checkIn, checkIn.plusDays(4)));
+        // as if another instance had taken it: this instance's calendar does not know the stay
+        bookingCalendar.remove(property.getPropertyId(), elsewhere.getBookingId(), checkIn);
+
+        assertThatThrownBy(() -> bookingService.save(booking(property, checkIn.plusDays(2), checkIn.plusDays(6))))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        // and the calendar has learned it
+        assertThat(bookingService.getAvailability(property.getPropertyId(), checkIn, checkIn.plusDays(1)).isAvailable())
+                .isFalse();
+    }
+
+    private Property newProperty() {
+        User owner = new User();
+        owner.setUsername("owner");
+        owner = userRepository.save(owner);
+        Property property = new Property();
+        property.setUser(owner);
+        property.setPropertyName("Beach house");
+        return propertyRepository.save(property);
+    }
+
+    private static Booking booking(Property property, LocalDate checkIn, LocalDate checkOut) {
+        Booking booking = new Booking();
+        booking.setProperty(property);
+        booking.setCheckInDate(Date.valueOf(checkIn));
+        booking.setCheckOutDate(Date.valueOf(checkOut));
+        booking.setStatus("PENDING");
+        return booking;
+    }
+}
@@ -0,0 +1,76 @@
+package com.moove.service;
+
+import com.moove.DTO.ImportJobDTO;
+import com.moove.entity.User;
+import com.moove.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BulkServiceTest {
+
+    @Autowired
+    private BulkService bulkService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void importsGoodRowsAndReportsBadOnes() throws Exception {
+        User owner = new User();
+        owner.setUsername("agency");
+        UUID ownerId = userRepository.save(owner).getUserId();
+
+        String csv = String.join("\n",
+                "propertyId,userId,propertyName,propertyDescription,propertyPrice,propertyType,propertySize,"
+                        + "bedroomsAvailable,bathroomsAvailable,address,city,lat,lng,propertyImageUrl",
+                "," + ownerId + ",Bulk loft,\"Bright, open plan\",1200,APARTMENT,80,2,1,1 Main St,Colombo,6.9,79.85,",
+                "," + ownerId + ",Bulk house,,2500,HOUSE,150,4,2,2 Main St,Kandy,,,",
+                "," + UUID.randomUUID() + ",Orphan,,900,APARTMENT,50,1,1,,Galle,,,",
+                "," + ownerId + ",Broken price,,not-a-number,HOUSE,90,3,1,,Kandy,,,",
+                "," + ownerId + ",,,100,HOUSE,90,3,1,,Kandy,,,");
+
+        ImportJobDTO job = bulkService.importProperties(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "csv");
+        job = awaitFinished(job.getJobExecutionId());
+
+        assertThat(job.getStatus()).isEqualTo("COMPLETED");
+        assertThat(job.getWriteCount()).isEqualTo(2);
+        assertThat(job.getSkipCount()).isEqualTo(3);
+        assertThat(job.getErrors()).hasSize(3)
+                .anyMatch(error -> error.startsWith("line 4:") && error.contains("unknown user"))
+                .anyMatch(error -> error.startsWith("line 5:"))
+                .anyMatch(error -> error.startsWith("line 6:") && error.contains("propertyName"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bulkService.exportProperties(out, "csv");
+        String exported = out.toString(StandardCharsets.UTF_8);
+        assertThat(exported).startsWith("propertyId,userId,propertyName");
+        assertThat(exported).contains("\"Bright, open plan\"").contains("Bulk house");
+
+        out = new ByteArrayOutputStream();
+        bulkService.exportProperties(out, "ndjson");
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("\"propertyName\":\"Bulk loft\"");
+    }
+
+    private ImportJobDTO awaitFinished(long jobExecutionId) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (System.nanoTime() < deadline) {
+            ImportJobDTO job = bulkService.getImport(jobExecutionId).orElseThrow();
+            if (!job.getStatus().equals("STARTING") && !job.getStatus().equals("STARTED")) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("import did not finish");
+    }
+}
@@ -0,0 +1,132 @@
+package com.moove.service;
+
+import com.moove.DTO.ConversationSummaryDTO;
+import com.moove.DTO.KeysetPage;
+import com.moove.entity.Message;
+import com.moove.entity.User;
+import com.moove.repository.MessageRepository;
+import com.moove.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class InboxServiceTest {
+
+    @Autowired
+    private InboxService inboxService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void inboxListsLatestMessagePerPeerWithUnreadCounts() {
+        User alice = userRepository.save(user("alice"));
+        User bob = userRepository.save(user("bob"));
+        User carol = userRepository.save(user("carol"));
+
+        Message first = messageService.save(message(bob, alice, "hi"));
+        messageService.save(message(bob, alice, "are you there?"));
+        messageService.save(message(alice, bob, "yes"));
+        Message fromCarol = messageService.save(message(carol, alice, "is the flat free?"));
+        Message later = messageService.save(message(bob, alice, "great"));
+
+        KeysetPage<ConversationSummaryDTO> inbox = inboxService.getInbox(alice.getUserId(), null, 10);
+        assertThat(inbox.getItems()).extracting(ConversationSummaryDTO::getPeerUsername).containsExactly("bob", "carol");
+        ConversationSummaryDTO withBob = inbox.getItems().get(0);
+        assertThat(withBob.getLastContent()).isEqualTo("great");
+        assertThat(withBob.getLastMessageId()).isEqualTo(later.getId());
+        assertThat(withBob.getUnreadCount()).isEqualTo(3);
+        assertThat(inbox.getItems().get(1).getUnreadCount()).isEqualTo(1);
+        assertThat(inboxService.getUnreadCount(alice.getUserId())).isEqualTo(4);
+
+        // bob's side shares the preview but counts only alice's reply as unread
+        ConversationSummaryDTO bobsSide = inboxService.getInbox(bob.getUserId(), null, 10).getItems().get(0);
+        assertThat(bobsSide.getPeerId()).isEqualTo(alice.getUserId());
+        assertThat(bobsSide.getLastSenderId()).isEqualTo(bob.getUserId());
+        assertThat(bobsSide.getUnreadCount()).isEqualTo(1);
+
+        KeysetPage<ConversationSummaryDTO> firstPage = inboxService.getInbox(alice.getUserId(), null, 1);
+        assertThat(firstPage.getNextAfter()).isEqualTo(later.getId());
+        KeysetPage<ConversationSummaryDTO> secondPage = inboxService.getInbox(alice.getUserId(), later.getId(), 1);
+        assertThat(secondPage.getItems()).extracting(ConversationSummaryDTO::getLastMessageId).containsExactly(fromCarol.getId());
+        assertThat(secondPage.getNextAfter()).isNull();
+
+        assertThat(inboxService.markRead(alice.getUserId(), bob.getUserId(), first.getId()).getUnreadCount()).isEqualTo(2);
+        // moving the marker backwards changes nothing
+        assertThat(inboxService.markRead(alice.getUserId(), bob.getUserId(), first.getId() - 1).getUnreadCount()).isEqualTo(2);
+        ConversationSummaryDTO read = inboxService.markRead(alice.getUserId(), bob.getUserId(), null);
+        assertThat(read.getUnreadCount()).isZero();
+        assertThat(read.getLastReadMessageId()).isEqualTo(later.getId());
+        assertThat(inboxService.getUnreadCount(alice.getUserId())).isEqualTo(1);
+
+        assertThatThrownBy(() -> inboxService.markRead(bob.getUserId(), carol.getUserId(), null))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void aMessageCommittingBehindTheReadMarkerDoesNotInflateTheBadge() {
+        User dana = userRepository.save(user("dana"));
+        User eli = userRepository.save(user("eli"));
+
+        // takes its id first, but its transaction only reaches the inbox after the read below
+        Message late = messageRepository.save(message(eli, dana, "sent first, committed last"));
+        messageService.save(message(eli, dana, "hello"));
+        assertThat(inboxService.markRead(dana.getUserId(), eli.getUserId(), null).getUnreadCount()).isZero();
+
+        transactionTemplate.executeWithoutResult(status -> inboxService.messageSaved(late));
+        assertThat(inboxService.getUnreadCount(dana.getUserId())).isZero();
+
+        Message next = messageService.save(message(eli, dana, "still there?"));
+        assertThat(inboxService.getUnreadCount(dana.getUserId())).isEqualTo(1);
+        ConversationSummaryDTO read = inboxService.markRead(dana.getUserId(), eli.getUserId(), null);
+        assertThat(read.getUnreadCount()).isZero();
+        assertThat(read.getLastReadMessageId()).isEqualTo(next.getId());
+    }
+
+    @Test
+    void aSkewedClientClockCannotHideAMessageFromTheSinceOverlap() {
+        User fay = userRepository.save(user("fay"));
+        User gus = userRepository.save(user("gus"));
+
+        Message skewed = message(gus, fay, "my clock is an hour behind");
+        skewed.setSentAt(LocalDateTime.now().minusHours(1));
+        Message first = messageService.save(skewed);
+        assertThat(first.getSentAt()).isAfter(LocalDateTime.now().minusMinutes(1));
+
+        // a client holding the later message still gets the earlier one back within the overlap
+        Message second = messageService.save(message(fay, gus, "hi"));
+        assertThat(messageService.getConversationSince(fay.getUserId(), gus.getUserId(), second.getId()))
+                .extracting(Message::getId).containsExactly(first.getId(), second.getId());
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        return user;
+    }
+
+    private static Message message(User sender, User receiver, String content) {
+        Message message = new Message();
+        message.setSender(sender);
+        message.setReceiver(receiver);
+        message.setContent(content);
+        return message;
+    }
+}
@@ -0,0 +1,140 @@
+package com.moove.service;
+
+import com.moove.entity.OutboxEvent;
+import com.moove.repository.OutboxEventRepository;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Failed deliveries are due again at once, and given up on after the third
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-relay;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "moove.outbox.retry-backoff=0s",
+        "moove.outbox.max-attempts=3"
+})
+class OutboxRelayTest {
+
+    private static final List<String> received = new CopyOnWriteArrayList<>();
+    private static volatile int status = 204;
+    private static final HttpServer receiver = startReceiver();
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @DynamicPropertySource
+    static void webhook(DynamicPropertyRegistry registry) {
+        registry.add("moove.outbox.webhook-url", () -> "http://localhost:" + receiver.getAddress().getPort() + "/events");
+    }
+
+    @AfterAll
+    static void stopReceiver() {
+        receiver.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        received.clear();
+        status = 204;
+    }
+
+    @Test
+    void relayedEventsReachTheWebhookOnceItAcceptsThem() {
+        OutboxEvent event = outboxEventRepository.save(event("{\"paymentId\":7}"));
+
+        status = 503;
+        assertThat(outboxRelay.drain()).isZero();
+        assertThat(outboxEventRepository.countPending()).isEqualTo(1);
+        assertThat(outboxEventRepository.findById(event.getId()).orElseThrow().getAttempts()).isEqualTo(1);
+
+        status = 204;
+        assertThat(outboxRelay.drain()).isEqualTo(1);
+        assertThat(received).containsExactly(event.getId() + " PaymentRecorded {\"paymentId\":7}",
+                event.getId() + " PaymentRecorded {\"paymentId\":7}");
+        assertThat(outboxEventRepository.countPending()).isZero();
+    }
+
+    @Test
+    void anEventThatKeepsFailingIsMarkedDeadWithoutHoldingUpTheOthers() {
+        OutboxEvent poison = outboxEventRepository.save(event("{\"paymentId\":8}"));
+
+        status = 500;
+        for (int run = 0; run < 3; run++) {
+            assertThat(outboxRelay.drain()).isZero();
+        }
+        OutboxEvent dead = outboxEventRepository.findById(poison.getId()).orElseThrow();
+        assertThat(dead.getDeadAt()).isNotNull();
+        assertThat(dead.getAttempts()).isEqualTo(3);
+        assertThat(dead.getLastError()).contains("500");
+        assertThat(outboxEventRepository.countPending()).isZero();
+
+        status = 204;
+        received.clear();
+        OutboxEvent next = outboxEventRepository.save(event("{\"paymentId\":9}"));
+        assertThat(outboxRelay.drain()).isEqualTo(1);
+        assertThat(received).containsExactly(next.getId() + " PaymentRecorded {\"paymentId\":9}");
+    }
+
+    @Test
+    void claimedEventsAreSkippedByOtherRelaysUntilTheirLeaseEnds() {
+        OutboxEvent event = outboxEventRepository.save(event("{}"));
+        event.setNextAttemptAt(LocalDateTime.now().plusMinutes(5));
+        outboxEventRepository.save(event);
+
+        assertThat(outboxRelay.drain()).isZero();
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void onlyPublishedEventsPastTheRetentionArePruned() {
+        OutboxEvent published = outboxEventRepository.save(event("{}"));
+        outboxRelay.drain();
+        OutboxEvent pending = outboxEventRepository.save(event("{}"));
+
+        assertThat(outboxRelay.pruneBefore(LocalDateTime.now().minusDays(1))).isZero();
+        assertThat(outboxRelay.pruneBefore(LocalDateTime.now().plusSeconds(1))).isEqualTo(1);
+
+        assertThat(outboxEventRepository.findById(published.getId())).isEmpty();
+        assertThat(outboxEventRepository.findById(pending.getId())).isPresent();
+    }
+
+    private static OutboxEvent event(String payload) {
+        return new OutboxEvent("Payment", "7", "PaymentRecorded", payload, LocalDateTime.now());
+    }
+
+    // Records "<Idempotency-Key> <X-Moove-Event-Type> <body>" for every POST, answering with the current status
+    private static HttpServer startReceiver() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/events", exchange -> {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                received.add(exchange.getRequestHeaders().getFirst("Idempotency-Key") + " "
+                        + exchange.getRequestHeaders().getFirst("X-Moove-Event-Type") + " " + body);
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.moove.service;
+
+import com.moove.entity.Booking;
+import com.moove.entity.OutboxEvent;
+import com.moove.entity.Payment;
+import com.moove.entity.User;
+import com.moove.event.DomainEventBus;
+import com.moove.repository.BookingRepository;
+import com.moove.repository.OutboxEventRepository;
+import com.moove.repository.PaymentRepository;
+import com.moove.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@RecordApplicationEvents
+class PaymentServiceTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void retriedPaymentIsRecordedOnceAndPaysTheBooking() throws InterruptedException {
+        User guest = userRepository.save(new User());
+        Booking booking = new Booking();
+        booking.setStatus("CONFIRMED");
+        booking = bookingRepository.save(booking);
+
+        PaymentService.Recorded first = paymentService.record("webhook-evt-1", payment(guest, booking));
+        PaymentService.Recorded retry = paymentService.record("webhook-evt-1", payment(guest, booking));
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.payment().getId()).isEqualTo(first.payment().getId());
+        assertThat(paymentsWithKey("webhook-evt-1")).isEqualTo(1);
+        // the booking moves to PAID off the payment's transaction
+        assertThat(domainEventBus.awaitIdle(Duration.ofSeconds(10))).isTrue();
+        assertThat(bookingRepository.findSummaryById(booking.getBookingId()).orElseThrow().getStatus()).isEqualTo("PAID");
+
+        String paymentId = String.valueOf(first.payment().getId());
+        String bookingId = "\"bookingId\":" + booking.getBookingId();
+        assertThat(outboxEventRepository.findAll()).filteredOn(e -> paymentId.equals(e.getAggregateId()))
+                .singleElement()
+                .satisfies(e -> {
+                    assertThat(e.getEventType()).isEqualTo(PaymentService.PAYMENT_RECORDED);
+                    assertThat(e.getPayload()).contains(bookingId);
+                    assertThat(e.getPublishedAt()).isNull();
+                });
+
+        outboxRelay.drain();
+
+        assertThat(events.stream(OutboxEvent.class).filter(e -> paymentId.equals(e.getAggregateId()))).hasSize(1);
+        assertThat(outboxEventRepository.countPending()).isZero();
+        assertThat(outboxRelay.drain()).isZero();
+    }
+
+    @Test
+    void concurrentFirstAttemptsOnOneKeyCreateOnePayment() throws Exception {
+        User guest = userRepository.save(new User());
+        int attempts = 16;
+
+        ExecutorService pool = Executors.newFixedThreadPool(attempts);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PaymentService.Recorded>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return paymentService.record("burst-key", payment(guest, null));
+            }));
+        }
+        start.countDown();
+        List<PaymentService.Recorded> results = new ArrayList<>();
+        for (Future<PaymentService.Recorded> future : futures) {
+            results.add(future.get());
+        }
+        pool.shutdown();
+
+        assertThat(paymentsWithKey("burst-key")).isEqualTo(1);
+        assertThat(results).filteredOn(r -> !r.replayed()).hasSize(1);
+        assertThat(results).extracting(r -> r.payment().getId()).containsOnly(results.get(0).payment().getId());
+    }
+
+    @Test
+    void aKeyReplayedWithADifferentPaymentIsRejected() {
+        User guest = userRepository.save(new User());
+        paymentService.record("reused-key", payment(guest, null));
+
+        Payment other = payment(guest, null);
+        other.setAmount(999.0);
+        assertThatThrownBy(() -> paymentService.record("reused-key", other))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(paymentsWithKey("reused-key")).isEqualTo(1);
+    }
+
+    private long paymentsWithKey(String idempotencyKey) {
+        return paymentRepository.findAll().stream().filter(p -> idempotencyKey.equals(p.getIdempotencyKey())).count();
+    }
+
+    private static Payment payment(User user, Booking booking) {
+        Payment payment = new Payment();
+        payment.setUser(user);
+        payment.setBooking(booking);
+        payment.setAmount(420.0);
+        payment.setPaymentMethod("STRIPE");
+        payment.setStatus("PAID");
+        return payment;
+    }
+}
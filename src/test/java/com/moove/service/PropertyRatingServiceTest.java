@@ -0,0 +1,119 @@
+package com.moove.service;
+
+import com.moove.DTO.PropertySummaryDTO;
+import com.moove.DTO.RatingSummaryDTO;
+import com.moove.entity.Property;
+import com.moove.entity.PropertyRating;
+import com.moove.entity.Review;
+import com.moove.entity.User;
+import com.moove.event.DomainEventBus;
+import com.moove.event.ReviewChanged;
+import com.moove.repository.PropertyRatingRepository;
+import com.moove.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PropertyRatingServiceTest {
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private PropertyRatingService propertyRatingService;
+
+    @Autowired
+    private PropertyRatingRepository propertyRatingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DomainEventBus domainEventBus;
+
+    @Test
+    void keepsAggregatesInStepWithReviewWrites() throws InterruptedException {
+        User owner = new User();
+        owner.setUsername("owner");
+        owner = userRepository.save(owner);
+        Property property = new Property();
+        property.setUser(owner);
+        property.setPropertyName("Lake view");
+        property = propertyService.addProperty(property);
+        long propertyId = property.getPropertyId();
+        LocalDateTime createdAt = propertyRatingRepository.findById(propertyId).orElseThrow().getRecountedAt();
+
+        Review five = reviewService.save(review(property, 5));
+        reviewService.save(review(property, 4));
+        Review two = reviewService.save(review(property, 2));
+        // recounted off the write path
+        assertThat(domainEventBus.awaitIdle(Duration.ofSeconds(10))).isTrue();
+
+        RatingSummaryDTO summary = reviewService.getSummaryByPropertyId(propertyId);
+        assertThat(summary.getReviewCount()).isEqualTo(3);
+        assertThat(summary.getAverageRating()).isEqualTo(11.0 / 3);
+        assertThat(summary.getStars()).containsEntry(5, 1).containsEntry(4, 1).containsEntry(2, 1);
+
+        reviewService.update(two.getReviewId(), review(property, 3));
+        reviewService.delete(five.getReviewId());
+        assertThat(domainEventBus.awaitIdle(Duration.ofSeconds(10))).isTrue();
+
+        summary = reviewService.getSummaryByPropertyId(propertyId);
+        assertThat(summary.getReviewCount()).isEqualTo(2);
+        assertThat(summary.getAverageRating()).isEqualTo(3.5);
+        assertThat(summary.getStars()).containsEntry(5, 0).containsEntry(3, 1).containsEntry(2, 0);
+
+        PropertySummaryDTO listed = propertyService.getPropertyPage(propertyId - 1, 1).getItems().get(0);
+        assertThat(listed.getReviewCount()).isEqualTo(2);
+        assertThat(listed.getAverageRating()).isEqualTo(3.5);
+        // applied as deltas, never recounted: three saves, an update that removes and adds, and a delete
+        PropertyRating afterWrites = propertyRatingRepository.findById(propertyId).orElseThrow();
+        assertThat(afterWrites.getRecountedAt()).isEqualTo(createdAt);
+        assertThat(afterWrites.getReviewVersion()).isEqualTo(6);
+        assertThat(afterWrites.getAppliedVersion()).isEqualTo(6);
+
+        // a lost aggregate row is rebuilt from the reviews table
+        propertyRatingRepository.deleteById(propertyId);
+        propertyRatingService.backfill();
+        assertThat(reviewService.getSummaryByPropertyId(propertyId).getReviewCount()).isEqualTo(2);
+
+        assertThat(propertyRatingService.repairStale()).isZero();
+
+        // a ReviewChanged that never arrives leaves the versions apart: later deltas still apply, and the repair
+        // recounts the aggregate
+        PropertyRating rating = propertyRatingRepository.findById(propertyId).orElseThrow();
+        long applied = rating.getAppliedVersion();
+        assertThat(applied).isEqualTo(rating.getReviewVersion());
+        rating.setReviewVersion(applied + 2);
+        propertyRatingRepository.save(rating);
+        propertyRatingService.consume(List.of(new ReviewChanged(propertyId, applied + 2, 0, 1)));
+        assertThat(reviewService.getSummaryByPropertyId(propertyId).getReviewCount()).isEqualTo(3);
+        assertThat(propertyRatingRepository.findById(propertyId).orElseThrow().getAppliedVersion()).isEqualTo(applied);
+
+        assertThat(propertyRatingService.repairStale()).isEqualTo(1);
+        assertThat(reviewService.getSummaryByPropertyId(propertyId).getReviewCount()).isEqualTo(2);
+        assertThat(propertyRatingService.repairStale()).isZero();
+
+        // the late event of a write the recount already counted is skipped
+        propertyRatingService.consume(List.of(new ReviewChanged(propertyId, applied + 1, 0, 5)));
+        assertThat(reviewService.getSummaryByPropertyId(propertyId).getReviewCount()).isEqualTo(2);
+    }
+
+    private static Review review(Property property, int rating) {
+        Review review = new Review();
+        review.setProperty(property);
+        review.setRating(rating);
+        review.setComment(rating + " stars");
+        return review;
+    }
+}
@@ -0,0 +1,66 @@
+package com.moove.service;
+
+import com.moove.DTO.TextSearchResultDTO;
+import com.moove.entity.Property;
+import com.moove.entity.Review;
+import com.moove.entity.User;
+import com.moove.index.PropertyTextIndex;
+import com.moove.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PropertyTextSearchServiceTest {
+
+    @Autowired
+    private PropertyTextSearchService propertyTextSearchService;
+
+    @Autowired
+    private PropertyTextIndex propertyTextIndex;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void followsListingAndReviewWrites() {
+        Property property = new Property();
+        property.setUser(userRepository.save(new User()));
+        property.setPropertyName("Lighthouse loft");
+        property.setPropertyDescription("Converted lighthouse keeper's loft");
+        property = propertyService.addProperty(property);
+
+        Review review = new Review();
+        review.setProperty(property);
+        review.setRating(5);
+        review.setComment("Unbeatable sunsets from the lantern room");
+        review = reviewService.save(review);
+        propertyTextIndex.refresh();
+
+        TextSearchResultDTO result = propertyTextSearchService.search("lighthouse sunset", 0, 10);
+        assertThat(result.getItems()).singleElement().satisfies(hit -> {
+            assertThat(hit.getProperty().getPropertyName()).isEqualTo("Lighthouse loft");
+            assertThat(hit.getHighlights().get(PropertyTextIndex.REVIEWS)).contains("<mark>sunsets</mark>");
+        });
+
+        reviewService.delete(review.getReviewId());
+        propertyTextIndex.refresh();
+        assertThat(propertyTextSearchService.search("sunset", 0, 10).getItems()).isEmpty();
+
+        // a rebuild from the tables gives the same answers
+        propertyTextSearchService.rebuild();
+        assertThat(propertyTextSearchService.search("lighth", 0, 10).getItems()).hasSize(1);
+
+        propertyService.deleteProperty(property.getPropertyId());
+        propertyTextIndex.refresh();
+        assertThat(propertyTextSearchService.search("lighthouse", 0, 10).getTotal()).isZero();
+    }
+}
@@ -0,0 +1,140 @@
+package com.moove.service;
+
+import com.moove.DTO.OwnerStatsDTO;
+import com.moove.DTO.RollupStatsDTO;
+import com.moove.entity.Booking;
+import com.moove.entity.Payment;
+import com.moove.entity.Property;
+import com.moove.entity.Review;
+import com.moove.entity.User;
+import com.moove.repository.PropertyRepository;
+import com.moove.repository.RollupDeltaRepository;
+import com.moove.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.UUID;
+
+@SpringBootTest
+class RollupServiceTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2026, 3, 1);
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private RollupCompactor rollupCompactor;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RollupDeltaRepository rollupDeltaRepository;
+
+    @Test
+    void ownerStatsFollowWritesBeforeAndAfterCompaction() {
+        User owner = userRepository.save(new User());
+        UUID ownerId = owner.getUserId();
+        Property cabin = newProperty(owner);
+        Property loft = newProperty(owner);
+
+        Booking first = bookingService.save(booking(cabin, MARCH, MARCH.plusDays(9), 3, 300.0));
+        Booking second = bookingService.save(booking(loft, MARCH.plusDays(1), MARCH.plusDays(11), 2, 200.0));
+        bookingService.confirm(first.getBookingId());
+        bookingService.confirm(second.getBookingId());
+        Payment payment = new Payment();
+        payment.setBooking(first);
+        payment.setAmount(300.0);
+        payment.setStatus("PAID");
+        payment.setPaidAt(MARCH.atTime(10, 0));
+        paymentService.record("rollup-" + ownerId, payment);
+
+        RollupStatsDTO totals = stats(ownerId).getTotals();
+        assertThat(totals.getBookings()).isEqualTo(2);
+        assertThat(totals.getBookedNights()).isEqualTo(5);
+        assertThat(totals.getBookedAmount()).isEqualTo(500.0);
+        assertThat(totals.getPayments()).isEqualTo(1);
+        assertThat(totals.getPaidAmount()).isEqualTo(300.0);
+        assertThat(totals.getOccupancyRate()).isEqualTo(5.0 / (2 * 31));
+
+        bookingService.cancel((long) second.getBookingId());
+        rollupCompactor.compact();
+        assertThat(rollupDeltaRepository.count()).isZero();
+
+        OwnerStatsDTO stats = stats(ownerId);
+        assertThat(stats.getPropertyCount()).isEqualTo(2);
+        assertThat(stats.getTotals().getBookings()).isEqualTo(1);
+        assertThat(stats.getTotals().getBookedNights()).isEqualTo(3);
+        assertThat(stats.getTotals().getPaidAmount()).isEqualTo(300.0);
+        // the cancelled booking's days net out to nothing and drop out of the series
+        assertThat(stats.getDaily()).containsOnlyKeys(MARCH, MARCH.plusDays(9), MARCH.plusDays(10), MARCH.plusDays(11));
+        assertThat(stats.getDaily().get(MARCH).getBookedAmount()).isEqualTo(300.0);
+        assertThat(stats.getProperties().get(cabin.getPropertyId()).getBookedNights()).isEqualTo(3);
+        assertThat(stats.getProperties().get(loft.getPropertyId()).getBookings()).isZero();
+
+        // compacted rows and fresh deltas add up
+        Review review = new Review();
+        review.setProperty(cabin);
+        review.setRating(4);
+        reviewService.save(review);
+        Review other = new Review();
+        other.setProperty(loft);
+        other.setRating(2);
+        reviewService.save(other);
+        LocalDate today = LocalDate.now();
+        assertThat(rollupService.getOwnerStats(ownerId, today, today).getTotals().getAverageRating()).isEqualTo(3.0);
+        rollupCompactor.compact();
+        reviewService.delete(other.getReviewId());
+        assertThat(rollupService.getOwnerStats(ownerId, today, today).getTotals().getReviews()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsInvertedAndOversizedRanges() {
+        assertThatThrownBy(() -> rollupService.getOwnerStats(UUID.randomUUID(), MARCH, MARCH.minusDays(1)))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> rollupService.getOwnerStats(UUID.randomUUID(), MARCH, MARCH.plusDays(RollupService.MAX_RANGE_DAYS)))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    private OwnerStatsDTO stats(UUID ownerId) {
+        return rollupService.getOwnerStats(ownerId, MARCH, MARCH.plusDays(30));
+    }
+
+    private Property newProperty(User owner) {
+        Property property = new Property();
+        property.setUser(owner);
+        property.setPropertyName("Rollup listing");
+        return propertyRepository.save(property);
+    }
+
+    private static Booking booking(Property property, LocalDate bookedOn, LocalDate checkIn, int nights, double amount) {
+        Booking booking = new Booking();
+        booking.setProperty(property);
+        booking.setBookingDate(Date.valueOf(bookedOn));
+        booking.setCheckInDate(Date.valueOf(checkIn));
+        booking.setCheckOutDate(Date.valueOf(checkIn.plusDays(nights)));
+        booking.setTotalAmount(amount);
+        return booking;
+    }
+}
@@ -0,0 +1,124 @@
+package com.moove.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageStoreTest {
+
+    @TempDir
+    Path root;
+
+    private ImageStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new ImageStore(root, "/moove", DataSize.ofMegabytes(1), 4, 1_000_000, Duration.ofHours(1));
+    }
+
+    static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            image.setRGB(x, x % height, 0xFF8800);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void chunkedAndSingleUploadsShareOneContentAddressedFile() throws IOException {
+        byte[] bytes = png(400, 200);
+        ImageStore.StoredImage direct = store.store(new ByteArrayInputStream(bytes));
+
+        String uploadId = store.startUpload();
+        int half = bytes.length / 2;
+        store.appendChunk(uploadId, 0, new ByteArrayInputStream(Arrays.copyOfRange(bytes, 0, half)));
+        // a resent chunk overwrites rather than duplicates
+        store.appendChunk(uploadId, 0, new ByteArrayInputStream(Arrays.copyOfRange(bytes, 0, half)));
+        long received = store.appendChunk(uploadId, half, new ByteArrayInputStream(Arrays.copyOfRange(bytes, half, bytes.length)));
+        ImageStore.StoredImage chunked = store.completeUpload(uploadId);
+
+        assertThat(received).isEqualTo(bytes.length);
+        assertThat(chunked.id()).isEqualTo(direct.id()).endsWith(".png");
+        assertThat(chunked.path()).isEqualTo(direct.path());
+        assertThat(store.urlFor(chunked.id())).isEqualTo("/moove/api/images/" + chunked.id());
+        assertThat(store.find(chunked.id())).isPresent();
+    }
+
+    @Test
+    void rejectsGapsAndNonImages() throws IOException {
+        String uploadId = store.startUpload();
+        assertThatThrownBy(() -> store.appendChunk(uploadId, 10, new ByteArrayInputStream(new byte[4])))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.store(new ByteArrayInputStream("not an image".getBytes())))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.find("../../etc/passwd")).isEmpty();
+    }
+
+    @Test
+    void capsUploadSizeChunkCountAndPixels() throws IOException {
+        String tooLarge = store.startUpload();
+        assertThatThrownBy(() -> store.appendChunk(tooLarge, 0, new ByteArrayInputStream(new byte[(1 << 20) + 1])))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("bytes");
+        // the rejected chunk is not kept
+        assertThat(store.appendChunk(tooLarge, 0, new ByteArrayInputStream(new byte[10]))).isEqualTo(10);
+
+        String tooManyChunks = store.startUpload();
+        for (int i = 0; i < 4; i++) {
+            store.appendChunk(tooManyChunks, i, new ByteArrayInputStream(new byte[1]));
+        }
+        assertThatThrownBy(() -> store.appendChunk(tooManyChunks, 4, new ByteArrayInputStream(new byte[1])))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("chunks");
+
+        assertThatThrownBy(() -> store.store(new ByteArrayInputStream(png(2000, 600))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("pixels");
+    }
+
+    @Test
+    void abandonedUploadsAreDeletedAfterTheirTtl() throws IOException {
+        String abandoned = store.startUpload();
+        String active = store.startUpload();
+        Path abandonedPart = root.resolve("uploads").resolve(abandoned + ".part");
+        Files.setLastModifiedTime(abandonedPart, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        store.deleteAbandonedUploads();
+
+        assertThat(abandonedPart).doesNotExist();
+        assertThatThrownBy(() -> store.appendChunk(abandoned, 0, new ByteArrayInputStream(new byte[1])))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.appendChunk(active, 0, new ByteArrayInputStream(new byte[1]))).isEqualTo(1);
+    }
+
+    @Test
+    void rendersThumbnailOnceAndKeepsAspectRatio() throws IOException {
+        ImageStore.StoredImage image = store.store(new ByteArrayInputStream(png(800, 400)));
+
+        ImageStore.StoredImage thumbnail = store.thumbnail(image, 160).orElseThrow();
+        BufferedImage rendered = ImageIO.read(thumbnail.path().toFile());
+        assertThat(rendered.getWidth()).isEqualTo(160);
+        assertThat(rendered.getHeight()).isEqualTo(80);
+
+        long modified = thumbnail.path().toFile().lastModified();
+        assertThat(store.thumbnail(image, 160).orElseThrow().path().toFile().lastModified()).isEqualTo(modified);
+    }
+}